@@ -1,11 +1,12 @@
 package com.tangem.blockchain.blockchains.alephium
 
+import com.tangem.blockchain.blockchains.alephium.source.Blake2b256Utils
+import com.tangem.blockchain.blockchains.cardano.crypto.Blake2bEngine
 import com.tangem.blockchain.common.address.AddressService
 import com.tangem.blockchain.extensions.decodeBase58
 import com.tangem.blockchain.extensions.encodeBase58
 import com.tangem.common.card.EllipticCurve
 import com.tangem.common.extensions.toCompressedPublicKey
-import org.spongycastle.jcajce.provider.digest.Blake2b
 
 /**
  * https://github.com/alephium/alephium-web3/blob/master/packages/web3/src/address/address.ts
@@ -14,7 +15,7 @@ internal class AlephiumAddressService : AddressService() {
 
     override fun makeAddress(walletPublicKey: ByteArray, curve: EllipticCurve?): String {
         val publicKey = walletPublicKey.toCompressedPublicKey()
-        val blake256WithPrefix = byteArrayOf(P2PKH_ADDRESS_PREFIX) + Blake2b.Blake2b256().digest(publicKey)
+        val blake256WithPrefix = byteArrayOf(P2PKH_ADDRESS_PREFIX) + Blake2bEngine.hash(publicKey, Blake2b256Utils.length)
         val address = blake256WithPrefix.encodeBase58(checked = false)
         return address
     }
@@ -43,6 +43,7 @@ object AlephiumResponse {
         @Json(name = "unsignedTx") val unsignedTx: String,
     )
 
+    @JsonClass(generateAdapter = true)
     data class SubmitTx(
         @Json(name = "txId")
         val txId: String,
@@ -1,6 +1,7 @@
 package com.tangem.blockchain.blockchains.alephium.source
 
 import com.tangem.blockchain.blockchains.alephium.source.serde.byteArraySerde
+import com.tangem.blockchain.blockchains.cardano.crypto.Blake2bEngine
 import kotlinx.io.bytestring.ByteString
 import org.bouncycastle.crypto.Digest
 import org.bouncycastle.crypto.digests.Blake2bDigest
@@ -29,10 +30,6 @@ internal object Blake2b256Utils {
     fun provider(): Digest = Blake2bDigest(length * 8)
 
     fun hash(input: ByteString): Blake2b256 {
-        val hashser = provider()
-        hashser.update(input.toByteArray(), 0, input.size)
-        val res = ByteArray(length)
-        hashser.doFinal(res, 0)
-        return Blake2b256(ByteString(res))
+        return Blake2b256(ByteString(Blake2bEngine.hash(input.toByteArray(), length)))
     }
 }
\ No newline at end of file
@@ -1,9 +1,6 @@
 package com.tangem.blockchain.blockchains.alephium.source
 
-import com.tangem.blockchain.blockchains.alephium.source.serde.Serde
-import com.tangem.blockchain.blockchains.alephium.source.serde.Staging
 import com.tangem.blockchain.blockchains.alephium.source.serde.intSerde
-import kotlinx.io.bytestring.ByteString
 
 @JvmInline
 internal value class GasBox constructor(val value: Int) : Comparable<GasBox> {
@@ -24,11 +21,7 @@ internal value class GasBox constructor(val value: Int) : Comparable<GasBox> {
     }
 
     companion object {
-        val serde = object : Serde<GasBox> {
-            override fun serialize(input: GasBox): ByteString = intSerde.serialize(input.value)
-            override fun _deserialize(input: ByteString): Result<Staging<GasBox>> =
-                intSerde._deserialize(input).map { Staging(GasBox(it.value), it.rest) }
-        }.validate { box ->
+        val serde = intSerde.xmap(::GasBox) { it.value }.validate { box ->
             if (box.value >= 0) {
                 Result.success(Unit)
             } else {
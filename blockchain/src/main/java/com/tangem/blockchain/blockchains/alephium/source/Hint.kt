@@ -1,6 +1,11 @@
 package com.tangem.blockchain.blockchains.alephium.source
 
+import com.tangem.blockchain.blockchains.alephium.source.serde.FixedSizeSerde
 import com.tangem.blockchain.blockchains.alephium.source.serde.Serde
+import com.tangem.blockchain.blockchains.alephium.source.serde.appendBigEndian
+import com.tangem.blockchain.blockchains.alephium.source.serde.readIntOrThrow
+import kotlinx.io.bytestring.ByteStringBuilder
+import java.nio.ByteBuffer
 
 @JvmInline
 internal value class Hint constructor(val value: Int) {
@@ -10,9 +15,15 @@ internal value class Hint constructor(val value: Int) {
     companion object {
 
         // We don't use Serde[Int] here as the value of Hint is random, no need of serde optimization
-        val serde: Serde<Hint> = Serde
-            .bytesSerde(4)
-            .xmap({ bs -> Hint(Bytes.toIntUnsafe(bs)) }, { hint -> Bytes.from(hint.value) })
+        val serde: Serde<Hint> = object : FixedSizeSerde<Hint> {
+            override val serdeSize: Int = Int.SIZE_BYTES
+
+            override fun serialize(input: Hint, output: ByteStringBuilder) {
+                output.appendBigEndian(input.value.toLong(), serdeSize)
+            }
+
+            override fun read(input: ByteBuffer): Hint = Hint(input.readIntOrThrow())
+        }
 
         fun from(assetOutput: AssetOutput): Hint = ofAsset(assetOutput.lockupScript.scriptHint)
 
@@ -2,11 +2,10 @@ package com.tangem.blockchain.blockchains.alephium.source
 
 import com.tangem.blockchain.blockchains.alephium.source.serde.Serde
 import com.tangem.blockchain.blockchains.alephium.source.serde.SerdeError
-import com.tangem.blockchain.blockchains.alephium.source.serde.Staging
-import com.tangem.blockchain.blockchains.alephium.source.serde.byteSerde
+import com.tangem.blockchain.blockchains.alephium.source.serde.readByteOrThrow
 import kotlinx.io.bytestring.ByteString
-import kotlinx.io.bytestring.append
-import kotlinx.io.bytestring.buildByteString
+import kotlinx.io.bytestring.ByteStringBuilder
+import java.nio.ByteBuffer
 
 internal sealed interface LockupScript {
     sealed interface Asset : LockupScript {
@@ -24,19 +23,22 @@ internal sealed interface LockupScript {
     }
 
     companion object {
+        private const val P2PKH_PREFIX: Byte = 0
+
         val serde = object : Serde<LockupScript.Asset> {
-            override fun serialize(input: LockupScript.Asset): ByteString = when (input) {
-                is P2PKH -> buildByteString {
-                    append(ByteString(0))
-                    append(P2PKH.serde.serialize(input.pkHash))
+            override fun serialize(input: LockupScript.Asset, output: ByteStringBuilder) {
+                when (input) {
+                    is P2PKH -> {
+                        output.append(P2PKH_PREFIX)
+                        P2PKH.serde.serialize(input.pkHash, output)
+                    }
                 }
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<LockupScript.Asset>> {
-                val deserialize = byteSerde._deserialize(input).getOrElse { return Result.failure(it) }
-                return when (deserialize.value) {
-                    0.toByte() -> P2PKH.serde._deserialize(input).map { it.mapValue { value -> P2PKH(value) } }
-                    else -> Result.failure(SerdeError.wrongFormat("Invalid lockupScript prefix ${deserialize.value}"))
+            override fun read(input: ByteBuffer): LockupScript.Asset {
+                return when (val prefix = input.readByteOrThrow()) {
+                    P2PKH_PREFIX -> P2PKH(P2PKH.serde.read(input))
+                    else -> throw SerdeError.wrongFormat("Invalid lockupScript prefix $prefix")
                 }
             }
         }
@@ -2,8 +2,8 @@ package com.tangem.blockchain.blockchains.alephium.source
 
 import com.tangem.blockchain.blockchains.alephium.source.serde.*
 import kotlinx.io.bytestring.ByteString
-import kotlinx.io.bytestring.append
-import kotlinx.io.bytestring.buildByteString
+import kotlinx.io.bytestring.ByteStringBuilder
+import java.nio.ByteBuffer
 
 internal sealed interface TxOutput {
     val amount: U256
@@ -90,33 +90,26 @@ internal data class AssetOutput(
 
     companion object {
         private val tokenSerde = tuple2(TokenId.serde, u256Serde)
+        private val tokensSerializer = listSerializer(tokenSerde)
+        private val tokensDeserializer = listDeserializer(tokenSerde)
+
         val serde = object : Serde<AssetOutput> {
-            override fun serialize(input: AssetOutput): ByteString = buildByteString {
-                append(u256Serde.serialize(input.amount))
-                append(LockupScript.serde.serialize(input.lockupScript))
-                append(TimeStamp.serde.serialize(input.lockTime))
-                append(
-                    listSerializer(Serializer<Pair<TokenId, U256>> { item -> tokenSerde.serialize(item) })
-                        .serialize(input.tokens),
-                )
-                append(byteArraySerde.serialize(input.additionalData))
+            override fun serialize(input: AssetOutput, output: ByteStringBuilder) {
+                u256Serde.serialize(input.amount, output)
+                LockupScript.serde.serialize(input.lockupScript, output)
+                TimeStamp.serde.serialize(input.lockTime, output)
+                tokensSerializer.serialize(input.tokens, output)
+                byteArraySerde.serialize(input.additionalData, output)
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<AssetOutput>> {
-                val pair0 = u256Serde._deserialize(input).getOrElse { return Result.failure(it) }
-                val pair1 = LockupScript.serde._deserialize(pair0.rest).getOrElse { return Result.failure(it) }
-                val pair2 = TimeStamp.serde._deserialize(pair1.rest).getOrElse { return Result.failure(it) }
-                val pair3 = listDeserializer { item -> tokenSerde._deserialize(item) }
-                    ._deserialize(pair2.rest).getOrElse { return Result.failure(it) }
-                val pair4 = byteArraySerde._deserialize(pair3.rest).getOrElse { return Result.failure(it) }
-                val value = AssetOutput(
-                    amount = pair0.value,
-                    lockupScript = pair1.value,
-                    lockTime = pair2.value,
-                    tokens = pair3.value,
-                    additionalData = pair4.value,
+            override fun read(input: ByteBuffer): AssetOutput {
+                return AssetOutput(
+                    amount = u256Serde.read(input),
+                    lockupScript = LockupScript.serde.read(input),
+                    lockTime = TimeStamp.serde.read(input),
+                    tokens = tokensDeserializer.read(input),
+                    additionalData = byteArraySerde.read(input),
                 )
-                return Result.success(Staging(value, pair4.rest))
             }
         }
     }
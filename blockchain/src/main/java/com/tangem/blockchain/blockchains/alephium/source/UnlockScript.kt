@@ -2,8 +2,8 @@ package com.tangem.blockchain.blockchains.alephium.source
 
 import com.tangem.blockchain.blockchains.alephium.source.serde.*
 import kotlinx.io.bytestring.ByteString
-import kotlinx.io.bytestring.append
-import kotlinx.io.bytestring.buildByteString
+import kotlinx.io.bytestring.ByteStringBuilder
+import java.nio.ByteBuffer
 
 internal sealed interface UnlockScript {
 
@@ -21,21 +21,25 @@ internal sealed interface UnlockScript {
     data object SameAsPrevious : UnlockScript
 
     companion object {
+        private const val P2PKH_PREFIX: Byte = 0
+        private const val SAME_AS_PREVIOUS_PREFIX: Byte = 3
+
         val serde = object : Serde<UnlockScript> {
-            override fun serialize(input: UnlockScript): ByteString = when (input) {
-                is P2PKH -> buildByteString {
-                    append(ByteString(0))
-                    append(P2PKH.serde.serialize(input))
+            override fun serialize(input: UnlockScript, output: ByteStringBuilder) {
+                when (input) {
+                    is P2PKH -> {
+                        output.append(P2PKH_PREFIX)
+                        P2PKH.serde.serialize(input, output)
+                    }
+                    SameAsPrevious -> output.append(SAME_AS_PREVIOUS_PREFIX)
                 }
-                SameAsPrevious -> buildByteString { append(ByteString(3)) }
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<UnlockScript>> {
-                val deserialize = byteSerde._deserialize(input).getOrElse { return Result.failure(it) }
-                return when (deserialize.value) {
-                    0.toByte() -> UnlockScript.P2PKH.serde._deserialize(input)
-                    3.toByte() -> Result.success(Staging(SameAsPrevious, input))
-                    else -> Result.failure(SerdeError.wrongFormat("Invalid unlock script prefix ${deserialize.value}"))
+            override fun read(input: ByteBuffer): UnlockScript {
+                return when (val prefix = input.readByteOrThrow()) {
+                    P2PKH_PREFIX -> P2PKH.serde.read(input)
+                    SAME_AS_PREVIOUS_PREFIX -> SameAsPrevious
+                    else -> throw SerdeError.wrongFormat("Invalid unlock script prefix $prefix")
                 }
             }
         }
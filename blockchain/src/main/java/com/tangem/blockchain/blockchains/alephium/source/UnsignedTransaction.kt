@@ -4,8 +4,8 @@ import com.tangem.blockchain.blockchains.alephium.source.serde.*
 import com.tangem.blockchain.blockchains.alephium.source.serde.Serde.Companion.Flags
 import com.tangem.blockchain.common.BlockchainSdkError
 import kotlinx.io.bytestring.ByteString
-import kotlinx.io.bytestring.append
-import kotlinx.io.bytestring.buildByteString
+import kotlinx.io.bytestring.ByteStringBuilder
+import java.nio.ByteBuffer
 
 /** Up to one new token might be issued in each transaction exception for the coinbase transaction
  * The id of the new token will be hash of the first input
@@ -39,46 +39,38 @@ internal data class UnsignedTransaction(
     @Suppress("LargeClass")
     companion object {
 
+        private val inputsSerializer = listSerializer(TxInput.serde)
+        private val inputsDeserializer = listDeserializer(TxInput.serde)
+        private val outputsSerializer = listSerializer(AssetOutput.serde)
+        private val outputsDeserializer = listDeserializer(AssetOutput.serde)
+
         val serde = object : Serde<UnsignedTransaction> {
-            override fun serialize(input: UnsignedTransaction): ByteString = buildByteString {
-                append(byteSerde.serialize(input.version))
-                append(NetworkId.serde.serialize(input.networkId))
+            override fun serialize(input: UnsignedTransaction, output: ByteStringBuilder) {
+                byteSerde.serialize(input.version, output)
+                NetworkId.serde.serialize(input.networkId, output)
                 // null for scriptOpt: Option[StatefulScript]
-                append(byteSerde.serialize(Flags.noneB))
-                append(GasBox.serde.serialize(input.gasAmount))
-                append(u256Serde.serialize(input.gasPrice.value))
-                append(
-                    listSerializer(Serializer<TxInput> { item -> TxInput.serde.serialize(item) })
-                        .serialize(input.inputs),
-                )
-                append(
-                    listSerializer(Serializer<AssetOutput> { item -> AssetOutput.serde.serialize(item) })
-                        .serialize(input.fixedOutputs),
-                )
+                byteSerde.serialize(Flags.noneB, output)
+                GasBox.serde.serialize(input.gasAmount, output)
+                u256Serde.serialize(input.gasPrice.value, output)
+                inputsSerializer.serialize(input.inputs, output)
+                outputsSerializer.serialize(input.fixedOutputs, output)
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<UnsignedTransaction>> {
-                val pair0 = byteSerde._deserialize(input).getOrElse { return Result.failure(it) }
-                val pair1 = NetworkId.serde._deserialize(pair0.rest).getOrElse { return Result.failure(it) }
+            override fun read(input: ByteBuffer): UnsignedTransaction {
+                val version = byteSerde.read(input)
+                val networkId = NetworkId.serde.read(input)
                 // for scriptOpt: Option[StatefulScript] expect Flags.noneB as null
-                val pair2 = byteSerde._deserialize(pair1.rest).getOrElse { return Result.failure(it) }
-                val pair3 = GasBox.serde._deserialize(pair2.rest).getOrElse { return Result.failure(it) }
-                val pair4 = u256Serde._deserialize(pair3.rest).getOrElse { return Result.failure(it) }
-
-                val pair5 = listDeserializer { item -> TxInput.serde._deserialize(item) }
-                    ._deserialize(pair4.rest).getOrElse { return Result.failure(it) }
-                val pair6 = listDeserializer { item -> AssetOutput.serde._deserialize(item) }
-                    ._deserialize(pair5.rest).getOrElse { return Result.failure(it) }
-
-                val value = UnsignedTransaction(
-                    version = pair0.value,
-                    networkId = pair1.value,
-                    gasAmount = pair3.value,
-                    gasPrice = GasPrice(pair4.value),
-                    inputs = pair5.value,
-                    fixedOutputs = pair6.value,
+                val scriptOpt = byteSerde.read(input)
+                if (scriptOpt != Flags.noneB) throw SerdeError.wrongFormat("Scripts are not supported")
+
+                return UnsignedTransaction(
+                    version = version,
+                    networkId = networkId,
+                    gasAmount = GasBox.serde.read(input),
+                    gasPrice = GasPrice(u256Serde.read(input)),
+                    inputs = inputsDeserializer.read(input),
+                    fixedOutputs = outputsDeserializer.read(input),
                 )
-                return Result.success(Staging(value, pair6.rest))
             }
         }
 
@@ -1,10 +1,10 @@
 package com.tangem.blockchain.blockchains.alephium.source.serde
 
-import com.tangem.blockchain.blockchains.alephium.source.Bytes
 import com.tangem.blockchain.blockchains.alephium.source.U256
 import com.tangem.blockchain.blockchains.alephium.source.U32
-import kotlinx.io.bytestring.ByteString
-import kotlinx.io.bytestring.isEmpty
+import kotlinx.io.bytestring.ByteStringBuilder
+import java.math.BigInteger
+import java.nio.ByteBuffer
 
 @Suppress("MagicNumber", "UnnecessaryParentheses")
 internal object CompactInteger {
@@ -21,109 +21,60 @@ internal object CompactInteger {
         private val twoByteBound = oneByteBound shl 8
         private val fourByteBound = oneByteBound shl (8 * 3)
 
-        fun encode(n: U32): ByteString {
-            val array = when {
+        fun encode(n: U32, output: ByteStringBuilder) {
+            when {
                 n < U32.unsafe(oneByteBound) -> {
-                    byteArrayOf((n.v + SingleByte.prefix).toByte())
+                    output.append((n.v + SingleByte.prefix).toByte())
                 }
                 n < U32.unsafe(twoByteBound) -> {
-                    byteArrayOf(
-                        ((n.v shr 8) + TwoByte.prefix).toByte(),
-                        n.v.toByte(),
-                    )
+                    output.append(((n.v shr 8) + TwoByte.prefix).toByte())
+                    output.append(n.v.toByte())
                 }
                 n < U32.unsafe(fourByteBound) -> {
-                    byteArrayOf(
-                        ((n.v shr 24) + FourByte.prefix).toByte(),
-                        (n.v shr 16).toByte(),
-                        (n.v shr 8).toByte(),
-                        n.v.toByte(),
-                    )
+                    output.append(((n.v shr 24) + FourByte.prefix).toByte())
+                    output.appendBigEndian(n.v.toLong(), byteCount = 3)
                 }
                 else -> {
-                    byteArrayOf(
-                        MultiByte.prefix.toByte(),
-                        (n.v shr 24).toByte(),
-                        (n.v shr 16).toByte(),
-                        (n.v shr 8).toByte(),
-                        n.v.toByte(),
-                    )
+                    output.append(MultiByte.prefix.toByte())
+                    output.appendBigEndian(n.v.toLong(), byteCount = 4)
                 }
             }
-            return ByteString(array)
         }
 
-        fun encode(n: U256): ByteString {
-            return if (n < U256.unsafe(fourByteBound)) {
-                encode(U32.unsafe(n.v.toInt()))
+        fun encode(n: U256, output: ByteStringBuilder) {
+            if (n < U256.unsafe(fourByteBound)) {
+                encode(U32.unsafe(n.v.toInt()), output)
             } else {
-                val data = n.v.toByteArray().let {
-                    if (it[0] == 0x00.toByte()) it.copyOfRange(1, it.size) else it
-                }
-                val header = ((data.size - 4) + MultiByte.prefix).toByte()
-                ByteString(byteArrayOf(header) + data)
+                val data = n.v.toByteArray()
+                val start = if (data[0] == 0x00.toByte()) 1 else 0
+                output.append(((data.size - start - 4) + MultiByte.prefix).toByte())
+                output.append(data, start, data.size)
             }
         }
 
-        fun decodeU32(bs: ByteString): Result<Staging<U32>> {
-            val (mode, body, rest) = ModeUtils.decode(bs).getOrElse { return Result.failure(it) }
-            return decodeU32(mode, body, rest)
-        }
-
-        private fun decodeU32(mode: Mode, body: ByteString, rest: ByteString): Result<Staging<U32>> {
-            return when (mode) {
-                is FixedWidth -> {
-                    decodeInt(mode, body, rest).map { it.mapValue { U32.unsafe(it) } }
-                }
+        fun decodeU32(input: ByteBuffer): U32 {
+            val header = ModeUtils.readHeader(input)
+            return when (val mode = ModeUtils.mode(header)) {
+                is FixedWidth -> U32.unsafe(ModeUtils.readFixedWidth(mode, header, input, isNegative = false))
                 MultiByte -> {
-                    require(body.size >= 5)
-                    if (body.size == 5) {
-                        val value = Bytes.toIntUnsafe(body.substring(1, body.size))
-                        Result.success(Staging(U32.unsafe(value), rest))
-                    } else {
-                        Result.failure(
-                            SerdeError.wrongFormat("Expect 4 bytes int, but got ${body.size - 1} bytes int"),
-                        )
-                    }
-                }
-            }
-        }
-
-        private fun decodeInt(mode: FixedWidth, body: ByteString, rest: ByteString): Result<Staging<Int>> {
-            return when (mode) {
-                SingleByte -> {
-                    Result.success(Staging(body[0].toInt(), rest))
-                }
-                TwoByte -> {
-                    require(body.size == 2)
-                    val value = ((body[0].toInt() and ModeUtils.maskMode) shl 8) or (body[1].toInt() and 0xff)
-                    Result.success(Staging(value, rest))
-                }
-                FourByte -> {
-                    require(body.size == 4)
-                    val value = ((body[0].toInt() and ModeUtils.maskMode) shl 24) or
-                        ((body[1].toInt() and 0xff) shl 16) or
-                        ((body[2].toInt() and 0xff) shl 8) or
-                        (body[3].toInt() and 0xff)
-                    Result.success(Staging(value, rest))
+                    val length = ModeUtils.length(header) - 1
+                    if (length != 4) throw SerdeError.wrongFormat("Expect 4 bytes int, but got $length bytes int")
+                    U32.unsafe(input.getInt())
                 }
             }
         }
 
-        fun decodeU256(bs: ByteString): Result<Staging<U256>> {
-            val (mode, body, rest) = ModeUtils.decode(bs).getOrElse { return Result.failure(it) }
-            return decodeU256(mode, body, rest)
-        }
-
-        private fun decodeU256(mode: Mode, body: ByteString, rest: ByteString): Result<Staging<U256>> {
-            return when (mode) {
+        fun decodeU256(input: ByteBuffer): U256 {
+            val header = ModeUtils.readHeader(input)
+            return when (val mode = ModeUtils.mode(header)) {
                 is FixedWidth -> {
-                    decodeInt(mode, body, rest).map { it.mapValue { n -> U256.unsafe(n.toUInt().toLong()) } }
+                    val n = ModeUtils.readFixedWidth(mode, header, input, isNegative = false)
+                    U256.unsafe(n.toUInt().toLong())
                 }
                 MultiByte -> {
-                    U256.from(body.substring(1, body.size))?.let {
-                        Result.success(Staging(it, rest))
-                    } ?: Result.failure(RuntimeException("Expect U256, but got $body"))
+                    val length = ModeUtils.length(header) - 1
+                    U256.from(BigInteger(1, input.readBytes(length)))
+                        ?: throw SerdeError.wrongFormat("Expect U256, but got $length bytes")
                 }
             }
         }
@@ -135,166 +86,86 @@ internal object CompactInteger {
         private const val twoByteBound: Int = oneByteBound shl 8
         private const val fourByteBound: Int = oneByteBound shl (8 * 3)
 
-        fun encode(n: Int): ByteString {
-            return if (n >= 0) {
-                encodePositiveInt(n)
-            } else {
-                encodeNegativeInt(n)
-            }
-        }
-
-        private fun encodePositiveInt(n: Int): ByteString {
-            val array = when {
-                n < oneByteBound -> byteArrayOf((n + SingleByte.prefix).toByte())
-                n < twoByteBound -> byteArrayOf(((n shr 8) + TwoByte.prefix).toByte(), n.toByte())
-                n < fourByteBound -> byteArrayOf(
-                    ((n shr 24) + FourByte.prefix).toByte(),
-                    (n shr 16).toByte(),
-                    (n shr 8).toByte(),
-                    n.toByte(),
-                )
-                else -> byteArrayOf(
-                    MultiByte.prefix.toByte(),
-                    (n shr 24).toByte(),
-                    (n shr 16).toByte(),
-                    (n shr 8).toByte(),
-                    n.toByte(),
-                )
-            }
-            return ByteString(array)
-        }
-
-        private fun encodeNegativeInt(n: Int): ByteString {
-            val array = when {
-                n >= -oneByteBound -> byteArrayOf((n xor SingleByte.negPrefix).toByte())
-                n >= -twoByteBound -> byteArrayOf(((n shr 8) xor TwoByte.negPrefix).toByte(), n.toByte())
-                n >= -fourByteBound -> byteArrayOf(
-                    ((n shr 24) xor FourByte.negPrefix).toByte(),
-                    (n shr 16).toByte(),
-                    (n shr 8).toByte(),
-                    n.toByte(),
-                )
-                else -> byteArrayOf(
-                    MultiByte.prefix.toByte(),
-                    (n shr 24).toByte(),
-                    (n shr 16).toByte(),
-                    (n shr 8).toByte(),
-                    n.toByte(),
-                )
-            }
-            return ByteString(array)
-        }
-
-        fun encode(n: Long): ByteString {
-            return if (n >= -0x20000000L && n < 0x20000000L) {
-                encode(n.toInt())
+        fun encode(n: Int, output: ByteStringBuilder) {
+            if (n >= 0) {
+                encodePositiveInt(n, output)
             } else {
-                ByteString(
-                    byteArrayOf(
-                        (4 or MultiByte.prefix).toByte(),
-                        (n shr 56).toByte(),
-                        (n shr 48).toByte(),
-                        (n shr 40).toByte(),
-                        (n shr 32).toByte(),
-                        (n shr 24).toByte(),
-                        (n shr 16).toByte(),
-                        (n shr 8).toByte(),
-                        n.toByte(),
-                    ),
-                )
+                encodeNegativeInt(n, output)
             }
         }
 
-        fun decodeInt(bs: ByteString): Result<Staging<Int>> {
-            val tuple = ModeUtils.decode(bs).getOrElse { return Result.failure(SerdeError.Other("Failed to decode")) }
-            return tuple.let { (mode, body, rest) ->
-                decodeInt(mode, body, rest)
+        private fun encodePositiveInt(n: Int, output: ByteStringBuilder) {
+            when {
+                n < oneByteBound -> output.append((n + SingleByte.prefix).toByte())
+                n < twoByteBound -> {
+                    output.append(((n shr 8) + TwoByte.prefix).toByte())
+                    output.append(n.toByte())
+                }
+                n < fourByteBound -> {
+                    output.append(((n shr 24) + FourByte.prefix).toByte())
+                    output.appendBigEndian(n.toLong(), byteCount = 3)
+                }
+                else -> {
+                    output.append(MultiByte.prefix.toByte())
+                    output.appendBigEndian(n.toLong(), byteCount = 4)
+                }
             }
         }
 
-        private fun decodeInt(mode: Mode, body: ByteString, rest: ByteString): Result<Staging<Int>> {
-            return when (mode) {
-                is FixedWidth -> decodeFixedWidthInt(mode, body, rest)
-                is MultiByte -> {
-                    require(body.size >= 5)
-                    if (body.size == 5) {
-                        val value = Bytes.toIntUnsafe(body.substring(1, body.size))
-                        Result.success(Staging(value, rest))
-                    } else {
-                        Result.failure(SerdeError.Other("Expect 4 bytes int, but got ${body.size - 1} bytes int"))
-                    }
+        private fun encodeNegativeInt(n: Int, output: ByteStringBuilder) {
+            when {
+                n >= -oneByteBound -> output.append((n xor SingleByte.negPrefix).toByte())
+                n >= -twoByteBound -> {
+                    output.append(((n shr 8) xor TwoByte.negPrefix).toByte())
+                    output.append(n.toByte())
+                }
+                n >= -fourByteBound -> {
+                    output.append(((n shr 24) xor FourByte.negPrefix).toByte())
+                    output.appendBigEndian(n.toLong(), byteCount = 3)
+                }
+                else -> {
+                    output.append(MultiByte.prefix.toByte())
+                    output.appendBigEndian(n.toLong(), byteCount = 4)
                 }
             }
         }
 
-        private fun decodeFixedWidthInt(mode: FixedWidth, body: ByteString, rest: ByteString): Result<Staging<Int>> {
-            val isPositive = (body[0].toInt() and signFlag) == 0
-            return if (isPositive) {
-                decodePositiveInt(mode, body, rest)
+        fun encode(n: Long, output: ByteStringBuilder) {
+            if (n >= -0x20000000L && n < 0x20000000L) {
+                encode(n.toInt(), output)
             } else {
-                decodeNegativeInt(mode, body, rest)
+                output.append((4 or MultiByte.prefix).toByte())
+                output.appendBigEndian(n, byteCount = 8)
             }
         }
 
-        private fun decodePositiveInt(mode: FixedWidth, body: ByteString, rest: ByteString): Result<Staging<Int>> {
-            return when (mode) {
-                is SingleByte -> Result.success(Staging(body[0].toInt(), rest))
-                is TwoByte -> {
-                    require(body.size == 2)
-                    val value = ((body[0].toInt() and ModeUtils.maskMode) shl 8) or (body[1].toInt() and 0xff)
-                    Result.success(Staging(value, rest))
-                }
-                is FourByte -> {
-                    require(body.size == 4)
-                    val value = ((body[0].toInt() and ModeUtils.maskMode) shl 24) or
-                        ((body[1].toInt() and 0xff) shl 16) or
-                        ((body[2].toInt() and 0xff) shl 8) or
-                        (body[3].toInt() and 0xff)
-                    Result.success(Staging(value, rest))
+        fun decodeInt(input: ByteBuffer): Int {
+            val header = ModeUtils.readHeader(input)
+            return when (val mode = ModeUtils.mode(header)) {
+                is FixedWidth -> decodeFixedWidthInt(mode, header, input)
+                MultiByte -> {
+                    val length = ModeUtils.length(header) - 1
+                    if (length != 4) throw SerdeError.other("Expect 4 bytes int, but got $length bytes int")
+                    input.getInt()
                 }
             }
         }
 
-        private fun decodeNegativeInt(mode: FixedWidth, body: ByteString, rest: ByteString): Result<Staging<Int>> {
-            return when (mode) {
-                is SingleByte -> Result.success(Staging(body[0].toInt() or ModeUtils.maskModeNeg, rest))
-                is TwoByte -> {
-                    require(body.size == 2)
-                    val value = ((body[0].toInt() or ModeUtils.maskModeNeg) shl 8) or (body[1].toInt() and 0xff)
-                    Result.success(Staging(value, rest))
-                }
-                is FourByte -> {
-                    require(body.size == 4)
-                    val value = ((body[0].toInt() or ModeUtils.maskModeNeg) shl 24) or
-                        ((body[1].toInt() and 0xff) shl 16) or
-                        ((body[2].toInt() and 0xff) shl 8) or
-                        (body[3].toInt() and 0xff)
-                    Result.success(Staging(value, rest))
+        fun decodeLong(input: ByteBuffer): Long {
+            val header = ModeUtils.readHeader(input)
+            return when (val mode = ModeUtils.mode(header)) {
+                is FixedWidth -> decodeFixedWidthInt(mode, header, input).toLong()
+                MultiByte -> {
+                    val length = ModeUtils.length(header) - 1
+                    if (length != 8) throw SerdeError.other("Expect 8 bytes long, but got $length bytes long")
+                    input.getLong()
                 }
             }
         }
 
-        fun decodeLong(bs: ByteString): Result<Staging<Long>> {
-            val tuple = ModeUtils.decode(bs)
-                .getOrElse { return Result.failure(SerdeError.Other("Failed to decode")) }
-            return tuple.let { (mode, body, rest) ->
-                decodeLong(mode, body, rest)
-            }
-        }
-
-        private fun decodeLong(mode: Mode, body: ByteString, rest: ByteString): Result<Staging<Long>> {
-            return when (mode) {
-                is FixedWidth -> decodeFixedWidthInt(mode, body, rest).map { it.mapValue(Int::toLong) }
-                is MultiByte -> {
-                    require(body.size >= 5)
-                    if (body.size == 9) {
-                        val value = Bytes.toLongUnsafe(body.substring(1, body.size))
-                        Result.success(Staging(value, rest))
-                    } else {
-                        Result.failure(SerdeError.Other("Expect 9 bytes long, but got ${body.size - 1} bytes long"))
-                    }
-                }
-            }
+        private fun decodeFixedWidthInt(mode: FixedWidth, header: Int, input: ByteBuffer): Int {
+            val isNegative = (header and signFlag) != 0
+            return ModeUtils.readFixedWidth(mode, header, input, isNegative)
         }
     }
 
@@ -308,40 +179,45 @@ internal object CompactInteger {
         const val maskRest: Int = 0xc0
         const val maskModeNeg: Int = (0xffffffc0).toInt()
 
-        fun decode(bs: ByteString): Result<Triple<Mode, ByteString, ByteString>> {
-            if (bs.isEmpty()) {
-                return Result.failure(SerdeError.incompleteData(1, 0))
+        fun mode(header: Int): Mode {
+            return when (header and maskRest) {
+                SingleByte.prefix -> SingleByte
+                TwoByte.prefix -> TwoByte
+                FourByte.prefix -> FourByte
+                else -> MultiByte
             }
+        }
 
-            return when (bs[0].toInt() and maskRest) {
-                SingleByte.prefix -> Result.success(
-                    Triple(
-                        SingleByte,
-                        bs.substring(0, 1), // take(1)
-                        bs.substring(1, bs.size), // drop(1)
-                    ),
-                )
-                TwoByte.prefix -> checkSize(bs, 2, TwoByte)
-                FourByte.prefix -> checkSize(bs, 4, FourByte)
-                else -> checkSize(bs, (bs[0].toInt() and maskMode) + 4 + 1, MultiByte)
+        /** Length of an integer encoded with [header], including the header byte */
+        fun length(header: Int): Int {
+            return when (mode(header)) {
+                SingleByte -> 1
+                TwoByte -> 2
+                FourByte -> 4
+                MultiByte -> (header and maskMode) + 4 + 1
             }
         }
 
-        private fun checkSize(
-            bs: ByteString,
-            expected: Int,
-            mode: Mode,
-        ): Result<Triple<Mode, ByteString, ByteString>> {
-            return if (bs.size >= expected) {
-                Result.success(
-                    Triple(
-                        mode,
-                        bs.substring(0, expected), // take(expected)
-                        bs.substring(expected, bs.size), // drop(expected)
-                    ),
-                )
-            } else {
-                Result.failure(SerdeError.incompleteData(expected, bs.size))
+        /** Reads the header byte and checks that the whole integer is available */
+        fun readHeader(input: ByteBuffer): Int {
+            val header = input.readUnsignedByte()
+            val length = length(header)
+            if (input.remaining() < length - 1) {
+                throw SerdeError.incompleteData(length, input.remaining() + 1)
+            }
+            return header
+        }
+
+        /** Reads bytes following [header] of a fixed width integer, the whole integer must be available */
+        fun readFixedWidth(mode: FixedWidth, header: Int, input: ByteBuffer, isNegative: Boolean): Int {
+            val head = if (isNegative) header or maskModeNeg else header and maskMode
+            return when (mode) {
+                SingleByte -> head
+                TwoByte -> (head shl 8) or (input.get().toInt() and 0xff)
+                FourByte -> (head shl 24) or
+                    ((input.get().toInt() and 0xff) shl 16) or
+                    ((input.get().toInt() and 0xff) shl 8) or
+                    (input.get().toInt() and 0xff)
             }
         }
     }
@@ -368,4 +244,4 @@ internal object CompactInteger {
         override val negPrefix: Int
             get() = throw NotImplementedError("Not needed at all")
     }
-}
\ No newline at end of file
+}
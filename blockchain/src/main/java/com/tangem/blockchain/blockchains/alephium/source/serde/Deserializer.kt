@@ -1,33 +1,63 @@
 package com.tangem.blockchain.blockchains.alephium.source.serde
 
 import kotlinx.io.bytestring.ByteString
-import kotlinx.io.bytestring.isEmpty
+import java.nio.ByteBuffer
 
-@Suppress("FunctionNaming")
 internal fun interface Deserializer<T> {
 
-    fun _deserialize(input: ByteString): Result<Staging<T>>
+    /**
+     * Reads a value starting at the position of [input] and moves the position right after it.
+     * Nested values are read from the same [input], errors are thrown as [SerdeError].
+     */
+    fun read(input: ByteBuffer): T
 
     fun deserialize(input: ByteString): Result<T> {
-        return _deserialize(input).map { (output, rest) ->
-            if (rest.isEmpty()) {
-                Result.success(output)
+        val buffer = ByteBuffer.wrap(input.toByteArray())
+        return try {
+            val output = read(buffer)
+            if (buffer.hasRemaining()) {
+                Result.failure(SerdeError.redundant(buffer.position(), input.size))
             } else {
-                Result.failure(SerdeError.redundant(input.size - rest.size, input.size))
+                Result.success(output)
             }
-        }.getOrElse { Result.failure(it) }
+        } catch (e: SerdeError) {
+            Result.failure(e)
+        }
     }
 
     fun <U> validateGet(get: (T) -> U?, error: (T) -> String): Deserializer<U> {
         return Deserializer { input ->
-            this._deserialize(input).map { (t, rest) ->
-                val u = get(t)
-                if (u != null) {
-                    Result.success(Staging(u, rest))
-                } else {
-                    Result.failure(SerdeError.wrongFormat(error(t)))
-                }
-            }.getOrElse { Result.failure(it) }
+            val t = read(input)
+            get(t) ?: throw SerdeError.wrongFormat(error(t))
         }
     }
-}
\ No newline at end of file
+}
+
+internal fun ByteBuffer.requireRemaining(length: Int) {
+    if (remaining() < length) throw SerdeError.incompleteData(length, remaining())
+}
+
+internal fun ByteBuffer.readByteOrThrow(): Byte {
+    requireRemaining(Byte.SIZE_BYTES)
+    return get()
+}
+
+@Suppress("MagicNumber")
+internal fun ByteBuffer.readUnsignedByte(): Int {
+    return readByteOrThrow().toInt() and 0xff
+}
+
+internal fun ByteBuffer.readIntOrThrow(): Int {
+    requireRemaining(Int.SIZE_BYTES)
+    return getInt()
+}
+
+internal fun ByteBuffer.readLongOrThrow(): Long {
+    requireRemaining(Long.SIZE_BYTES)
+    return getLong()
+}
+
+internal fun ByteBuffer.readBytes(length: Int): ByteArray {
+    requireRemaining(length)
+    return ByteArray(length).also { get(it) }
+}
@@ -1,12 +1,12 @@
 package com.tangem.blockchain.blockchains.alephium.source.serde
 
-import com.tangem.blockchain.blockchains.alephium.source.Bytes
 import com.tangem.blockchain.blockchains.alephium.source.TimeStamp
 import com.tangem.blockchain.blockchains.alephium.source.U256
 import com.tangem.blockchain.blockchains.alephium.source.U32
 import kotlinx.io.bytestring.ByteString
+import kotlinx.io.bytestring.ByteStringBuilder
 import kotlinx.io.bytestring.append
-import kotlinx.io.bytestring.buildByteString
+import java.nio.ByteBuffer
 
 internal val boolSerde: Serde<Boolean> = Serde.Companion.BoolSerde
 internal val byteSerde: Serde<Byte> = Serde.Companion.ByteSerde
@@ -21,41 +21,30 @@ internal fun byteArraySerde(length: Int) = Serde.bytesSerde(length)
 internal fun <T> listSerializer(serializer: Serializer<T>) = Serde.Companion.AVectorSerializer(serializer)
 internal fun <T> listDeserializer(deserializer: Deserializer<T>) = Serde.Companion.AVectorDeserializer(deserializer)
 
-@Suppress("FunctionNaming")
 internal interface Serde<T> : Serializer<T>, Deserializer<T> {
 
     fun <S> xmap(to: (T) -> S, from: (S) -> T): Serde<S> {
         return object : Serde<S> {
-            override fun serialize(input: S): ByteString {
-                return this@Serde.serialize(from(input))
+            override fun serialize(input: S, output: ByteStringBuilder) {
+                this@Serde.serialize(from(input), output)
             }
 
-            override fun deserialize(input: ByteString): Result<S> {
-                return this@Serde.deserialize(input).map(to)
-            }
-
-            override fun _deserialize(input: ByteString): Result<Staging<S>> {
-                return this@Serde._deserialize(input).map { (t, rest) ->
-                    Staging(to(t), rest)
-                }
+            override fun read(input: ByteBuffer): S {
+                return to(this@Serde.read(input))
             }
         }
     }
 
     fun <S> xfmap(to: (T) -> Result<S>, from: (S) -> T): Serde<S> {
         return object : Serde<S> {
-            override fun serialize(input: S): ByteString {
-                return this@Serde.serialize(from(input))
+            override fun serialize(input: S, output: ByteStringBuilder) {
+                this@Serde.serialize(from(input), output)
             }
 
-            override fun deserialize(input: ByteString): Result<S> {
-                return this@Serde.deserialize(input).map(to).getOrElse { Result.failure(it) }
-            }
-
-            override fun _deserialize(input: ByteString): Result<Staging<S>> {
-                return this@Serde._deserialize(input)
-                    .map { (t, rest) -> to(t).map { Staging(it, rest) } }
-                    .getOrElse { Result.failure(it) }
+            override fun read(input: ByteBuffer): S {
+                return to(this@Serde.read(input)).getOrElse {
+                    throw it as? SerdeError ?: SerdeError.validation(it.message.orEmpty())
+                }
             }
         }
     }
@@ -71,28 +60,14 @@ internal interface Serde<T> : Serializer<T>, Deserializer<T> {
 
     fun validate(test: (T) -> Result<Unit>): Serde<T> {
         return object : Serde<T> {
-            override fun serialize(input: T): ByteString {
-                return this@Serde.serialize(input)
+            override fun serialize(input: T, output: ByteStringBuilder) {
+                this@Serde.serialize(input, output)
             }
 
-            override fun deserialize(input: ByteString): Result<T> {
-                return this@Serde.deserialize(input).map { t ->
-                    val result = test(t)
-                    result.fold(
-                        onSuccess = { Result.success(t) },
-                        onFailure = { Result.failure(SerdeError.validation(it.message.orEmpty())) },
-                    )
-                }.getOrElse { Result.failure(it) }
-            }
-
-            override fun _deserialize(input: ByteString): Result<Staging<T>> {
-                return this@Serde._deserialize(input).map { (t, rest) ->
-                    val result = test(t)
-                    result.fold(
-                        onSuccess = { Result.success(Staging(t, rest)) },
-                        onFailure = { Result.failure(SerdeError.validation(it.message.orEmpty())) },
-                    )
-                }.getOrElse { Result.failure(it) }
+            override fun read(input: ByteBuffer): T {
+                val t = this@Serde.read(input)
+                test(t).onFailure { throw SerdeError.validation(it.message.orEmpty()) }
+                return t
             }
         }
     }
@@ -102,93 +77,81 @@ internal interface Serde<T> : Serializer<T>, Deserializer<T> {
         object BoolSerde : FixedSizeSerde<Boolean> {
             override val serdeSize: Int = Byte.SIZE_BYTES
 
-            override fun serialize(input: Boolean): ByteString {
-                return ByteString(if (input) 1 else 0)
+            override fun serialize(input: Boolean, output: ByteStringBuilder) {
+                output.append(if (input) Flags.someB else Flags.noneB)
             }
 
-            override fun deserialize(input: ByteString): Result<Boolean> {
-                return ByteSerde.deserialize(input).map {
-                    when (it) {
-                        0.toByte() -> Result.success(false)
-                        1.toByte() -> Result.success(true)
-                        else -> Result.failure(SerdeError.validation("Invalid bool from byte $it"))
-                    }
-                }.getOrElse { Result.failure(it) }
+            override fun read(input: ByteBuffer): Boolean {
+                return when (val byte = input.readByteOrThrow()) {
+                    0.toByte() -> false
+                    1.toByte() -> true
+                    else -> throw SerdeError.validation("Invalid bool from byte $byte")
+                }
             }
         }
 
         object ByteSerde : FixedSizeSerde<Byte> {
             override val serdeSize: Int = Byte.SIZE_BYTES
 
-            override fun serialize(input: Byte): ByteString {
-                return ByteString(input)
+            override fun serialize(input: Byte, output: ByteStringBuilder) {
+                output.append(input)
             }
 
-            override fun deserialize(input: ByteString): Result<Byte> {
-                return deserialize0(input) { it[0] }
+            override fun read(input: ByteBuffer): Byte {
+                return input.readByteOrThrow()
             }
         }
 
         object IntSerde : Serde<Int> {
-            override fun serialize(input: Int): ByteString {
-                return CompactInteger.Signed.encode(input)
+            override fun serialize(input: Int, output: ByteStringBuilder) {
+                CompactInteger.Signed.encode(input, output)
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<Int>> {
+            override fun read(input: ByteBuffer): Int {
                 return CompactInteger.Signed.decodeInt(input)
             }
         }
 
         object LongSerde : Serde<Long> {
-            override fun serialize(input: Long): ByteString {
-                return CompactInteger.Signed.encode(input)
+            override fun serialize(input: Long, output: ByteStringBuilder) {
+                CompactInteger.Signed.encode(input, output)
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<Long>> {
+            override fun read(input: ByteBuffer): Long {
                 return CompactInteger.Signed.decodeLong(input)
             }
         }
 
         object U256Serde : Serde<U256> {
-            override fun serialize(input: U256): ByteString {
-                return CompactInteger.Unsigned.encode(input)
+            override fun serialize(input: U256, output: ByteStringBuilder) {
+                CompactInteger.Unsigned.encode(input, output)
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<U256>> {
+            override fun read(input: ByteBuffer): U256 {
                 return CompactInteger.Unsigned.decodeU256(input)
             }
         }
 
         object U32Serde : Serde<U32> {
-            override fun serialize(input: U32): ByteString {
-                return CompactInteger.Unsigned.encode(input)
+            override fun serialize(input: U32, output: ByteStringBuilder) {
+                CompactInteger.Unsigned.encode(input, output)
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<U32>> {
+            override fun read(input: ByteBuffer): U32 {
                 return CompactInteger.Unsigned.decodeU32(input)
             }
         }
 
         object ByteStringSerde : Serde<ByteString> {
-            override fun serialize(input: ByteString): ByteString {
-                return buildByteString {
-                    append(IntSerde.serialize(input.size))
-                    append(input)
-                }
+            override fun serialize(input: ByteString, output: ByteStringBuilder) {
+                IntSerde.serialize(input.size, output)
+                output.append(input)
             }
 
-            override fun _deserialize(input: ByteString): Result<Staging<ByteString>> {
-                return IntSerde._deserialize(input).map { (size, rest) ->
-                    when {
-                        size < 0 -> Result.failure(SerdeError.validation("Negative byte string length: $size"))
-                        rest.size >= size -> {
-                            val value = rest.substring(0, size)
-                            val remaining = rest.substring(size, rest.size)
-                            Result.success(Staging(value, remaining))
-                        }
-                        else -> Result.failure(SerdeError.incompleteData(size, rest.size))
-                    }
-                }.getOrElse { Result.failure(it) }
+            override fun read(input: ByteBuffer): ByteString {
+                val size = IntSerde.read(input)
+                if (size < 0) throw SerdeError.validation("Negative byte string length: $size")
+                return ByteString(input.readBytes(size))
             }
         }
 
@@ -205,75 +168,20 @@ internal interface Serde<T> : Serializer<T>, Deserializer<T> {
         }
 
         class OptionSerde<T>(private val serde: Serde<T?>) : Serde<T?> {
-            override fun serialize(input: T?): ByteString {
-                return when (input) {
-                    null -> ByteSerde.serialize(Flags.noneB)
-                    else -> buildByteString {
-                        append(ByteSerde.serialize(Flags.someB))
-                        append(serde.serialize(input))
-                    }
-                }
-            }
-
-            override fun _deserialize(input: ByteString): Result<Staging<T?>> {
-                return ByteSerde._deserialize(input).map { (flag, rest) ->
-                    when (flag) {
-                        Flags.noneB -> Result.success(Staging(null, rest))
-                        Flags.someB -> serde._deserialize(rest).map { (t, r) -> Staging(t, r) }
-                        else -> Result.failure(SerdeError.wrongFormat("Expect 0 or 1 for option flag"))
-                    }
-                }.getOrElse { Result.failure(it) }
-            }
-        }
-
-        open class BatchDeserializer<T>(private val deserializer: Deserializer<T>) {
-
-            private fun <C : MutableList<T>> __deserializeSeq(
-                rest: ByteString,
-                index: Int,
-                length: Int,
-                builder: () -> C,
-            ): Result<Staging<C>> {
-                return if (index == length) {
-                    Result.success(Staging(builder(), rest))
-                } else {
-                    deserializer._deserialize(rest).map { (t, tRest) ->
-                        builder().add(t)
-                        __deserializeSeq(tRest, index + 1, length, builder)
-                    }.getOrElse { Result.failure(it) }
-                }
-            }
-
-            fun <C : MutableList<T>> _deserializeSeq(
-                size: Int,
-                input: ByteString,
-                builder: () -> C,
-            ): Result<Staging<C>> {
-                return __deserializeSeq(input, 0, size, builder)
-            }
-
-            private fun _deserializeArray(rest: ByteString, index: Int, output: Array<T>): Result<Staging<Array<T>>> {
-                return if (index == output.size) {
-                    Result.success(Staging(output, rest))
+            override fun serialize(input: T?, output: ByteStringBuilder) {
+                if (input == null) {
+                    output.append(Flags.noneB)
                 } else {
-                    deserializer._deserialize(rest).map { (t, tRest) ->
-                        output[index] = t
-                        _deserializeArray(tRest, index + 1, output)
-                    }.getOrElse { Result.failure(it) }
-                }
-            }
-
-            fun _deserializeArray(n: Int, input: ByteString): Result<Staging<Array<T>>> {
-                return when {
-                    n < 0 -> Result.failure(SerdeError.validation("Negative array size: $n"))
-                    n > input.size -> Result.failure(SerdeError.validation("Malicious array size: $n"))
-                    else -> _deserializeArray(input, 0, arrayOfNulls<Any>(n) as Array<T>)
+                    output.append(Flags.someB)
+                    serde.serialize(input, output)
                 }
             }
 
-            fun _deserializeAVector(n: Int, input: ByteString): Result<Staging<List<T>>> {
-                return _deserializeArray(n, input).map { staging ->
-                    Staging(staging.value.toList(), staging.rest)
+            override fun read(input: ByteBuffer): T? {
+                return when (input.readByteOrThrow()) {
+                    Flags.noneB -> null
+                    Flags.someB -> serde.read(input)
+                    else -> throw SerdeError.wrongFormat("Expect 0 or 1 for option flag")
                 }
             }
         }
@@ -281,61 +189,56 @@ internal interface Serde<T> : Serializer<T>, Deserializer<T> {
         fun bytesSerde(length: Int): Serde<ByteString> = object : FixedSizeSerde<ByteString> {
             override val serdeSize: Int = length
 
-            override fun serialize(input: ByteString): ByteString {
+            override fun serialize(input: ByteString, output: ByteStringBuilder) {
                 require(input.size == serdeSize) { "Input size must match fixed size" }
-                return input
+                output.append(input)
             }
 
-            override fun deserialize(input: ByteString): Result<ByteString> {
-                return deserialize0(input) { it }
+            override fun read(input: ByteBuffer): ByteString {
+                return ByteString(input.readBytes(serdeSize))
             }
         }
 
         class AVectorSerializer<T>(private val serializer: Serializer<T>) : Serializer<List<T>> {
-            override fun serialize(input: List<T>): ByteString {
-                val serializedLength = IntSerde.serialize(input.size)
-                return buildByteString {
-                    append(serializedLength)
-                    input.forEach { append(serializer.serialize(it)) }
-                }
+            override fun serialize(input: List<T>, output: ByteStringBuilder) {
+                IntSerde.serialize(input.size, output)
+                input.forEach { serializer.serialize(it, output) }
             }
         }
 
-        class AVectorDeserializer<T>(private val deserializer: Deserializer<T>) :
-            BatchDeserializer<T>(deserializer),
-            Deserializer<List<T>> {
-            override fun _deserialize(input: ByteString): Result<Staging<List<T>>> {
-                return IntSerde._deserialize(input).map { staging ->
-                    val (size, rest) = staging
-                    _deserializeAVector(size, rest)
-                }.getOrElse { Result.failure(it) }
+        class AVectorDeserializer<T>(private val deserializer: Deserializer<T>) : Deserializer<List<T>> {
+            override fun read(input: ByteBuffer): List<T> {
+                val size = IntSerde.read(input)
+                when {
+                    size < 0 -> throw SerdeError.validation("Negative array size: $size")
+                    size > input.remaining() -> throw SerdeError.validation("Malicious array size: $size")
+                }
+                return List(size) { deserializer.read(input) }
             }
         }
 
         fun <T> avectorSerde(serde: Serde<T>): Serde<List<T>> {
-            return object : BatchDeserializer<T>(serde), Serde<List<T>> {
+            return object : Serde<List<T>> {
                 val aVectorSerializer = AVectorSerializer(serde)
                 val aVectorDeserializer = AVectorDeserializer(serde)
 
-                override fun serialize(input: List<T>): ByteString = aVectorSerializer.serialize(input)
-                override fun _deserialize(input: ByteString): Result<Staging<List<T>>> =
-                    aVectorDeserializer._deserialize(input)
+                override fun serialize(input: List<T>, output: ByteStringBuilder) {
+                    aVectorSerializer.serialize(input, output)
+                }
+
+                override fun read(input: ByteBuffer): List<T> = aVectorDeserializer.read(input)
             }
         }
 
         object TimeStampSerde : FixedSizeSerde<TimeStamp> {
             override val serdeSize: Int = TimeStamp.byteLength
 
-            override fun serialize(input: TimeStamp): ByteString {
-                return Bytes.from(input.millis)
+            override fun serialize(input: TimeStamp, output: ByteStringBuilder) {
+                output.appendBigEndian(input.millis, serdeSize)
             }
 
-            override fun deserialize(input: ByteString): Result<TimeStamp> {
-                return deserialize1(input) {
-                    TimeStamp.from(Bytes.toLongUnsafe(input))
-                        ?.let { Result.success(it) }
-                        ?: Result.failure(SerdeError.validation("Negative timestamp"))
-                }
+            override fun read(input: ByteBuffer): TimeStamp {
+                return TimeStamp.from(input.readLongOrThrow()) ?: throw SerdeError.validation("Negative timestamp")
             }
         }
     }
@@ -343,32 +246,6 @@ internal interface Serde<T> : Serializer<T>, Deserializer<T> {
 
 internal interface FixedSizeSerde<T> : Serde<T> {
     val serdeSize: Int
-
-    fun deserialize0(input: ByteString, f: (ByteString) -> T): Result<T> {
-        return when {
-            input.size == serdeSize -> Result.success(f(input))
-            input.size > serdeSize -> Result.failure(SerdeError.redundant(serdeSize, input.size))
-            else -> Result.failure(SerdeError.incompleteData(serdeSize, input.size))
-        }
-    }
-
-    fun deserialize1(input: ByteString, f: (ByteString) -> Result<T>): Result<T> {
-        return when {
-            input.size == serdeSize -> f(input)
-            input.size > serdeSize -> Result.failure(SerdeError.redundant(serdeSize, input.size))
-            else -> Result.failure(SerdeError.incompleteData(serdeSize, input.size))
-        }
-    }
-
-    override fun _deserialize(input: ByteString): Result<Staging<T>> {
-        return if (input.size >= serdeSize) {
-            val init = input.substring(0, serdeSize)
-            val rest = input.substring(serdeSize, input.size)
-            deserialize(init).map { Staging(it, rest) }
-        } else {
-            Result.failure(SerdeError.incompleteData(serdeSize, input.size))
-        }
-    }
 }
 
 internal data class Tuple2<A0, A1>(
@@ -383,38 +260,31 @@ internal fun <A0, A1, T> forProduct2(
     serdeA1: Serde<A1>,
 ): Serde<T> {
     return object : Serde<T> {
-        override fun serialize(input: T): ByteString {
+        override fun serialize(input: T, output: ByteStringBuilder) {
             val (a0, a1) = unpack(input)
-            return buildByteString {
-                append(serdeA0.serialize(a0))
-                append(serdeA1.serialize(a1))
-            }
+            serdeA0.serialize(a0, output)
+            serdeA1.serialize(a1, output)
         }
 
-        override fun _deserialize(input: ByteString): Result<Staging<T>> {
-            val pair0 = serdeA0._deserialize(input).getOrElse { return Result.failure(it) }
-            val pair1 = serdeA1._deserialize(pair0.rest).getOrElse { return Result.failure(it) }
-
-            val value = pack(pair0.value, pair1.value)
-            return Result.success(Staging(value, pair1.rest))
+        override fun read(input: ByteBuffer): T {
+            val a0 = serdeA0.read(input)
+            val a1 = serdeA1.read(input)
+            return pack(a0, a1)
         }
     }
 }
 
 internal fun <A0, A1> tuple2(serdeA0: Serde<A0>, serdeA1: Serde<A1>): Serde<Pair<A0, A1>> {
     return object : Serde<Pair<A0, A1>> {
-        override fun serialize(input: Pair<A0, A1>): ByteString {
-            val (a0, a1) = input
-            return buildByteString {
-                append(serdeA0.serialize(a0))
-                append(serdeA1.serialize(a1))
-            }
+        override fun serialize(input: Pair<A0, A1>, output: ByteStringBuilder) {
+            serdeA0.serialize(input.first, output)
+            serdeA1.serialize(input.second, output)
         }
 
-        override fun _deserialize(input: ByteString): Result<Staging<Pair<A0, A1>>> {
-            val pair0 = serdeA0._deserialize(input).getOrElse { return Result.failure(it) }
-            val pair1 = serdeA1._deserialize(pair0.rest).getOrElse { return Result.failure(it) }
-            return Result.success(Staging(pair0.value to pair1.value, pair1.rest))
+        override fun read(input: ByteBuffer): Pair<A0, A1> {
+            val a0 = serdeA0.read(input)
+            val a1 = serdeA1.read(input)
+            return a0 to a1
         }
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,23 @@
 package com.tangem.blockchain.blockchains.alephium.source.serde
 
 import kotlinx.io.bytestring.ByteString
+import kotlinx.io.bytestring.ByteStringBuilder
 
 internal fun interface Serializer<T> {
-    fun serialize(input: T): ByteString
-}
\ No newline at end of file
+
+    /** Appends [input] to [output], nested values are written to the same [output] */
+    fun serialize(input: T, output: ByteStringBuilder)
+
+    fun serialize(input: T): ByteString {
+        val output = ByteStringBuilder()
+        serialize(input, output)
+        return output.toByteString()
+    }
+}
+
+/** Appends [byteCount] low-order bytes of [value], the most significant one first */
+internal fun ByteStringBuilder.appendBigEndian(value: Long, byteCount: Int) {
+    for (shift in (byteCount - 1) * Byte.SIZE_BITS downTo 0 step Byte.SIZE_BITS) {
+        append((value shr shift).toByte())
+    }
+}
@@ -58,6 +58,19 @@ object BitcoinMemoBuilder {
         return Result.Success(Unit)
     }
 
+    /**
+     * Returns size of the OP_RETURN output script with memo data without building a transaction.
+     *
+     * @param memoHex Memo data as hex string (without 0x prefix)
+     * @return Script size, Failure if memo exceeds size limit or is invalid
+     */
+    fun getMemoOutputScriptSize(memoHex: String): Result<Int> {
+        val memoBytes = parseMemoHex(memoHex).getOrElse { return it }
+        validateMemoSize(memoBytes).getOrElse { return it }
+
+        return Result.Success(buildOpReturnScript(memoBytes).program.size)
+    }
+
     /**
      * Parses memo hex string to bytes.
      */
@@ -12,6 +12,7 @@ import com.tangem.blockchain.common.Blockchain
 import com.tangem.blockchain.common.BlockchainSdkError
 import com.tangem.blockchain.common.address.Address as WalletAddress
 import com.tangem.blockchain.common.TransactionData
+import com.tangem.blockchain.common.transaction.Fee
 import com.tangem.blockchain.common.transaction.getMinimumRequiredUTXOsToSend
 import com.tangem.blockchain.extensions.Result
 import com.tangem.blockchain.extensions.successOr
@@ -39,8 +40,8 @@ open class BitcoinTransactionBuilder(
 ) {
     private val walletScripts =
         walletAddresses.filterIsInstance<BitcoinScriptAddress>().map { it.script }
+    private val decimals = blockchain.decimals()
     protected lateinit var transaction: Transaction
-    private var transactionSizeWithoutWitness = 0
     protected var networkParameters = when (blockchain) {
         Blockchain.Bitcoin, Blockchain.BitcoinCash -> MainNetParams()
         Blockchain.BitcoinTestnet, Blockchain.BitcoinCashTestnet -> TestNet3Params()
@@ -67,12 +68,15 @@ open class BitcoinTransactionBuilder(
             return Result.Failure(BlockchainSdkError.CustomError("Unspent outputs are missing"))
         }
 
+        val (costPerInput, costOfChange) = getUTXOSelectionCosts(uncompiledTransaction)
         val outputsToSend = getMinimumRequiredUTXOsToSend(
             unspentOutputs = unspentOutputs!!,
             transactionAmount = requireNotNull(uncompiledTransaction.amount.value),
             transactionFeeAmount = requireNotNull(uncompiledTransaction.fee?.amount?.value),
             unspentToAmount = { it.amount },
             dustValue = dustValue,
+            costPerInput = costPerInput,
+            costOfChange = costOfChange,
         ).successOr { failure ->
             return failure
         }
@@ -142,7 +146,6 @@ open class BitcoinTransactionBuilder(
                 Script.ScriptType.P2WPKH, Script.ScriptType.P2WSH -> ScriptBuilder.createEmpty()
                 else -> error("Unsupported output script")
             }
-            transactionSizeWithoutWitness = transaction.messageSize
 
             transaction.inputs[index].witness = when (scriptPubKey.scriptType) {
                 Script.ScriptType.P2WPKH -> TransactionWitness.redeemP2WPKH(
@@ -164,22 +167,99 @@ open class BitcoinTransactionBuilder(
 
     fun getTransactionHash() = transaction.txId.bytes
 
-    @Suppress("MagicNumber")
+    /**
+     * Estimates virtual size of the transaction without building and signing it, see [BitcoinTransactionSizeCalculator]
+     */
     fun getEstimateSize(transactionData: TransactionData, dustValue: BigDecimal?): Result<Int> {
-        return when (val buildTransactionResult = buildToSign(transactionData, dustValue)) {
-            is Result.Failure -> buildTransactionResult
-            is Result.Success -> {
-                val hashes = buildTransactionResult.data
-                val finalTransactionSize =
-                    buildToSend(ByteArray(64 * hashes.size) { -128 }).size // needed for longer signature
-                val vsize = if (transaction.hasWitnesses()) {
-                    val weight = transactionSizeWithoutWitness * 3 + finalTransactionSize
-                    (weight + 3) / 4 // round up
+        val uncompiledTransaction = transactionData.requireUncompiled()
+
+        if (unspentOutputs.isNullOrEmpty()) {
+            return Result.Failure(BlockchainSdkError.CustomError("Unspent outputs are missing"))
+        }
+
+        val (costPerInput, costOfChange) = getUTXOSelectionCosts(uncompiledTransaction)
+        val outputsToSend = getMinimumRequiredUTXOsToSend(
+            unspentOutputs = unspentOutputs!!,
+            transactionAmount = requireNotNull(uncompiledTransaction.amount.value),
+            transactionFeeAmount = requireNotNull(uncompiledTransaction.fee?.amount?.value),
+            unspentToAmount = { it.amount },
+            dustValue = dustValue,
+            costPerInput = costPerInput,
+            costOfChange = costOfChange,
+        ).successOr { failure ->
+            return failure
+        }
+
+        val change: BigDecimal = calculateChange(transactionData, outputsToSend)
+        val outputScriptSizes = getOutputScriptSizes(uncompiledTransaction, change).successOr { return it }
+
+        return Result.Success(
+            BitcoinTransactionSizeCalculator.calculateVirtualSize(
+                inputs = outputsToSend.map { getSizeCalculatorInput(Script(it.outputScript)) },
+                outputScriptSizes = outputScriptSizes,
+            ),
+        )
+    }
+
+    /**
+     * Returns sizes of output scripts of the transaction in the same order as they're added by [buildToSign]
+     */
+    protected open fun getOutputScriptSizes(
+        transactionData: TransactionData.Uncompiled,
+        change: BigDecimal,
+    ): Result<List<Int>> {
+        val scriptSizes = mutableListOf(getOutputScriptSize(transactionData.destinationAddress))
+        if (!change.isZero()) {
+            scriptSizes.add(getOutputScriptSize(transactionData.sourceAddress))
+        }
+
+        val memo = (transactionData.extras as? BitcoinTransactionExtras)?.memo
+        if (memo != null) {
+            scriptSizes.add(BitcoinMemoBuilder.getMemoOutputScriptSize(memo).successOr { return it })
+        }
+
+        return Result.Success(scriptSizes)
+    }
+
+    /**
+     * Returns fees of spending a wallet input and of creating and later spending a change output at the fee rate of
+     * [transactionData], zeros if the fee rate is unknown
+     */
+    protected fun getUTXOSelectionCosts(transactionData: TransactionData.Uncompiled): Pair<BigDecimal, BigDecimal> {
+        val noCosts = BigDecimal.ZERO to BigDecimal.ZERO
+        val feeRate = (transactionData.fee as? Fee.Bitcoin)?.satoshiPerByte?.movePointLeft(decimals) ?: return noCosts
+        val outputScript = unspentOutputs?.firstOrNull()?.outputScript ?: return noCosts
+        val input = runCatching { getSizeCalculatorInput(Script(outputScript)) }.getOrNull() ?: return noCosts
+        val outputScriptSizes = getOutputScriptSizes(transactionData, change = BigDecimal.ONE)
+            .successOr { return noCosts }
+
+        val inputSize = BitcoinTransactionSizeCalculator.calculateInputVirtualSize(input).toBigDecimal()
+        // change output script goes right after the destination one
+        val changeSize = BitcoinTransactionSizeCalculator.calculateOutputVirtualSize(outputScriptSizes[1])
+            .toBigDecimal()
+        return feeRate * inputSize to feeRate * (changeSize + inputSize)
+    }
+
+    private fun getOutputScriptSize(address: String): Int {
+        return ScriptBuilder.createOutputScript(Address.fromString(networkParameters, address)).program.size
+    }
+
+    private fun getSizeCalculatorInput(scriptPubKey: Script): BitcoinTransactionSizeCalculator.Input {
+        return when (scriptPubKey.scriptType) {
+            Script.ScriptType.P2PKH -> BitcoinTransactionSizeCalculator.Input.P2PKH(walletPublicKey.size)
+            Script.ScriptType.P2SH, Script.ScriptType.P2WSH -> { // only 1 of 2 multisig script for now
+                val script = findSpendingScript(scriptPubKey)
+                if (!ScriptPattern.isSentToMultisig(script)) {
+                    error("Unsupported wallet script")
+                }
+                if (scriptPubKey.scriptType == Script.ScriptType.P2SH) {
+                    BitcoinTransactionSizeCalculator.Input.P2SH(script.program.size)
                 } else {
-                    finalTransactionSize
+                    BitcoinTransactionSizeCalculator.Input.P2WSH(script.program.size)
                 }
-                Result.Success(vsize)
             }
+            Script.ScriptType.P2WPKH -> BitcoinTransactionSizeCalculator.Input.P2WPKH
+            else -> error("Unsupported output script")
         }
     }
 
@@ -231,12 +311,15 @@ open class BitcoinTransactionBuilder(
             return Result.Failure(BlockchainSdkError.CustomError("Unspent outputs are missing"))
         }
 
+        val (costPerInput, costOfChange) = getUTXOSelectionCosts(uncompiledTransaction)
         val outputsToSend = getMinimumRequiredUTXOsToSend(
             unspentOutputs = unspentOutputs!!,
             transactionAmount = requireNotNull(uncompiledTransaction.amount.value),
             transactionFeeAmount = requireNotNull(uncompiledTransaction.fee?.amount?.value),
             unspentToAmount = { it.amount },
             dustValue = dustValue,
+            costPerInput = costPerInput,
+            costOfChange = costOfChange,
         ).successOr { failure ->
             return failure
         }
@@ -339,7 +422,6 @@ open class BitcoinTransactionBuilder(
                 Script.ScriptType.P2WPKH, Script.ScriptType.P2WSH -> ScriptBuilder.createEmpty()
                 else -> error("Unsupported output script")
             }
-            transactionSizeWithoutWitness = transaction.messageSize
 
             transaction.inputs[index].witness = when (scriptPubKey.scriptType) {
                 Script.ScriptType.P2WPKH -> TransactionWitness.redeemP2WPKH(
@@ -0,0 +1,124 @@
+package com.tangem.blockchain.blockchains.bitcoin
+
+/**
+ * Closed-form calculator of Bitcoin transaction virtual size (BIP-141), an alternative to building and serializing
+ * a signed transaction just to measure it.
+ *
+ * Signatures are counted with their maximal low-S size, so the result matches the size of a transaction built by
+ * [BitcoinTransactionBuilder] with signatures of the longest form.
+ */
+internal object BitcoinTransactionSizeCalculator {
+
+    /** DER encoded ECDSA signature with 33 bytes r, 32 bytes s and sighash type byte */
+    const val ECDSA_SIGNATURE_SIZE = 72
+    const val SCHNORR_SIGNATURE_SIZE = 64
+    const val COMPRESSED_PUBLIC_KEY_SIZE = 33
+
+    private const val VERSION_SIZE = 4
+    private const val LOCK_TIME_SIZE = 4
+    private const val OUTPOINT_SIZE = 36
+    private const val SEQUENCE_SIZE = 4
+    private const val VALUE_SIZE = 8
+    private const val SEGWIT_MARKER_AND_FLAG_SIZE = 2
+    private const val WITNESS_SCALE_FACTOR = 4
+
+    private const val OP_PUSHDATA1 = 0x4c
+    private const val UINT8_MAX = 0xff
+    private const val VARINT_SINGLE_BYTE_MAX = 0xfc
+    private const val VARINT_TWO_BYTE_MAX = 0xffff
+    private const val VARINT_FOUR_BYTE_MAX = 0xffffffffL
+
+    /**
+     * Calculates virtual size of a transaction
+     *
+     * @param inputs            spent inputs
+     * @param outputScriptSizes sizes of output scripts including memo (OP_RETURN) outputs
+     */
+    fun calculateVirtualSize(inputs: List<Input>, outputScriptSizes: List<Int>): Int {
+        val inputsSize = inputs.sumOf { input ->
+            OUTPOINT_SIZE + varIntSize(input.scriptSigSize.toLong()) + input.scriptSigSize + SEQUENCE_SIZE
+        }
+        val outputsSize = outputScriptSizes.sumOf { scriptSize ->
+            VALUE_SIZE + varIntSize(scriptSize.toLong()) + scriptSize
+        }
+        val strippedSize = VERSION_SIZE + varIntSize(inputs.size.toLong()) + inputsSize +
+            varIntSize(outputScriptSizes.size.toLong()) + outputsSize + LOCK_TIME_SIZE
+
+        if (inputs.none(Input::hasWitness)) return strippedSize
+
+        val witnessSize = SEGWIT_MARKER_AND_FLAG_SIZE + inputs.sumOf(Input::witnessSize)
+        val weight = strippedSize * WITNESS_SCALE_FACTOR + witnessSize
+        return (weight + WITNESS_SCALE_FACTOR - 1) / WITNESS_SCALE_FACTOR // round up
+    }
+
+    /** Virtual size added to a transaction by [input] */
+    fun calculateInputVirtualSize(input: Input): Int {
+        val strippedSize = OUTPOINT_SIZE + varIntSize(input.scriptSigSize.toLong()) + input.scriptSigSize +
+            SEQUENCE_SIZE
+        val witnessSize = if (input.hasWitness) input.witnessSize else 0
+        return (strippedSize * WITNESS_SCALE_FACTOR + witnessSize + WITNESS_SCALE_FACTOR - 1) / WITNESS_SCALE_FACTOR
+    }
+
+    /** Virtual size added to a transaction by an output with script of [scriptSize] bytes */
+    fun calculateOutputVirtualSize(scriptSize: Int): Int = VALUE_SIZE + varIntSize(scriptSize.toLong()) + scriptSize
+
+    /** Size of a script push of [dataSize] bytes, see [org.bitcoinj.script.ScriptBuilder.data] */
+    private fun pushSize(dataSize: Int): Int = when {
+        dataSize < OP_PUSHDATA1 -> 1 + dataSize
+        dataSize <= UINT8_MAX -> 2 + dataSize
+        else -> 3 + dataSize
+    }
+
+    /** Size of a witness stack item of [dataSize] bytes */
+    private fun witnessItemSize(dataSize: Int): Int = varIntSize(dataSize.toLong()) + dataSize
+
+    private fun varIntSize(value: Long): Int = when {
+        value <= VARINT_SINGLE_BYTE_MAX -> 1
+        value <= VARINT_TWO_BYTE_MAX -> 3
+        value <= VARINT_FOUR_BYTE_MAX -> 5
+        else -> 9
+    }
+
+    /**
+     * Spent input by type of its output script
+     *
+     * @property scriptSigSize size of input script
+     * @property witnessSize   size of serialized witness stack, 1 byte of empty stack for non-witness inputs
+     */
+    sealed class Input(val scriptSigSize: Int, val witnessSize: Int) {
+
+        val hasWitness: Boolean
+            get() = witnessSize > 1
+
+        /** Signature and public key of [publicKeySize] bytes */
+        class P2PKH(publicKeySize: Int) : Input(
+            scriptSigSize = pushSize(ECDSA_SIGNATURE_SIZE) + pushSize(publicKeySize),
+            witnessSize = 1,
+        )
+
+        /** OP_0, a single signature and 1-of-n multisig redeem script of [redeemScriptSize] bytes */
+        class P2SH(redeemScriptSize: Int) : Input(
+            scriptSigSize = 1 + pushSize(ECDSA_SIGNATURE_SIZE) + pushSize(redeemScriptSize),
+            witnessSize = 1,
+        )
+
+        /** Signature and compressed public key in witness */
+        object P2WPKH : Input(
+            scriptSigSize = 0,
+            witnessSize = 1 + witnessItemSize(ECDSA_SIGNATURE_SIZE) + witnessItemSize(COMPRESSED_PUBLIC_KEY_SIZE),
+        )
+
+        /** Empty item, a single signature and 1-of-n multisig witness script of [witnessScriptSize] bytes */
+        class P2WSH(witnessScriptSize: Int) : Input(
+            scriptSigSize = 0,
+            witnessSize = 1 + witnessItemSize(0) + witnessItemSize(ECDSA_SIGNATURE_SIZE) +
+                witnessItemSize(witnessScriptSize),
+        )
+
+        /** Key path spend with default sighash type */
+        object P2TR : Input(
+            scriptSigSize = 0,
+            witnessSize = 1 + witnessItemSize(SCHNORR_SIGNATURE_SIZE),
+        )
+    }
+}
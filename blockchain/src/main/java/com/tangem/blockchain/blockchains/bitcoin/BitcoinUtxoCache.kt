@@ -0,0 +1,91 @@
+package com.tangem.blockchain.blockchains.bitcoin
+
+import com.tangem.blockchain.blockchains.bitcoin.network.BitcoinAddressInfo
+import com.tangem.blockchain.blockchains.bitcoin.network.BitcoinNetworkProvider
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.datastorage.BlockchainSavedData
+import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.successOr
+import com.tangem.common.extensions.hexToBytes
+import com.tangem.common.extensions.toHexString
+
+/**
+ * Persistent cache of UTXO sets of Bitcoin-family addresses.
+ *
+ * Every address is stored separately together with status of its history as a watermark, see
+ * [BitcoinNetworkProvider.getAddressStatus]. On update only the status is requested and the full
+ * [BitcoinNetworkProvider.getInfo] is loaded only if the status differs from the stored one.
+ * Addresses with unconfirmed transactions aren't stored, their recent transactions are loaded every time.
+ *
+ * Status is requested before the info, so if a transaction comes between the requests, the stored set is newer than
+ * its watermark and the address is just reloaded next time.
+ *
+ * @property blockchain  blockchain of addresses
+ * @property dataStorage data storage
+ */
+internal class BitcoinUtxoCache(
+    private val blockchain: Blockchain,
+    private val dataStorage: AdvancedDataStorage,
+) {
+
+    /** Returns info of [address] from the cache if its history is unchanged or loads it by [networkProvider] */
+    suspend fun getInfo(address: String, networkProvider: BitcoinNetworkProvider): Result<BitcoinAddressInfo> {
+        val status = networkProvider.getAddressStatus(address) as? Result.Success
+            ?: return networkProvider.getInfo(address)
+
+        val key = createKey(address)
+        val cached = dataStorage.getOrNull<BlockchainSavedData.BitcoinUtxoSet>(key)
+        if (cached != null && cached.status == status.data) return Result.Success(cached.toAddressInfo())
+
+        val info = networkProvider.getInfo(address).successOr { return it }
+        if (info.hasUnconfirmed == false && info.recentTransactions.isEmpty()) {
+            dataStorage.store(key = key, value = info.toUtxoSet(status.data))
+        } else if (cached != null) {
+            dataStorage.remove(key)
+        }
+
+        return Result.Success(info)
+    }
+
+    private fun createKey(address: String): String {
+        return "${BlockchainSavedData.BitcoinUtxoSet::class.java.simpleName}-${blockchain.id}-$address"
+    }
+
+    private fun BlockchainSavedData.BitcoinUtxoSet.toAddressInfo(): BitcoinAddressInfo {
+        return BitcoinAddressInfo(
+            balance = balance,
+            unspentOutputs = unspentOutputs.map { output ->
+                BitcoinUnspentOutput(
+                    amount = output.amount,
+                    outputIndex = output.outputIndex,
+                    transactionHash = output.transactionHash.hexToBytes(),
+                    outputScript = output.outputScript.hexToBytes(),
+                    address = output.address,
+                    derivationPath = output.derivationPath,
+                    publicKey = output.publicKey?.hexToBytes(),
+                )
+            },
+            recentTransactions = emptyList(),
+            hasUnconfirmed = false,
+        )
+    }
+
+    private fun BitcoinAddressInfo.toUtxoSet(status: String): BlockchainSavedData.BitcoinUtxoSet {
+        return BlockchainSavedData.BitcoinUtxoSet(
+            status = status,
+            balance = balance,
+            unspentOutputs = unspentOutputs.map { output ->
+                BlockchainSavedData.BitcoinUtxoSet.UnspentOutput(
+                    amount = output.amount,
+                    outputIndex = output.outputIndex,
+                    transactionHash = output.transactionHash.toHexString(),
+                    outputScript = output.outputScript.toHexString(),
+                    address = output.address,
+                    derivationPath = output.derivationPath,
+                    publicKey = output.publicKey?.toHexString(),
+                )
+            },
+        )
+    }
+}
@@ -26,6 +26,7 @@ import com.tangem.blockchain.common.pagination.PaginationWrapper
 import com.tangem.blockchain.transactionhistory.DefaultTransactionHistoryProvider
 import com.tangem.blockchain.transactionhistory.TransactionHistoryProvider
 import com.tangem.blockchain.transactionhistory.TransactionHistoryState
+import com.tangem.blockchain.transactionhistory.IncrementalTransactionHistoryProvider
 import com.tangem.blockchain.transactionhistory.blockchains.bitcoin.BitcoinTransactionHistoryProvider
 import com.tangem.blockchain.transactionhistory.models.TransactionHistoryItem
 import com.tangem.blockchain.transactionhistory.models.TransactionHistoryRequest
@@ -49,6 +50,7 @@ internal open class BitcoinWalletManager(
     private val networkProvider: BitcoinNetworkProvider,
     private val feesCalculator: BitcoinFeesCalculator,
     yieldSupplyProvider: YieldSupplyProvider = DefaultYieldSupplyProvider,
+    private val utxoCache: BitcoinUtxoCache? = null,
 ) : WalletManager(
     wallet = wallet,
     transactionHistoryProvider = transactionHistoryProvider,
@@ -174,8 +176,9 @@ internal open class BitcoinWalletManager(
         filterType: TransactionHistoryRequest.FilterType,
     ): TransactionHistoryState {
         val descriptor = dynamicTxHistoryDescriptorOrNull()
-        return if (descriptor != null && transactionHistoryProvider is BitcoinTransactionHistoryProvider) {
-            transactionHistoryProvider.getTransactionHistoryStateByXpub(descriptor)
+        val bitcoinHistoryProvider = bitcoinTransactionHistoryProvider()
+        return if (descriptor != null && bitcoinHistoryProvider != null) {
+            bitcoinHistoryProvider.getTransactionHistoryStateByXpub(descriptor)
         } else {
             transactionHistoryProvider.getTransactionHistoryState(address, filterType)
         }
@@ -185,13 +188,20 @@ internal open class BitcoinWalletManager(
         request: TransactionHistoryRequest,
     ): Result<PaginationWrapper<TransactionHistoryItem>> {
         val descriptor = dynamicTxHistoryDescriptorOrNull()
-        return if (descriptor != null && transactionHistoryProvider is BitcoinTransactionHistoryProvider) {
-            transactionHistoryProvider.getTransactionsHistoryByXpub(descriptor, request)
+        val bitcoinHistoryProvider = bitcoinTransactionHistoryProvider()
+        return if (descriptor != null && bitcoinHistoryProvider != null) {
+            bitcoinHistoryProvider.getTransactionsHistoryByXpub(descriptor, request)
         } else {
             transactionHistoryProvider.getTransactionsHistory(request)
         }
     }
 
+    private fun bitcoinTransactionHistoryProvider(): BitcoinTransactionHistoryProvider? {
+        val provider = (transactionHistoryProvider as? IncrementalTransactionHistoryProvider)?.origin
+            ?: transactionHistoryProvider
+        return provider as? BitcoinTransactionHistoryProvider
+    }
+
     override suspend fun updateInternal() {
         val currentXpub = xpub
         if (currentXpub != null && dynamicAddressesManager != null) {
@@ -205,7 +215,7 @@ internal open class BitcoinWalletManager(
         coroutineScope {
             val addressInfos = mutableListOf<BitcoinAddressInfo>()
             val responsesDeferred =
-                wallet.addresses.map { async { networkProvider.getInfo(it.value) } }
+                wallet.addresses.map { async { getAddressInfo(it.value) } }
 
             responsesDeferred.forEach {
                 when (val response = it.await()) {
@@ -220,6 +230,10 @@ internal open class BitcoinWalletManager(
         }
     }
 
+    private suspend fun getAddressInfo(address: String): Result<BitcoinAddressInfo> {
+        return utxoCache?.getInfo(address, networkProvider) ?: networkProvider.getInfo(address)
+    }
+
     private suspend fun updateFromXpub(xpub: String) = coroutineScope {
         val requests = buildDescriptors(xpub)
         val responses = requests.map { req ->
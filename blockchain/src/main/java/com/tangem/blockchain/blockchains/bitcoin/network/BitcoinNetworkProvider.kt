@@ -14,6 +14,15 @@ interface BitcoinNetworkProvider : NetworkProvider {
     suspend fun sendTransaction(transaction: String): SimpleResult
     suspend fun getSignatureCount(address: String): Result<Int>
 
+    /**
+     * Returns a short status of [address] history that changes with every transaction of the address, e.g. Electrum
+     * scripthash status. It's much cheaper than [getInfo] and is used to skip reloading unchanged addresses.
+     * Statuses of different providers aren't comparable.
+     */
+    suspend fun getAddressStatus(address: String): Result<String> {
+        return Result.Failure(BlockchainSdkError.CustomError("Not implemented yet"))
+    }
+
     suspend fun getInfoByXpub(xpub: String): Result<XpubInfoResponse> {
         return Result.Failure(BlockchainSdkError.CustomError("Not implemented yet"))
     }
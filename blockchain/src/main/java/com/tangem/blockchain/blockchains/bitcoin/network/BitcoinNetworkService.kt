@@ -38,6 +38,13 @@ open class BitcoinNetworkService(
     override suspend fun getSignatureCount(address: String): Result<Int> =
         multiProvider.performRequest(BitcoinNetworkProvider::getSignatureCount, address)
 
+    /**
+     * Status is requested from the current provider only: statuses of different providers aren't comparable and
+     * a failure just leads to full reload by [getInfo]
+     */
+    override suspend fun getAddressStatus(address: String): Result<String> =
+        multiProvider.currentProvider.getAddressStatus(address)
+
     override suspend fun getInfoByXpub(xpub: String): Result<XpubInfoResponse> =
         multiProvider.performRequest(BitcoinNetworkProvider::getInfoByXpub, xpub)
 
@@ -28,11 +28,14 @@ public class BitcoinCashTransaction extends Transaction {
 
     public final byte SIGHASH_FORK_ID = 0x40;
 
+    // hashes of the whole transaction shared by hashes for signature of all inputs, reset on every modification
+    private volatile SigHashContext sigHashContext;
+
     public BitcoinCashTransaction(NetworkParameters params) {
         super(params);
     }
 
-    public synchronized Sha256Hash hashForSignatureWitness(
+    public Sha256Hash hashForSignatureWitness(
             int inputIndex,
             byte[] connectedScript,
             Coin prevValue,
@@ -41,8 +44,9 @@ public class BitcoinCashTransaction extends Transaction {
     {
         byte sigHashType = (byte) TransactionSignature.calcSigHashValue(type, anyoneCanPay);
         sigHashType |= SIGHASH_FORK_ID;
+        SigHashContext context = getSigHashContext();
 
-        ByteArrayOutputStream bos = new UnsafeByteArrayOutputStream(length == UNKNOWN_LENGTH ? 256 : length + 4);
+        ByteArrayOutputStream bos = new UnsafeByteArrayOutputStream(256 + connectedScript.length);
         try {
             byte[] hashPrevouts = new byte[32];
             byte[] hashSequence = new byte[32];
@@ -52,41 +56,18 @@ public class BitcoinCashTransaction extends Transaction {
             List<TransactionOutput> outputs = getOutputs();
 
             if (!anyoneCanPay) {
-                ByteArrayOutputStream bosHashPrevouts = new UnsafeByteArrayOutputStream(256);
-                for (int i = 0; i < inputs.size(); ++i) {
-                    bosHashPrevouts.write(inputs.get(i).getOutpoint().getHash().getReversedBytes());
-                    uint32ToByteStreamLE(inputs.get(i).getOutpoint().getIndex(), bosHashPrevouts);
-                }
-                hashPrevouts = Sha256Hash.hashTwice(bosHashPrevouts.toByteArray());
+                hashPrevouts = context.hashPrevouts;
             }
 
             if (!anyoneCanPay && type != SigHash.SINGLE && type != SigHash.NONE) {
-                ByteArrayOutputStream bosSequence = new UnsafeByteArrayOutputStream(256);
-                for (int i = 0; i < inputs.size(); ++i) {
-                    uint32ToByteStreamLE(inputs.get(i).getSequenceNumber(), bosSequence);
-                }
-                hashSequence = Sha256Hash.hashTwice(bosSequence.toByteArray());
+                hashSequence = context.hashSequence;
             }
 
             if (type != SigHash.SINGLE && type != SigHash.NONE) {
-                ByteArrayOutputStream bosHashOutputs = new UnsafeByteArrayOutputStream(256);
-                for (int i = 0; i < outputs.size(); ++i) {
-                    uint64ToByteStreamLE(
-                            BigInteger.valueOf(outputs.get(i).getValue().getValue()),
-                            bosHashOutputs
-                    );
-                    bosHashOutputs.write(new VarInt(outputs.get(i).getScriptBytes().length).encode());
-                    bosHashOutputs.write(outputs.get(i).getScriptBytes());
-                }
-                hashOutputs = Sha256Hash.hashTwice(bosHashOutputs.toByteArray());
+                hashOutputs = context.hashOutputs;
             } else if (type == SigHash.SINGLE && inputIndex < outputs.size()) {
                 ByteArrayOutputStream bosHashOutputs = new UnsafeByteArrayOutputStream(256);
-                uint64ToByteStreamLE(
-                        BigInteger.valueOf(outputs.get(inputIndex).getValue().getValue()),
-                        bosHashOutputs
-                );
-                bosHashOutputs.write(new VarInt(outputs.get(inputIndex).getScriptBytes().length).encode());
-                bosHashOutputs.write(outputs.get(inputIndex).getScriptBytes());
+                writeOutput(outputs.get(inputIndex), bosHashOutputs);
                 hashOutputs = Sha256Hash.hashTwice(bosHashOutputs.toByteArray());
             }
             uint32ToByteStreamLE(getVersion(), bos);
@@ -107,4 +88,66 @@ public class BitcoinCashTransaction extends Transaction {
 
         return Sha256Hash.twiceOf(bos.toByteArray());
     }
+
+    // inputs, outputs, their values, scripts and sequence numbers are modified only via methods calling unCache
+    @Override
+    protected void unCache() {
+        super.unCache();
+        sigHashContext = null;
+    }
+
+    private SigHashContext getSigHashContext() {
+        SigHashContext context = sigHashContext;
+        if (context == null) {
+            // computed concurrently at most once per thread, all results are equal
+            context = createSigHashContext();
+            sigHashContext = context;
+        }
+        return context;
+    }
+
+    private SigHashContext createSigHashContext() {
+        List<TransactionInput> inputs = getInputs();
+        List<TransactionOutput> outputs = getOutputs();
+
+        ByteArrayOutputStream bosHashPrevouts = new UnsafeByteArrayOutputStream(36 * inputs.size());
+        ByteArrayOutputStream bosSequence = new UnsafeByteArrayOutputStream(4 * inputs.size());
+        ByteArrayOutputStream bosHashOutputs = new UnsafeByteArrayOutputStream(256);
+        try {
+            for (TransactionInput input : inputs) {
+                bosHashPrevouts.write(input.getOutpoint().getHash().getReversedBytes());
+                uint32ToByteStreamLE(input.getOutpoint().getIndex(), bosHashPrevouts);
+                uint32ToByteStreamLE(input.getSequenceNumber(), bosSequence);
+            }
+            for (TransactionOutput output : outputs) {
+                writeOutput(output, bosHashOutputs);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);  // Cannot happen.
+        }
+
+        return new SigHashContext(
+                Sha256Hash.hashTwice(bosHashPrevouts.toByteArray()),
+                Sha256Hash.hashTwice(bosSequence.toByteArray()),
+                Sha256Hash.hashTwice(bosHashOutputs.toByteArray())
+        );
+    }
+
+    private void writeOutput(TransactionOutput output, ByteArrayOutputStream stream) throws IOException {
+        uint64ToByteStreamLE(BigInteger.valueOf(output.getValue().getValue()), stream);
+        stream.write(new VarInt(output.getScriptBytes().length).encode());
+        stream.write(output.getScriptBytes());
+    }
+
+    private static final class SigHashContext {
+        private final byte[] hashPrevouts;
+        private final byte[] hashSequence;
+        private final byte[] hashOutputs;
+
+        private SigHashContext(byte[] hashPrevouts, byte[] hashSequence, byte[] hashOutputs) {
+            this.hashPrevouts = hashPrevouts;
+            this.hashSequence = hashSequence;
+            this.hashOutputs = hashOutputs;
+        }
+    }
 }
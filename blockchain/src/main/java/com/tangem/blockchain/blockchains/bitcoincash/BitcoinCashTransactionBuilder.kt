@@ -33,12 +33,15 @@ class BitcoinCashTransactionBuilder(walletPublicKey: ByteArray, private val bloc
 
         val failResult = Result.Failure(BlockchainSdkError.FailedToBuildTx)
 
+        val (costPerInput, costOfChange) = getUTXOSelectionCosts(uncompiledTransaction)
         val outputsToSend = getMinimumRequiredUTXOsToSend(
             unspentOutputs = unspentOutputs ?: return failResult,
             transactionAmount = uncompiledTransaction.amount.value ?: return failResult,
             transactionFeeAmount = uncompiledTransaction.fee?.amount?.value ?: return failResult,
             unspentToAmount = { it.amount },
             dustValue = dustValue,
+            costPerInput = costPerInput,
+            costOfChange = costOfChange,
         ).successOr { failure ->
             return failure
         }
@@ -62,6 +65,23 @@ class BitcoinCashTransactionBuilder(walletPublicKey: ByteArray, private val bloc
         return Result.Success(hashesForSign)
     }
 
+    override fun getOutputScriptSizes(
+        transactionData: TransactionData.Uncompiled,
+        change: BigDecimal,
+    ): Result<List<Int>> {
+        val destinationLegacyAddress = resolveBitcoinCashLegacyAddress(
+            addressString = transactionData.destinationAddress,
+            addressService = BitcoinCashAddressService(blockchain),
+            networkParameters = networkParameters,
+        )
+        val scriptSizes = mutableListOf(ScriptBuilder.createOutputScript(destinationLegacyAddress).program.size)
+        if (!change.isZero()) {
+            // change is always sent to P2PKH source address
+            scriptSizes.add(ScriptBuilder.createP2PKHOutputScript(ByteArray(PUBLIC_KEY_HASH_BYTES)).program.size)
+        }
+        return Result.Success(scriptSizes)
+    }
+
     @Suppress("MagicNumber")
     override fun extractSignature(index: Int, signatures: ByteArray): TransactionSignature {
         val r = BigInteger(1, signatures.copyOfRange(index * 64, 32 + index * 64))
@@ -90,12 +110,15 @@ class BitcoinCashTransactionBuilder(walletPublicKey: ByteArray, private val bloc
         }
         val failResult = Result.Failure(BlockchainSdkError.FailedToBuildTx)
 
+        val (costPerInput, costOfChange) = getUTXOSelectionCosts(uncompiledTransaction)
         val outputsToSend = getMinimumRequiredUTXOsToSend(
             unspentOutputs = unspentOutputs ?: return failResult,
             transactionAmount = uncompiledTransaction.amount.value ?: return failResult,
             transactionFeeAmount = uncompiledTransaction.fee?.amount?.value ?: return failResult,
             unspentToAmount = { it.amount },
             dustValue = dustValue,
+            costPerInput = costPerInput,
+            costOfChange = costOfChange,
         ).successOr { failure -> return failure }
 
         val change: BigDecimal = calculateChange(transactionData, outputsToSend)
@@ -179,6 +202,7 @@ class BitcoinCashTransactionBuilder(walletPublicKey: ByteArray, private val bloc
     private companion object {
         const val BCH_SIGHASH_ALL_FORKID = 0x41 // SIGHASH_ALL (0x01) | SIGHASH_FORKID (0x40)
         const val RAW_SIGNATURE_BYTES = 64 // 32-byte r || 32-byte s, before DER encoding
+        const val PUBLIC_KEY_HASH_BYTES = 20
     }
 }
 
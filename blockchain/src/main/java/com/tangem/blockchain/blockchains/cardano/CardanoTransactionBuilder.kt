@@ -5,6 +5,7 @@ import co.nstant.`in`.cbor.CborEncoder
 import co.nstant.`in`.cbor.model.DataItem
 import com.google.protobuf.ByteString
 import com.tangem.Log
+import com.tangem.blockchain.blockchains.cardano.crypto.Blake2bEngine
 import com.tangem.blockchain.blockchains.cardano.network.common.models.CardanoUnspentOutput
 import com.tangem.blockchain.blockchains.cardano.utils.matchesCardanoAsset
 import com.tangem.blockchain.blockchains.cardano.walletcore.CardanoTWTxBuilder
@@ -13,7 +14,6 @@ import com.tangem.blockchain.common.transaction.Fee
 import com.tangem.blockchain.extensions.hexToBigDecimal
 import com.tangem.blockchain.extensions.trustWalletCoinType
 import com.tangem.common.extensions.toHexString
-import org.bouncycastle.crypto.digests.Blake2bDigest
 import org.ton.tl.ByteString.Companion.decodeFromHex
 import wallet.core.java.AnySigner
 import wallet.core.jni.CoinType
@@ -173,9 +173,7 @@ internal class CardanoTransactionBuilder(
     }
 
     private fun hashBlake2b256(data: ByteArray): ByteArray {
-        val digest = Blake2bDigest(BLAKE2B_BIT_LENGTH)
-        digest.update(data, 0, data.size)
-        return ByteArray(BLAKE2B_BYTE_LENGTH).also { digest.doFinal(it, 0) }
+        return Blake2bEngine.hash(input = data, digestLength = BLAKE2B_BYTE_LENGTH)
     }
 
     fun buildForSend(transactionData: TransactionData, signatureInfo: SignatureInfo): ByteArray {
@@ -0,0 +1,325 @@
+package com.tangem.blockchain.blockchains.cardano.crypto
+
+import java.nio.ByteBuffer
+
+/**
+ * Reusable BLAKE2b (RFC 7693) engine that doesn't allocate memory while hashing.
+ *
+ * Instance is reset after every [doFinal], so it can be used for any number of hashes, but it isn't thread-safe and
+ * must be confined to a thread, e.g. by [threadLocal]. State after the key block of keyed hashing (MAC) is computed
+ * once in the constructor.
+ *
+ * @param digestLength length of digest in bytes, from 1 to 64
+ * @param key          key of keyed hashing, up to 64 bytes, null or empty for unkeyed hashing
+ */
+@Suppress("MagicNumber")
+class Blake2bEngine(
+    val digestLength: Int,
+    key: ByteArray? = null,
+) {
+
+    private val initialState = LongArray(STATE_WORDS)
+    private val keyBlock: ByteArray?
+    private val keyedState: LongArray?
+
+    private val state = LongArray(STATE_WORDS)
+    private val message = LongArray(BLOCK_WORDS)
+    private val buffer = ByteArray(BLOCK_BYTES)
+    private var bufferLength = 0
+    private var counter = 0L
+    private var isEmpty = true
+
+    init {
+        require(digestLength in 1..MAX_DIGEST_BYTES) { "Digest length must be from 1 to $MAX_DIGEST_BYTES" }
+        val keyLength = key?.size ?: 0
+        require(keyLength <= MAX_KEY_BYTES) { "Key length must be up to $MAX_KEY_BYTES" }
+
+        IV.copyInto(initialState)
+        initialState[0] = initialState[0] xor (0x01010000L or (keyLength.toLong() shl 8) or digestLength.toLong())
+
+        if (key != null && keyLength > 0) {
+            keyBlock = key.copyOf(BLOCK_BYTES)
+            keyedState = initialState.copyOf()
+            compress(keyedState, keyBlock, offset = 0, counter = BLOCK_BYTES.toLong(), isLastBlock = false)
+        } else {
+            keyBlock = null
+            keyedState = null
+        }
+        reset()
+    }
+
+    /** Discards all the data hashed since the last [doFinal] */
+    fun reset() {
+        (keyedState ?: initialState).copyInto(state)
+        counter = if (keyedState != null) BLOCK_BYTES.toLong() else 0L
+        bufferLength = 0
+        isEmpty = true
+    }
+
+    fun update(input: Byte) {
+        if (bufferLength == BLOCK_BYTES) compressBuffer()
+        buffer[bufferLength++] = input
+        isEmpty = false
+    }
+
+    fun update(input: ByteArray) {
+        update(input, 0, input.size)
+    }
+
+    fun update(input: ByteArray, offset: Int, length: Int) {
+        if (length <= 0) return
+        isEmpty = false
+
+        var position = offset
+        val end = offset + length
+
+        if (bufferLength > 0) {
+            val count = minOf(BLOCK_BYTES - bufferLength, end - position)
+            input.copyInto(buffer, bufferLength, position, position + count)
+            bufferLength += count
+            position += count
+            // the last block is compressed on doFinal
+            if (position == end) return
+            compressBuffer()
+        }
+
+        while (end - position > BLOCK_BYTES) {
+            counter += BLOCK_BYTES
+            compress(state, input, position, counter, isLastBlock = false)
+            position += BLOCK_BYTES
+        }
+
+        input.copyInto(buffer, 0, position, end)
+        bufferLength = end - position
+    }
+
+    /** Hashes remaining bytes of [input] and moves its position to the limit */
+    fun update(input: ByteBuffer) {
+        if (input.hasArray()) {
+            update(input.array(), input.arrayOffset() + input.position(), input.remaining())
+            input.position(input.limit())
+            return
+        }
+
+        while (input.hasRemaining()) {
+            if (bufferLength == BLOCK_BYTES) compressBuffer()
+            val count = minOf(BLOCK_BYTES - bufferLength, input.remaining())
+            input.get(buffer, bufferLength, count)
+            bufferLength += count
+            isEmpty = false
+        }
+    }
+
+    /** Writes [digestLength] bytes of digest to [output] from [offset] and resets the engine */
+    fun doFinal(output: ByteArray, offset: Int = 0) {
+        require(output.size - offset >= digestLength) { "Output is too short" }
+
+        if (keyBlock != null && isEmpty) {
+            // the key block is the last one
+            initialState.copyInto(state)
+            keyBlock.copyInto(buffer)
+            bufferLength = BLOCK_BYTES
+            counter = 0L
+        }
+
+        counter += bufferLength
+        buffer.fill(0, bufferLength, BLOCK_BYTES)
+        compress(state, buffer, offset = 0, counter = counter, isLastBlock = true)
+
+        for (i in 0 until digestLength) {
+            output[offset + i] = (state[i ushr 3] ushr ((i and 7) shl 3)).toByte()
+        }
+        reset()
+    }
+
+    /** Returns digest of [input] hashed after the data passed to update methods */
+    fun digest(input: ByteArray): ByteArray {
+        update(input, 0, input.size)
+        return ByteArray(digestLength).also { doFinal(it) }
+    }
+
+    private fun compressBuffer() {
+        counter += BLOCK_BYTES
+        compress(state, buffer, offset = 0, counter = counter, isLastBlock = false)
+        bufferLength = 0
+    }
+
+    @Suppress("LongMethod")
+    private fun compress(h: LongArray, block: ByteArray, offset: Int, counter: Long, isLastBlock: Boolean) {
+        val m = message
+        for (i in 0 until BLOCK_WORDS) {
+            m[i] = readLongLE(block, offset + i * 8)
+        }
+
+        var v0 = h[0]
+        var v1 = h[1]
+        var v2 = h[2]
+        var v3 = h[3]
+        var v4 = h[4]
+        var v5 = h[5]
+        var v6 = h[6]
+        var v7 = h[7]
+        var v8 = IV[0]
+        var v9 = IV[1]
+        var v10 = IV[2]
+        var v11 = IV[3]
+        var v12 = IV[4] xor counter
+        var v13 = IV[5]
+        var v14 = if (isLastBlock) IV[6].inv() else IV[6]
+        var v15 = IV[7]
+
+        var s = 0
+        repeat(ROUNDS) {
+            // G(v0, v4, v8, v12)
+            v0 += v4 + m[SIGMA[s]]
+            v12 = (v12 xor v0).rotateRight(32)
+            v8 += v12
+            v4 = (v4 xor v8).rotateRight(24)
+            v0 += v4 + m[SIGMA[s + 1]]
+            v12 = (v12 xor v0).rotateRight(16)
+            v8 += v12
+            v4 = (v4 xor v8).rotateRight(63)
+            // G(v1, v5, v9, v13)
+            v1 += v5 + m[SIGMA[s + 2]]
+            v13 = (v13 xor v1).rotateRight(32)
+            v9 += v13
+            v5 = (v5 xor v9).rotateRight(24)
+            v1 += v5 + m[SIGMA[s + 3]]
+            v13 = (v13 xor v1).rotateRight(16)
+            v9 += v13
+            v5 = (v5 xor v9).rotateRight(63)
+            // G(v2, v6, v10, v14)
+            v2 += v6 + m[SIGMA[s + 4]]
+            v14 = (v14 xor v2).rotateRight(32)
+            v10 += v14
+            v6 = (v6 xor v10).rotateRight(24)
+            v2 += v6 + m[SIGMA[s + 5]]
+            v14 = (v14 xor v2).rotateRight(16)
+            v10 += v14
+            v6 = (v6 xor v10).rotateRight(63)
+            // G(v3, v7, v11, v15)
+            v3 += v7 + m[SIGMA[s + 6]]
+            v15 = (v15 xor v3).rotateRight(32)
+            v11 += v15
+            v7 = (v7 xor v11).rotateRight(24)
+            v3 += v7 + m[SIGMA[s + 7]]
+            v15 = (v15 xor v3).rotateRight(16)
+            v11 += v15
+            v7 = (v7 xor v11).rotateRight(63)
+            // G(v0, v5, v10, v15)
+            v0 += v5 + m[SIGMA[s + 8]]
+            v15 = (v15 xor v0).rotateRight(32)
+            v10 += v15
+            v5 = (v5 xor v10).rotateRight(24)
+            v0 += v5 + m[SIGMA[s + 9]]
+            v15 = (v15 xor v0).rotateRight(16)
+            v10 += v15
+            v5 = (v5 xor v10).rotateRight(63)
+            // G(v1, v6, v11, v12)
+            v1 += v6 + m[SIGMA[s + 10]]
+            v12 = (v12 xor v1).rotateRight(32)
+            v11 += v12
+            v6 = (v6 xor v11).rotateRight(24)
+            v1 += v6 + m[SIGMA[s + 11]]
+            v12 = (v12 xor v1).rotateRight(16)
+            v11 += v12
+            v6 = (v6 xor v11).rotateRight(63)
+            // G(v2, v7, v8, v13)
+            v2 += v7 + m[SIGMA[s + 12]]
+            v13 = (v13 xor v2).rotateRight(32)
+            v8 += v13
+            v7 = (v7 xor v8).rotateRight(24)
+            v2 += v7 + m[SIGMA[s + 13]]
+            v13 = (v13 xor v2).rotateRight(16)
+            v8 += v13
+            v7 = (v7 xor v8).rotateRight(63)
+            // G(v3, v4, v9, v14)
+            v3 += v4 + m[SIGMA[s + 14]]
+            v14 = (v14 xor v3).rotateRight(32)
+            v9 += v14
+            v4 = (v4 xor v9).rotateRight(24)
+            v3 += v4 + m[SIGMA[s + 15]]
+            v14 = (v14 xor v3).rotateRight(16)
+            v9 += v14
+            v4 = (v4 xor v9).rotateRight(63)
+
+            s += BLOCK_WORDS
+        }
+
+        h[0] = h[0] xor v0 xor v8
+        h[1] = h[1] xor v1 xor v9
+        h[2] = h[2] xor v2 xor v10
+        h[3] = h[3] xor v3 xor v11
+        h[4] = h[4] xor v4 xor v12
+        h[5] = h[5] xor v5 xor v13
+        h[6] = h[6] xor v6 xor v14
+        h[7] = h[7] xor v7 xor v15
+    }
+
+    private fun readLongLE(bytes: ByteArray, offset: Int): Long {
+        var result = 0L
+        for (i in 7 downTo 0) {
+            result = (result shl 8) or (bytes[offset + i].toLong() and 0xFF)
+        }
+        return result
+    }
+
+    companion object {
+        const val MAX_DIGEST_BYTES = 64
+        const val MAX_KEY_BYTES = 64
+
+        private const val BLOCK_BYTES = 128
+        private const val BLOCK_WORDS = 16
+        private const val STATE_WORDS = 8
+        private const val ROUNDS = 12
+
+        private val IV = longArrayOf(
+            0x6a09e667f3bcc908L,
+            -0x4498517a7b3558c5L, // 0xbb67ae8584caa73b
+            0x3c6ef372fe94f82bL,
+            -0x5ab00ac5a0e2c90fL, // 0xa54ff53a5f1d36f1
+            0x510e527fade682d1L,
+            -0x64fa9773d4c193e1L, // 0x9b05688c2b3e6c1f
+            0x1f83d9abfb41bd6bL,
+            0x5be0cd19137e2179L,
+        )
+
+        // message word permutations of all rounds, the last two rounds repeat the first two
+        private val SIGMA = intArrayOf(
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+            14, 10, 4, 8, 9, 15, 13, 6, 1, 12, 0, 2, 11, 7, 5, 3,
+            11, 8, 12, 0, 5, 2, 15, 13, 10, 14, 3, 6, 7, 1, 9, 4,
+            7, 9, 3, 1, 13, 12, 11, 14, 2, 6, 5, 10, 4, 0, 15, 8,
+            9, 0, 5, 7, 2, 4, 10, 15, 14, 1, 11, 12, 6, 8, 3, 13,
+            2, 12, 6, 10, 0, 11, 8, 3, 4, 13, 7, 5, 15, 14, 1, 9,
+            12, 5, 1, 15, 14, 13, 4, 10, 0, 7, 6, 3, 9, 2, 8, 11,
+            13, 11, 7, 14, 12, 1, 3, 9, 5, 0, 15, 4, 8, 6, 2, 10,
+            6, 15, 14, 9, 11, 3, 0, 8, 12, 2, 13, 7, 1, 4, 10, 5,
+            10, 2, 8, 4, 7, 6, 1, 5, 15, 11, 9, 14, 3, 12, 13, 0,
+            0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15,
+            14, 10, 4, 8, 9, 15, 13, 6, 1, 12, 0, 2, 11, 7, 5, 3,
+        )
+
+        private val unkeyedEngines = object : ThreadLocal<Array<Blake2bEngine?>>() {
+            override fun initialValue(): Array<Blake2bEngine?> = arrayOfNulls(MAX_DIGEST_BYTES + 1)
+        }
+
+        /** Returns unkeyed digest of [input] of [digestLength] bytes using engine of the current thread */
+        @JvmStatic
+        fun hash(input: ByteArray, digestLength: Int): ByteArray {
+            require(digestLength in 1..MAX_DIGEST_BYTES) { "Digest length must be from 1 to $MAX_DIGEST_BYTES" }
+            val engines = requireNotNull(unkeyedEngines.get())
+            val engine = engines[digestLength] ?: Blake2bEngine(digestLength).also { engines[digestLength] = it }
+            return engine.digest(input)
+        }
+
+        /** Creates [ThreadLocal] of engines, so instances are shared by hashes on the same thread */
+        @JvmStatic
+        fun threadLocal(digestLength: Int, key: ByteArray? = null): ThreadLocal<Blake2bEngine> {
+            val keyCopy = key?.copyOf()
+            return object : ThreadLocal<Blake2bEngine>() {
+                override fun initialValue(): Blake2bEngine = Blake2bEngine(digestLength, keyCopy)
+            }
+        }
+    }
+}
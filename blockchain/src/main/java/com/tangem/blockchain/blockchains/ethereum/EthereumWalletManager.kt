@@ -111,7 +111,7 @@ open class EthereumWalletManager(
         pendingTxCount = data.pendingTxCount
 
         if (DepsContainer.blockchainFeatureToggles.isPendingTransactionsEnabled) {
-            val pendingTransactionUpdate = pendingTransactionsProvider.checkPendingTransactions()
+            val pendingTransactionUpdate = pendingTransactionsProvider.checkPendingTransactions(accountNonce = txCount)
             val pendingTransactions = pendingTransactionsProvider.getPendingTransactions(null)
 
             updatePendingTransactions(
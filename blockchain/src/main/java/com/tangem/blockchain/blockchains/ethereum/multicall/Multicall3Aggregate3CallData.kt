@@ -0,0 +1,79 @@
+package com.tangem.blockchain.blockchains.ethereum.multicall
+
+import com.tangem.blockchain.blockchains.ethereum.EthereumUtils.WORD_BYTES
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.smartcontract.Erc20CallData
+import com.tangem.blockchain.common.smartcontract.SmartContractCallData
+import com.tangem.blockchain.extensions.hexToFixedSizeBytes
+import com.tangem.blockchain.extensions.toFixedSizeBytes
+import com.tangem.blockchain.extensions.toFixedSizeBytesRightPadding
+import com.tangem.common.extensions.hexToBytes
+import com.tangem.common.extensions.toByteArray
+
+/**
+ * Multicall3 call data - aggregate3((address target, bool allowFailure, bytes callData)[] calls)
+ *
+ * @see <a href="https://github.com/mds1/multicall">Multicall3</a>
+ */
+internal data class Multicall3Aggregate3CallData(
+    private val calls: List<Multicall3Call>,
+) : SmartContractCallData {
+
+    override val methodId: String = "0x82ad56cb"
+
+    override val data: ByteArray
+        get() {
+            val arrayOffset = WORD_BYTES.toByteArray().toFixedSizeBytes()
+            val arrayLength = calls.size.toByteArray().toFixedSizeBytes()
+
+            var tupleOffset = calls.size * WORD_BYTES
+            val tupleOffsets = calls.fold(ByteArray(0)) { acc, call ->
+                val offset = tupleOffset.toByteArray().toFixedSizeBytes()
+                tupleOffset += call.encodedSize()
+                acc + offset
+            }
+            val tuples = calls.fold(ByteArray(0)) { acc, call -> acc + call.encode() }
+
+            return methodId.hexToBytes() + arrayOffset + arrayLength + tupleOffsets + tuples
+        }
+
+    override fun validate(blockchain: Blockchain): Boolean {
+        return calls.isNotEmpty() && calls.all { blockchain.validateAddress(it.target) }
+    }
+
+    companion object {
+        /** Size in bytes of selector, array offset and array length */
+        const val HEAD_SIZE = 4 + 2 * WORD_BYTES
+
+        private const val TUPLE_STATIC_WORDS = 4
+
+        /** Size in bytes [call] adds to the call data, including its offset word */
+        fun encodedSizeOf(call: Multicall3Call): Int = WORD_BYTES + call.encodedSize()
+
+        private fun Multicall3Call.encodedSize(): Int = TUPLE_STATIC_WORDS * WORD_BYTES + callData.paddedSize()
+
+        private fun Multicall3Call.encode(): ByteArray {
+            val bytesOffset = (TUPLE_STATIC_WORDS - 1) * WORD_BYTES
+            return Erc20CallData.addressWithoutPrefix(target).hexToFixedSizeBytes() +
+                (if (allowFailure) 1 else 0).toByteArray().toFixedSizeBytes() +
+                bytesOffset.toByteArray().toFixedSizeBytes() +
+                callData.size.toByteArray().toFixedSizeBytes() +
+                callData.toFixedSizeBytesRightPadding(fixedSize = callData.paddedSize())
+        }
+
+        private fun ByteArray.paddedSize(): Int = (size + WORD_BYTES - 1) / WORD_BYTES * WORD_BYTES
+    }
+}
+
+/**
+ * Single call inside of [Multicall3Aggregate3CallData]
+ *
+ * @property target       contract address to call
+ * @property allowFailure whether revert of this call is allowed without reverting the whole aggregate
+ * @property callData     encoded call data of the target method
+ */
+internal class Multicall3Call(
+    val target: String,
+    val allowFailure: Boolean,
+    val callData: ByteArray,
+)
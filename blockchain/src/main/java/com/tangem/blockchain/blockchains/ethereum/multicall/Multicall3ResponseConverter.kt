@@ -0,0 +1,68 @@
+package com.tangem.blockchain.blockchains.ethereum.multicall
+
+import com.tangem.blockchain.blockchains.ethereum.EthereumUtils.WORD_BYTES
+import com.tangem.blockchain.common.HEX_PREFIX
+import com.tangem.common.extensions.hexToBytes
+import java.math.BigInteger
+
+internal object Multicall3ResponseConverter {
+
+    /**
+     * Converts the Multicall3 `aggregate3` response to the list of call results in the order of calls.
+     *
+     * @param result The ABI encoded `(bool success, bytes returnData)[]` in hex.
+     *
+     * Example input for a single call:
+     * "0x" +
+     * "0000000000000000000000000000000000000000000000000000000000000020" + // offset to array
+     * "0000000000000000000000000000000000000000000000000000000000000001" + // array length
+     * "0000000000000000000000000000000000000000000000000000000000000020" + // offset to tuple #0
+     * "0000000000000000000000000000000000000000000000000000000000000001" + // success
+     * "0000000000000000000000000000000000000000000000000000000000000040" + // offset to returnData
+     * "0000000000000000000000000000000000000000000000000000000000000020" + // returnData length
+     * "00000000000000000000000000000000000000000000000000000000000f4240"   // returnData
+     */
+    fun convert(result: String): List<Multicall3Result> {
+        val data = result.removePrefix(HEX_PREFIX).hexToBytes()
+
+        val arrayStart = data.readInt(0)
+        val length = data.readInt(arrayStart)
+        val offsetsStart = arrayStart + WORD_BYTES
+
+        return List(length) { index ->
+            val tupleStart = offsetsStart + data.readInt(offsetsStart + index * WORD_BYTES)
+            val success = data.readInt(tupleStart) != 0
+            val returnDataStart = tupleStart + data.readInt(tupleStart + WORD_BYTES)
+            val returnDataLength = data.readInt(returnDataStart)
+            val returnDataEnd = returnDataStart + WORD_BYTES + returnDataLength
+            require(returnDataEnd <= data.size) {
+                "Response too short to contain return data. Need $returnDataEnd bytes but only have ${data.size}"
+            }
+
+            Multicall3Result(
+                success = success,
+                returnData = data.copyOfRange(returnDataStart + WORD_BYTES, returnDataEnd),
+            )
+        }
+    }
+
+    private fun ByteArray.readInt(offset: Int): Int {
+        require(offset >= 0 && offset + WORD_BYTES <= size) {
+            "Response too short to contain word at position $offset, but response length is $size"
+        }
+        val value = BigInteger(1, copyOfRange(offset, offset + WORD_BYTES))
+        require(value.bitLength() < Int.SIZE_BITS) { "Value at position $offset is out of Int range" }
+        return value.toInt()
+    }
+}
+
+/**
+ * Result of a single call inside of Multicall3 `aggregate3`
+ *
+ * @property success    false if the call reverted
+ * @property returnData raw data returned by the call
+ */
+internal class Multicall3Result(
+    val success: Boolean,
+    val returnData: ByteArray,
+)
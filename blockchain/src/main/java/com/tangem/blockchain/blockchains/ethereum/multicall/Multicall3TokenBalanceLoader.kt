@@ -0,0 +1,134 @@
+package com.tangem.blockchain.blockchains.ethereum.multicall
+
+import com.tangem.blockchain.blockchains.ethereum.EthereumUtils
+import com.tangem.blockchain.blockchains.ethereum.network.ContractCallData
+import com.tangem.blockchain.blockchains.ethereum.network.EthereumLikeJsonRpcProvider
+import com.tangem.blockchain.blockchains.ethereum.tokenmethods.TokenBalanceERC20TokenCallData
+import com.tangem.blockchain.common.Amount
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.HEX_PREFIX
+import com.tangem.blockchain.common.Token
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.network.MultiNetworkProvider
+import com.tangem.common.extensions.toHexString
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+
+/**
+ * Loads ERC-20 token balances packed into Multicall3 `aggregate3` calls instead of one `eth_call` per token.
+ *
+ * Calls are chunked by call data size. Tokens whose call reverted or returned malformed data, as well as whole
+ * chunks that failed, are loaded one by one with the given fallback to keep per-token results.
+ * If the contract turns out to be not deployed on the chain, batching is switched off for this loader.
+ */
+internal class Multicall3TokenBalanceLoader(
+    private val multiJsonRpcProvider: MultiNetworkProvider<out EthereumLikeJsonRpcProvider>,
+    private val multicallAddress: String,
+    private val maxCallDataSize: Int = MAX_CALL_DATA_SIZE,
+) {
+
+    @Volatile
+    private var isContractDeployed = true
+
+    suspend fun getTokensBalance(
+        address: String,
+        tokens: List<Token>,
+        loadSingle: suspend (Token) -> Amount,
+    ): List<Amount> = coroutineScope {
+        if (!isContractDeployed || tokens.size < MIN_TOKENS_TO_BATCH) {
+            return@coroutineScope tokens.map { token -> async { loadSingle(token) } }.awaitAll()
+        }
+
+        chunk(address, tokens)
+            .map { chunk -> async { getChunkBalance(address, chunk, loadSingle) } }
+            .awaitAll()
+            .flatten()
+    }
+
+    private suspend fun getChunkBalance(
+        address: String,
+        tokens: List<Token>,
+        loadSingle: suspend (Token) -> Amount,
+    ): List<Amount> = coroutineScope {
+        val callData = Multicall3Aggregate3CallData(calls = tokens.map { it.toBalanceCall(address) })
+        val response = multiJsonRpcProvider.performHedgedRequest(
+            EthereumLikeJsonRpcProvider::call,
+            ContractCallData(to = multicallAddress, data = callData.dataHex),
+        )
+        val rawResult = ((response as? Result.Success)?.data?.result as? String)?.removePrefix(HEX_PREFIX)
+
+        if (rawResult != null && rawResult.isEmpty()) {
+            // eth_call to an address without code succeeds with empty data
+            isContractDeployed = false
+        }
+
+        val results = rawResult
+            ?.let { runCatching { Multicall3ResponseConverter.convert(it) }.getOrNull() }
+            ?.takeIf { it.size == tokens.size }
+            ?: return@coroutineScope tokens.map { token -> async { loadSingle(token) } }.awaitAll()
+
+        tokens.zip(results).map { (token, result) ->
+            async {
+                val balance = if (result.success) {
+                    EthereumUtils.parseEthereumDecimal(result.returnData.toHexString(), token.decimals)
+                } else {
+                    null
+                }
+
+                if (balance != null) Amount(token = token, value = balance) else loadSingle(token)
+            }
+        }.awaitAll()
+    }
+
+    private fun chunk(address: String, tokens: List<Token>): List<List<Token>> {
+        val chunks = mutableListOf<List<Token>>()
+        var current = mutableListOf<Token>()
+        var currentSize = Multicall3Aggregate3CallData.HEAD_SIZE
+
+        tokens.forEach { token ->
+            val callSize = Multicall3Aggregate3CallData.encodedSizeOf(token.toBalanceCall(address))
+            if (current.isNotEmpty() && currentSize + callSize > maxCallDataSize) {
+                chunks.add(current)
+                current = mutableListOf()
+                currentSize = Multicall3Aggregate3CallData.HEAD_SIZE
+            }
+            current.add(token)
+            currentSize += callSize
+        }
+        if (current.isNotEmpty()) chunks.add(current)
+
+        return chunks
+    }
+
+    private fun Token.toBalanceCall(address: String) = Multicall3Call(
+        target = contractAddress,
+        allowFailure = true,
+        callData = TokenBalanceERC20TokenCallData(address = address).data,
+    )
+
+    companion object {
+        private const val MULTICALL3_ADDRESS = "0xcA11bde05977b3631167028862bE2a173976CA11"
+        private const val ZKSYNC_MULTICALL3_ADDRESS = "0xF9cda624FBC7e059355ce98a31693d299FACd963"
+
+        private const val MIN_TOKENS_TO_BATCH = 2
+
+        // Keeps a chunk around 70 balanceOf calls, far below node eth_call gas and body size caps
+        private const val MAX_CALL_DATA_SIZE = 16 * 1024
+
+        /**
+         * Returns a loader for [multiJsonRpcProvider] blockchain or null if Multicall3 is not available there
+         */
+        fun create(
+            multiJsonRpcProvider: MultiNetworkProvider<out EthereumLikeJsonRpcProvider>,
+        ): Multicall3TokenBalanceLoader? {
+            val multicallAddress = when (multiJsonRpcProvider.blockchain) {
+                Blockchain.ZkSyncEra, Blockchain.ZkSyncEraTestnet -> ZKSYNC_MULTICALL3_ADDRESS
+                Blockchain.Quai, Blockchain.QuaiTestnet -> null
+                else -> MULTICALL3_ADDRESS.takeIf { multiJsonRpcProvider.blockchain.isEvm() }
+            } ?: return null
+
+            return Multicall3TokenBalanceLoader(multiJsonRpcProvider, multicallAddress)
+        }
+    }
+}
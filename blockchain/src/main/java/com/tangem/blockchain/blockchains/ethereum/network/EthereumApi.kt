@@ -1,5 +1,7 @@
 package com.tangem.blockchain.blockchains.ethereum.network
 
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
 import com.tangem.blockchain.common.JsonRPCRequest
 import com.tangem.blockchain.common.JsonRPCResponse
 import com.tangem.blockchain.common.NowNodeCredentials
@@ -15,13 +17,23 @@ internal interface EthereumApi {
         @Header("Authorization") token: String? = null,
         @Header(NowNodeCredentials.headerApiKey) nowNodesApiKey: String? = null,
     ): JsonRPCResponse
+
+    @Headers("Content-Type: application/json")
+    @POST
+    suspend fun postBatch(
+        @Body body: List<@JvmSuppressWildcards JsonRPCRequest>,
+        @Url infuraProjectId: String,
+        @Header("Authorization") token: String? = null,
+        @Header(NowNodeCredentials.headerApiKey) nowNodesApiKey: String? = null,
+    ): List<JsonRPCResponse>
 }
 
+@JsonClass(generateAdapter = true)
 data class EthCallObject(
-    val to: String,
-    val from: String? = null,
-    val value: String? = null,
-    val data: String? = null,
+    @Json(name = "to") val to: String,
+    @Json(name = "from") val from: String? = null,
+    @Json(name = "value") val value: String? = null,
+    @Json(name = "data") val data: String? = null,
 )
 
 /**
@@ -11,6 +11,7 @@ import com.tangem.blockchain.common.toBlockchainSdkError
 import com.tangem.blockchain.extensions.Result
 import com.tangem.blockchain.extensions.retryIO
 import com.tangem.blockchain.network.createRetrofitInstance
+import com.tangem.blockchain.network.jsonrpc.JsonRPCBatcher
 
 /**
  * Abstract base class for Ethereum-like JSON RPC providers
@@ -25,6 +26,11 @@ internal abstract class EthereumLikeJsonRpcProvider(
 
     private val api = createRetrofitInstance(baseUrl).create(EthereumApi::class.java)
 
+    private val batcher = JsonRPCBatcher(
+        postSingle = { request -> api.post(request, postfixUrl, authToken, nowNodesApiKey) },
+        postBatch = { requests -> api.postBatch(requests, postfixUrl, authToken, nowNodesApiKey) },
+    )
+
     /**
      * Get the RPC method interface for this blockchain
      */
@@ -95,7 +101,7 @@ internal abstract class EthereumLikeJsonRpcProvider(
     suspend fun sendTransaction(transaction: String) = createEthereumLikeBody(
         method = getMethods().sendRawTransaction,
         transaction,
-    ).post()
+    ).post(isBatchable = false)
 
     suspend fun getGasLimit(call: EthCallObject) = createEthereumLikeBody(
         method = getMethods().estimateGas,
@@ -131,7 +137,7 @@ internal abstract class EthereumLikeJsonRpcProvider(
     ).post()
 
     private fun createEthereumLikeBody(method: String, vararg params: Any): JsonRPCRequest {
-        return JsonRPCRequest(method = method, params = params, id = "67")
+        return JsonRPCRequest(method = method, params = params, id = batcher.nextId())
     }
 
     private fun createTokenBalanceCallObject(address: String, contractAddress: String) = EthCallObject(
@@ -165,15 +171,23 @@ internal abstract class EthereumLikeJsonRpcProvider(
         data = ReverseResolveENSAddressCallData(address = address).dataHex,
     )
 
-    private suspend fun JsonRPCRequest.post(): Result<JsonRPCResponse> {
+    /**
+     * Posts the request. Batchable requests issued concurrently are coalesced by [JsonRPCBatcher]
+     * into a single JSON-RPC batch array.
+     */
+    private suspend fun JsonRPCRequest.post(isBatchable: Boolean = true): Result<JsonRPCResponse> {
         return try {
             val result = retryIO {
-                api.post(
-                    body = this,
-                    infuraProjectId = postfixUrl,
-                    token = authToken,
-                    nowNodesApiKey = nowNodesApiKey,
-                )
+                if (isBatchable) {
+                    batcher.call(request = this)
+                } else {
+                    api.post(
+                        body = this,
+                        infuraProjectId = postfixUrl,
+                        token = authToken,
+                        nowNodesApiKey = nowNodesApiKey,
+                    )
+                }
             }
             Result.Success(result)
         } catch (exception: Exception) {
@@ -8,6 +8,7 @@ import com.tangem.blockchain.blockchains.ethereum.converters.ENSReverseResponseC
 import com.tangem.blockchain.blockchains.ethereum.converters.EthereumFeeHistoryConverter
 import com.tangem.blockchain.blockchains.ethereum.gas.StateOverrideBuilder
 import com.tangem.blockchain.blockchains.ethereum.models.EthereumFeeHistoryResponse
+import com.tangem.blockchain.blockchains.ethereum.multicall.Multicall3TokenBalanceLoader
 import com.tangem.blockchain.common.*
 import com.tangem.blockchain.common.di.DepsContainer
 import com.tangem.blockchain.common.smartcontract.SmartContractCallData
@@ -43,6 +44,7 @@ internal abstract class EthereumLikeNetworkService(
     override val baseUrl get() = multiJsonRpcProvider.currentProvider.baseUrl
     private val stringAdapter by lazy { moshi.adapter<String>() }
     private val feeHistoryAdapter by lazy { moshi.adapter<EthereumFeeHistoryResponse>() }
+    private val multicallTokenBalanceLoader by lazy { Multicall3TokenBalanceLoader.create(multiJsonRpcProvider) }
 
     /**
      * Get the decimals for this blockchain
@@ -53,13 +55,13 @@ internal abstract class EthereumLikeNetworkService(
         return try {
             coroutineScope {
                 val balanceResponseDeferred = async {
-                    multiJsonRpcProvider.performRequest(EthereumLikeJsonRpcProvider::getBalance, address)
+                    multiJsonRpcProvider.performHedgedRequest(EthereumLikeJsonRpcProvider::getBalance, address)
                 }
                 val txCountResponseDeferred = async {
-                    multiJsonRpcProvider.performRequest(EthereumLikeJsonRpcProvider::getTxCount, address)
+                    multiJsonRpcProvider.performHedgedRequest(EthereumLikeJsonRpcProvider::getTxCount, address)
                 }
                 val pendingTxCountResponseDeferred = async {
-                    multiJsonRpcProvider.performRequest(EthereumLikeJsonRpcProvider::getPendingTxCount, address)
+                    multiJsonRpcProvider.performHedgedRequest(EthereumLikeJsonRpcProvider::getPendingTxCount, address)
                 }
                 val transactionsResponseDeferred = async {
                     blockchairEthNetworkProvider?.getTransactions(address, tokens)
@@ -170,26 +172,41 @@ internal abstract class EthereumLikeNetworkService(
     }
 
     private suspend fun getTokensBalanceInternal(address: String, tokens: Set<Token>): List<Amount> {
+        if (tokens.isEmpty()) return emptyList()
+
         return coroutineScope {
-            val isYieldSupported = yieldSupplyProvider.isSupported()
+            val isYieldSupported = yieldSupplyProvider.isSupported() &&
+                yieldSupplyProvider.getYieldModuleAddress() != EthereumUtils.ZERO_ADDRESS
 
-            tokens.map { token ->
+            val yieldBalances = tokens.map { token ->
                 async {
-                    if (isYieldSupported && yieldSupplyProvider.getYieldModuleAddress() != EthereumUtils.ZERO_ADDRESS) {
+                    if (isYieldSupported) {
                         val yieldLendingStatus = yieldSupplyProvider.getYieldSupplyStatus(token.contractAddress)
                         if (yieldLendingStatus?.isActive == true) {
                             yieldSupplyProvider.getBalance(yieldLendingStatus, token)
                         } else {
-                            getTokenBalance(address, token)
+                            null
                         }
                     } else {
-                        getTokenBalance(address, token)
+                        null
                     }
                 }
             }.awaitAll()
+
+            val plainTokens = tokens.filterIndexed { index, _ -> yieldBalances[index] == null }
+            val plainBalances = getPlainTokensBalance(address, plainTokens).iterator()
+
+            yieldBalances.map { yieldBalance -> yieldBalance ?: plainBalances.next() }
         }
     }
 
+    private suspend fun getPlainTokensBalance(address: String, tokens: List<Token>): List<Amount> {
+        val loadSingle: suspend (Token) -> Amount = { token -> getTokenBalance(address, token) }
+
+        return multicallTokenBalanceLoader?.getTokensBalance(address, tokens, loadSingle)
+            ?: coroutineScope { tokens.map { token -> async { loadSingle(token) } }.awaitAll() }
+    }
+
     override suspend fun findErc20Tokens(address: String): Result<List<BlockchairToken>> {
         return blockchairEthNetworkProvider?.findErc20Tokens(address)
             ?: Result.Failure(BlockchainSdkError.CustomError("Unsupported feature"))
@@ -198,7 +215,7 @@ internal abstract class EthereumLikeNetworkService(
     override suspend fun getGasPrice(): Result<BigInteger> {
         return try {
             coroutineScope {
-                val gasPrice = multiJsonRpcProvider.performRequest(
+                val gasPrice = multiJsonRpcProvider.performHedgedRequest(
                     EthereumLikeJsonRpcProvider::getGasPrice,
                 ).extractResult().responseToBigInteger()
 
@@ -275,7 +292,7 @@ internal abstract class EthereumLikeNetworkService(
 
     override suspend fun getFeeHistory(): Result<EthereumFeeHistory> {
         return try {
-            val response = multiJsonRpcProvider.performRequest(EthereumLikeJsonRpcProvider::getFeeHistory)
+            val response = multiJsonRpcProvider.performHedgedRequest(EthereumLikeJsonRpcProvider::getFeeHistory)
                 .extractResult(feeHistoryAdapter)
 
             val feeHistory = runCatching { EthereumFeeHistoryConverter.convert(response) }
@@ -342,7 +359,7 @@ internal abstract class EthereumLikeNetworkService(
     }
 
     private suspend fun getTokenBalance(address: String, token: Token): Amount {
-        val rawTokenBalance = multiJsonRpcProvider.performRequest(
+        val rawTokenBalance = multiJsonRpcProvider.performHedgedRequest(
             EthereumLikeJsonRpcProvider::getTokenBalance,
             EthereumTokenBalanceRequestData(
                 address,
@@ -57,6 +57,12 @@ internal class Fact0rnNetworkService(
         Result.Success(info)
     }
 
+    override suspend fun getAddressStatus(address: String): Result<String> {
+        return multiProvider.currentProvider
+            .getScriptHashStatus(addressToScriptHash(address))
+            .map { it.orEmpty() }
+    }
+
     override suspend fun getFee(): Result<BitcoinFee> = coroutineScope {
         val minimalFeeDeferred = async { requestFee(MINIMAL_FEE_BLOCK_AMOUNT) }
         val normalFeeDeferred = async { requestFee(NORMAL_FEE_BLOCK_AMOUNT) }
@@ -24,10 +24,16 @@ import com.tangem.blockchain.extensions.*
 import com.tangem.common.CompletionResult
 import com.tangem.common.extensions.guard
 import com.tangem.common.extensions.toCompressedPublicKey
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import java.math.BigDecimal
 import java.math.BigInteger
 import java.math.RoundingMode
 import java.util.Calendar
+import java.util.concurrent.ConcurrentHashMap
 
 @Suppress("LargeClass")
 internal class HederaWalletManager(
@@ -43,6 +49,7 @@ internal class HederaWalletManager(
     private val isErc20Enabled get() = DepsContainer.blockchainFeatureToggles.isHederaErc20Enabled
 
     private var tokenAssociationFeeExchangeRate: BigDecimal? = null
+    private val tokenLookupPermits = Semaphore(MAX_PARALLEL_TOKEN_LOOKUPS)
 
     override val currentHost: String
         get() = networkService.baseUrl
@@ -74,12 +81,13 @@ internal class HederaWalletManager(
         val pendingAssociatedTokens = cachedData?.associatedTokens.orEmpty()
         val mergedAssociatedTokens = associatedTokens + pendingAssociatedTokens
 
-        // Resolve EVM contract addresses and detect token types
-        val tokenTypes = cachedData?.tokenTypes.orEmpty().toMutableMap()
-        val tokenEvmAddresses = cachedData?.tokenEvmAddresses.orEmpty().toMutableMap()
-        val resolvedContractAddresses = cachedData?.resolvedContractAddresses.orEmpty().toMutableMap()
+        // Resolve EVM contract addresses and detect token types, every token writes only entries of its own address
+        val tokens = cardTokens.toList()
+        val tokenTypes = ConcurrentHashMap(cachedData?.tokenTypes.orEmpty())
+        val tokenEvmAddresses = ConcurrentHashMap(cachedData?.tokenEvmAddresses.orEmpty())
+        val resolvedContractAddresses = ConcurrentHashMap(cachedData?.resolvedContractAddresses.orEmpty())
 
-        cardTokens.forEach { token ->
+        tokens.mapConcurrently { token ->
             resolveTokenTypeIfNeeded(
                 token = token,
                 tokenTypes = tokenTypes,
@@ -100,19 +108,29 @@ internal class HederaWalletManager(
 
         // Load balances per token type
         val ownerEvmAddress = HederaUtils.accountIdToEvmAddress(accountId)
-        cardTokens.forEach { token ->
-            val tokenBalance = loadTokenBalance(
+        val tokenBalances = tokens.mapConcurrently { token ->
+            loadTokenBalance(
                 token = token,
                 balance = balance,
+                tokenTypes = tokenTypes,
                 tokenEvmAddresses = tokenEvmAddresses,
                 resolvedContractAddresses = resolvedContractAddresses,
                 ownerEvmAddress = ownerEvmAddress,
             )
-            wallet.addTokenValue(tokenBalance, token)
         }
+        tokens.zip(tokenBalances).forEach { (token, tokenBalance) -> wallet.addTokenValue(tokenBalance, token) }
 
         updatePendingTransactions(accountInfo)
-        requestExchangeRateIfNeeded(associatedTokens)
+        requestExchangeRateIfNeeded(
+            alreadyAssociatedTokens = associatedTokens,
+            tokenTypes = tokenTypes,
+            resolvedContractAddresses = resolvedContractAddresses,
+        )
+    }
+
+    /** Runs [block] for every token, at most [MAX_PARALLEL_TOKEN_LOOKUPS] tokens at once */
+    private suspend fun <T> List<Token>.mapConcurrently(block: suspend (Token) -> T): List<T> = coroutineScope {
+        map { token -> async { tokenLookupPermits.withPermit { block(token) } } }.awaitAll()
     }
 
     private suspend fun resolveTokenTypeIfNeeded(
@@ -212,11 +230,12 @@ internal class HederaWalletManager(
     private suspend fun loadTokenBalance(
         token: Token,
         balance: HederaAccountBalance,
+        tokenTypes: Map<String, String>,
         tokenEvmAddresses: Map<String, String>,
         resolvedContractAddresses: Map<String, String>,
         ownerEvmAddress: String,
     ): BigDecimal {
-        val type = getTokenType(token.contractAddress)
+        val type = getResolvedTokenType(token.contractAddress, tokenTypes, tokenEvmAddresses)
         return if (type == HederaTokenType.ERC20) {
             loadErc20Balance(token, tokenEvmAddresses[token.contractAddress], ownerEvmAddress)
         } else {
@@ -251,6 +270,26 @@ internal class HederaWalletManager(
         if (error !is BlockchainSdkError) error("Error isn't BlockchainSdkError")
     }
 
+    /**
+     * Type of a token resolved during the update, without further requests. A token with unknown type is routed
+     * as ERC20 only if its EVM address is known, the type is detected again on the next update.
+     */
+    private fun getResolvedTokenType(
+        contractAddress: String,
+        tokenTypes: Map<String, String>,
+        tokenEvmAddresses: Map<String, String>,
+    ): HederaTokenType {
+        if (!isErc20Enabled) return HederaTokenType.HTS
+
+        val typeName = tokenTypes[contractAddress]
+        val type = typeName?.let { runCatching { HederaTokenType.valueOf(it) }.getOrNull() }
+        return when {
+            type != null -> type
+            tokenEvmAddresses[contractAddress].isNullOrBlank() -> HederaTokenType.HTS
+            else -> HederaTokenType.ERC20
+        }
+    }
+
     private suspend fun getTokenType(contractAddress: String): HederaTokenType {
         if (!isErc20Enabled) return HederaTokenType.HTS
 
@@ -700,22 +739,21 @@ internal class HederaWalletManager(
     /**
      * We need this method to pre-load exchange rate, which will be used in associate notification
      */
-    private suspend fun requestExchangeRateIfNeeded(alreadyAssociatedTokens: Set<String>) {
+    private suspend fun requestExchangeRateIfNeeded(
+        alreadyAssociatedTokens: Set<String>,
+        tokenTypes: Map<String, String>,
+        resolvedContractAddresses: Map<String, String>,
+    ) {
         // Only check HTS tokens for association
-        val cachedData = dataStorage.getOrNull<BlockchainSavedData.Hedera>(wallet.publicKey)
-        val htsTokens = cardTokens.filter { token ->
-            val typeName = cachedData?.tokenTypes?.get(token.contractAddress)
-            typeName == null || typeName == HederaTokenType.HTS.name
-        }
-
-        var areAllHtsAssociated = true
-        for (token in htsTokens) {
-            val resolvedAddress = getResolvedContractAddress(token.contractAddress)
-            if (!alreadyAssociatedTokens.contains(resolvedAddress)) {
-                areAllHtsAssociated = false
-                break
+        val areAllHtsAssociated = cardTokens
+            .filter { token ->
+                val typeName = tokenTypes[token.contractAddress]
+                typeName == null || typeName == HederaTokenType.HTS.name
+            }
+            .all { token ->
+                val resolvedAddress = resolvedContractAddresses[token.contractAddress] ?: token.contractAddress
+                alreadyAssociatedTokens.contains(resolvedAddress)
             }
-        }
         if (areAllHtsAssociated) {
             return
         }
@@ -877,5 +915,7 @@ internal class HederaWalletManager(
          * Hedera fees are low, allow 10% safety margin to allow usage of not precise fee estimate
          */
         val MAX_FEE_MULTIPLIER = BigDecimal("1.1")
+
+        const val MAX_PARALLEL_TOKEN_LOOKUPS = 8
     }
 }
\ No newline at end of file
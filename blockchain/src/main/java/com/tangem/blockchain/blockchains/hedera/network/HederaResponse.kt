@@ -19,6 +19,7 @@ internal data class HederaExchangeRateResponse(
     val nextRate: HederaRate,
 )
 
+@JsonClass(generateAdapter = true)
 internal data class HederaAccount(
     @Json(name = "account")
     val account: String,
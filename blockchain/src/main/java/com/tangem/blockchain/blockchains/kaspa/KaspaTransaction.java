@@ -19,22 +19,31 @@ import static org.bitcoinj.core.Utils.uint16ToByteStreamLE;
 import static org.bitcoinj.core.Utils.uint32ToByteStreamLE;
 import static org.bitcoinj.core.Utils.uint64ToByteStreamLE;
 
-import com.tangem.blockchain.blockchains.cardano.crypto.Blake2b;
+import com.tangem.blockchain.blockchains.cardano.crypto.Blake2bEngine;
 
 // based on BitcoinCashTransaction
 public class KaspaTransaction extends Transaction {
-    private final byte[] TRANSACTION_SIGNING_DOMAIN = "TransactionSigningHash".getBytes(StandardCharsets.UTF_8);
-    private final byte[] TRANSACTION_ID = "TransactionID".getBytes(StandardCharsets.UTF_8);
-    private final byte[] TRANSACTION_SIGNING_ECDSA_DOMAIN_HASH =
+    private static final byte[] TRANSACTION_SIGNING_DOMAIN = "TransactionSigningHash".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TRANSACTION_ID = "TransactionID".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TRANSACTION_SIGNING_ECDSA_DOMAIN_HASH =
             Sha256Hash.of("TransactionSigningHashECDSA".getBytes(StandardCharsets.UTF_8)).getBytes();
-    private final int BLAKE2B_DIGEST_LENGTH = 32;
+    private static final int BLAKE2B_DIGEST_LENGTH = 32;
+
+    // keyed hashers are reused by all transactions on the same thread
+    private static final ThreadLocal<Blake2bEngine> SIGNING_HASHER =
+            Blake2bEngine.threadLocal(BLAKE2B_DIGEST_LENGTH, TRANSACTION_SIGNING_DOMAIN);
+    private static final ThreadLocal<Blake2bEngine> TRANSACTION_ID_HASHER =
+            Blake2bEngine.threadLocal(BLAKE2B_DIGEST_LENGTH, TRANSACTION_ID);
+
+    // hashes of the whole transaction shared by hashes for signature of all inputs, reset on every modification
+    private volatile SigHashContext sigHashContext;
 
     public KaspaTransaction(NetworkParameters params) {
         super(params);
     }
 
     // hash for signature is calculated for every transaction input
-    public synchronized byte[] hashForSignatureWitness(
+    public byte[] hashForSignatureWitness(
             int inputIndex, // index of the input
             byte[] connectedScript, // script of the output this input is spending
             Coin prevValue, // value of the output this input is spending
@@ -42,8 +51,9 @@ public class KaspaTransaction extends Transaction {
             boolean anyoneCanPay // parameter for sighash type
     ) {
         byte sigHashType = (byte) TransactionSignature.calcSigHashValue(type, anyoneCanPay);
+        SigHashContext context = getSigHashContext();
 
-        ByteArrayOutputStream bos = new UnsafeByteArrayOutputStream(length == UNKNOWN_LENGTH ? 256 : length + 4);
+        ByteArrayOutputStream bos = new UnsafeByteArrayOutputStream(256 + connectedScript.length);
         try {
             byte[] hashPrevouts = new byte[32];
             byte[] hashSequence = new byte[32];
@@ -54,45 +64,28 @@ public class KaspaTransaction extends Transaction {
             List<TransactionOutput> outputs = getOutputs();
 
             if (!anyoneCanPay) {
-                ByteArrayOutputStream bosHashPrevouts = new UnsafeByteArrayOutputStream(256);
-                for (int i = 0; i < inputs.size(); ++i) {
-                    bosHashPrevouts.write(inputs.get(i).getOutpoint().getHash().getBytes());
-                    uint32ToByteStreamLE(inputs.get(i).getOutpoint().getIndex(), bosHashPrevouts);
-                }
-                hashPrevouts = blake2bDigestOf(bosHashPrevouts.toByteArray());
+                hashPrevouts = context.hashPrevouts;
             }
 
             if (!anyoneCanPay && type != SigHash.SINGLE && type != SigHash.NONE) {
-                ByteArrayOutputStream bosSequence = new UnsafeByteArrayOutputStream(256);
-                for (int i = 0; i < inputs.size(); ++i) {
-                    uint64ToByteStreamLE(BigInteger.valueOf(0), bosSequence);
-                }
-                hashSequence = blake2bDigestOf(bosSequence.toByteArray());
+                hashSequence = context.hashSequence;
             }
 
             if (!anyoneCanPay) {
-                ByteArrayOutputStream bosSigOpCounts = new UnsafeByteArrayOutputStream(256);
-                for (int i = 0; i < inputs.size(); ++i) {
-                    bosSigOpCounts.write(1);
-                }
-                hashSigOpCounts = blake2bDigestOf(bosSigOpCounts.toByteArray());
+                hashSigOpCounts = context.hashSigOpCounts;
             }
 
             if (type != SigHash.SINGLE && type != SigHash.NONE) {
-                ByteArrayOutputStream bosHashOutputs = new UnsafeByteArrayOutputStream(256);
-                for (int i = 0; i < outputs.size(); ++i) {
-                    uint64ToByteStreamLE(BigInteger.valueOf(outputs.get(i).getValue().getValue()), bosHashOutputs);
-                    uint16ToByteStreamLE(0, bosHashOutputs); // script version
-                    uint64ToByteStreamLE(BigInteger.valueOf(outputs.get(i).getScriptBytes().length), bosHashOutputs);
-                    bosHashOutputs.write(outputs.get(i).getScriptBytes());
-                }
-                hashOutputs = blake2bDigestOf(bosHashOutputs.toByteArray());
+                hashOutputs = context.hashOutputs;
             } else if (type == SigHash.SINGLE && inputIndex < outputs.size()) {
+                // doesn't match Kaspa: the script version belongs to hashOutputs and Kaspa SIGHASH_SINGLE value is 4,
+                // not bitcoinj 3. Kept until checked against a reference vector, SDK signs with SIGHASH_ALL only
+                TransactionOutput output = outputs.get(inputIndex);
                 ByteArrayOutputStream bosHashOutputs = new UnsafeByteArrayOutputStream(256);
-                uint64ToByteStreamLE(BigInteger.valueOf(outputs.get(inputIndex).getValue().getValue()), bosHashOutputs);
+                uint64ToByteStreamLE(BigInteger.valueOf(output.getValue().getValue()), bosHashOutputs);
                 uint16ToByteStreamLE(0, bos); // script version
-                uint64ToByteStreamLE(BigInteger.valueOf(outputs.get(inputIndex).getScriptBytes().length), bosHashOutputs);
-                bosHashOutputs.write(outputs.get(inputIndex).getScriptBytes());
+                uint64ToByteStreamLE(BigInteger.valueOf(output.getScriptBytes().length), bosHashOutputs);
+                bosHashOutputs.write(output.getScriptBytes());
                 hashOutputs = blake2bDigestOf(bosHashOutputs.toByteArray());
             }
 
@@ -162,12 +155,83 @@ public class KaspaTransaction extends Transaction {
             throw new RuntimeException(e);
         }
 
-        Blake2b.Mac digest = Blake2b.Mac.newInstance(TRANSACTION_ID, BLAKE2B_DIGEST_LENGTH);
-        return digest.digest(bos.toByteArray());
+        return TRANSACTION_ID_HASHER.get().digest(bos.toByteArray());
+    }
+
+    // inputs, outputs, their values and scripts are modified only via methods calling unCache
+    @Override
+    protected void unCache() {
+        super.unCache();
+        sigHashContext = null;
+    }
+
+    private SigHashContext getSigHashContext() {
+        SigHashContext context = sigHashContext;
+        if (context == null) {
+            // computed concurrently at most once per thread, all results are equal
+            context = createSigHashContext();
+            sigHashContext = context;
+        }
+        return context;
+    }
+
+    private SigHashContext createSigHashContext() {
+        List<TransactionInput> inputs = getInputs();
+        List<TransactionOutput> outputs = getOutputs();
+
+        ByteArrayOutputStream bosHashPrevouts = new UnsafeByteArrayOutputStream(36 * inputs.size());
+        ByteArrayOutputStream bosSequence = new UnsafeByteArrayOutputStream(8 * inputs.size());
+        ByteArrayOutputStream bosSigOpCounts = new UnsafeByteArrayOutputStream(inputs.size());
+        ByteArrayOutputStream bosHashOutputs = new UnsafeByteArrayOutputStream(256);
+        try {
+            for (TransactionInput input : inputs) {
+                bosHashPrevouts.write(input.getOutpoint().getHash().getBytes());
+                uint32ToByteStreamLE(input.getOutpoint().getIndex(), bosHashPrevouts);
+                uint64ToByteStreamLE(BigInteger.valueOf(0), bosSequence);
+                bosSigOpCounts.write(1);
+            }
+            for (TransactionOutput output : outputs) {
+                writeOutput(output, bosHashOutputs);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);  // Cannot happen.
+        }
+
+        return new SigHashContext(
+                blake2bDigestOf(bosHashPrevouts.toByteArray()),
+                blake2bDigestOf(bosSequence.toByteArray()),
+                blake2bDigestOf(bosSigOpCounts.toByteArray()),
+                blake2bDigestOf(bosHashOutputs.toByteArray())
+        );
+    }
+
+    private void writeOutput(TransactionOutput output, ByteArrayOutputStream stream) throws IOException {
+        uint64ToByteStreamLE(BigInteger.valueOf(output.getValue().getValue()), stream);
+        uint16ToByteStreamLE(0, stream); // script version
+        uint64ToByteStreamLE(BigInteger.valueOf(output.getScriptBytes().length), stream);
+        stream.write(output.getScriptBytes());
     }
 
     private byte[] blake2bDigestOf(byte[] input) {
-        Blake2b.Mac digest = Blake2b.Mac.newInstance(TRANSACTION_SIGNING_DOMAIN, BLAKE2B_DIGEST_LENGTH);
-        return digest.digest(input);
+        return SIGNING_HASHER.get().digest(input);
+    }
+
+    private static final class SigHashContext {
+        private final byte[] hashPrevouts;
+        private final byte[] hashSequence;
+        private final byte[] hashSigOpCounts;
+        private final byte[] hashOutputs;
+
+        private SigHashContext(
+                byte[] hashPrevouts,
+                byte[] hashSequence,
+                byte[] hashSigOpCounts,
+                byte[] hashOutputs
+        ) {
+            this.hashPrevouts = hashPrevouts;
+            this.hashSequence = hashSequence;
+            this.hashSigOpCounts = hashSigOpCounts;
+            this.hashOutputs = hashOutputs;
+        }
     }
 }
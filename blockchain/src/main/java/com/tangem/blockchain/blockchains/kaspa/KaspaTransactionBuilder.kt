@@ -1,6 +1,7 @@
 package com.tangem.blockchain.blockchains.kaspa
 
 import com.squareup.moshi.adapter
+import com.tangem.blockchain.blockchains.cardano.crypto.Blake2bEngine
 import com.tangem.blockchain.blockchains.kaspa.kaspacashaddr.KaspaAddressType
 import com.tangem.blockchain.blockchains.kaspa.kaspacashaddr.KaspaCashAddr
 import com.tangem.blockchain.blockchains.kaspa.krc20.model.CommitTransaction
@@ -27,7 +28,6 @@ import org.bitcoinj.core.Transaction.SigHash
 import org.bitcoinj.script.Script
 import org.bitcoinj.script.ScriptBuilder
 import org.bitcoinj.script.ScriptOpCodes.*
-import org.bouncycastle.jcajce.provider.digest.Blake2b
 import java.math.BigDecimal
 import java.math.BigInteger
 
@@ -368,12 +368,13 @@ class KaspaTransactionBuilder(
 
     private fun RedeemScript.scriptHash(): Script = ScriptBuilder()
         .op(OP_HASH256)
-        .data(Blake2b.Blake2b256().digest(script().program))
+        .data(Blake2bEngine.hash(script().program, BLAKE2B_256_LENGTH))
         .op(OP_EQUAL)
         .build()
 
     companion object {
         const val MAX_INPUT_COUNT = 84 // Kaspa rejects transactions with more inputs
+        private const val BLAKE2B_256_LENGTH = 32
     }
 }
 
@@ -8,6 +8,7 @@ import java.math.BigDecimal
 [REDACTED_AUTHOR]
  */
 
+@JsonClass(generateAdapter = true)
 data class ProtocolConfigResult(
     @Json(name = "chain_id") val chainId: String,
     @Json(name = "protocol_version") val protocolVersion: String,
@@ -16,27 +17,32 @@ data class ProtocolConfigResult(
     @Json(name = "min_gas_price") val minGasPrice: BigDecimal,
     @Json(name = "runtime_config") val runtimeConfig: RuntimeConfig,
 ) {
+    @JsonClass(generateAdapter = true)
     data class RuntimeConfig(
         @Json(name = "transaction_costs") val transactionCosts: TransactionCost,
         @Json(name = "storage_amount_per_byte") val storageAmountPerByte: BigDecimal,
     )
 
+    @JsonClass(generateAdapter = true)
     data class TransactionCost(
         @Json(name = "action_creation_config") val actionCreationConfig: ActionCreationConfig,
         @Json(name = "action_receipt_creation_config") val actionReceiptCreationConfig: CostConfig,
     )
 
+    @JsonClass(generateAdapter = true)
     data class ActionCreationConfig(
         @Json(name = "add_key_cost") val addKeyCost: AddKeyCost,
         @Json(name = "transfer_cost") val transferCost: CostConfig,
         @Json(name = "create_account_cost") val createAccountCost: CostConfig,
     )
 
+    @JsonClass(generateAdapter = true)
     data class AddKeyCost(
         @Json(name = "full_access_cost") val fullAccessCost: CostConfig,
         @Json(name = "function_call_cost") val functionCallCost: CostConfig,
     )
 
+    @JsonClass(generateAdapter = true)
     data class CostConfig(
         @Json(name = "send_sir") val sendSir: Long,
         @Json(name = "send_not_sir") val sendNotSir: Long,
@@ -55,6 +61,7 @@ data class NetworkStatusResult(
     @Json(name = "validator_public_key") val validatorPublicKey: Any?,
     @Json(name = "sync_info") val syncInfo: SyncInfo,
 ) {
+    @JsonClass(generateAdapter = true)
     data class SyncInfo(
         @Json(name = "earliest_block_hash") val earliestBlockHash: String,
         @Json(name = "earliest_block_height") val earliestBlockHeight: Long,
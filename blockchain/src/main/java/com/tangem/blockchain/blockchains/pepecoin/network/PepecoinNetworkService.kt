@@ -62,6 +62,12 @@ internal class PepecoinNetworkService(
         Result.Success(info)
     }
 
+    override suspend fun getAddressStatus(address: String): Result<String> {
+        return multiProvider.currentProvider
+            .getScriptHashStatus(generateAddressScriptHash(address))
+            .map { it.orEmpty() }
+    }
+
     override suspend fun getFee(): Result<BitcoinFee> = coroutineScope {
         Result.Success(
             BitcoinFee(
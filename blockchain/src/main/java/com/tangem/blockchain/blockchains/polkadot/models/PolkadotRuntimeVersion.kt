@@ -0,0 +1,6 @@
+package com.tangem.blockchain.blockchains.polkadot.models
+
+internal data class PolkadotRuntimeVersion(
+    val specVersion: Int,
+    val transactionVersion: Int,
+)
@@ -0,0 +1,85 @@
+package com.tangem.blockchain.blockchains.polkadot.network
+
+import android.os.SystemClock
+import com.tangem.blockchain.blockchains.polkadot.models.PolkadotRuntimeVersion
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.logging.Logger
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.successOr
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Keeps chain context of Polkadot-family networks per blockchain and node, shared by all providers of the node.
+ *
+ * Genesis hash never changes and is requested once. Runtime version is requested again after
+ * [RUNTIME_VERSION_TTL_MILLIS] or after [invalidateRuntimeVersion], e.g. when a node rejects a transaction signed
+ * with the cached spec version.
+ *
+ * @property clock monotonic time in milliseconds
+ */
+internal class PolkadotChainContextCache(
+    private val clock: () -> Long = SystemClock::elapsedRealtime,
+) {
+
+    private val genesisHashes = ConcurrentHashMap<Key, String>()
+    private val runtimeVersions = ConcurrentHashMap<Key, TimedRuntimeVersion>()
+    private val mutexes = ConcurrentHashMap<Key, Mutex>()
+
+    suspend fun getChainContext(
+        blockchain: Blockchain,
+        baseUrl: String,
+        loadGenesisHash: suspend () -> Result<String>,
+        loadRuntimeVersion: suspend () -> Result<PolkadotRuntimeVersion>,
+    ): Result<PolkadotChainContext> {
+        val key = Key(blockchain, baseUrl)
+        getCached(key)?.let { return Result.Success(it) }
+
+        return mutexes.getOrPut(key) { Mutex() }.withLock {
+            getCached(key)?.let { return@withLock Result.Success(it) }
+
+            val genesisHash = genesisHashes[key] ?: loadGenesisHash().successOr { return@withLock it }
+            genesisHashes[key] = genesisHash
+
+            val runtimeVersion = loadRuntimeVersion().successOr { return@withLock it }
+            val previous = runtimeVersions.put(key, TimedRuntimeVersion(runtimeVersion, loadedAt = clock()))
+            if (previous != null && previous.runtimeVersion.specVersion != runtimeVersion.specVersion) {
+                Logger.logNetwork(
+                    "$blockchain spec version changed from ${previous.runtimeVersion.specVersion} " +
+                        "to ${runtimeVersion.specVersion}",
+                )
+            }
+
+            Result.Success(PolkadotChainContext(genesisHash, runtimeVersion))
+        }
+    }
+
+    fun invalidateRuntimeVersion(blockchain: Blockchain, baseUrl: String) {
+        runtimeVersions.remove(Key(blockchain, baseUrl))
+    }
+
+    private fun getCached(key: Key): PolkadotChainContext? {
+        val genesisHash = genesisHashes[key] ?: return null
+        val runtimeVersion = runtimeVersions[key]
+            ?.takeIf { clock() - it.loadedAt < RUNTIME_VERSION_TTL_MILLIS }
+            ?: return null
+
+        return PolkadotChainContext(genesisHash, runtimeVersion.runtimeVersion)
+    }
+
+    private data class Key(val blockchain: Blockchain, val baseUrl: String)
+
+    private class TimedRuntimeVersion(val runtimeVersion: PolkadotRuntimeVersion, val loadedAt: Long)
+
+    companion object {
+        private const val RUNTIME_VERSION_TTL_MILLIS = 10 * 60 * 1000L
+
+        val shared = PolkadotChainContextCache()
+    }
+}
+
+internal data class PolkadotChainContext(
+    val genesisHash: String,
+    val runtimeVersion: PolkadotRuntimeVersion,
+)
@@ -10,6 +10,7 @@ import com.tangem.blockchain.extensions.Result
 import com.tangem.blockchain.extensions.orZero
 import com.tangem.blockchain.extensions.successOr
 import com.tangem.blockchain.network.BlockchainSdkRetrofitBuilder
+import com.tangem.common.extensions.hexToBytes
 import com.tangem.common.extensions.toHexString
 import io.emeraldpay.polkaj.api.PolkadotApi
 import io.emeraldpay.polkaj.api.RpcCallAdapter
@@ -22,6 +23,7 @@ import io.emeraldpay.polkaj.tx.AccountRequests.AddressBalance
 import io.emeraldpay.polkaj.tx.ExtrinsicContext
 import io.emeraldpay.polkaj.types.Address
 import io.emeraldpay.polkaj.types.ByteData
+import io.emeraldpay.polkaj.types.Hash256
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.withContext
 import java.math.BigDecimal
@@ -31,6 +33,7 @@ internal class PolkadotCombinedProvider(
     override val baseUrl: String,
     private val blockchain: Blockchain,
     credentials: Map<String, String>? = null,
+    private val chainContextCache: PolkadotChainContextCache = PolkadotChainContextCache.shared,
 ) : PolkadotNetworkProvider {
 
     private val decimals by lazy { blockchain.decimals() }
@@ -111,13 +114,32 @@ internal class PolkadotCombinedProvider(
             val txId = polkadotApi.execute(commands.authorSubmitExtrinsic(ByteData(builtTransaction))).get()
             Result.Success(txId.bytes.toHexString())
         } catch (ex: Exception) {
+            // transactions signed with an outdated spec version are rejected, it's requested again for the next one
+            chainContextCache.invalidateRuntimeVersion(blockchain, baseUrl)
             Result.Failure(BlockchainSdkError.Polkadot.Api(ex))
         }
     }
 
-    override suspend fun extrinsicContext(address: String): Result<ExtrinsicContext> = withContext(Dispatchers.IO) {
-        try {
-            Result.Success(polkadotApi.autoContext(Address.from(address)))
+    /**
+     * Genesis hash and runtime version are taken from [chainContextCache], only nonce is requested every time.
+     * Era is set by the caller.
+     */
+    override suspend fun extrinsicContext(address: String): Result<ExtrinsicContext> {
+        val chainContext = chainContextCache.getChainContext(
+            blockchain = blockchain,
+            baseUrl = baseUrl,
+            loadGenesisHash = polkadotProvider::getGenesisHash,
+            loadRuntimeVersion = polkadotProvider::getRuntimeVersion,
+        ).successOr { return it }
+        val accountInfo = getAccountInfo(Address.from(address)).successOr { return it }
+
+        return try {
+            val context = ExtrinsicContext.newBuilder()
+                .runtime(chainContext.runtimeVersion.transactionVersion, chainContext.runtimeVersion.specVersion)
+                .genesis(Hash256(chainContext.genesisHash.hexToBytes()))
+                .nonce(accountInfo?.nonce ?: 0L)
+                .build()
+            Result.Success(context)
         } catch (ex: Exception) {
             Result.Failure(BlockchainSdkError.Polkadot.Api(ex))
         }
@@ -134,7 +156,3 @@ internal class PolkadotCombinedProvider(
         }
     }
 }
-
-internal fun PolkadotApi.autoContext(address: Address): ExtrinsicContext {
-    return ExtrinsicContext.newAutoBuilder(address, this).get().build()
-}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.tangem.blockchain.blockchains.polkadot.network
 
 import com.tangem.blockchain.blockchains.polkadot.models.PolkadotRuntimeDispatchInfo
+import com.tangem.blockchain.blockchains.polkadot.models.PolkadotRuntimeVersion
 import com.tangem.blockchain.common.*
 import com.tangem.blockchain.common.logging.AddHeaderInterceptor
 import com.tangem.blockchain.extensions.Result
@@ -66,6 +67,36 @@ internal class PolkadotJsonRpcProvider(
         return Result.Success(HexString(blockNumber).hexToBigInteger())
     }
 
+    suspend fun getGenesisHash(): Result<String> {
+        val genesisHash = createRpcBody(method = CHAIN_GET_BLOCK_HASH, params = listOf(0))
+            .post()
+            .successOr { return it }
+            .result as? String
+            ?: return Result.Failure(BlockchainSdkError.CustomError("genesis hash is null"))
+
+        return Result.Success(genesisHash)
+    }
+
+    suspend fun getRuntimeVersion(): Result<PolkadotRuntimeVersion> {
+        return try {
+            val result = createRpcBody(method = GET_RUNTIME_VERSION_METHOD).post().extractResult()
+            val specVersion = result["specVersion"] as? Number
+            val transactionVersion = result["transactionVersion"] as? Number
+            if (specVersion == null || transactionVersion == null) {
+                return Result.Failure(BlockchainSdkError.CustomError("wrong runtime version"))
+            }
+
+            Result.Success(
+                PolkadotRuntimeVersion(
+                    specVersion = specVersion.toInt(),
+                    transactionVersion = transactionVersion.toInt(),
+                ),
+            )
+        } catch (exception: BlockchainSdkError) {
+            Result.Failure(exception)
+        }
+    }
+
     private fun createRpcBody(method: String, params: List<Any> = emptyList()): JsonRPCRequest {
         return JsonRPCRequest(method = method, params = params, id = "4")
     }
@@ -94,6 +125,8 @@ internal class PolkadotJsonRpcProvider(
 
     internal companion object {
 
+        private const val GET_RUNTIME_VERSION_METHOD = "state_getRuntimeVersion"
+
         /**
          * Decodes the SCALE-encoded `RuntimeDispatchInfo` returned by `TransactionPaymentApi_query_info`.
          *
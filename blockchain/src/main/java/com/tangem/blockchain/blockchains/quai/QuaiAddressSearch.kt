@@ -0,0 +1,103 @@
+package com.tangem.blockchain.blockchains.quai
+
+import com.tangem.crypto.hdWallet.bip32.ExtendedPublicKey
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.isActive
+import kotlinx.coroutines.runBlocking
+import org.bouncycastle.crypto.digests.KeccakDigest
+import org.bouncycastle.crypto.digests.SHA512Digest
+import org.bouncycastle.crypto.ec.CustomNamedCurves
+import org.bouncycastle.crypto.macs.HMac
+import org.bouncycastle.crypto.params.KeyParameter
+import org.bouncycastle.math.ec.ECPoint
+import org.bouncycastle.math.ec.FixedPointCombMultiplier
+import java.math.BigInteger
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Searches the lowest non-hardened child index of secp256k1 [ExtendedPublicKey] that has a Cyprus-1 address.
+ *
+ * Index space is split between [workersCount] workers: worker `w` checks indices `w`, `w + workersCount`, ... in
+ * ascending order and stops on the first match or when its index reaches the lowest found one, so all indices below
+ * the result are checked and the result is the same as of a sequential search.
+ *
+ * Parent point and keyed HMAC are prepared once per worker, a child is derived by BIP32 CKDpub without building
+ * [ExtendedPublicKey] and its address is checked without checksum encoding.
+ */
+internal class QuaiAddressSearch(
+    private val workersCount: Int = Runtime.getRuntime().availableProcessors(),
+) {
+
+    /** Returns the lowest matching index or null if there is no such index */
+    fun findLowestIndex(extendedPublicKey: ExtendedPublicKey): Int? {
+        val parentPoint = CURVE.curve.decodePoint(extendedPublicKey.publicKey)
+        val lowestIndex = AtomicInteger(NOT_FOUND)
+
+        runBlocking(Dispatchers.Default) {
+            List(workersCount) { worker ->
+                async {
+                    val deriver = ChildDeriver(extendedPublicKey, parentPoint)
+                    var index = worker.toLong()
+                    while (isActive && index < lowestIndex.get()) {
+                        if (deriver.hasCyprus1Address(index.toInt())) {
+                            lowestIndex.accumulateAndGet(index.toInt()) { lowest, found -> minOf(lowest, found) }
+                            break
+                        }
+                        index += workersCount
+                    }
+                }
+            }.awaitAll()
+        }
+
+        return lowestIndex.get().takeIf { it != NOT_FOUND }
+    }
+
+    /** Derives children of the same parent, not thread-safe */
+    private class ChildDeriver(extendedPublicKey: ExtendedPublicKey, private val parentPoint: ECPoint) {
+
+        private val hmac = HMac(SHA512Digest()).apply { init(KeyParameter(extendedPublicKey.chainCode)) }
+        private val keccak = KeccakDigest(KECCAK_BITS)
+        private val multiplier = FixedPointCombMultiplier()
+
+        private val data = extendedPublicKey.publicKey.copyOf(extendedPublicKey.publicKey.size + Int.SIZE_BYTES)
+        private val hmacOutput = ByteArray(hmac.macSize)
+        private val hash = ByteArray(keccak.digestSize)
+
+        fun hasCyprus1Address(index: Int): Boolean {
+            val offset = data.size - Int.SIZE_BYTES
+            for (i in 0 until Int.SIZE_BYTES) {
+                data[offset + i] = (index ushr (Byte.SIZE_BITS * (Int.SIZE_BYTES - 1 - i))).toByte()
+            }
+            hmac.update(data, 0, data.size)
+            hmac.doFinal(hmacOutput, 0)
+
+            // invalid children are skipped as the derivation fails for them
+            val tweak = BigInteger(1, hmacOutput.copyOf(KEY_BYTES))
+            if (tweak >= CURVE.n) return false
+            val child = multiplier.multiply(CURVE.g, tweak).add(parentPoint).normalize()
+            if (child.isInfinity) return false
+
+            val encoded = child.getEncoded(false)
+            keccak.update(encoded, 1, encoded.size - 1)
+            keccak.doFinal(hash, 0)
+
+            // address is the last 20 bytes of the hash
+            val firstByte = hash[hash.size - ADDRESS_BYTES]
+            val secondByte = hash[hash.size - ADDRESS_BYTES + 1]
+            return firstByte.toInt() == CYPRUS_1_FIRST_BYTE && secondByte.toInt() and CYPRUS_1_NINTH_BIT_MASK == 0
+        }
+    }
+
+    private companion object {
+        val CURVE = CustomNamedCurves.getByName("secp256k1")
+
+        const val NOT_FOUND = Int.MAX_VALUE
+        const val KEY_BYTES = 32
+        const val KECCAK_BITS = 256
+        const val ADDRESS_BYTES = 20
+        const val CYPRUS_1_FIRST_BYTE = 0x00
+        const val CYPRUS_1_NINTH_BIT_MASK = 0x80
+    }
+}
@@ -5,9 +5,11 @@ import com.tangem.blockchain.blockchains.ethereum.EthereumDerivationData
 import com.tangem.blockchain.common.logging.Logger
 import com.tangem.common.card.EllipticCurve
 import com.tangem.common.extensions.hexToBytes
+import com.tangem.common.extensions.toHexString
 import com.tangem.crypto.hdWallet.DerivationNode
 import com.tangem.crypto.hdWallet.DerivationPath
 import com.tangem.crypto.hdWallet.bip32.ExtendedPublicKey
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Address service for Quai Network with Cyprus-1 zone validation
@@ -73,7 +75,7 @@ internal class QuaiAddressService : EthereumAddressService() {
      * According to BIP44: m/44'/994'/0'/0/{index}
      * We have the base key for m/44'/994'/0'/0 and need to iterate through indices
      *
-     * First tries cached index if available, then falls back to iterative search
+     * First tries cached index if available (stored one or found before in this process), then falls back to search
      */
     private fun findValidCyprus1AddressWithHDDerivation(
         extendedPublicKey: ExtendedPublicKey,
@@ -81,11 +83,34 @@ internal class QuaiAddressService : EthereumAddressService() {
         derivationPath: String?,
         cachedIndex: Int?,
     ): EthereumDerivationData {
-        cachedIndex?.let { index ->
+        val cacheKey = extendedPublicKey.publicKey.toHexString() + extendedPublicKey.chainCode.toHexString()
+        (cachedIndex ?: foundIndices[cacheKey])?.let { index ->
             tryCachedIndex(extendedPublicKey, curve, derivationPath, index)?.let { return it }
         }
 
-        return findValidAddressByIteration(extendedPublicKey, curve, derivationPath)
+        val result = findValidAddressInParallel(extendedPublicKey, curve, derivationPath)
+            ?: findValidAddressByIteration(extendedPublicKey, curve, derivationPath)
+        result.index?.let { foundIndices[cacheKey] = it }
+        return result
+    }
+
+    /**
+     * Searches for the lowest valid index using all cores, the found index is checked by regular derivation
+     * @return EthereumDerivationData if the found index is valid, null if iterative search must be used
+     */
+    private fun findValidAddressInParallel(
+        extendedPublicKey: ExtendedPublicKey,
+        curve: EllipticCurve?,
+        derivationPath: String?,
+    ): EthereumDerivationData? {
+        Logger.logNetwork("${this::class.java.simpleName} Starting parallel search for valid Cyprus-1 address")
+        return try {
+            val index = QuaiAddressSearch().findLowestIndex(extendedPublicKey) ?: return null
+            tryCachedIndex(extendedPublicKey, curve, derivationPath, index)
+        } catch (e: Exception) {
+            Logger.logNetwork("${this::class.java.simpleName} Error during parallel search: ${e.message}")
+            null
+        }
     }
 
     /**
@@ -176,6 +201,9 @@ internal class QuaiAddressService : EthereumAddressService() {
     }
 
     companion object {
+        // indices found by search by extended public key, shared by all instances
+        private val foundIndices = ConcurrentHashMap<String, Int>()
+
         private const val CYPRUS_1_FIRST_BYTE = 0x00
         private const val CYPRUS_1_NINTH_BIT_MASK = 0x80
     }
@@ -0,0 +1,108 @@
+package com.tangem.blockchain.blockchains.solana
+
+import android.os.SystemClock
+import com.tangem.blockchain.blockchains.solana.solanaj.model.FeeInfo
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.successOr
+import com.tangem.blockchain.network.MultiNetworkProvider
+import com.tangem.common.extensions.toHexString
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Keeps a recent blockhash and fee quotes of messages built with it in memory.
+ *
+ * A blockhash is served while it's younger than [MAX_AGE_SLOTS] slots, which leaves most of its ~150 slots lifetime
+ * for signing and sending. After [REFRESH_INTERVAL_SLOTS] slots a new one is requested in the coroutine of the caller,
+ * other callers get the aging one meanwhile. Nothing runs in the background, so a discarded provider makes no requests.
+ * Slot duration is estimated from slots and receive times of consecutive blockhashes.
+ *
+ * Fee of a message doesn't change while its blockhash is valid, so quotes are cached by message bytes and dropped
+ * together with their blockhash.
+ *
+ * @property clock monotonic time in milliseconds, the same as used for send timestamps
+ */
+internal class SolanaBlockhashProvider(
+    private val multiNetworkProvider: MultiNetworkProvider<SolanaNetworkService>,
+    private val clock: () -> Long = SystemClock::elapsedRealtime,
+) {
+
+    private val mutex = Mutex()
+    private val feeQuotes = ConcurrentHashMap<String, FeeInfo>()
+
+    @Volatile
+    private var latest: RecentBlockhash? = null
+
+    @Volatile
+    private var slotDurationMillis = DEFAULT_SLOT_DURATION_MILLIS
+
+    /** Returns a blockhash valid for sending, requests a new one only if the cached one is aging */
+    suspend fun getBlockhash(): Result<RecentBlockhash> {
+        val cached = latest?.takeIf { ageInSlots(it) < MAX_AGE_SLOTS }
+            ?: return mutex.withLock {
+                latest?.takeIf { ageInSlots(it) < MAX_AGE_SLOTS }?.let { return@withLock Result.Success(it) }
+                refresh()
+            }
+
+        // aging blockhash is still valid, so it's served if another caller is refreshing it or the refresh fails
+        if (ageInSlots(cached) < REFRESH_INTERVAL_SLOTS || !mutex.tryLock()) return Result.Success(cached)
+        return try {
+            val refreshed = refresh()
+            if (refreshed is Result.Success) refreshed else Result.Success(cached)
+        } finally {
+            mutex.unlock()
+        }
+    }
+
+    /** Returns fee of [message], cached while the blockhash of the message is the latest one */
+    suspend fun getFeeForMessage(message: ByteArray): Result<FeeInfo> {
+        val key = message.toHexString()
+        feeQuotes[key]?.let { return Result.Success(it) }
+
+        val feeInfo = multiNetworkProvider.performRequest { getFeeForMessage(message) }.successOr { return it }
+        feeQuotes[key] = feeInfo
+        return Result.Success(feeInfo)
+    }
+
+    /** Must be called under [mutex] */
+    private suspend fun refresh(): Result<RecentBlockhash> {
+        latest?.takeIf { ageInSlots(it) < REFRESH_INTERVAL_SLOTS }?.let { return Result.Success(it) }
+
+        val info = multiNetworkProvider.performHedgedRequest { getLatestBlockhashInfo() }.successOr { return it }
+        val received = RecentBlockhash(blockhash = info.blockhash, slot = info.slot, receivedAt = clock())
+
+        val previous = latest
+        if (previous != null && received.slot > previous.slot) {
+            val estimated = (received.receivedAt - previous.receivedAt) / (received.slot - previous.slot)
+            slotDurationMillis = estimated.coerceIn(MIN_SLOT_DURATION_MILLIS, MAX_SLOT_DURATION_MILLIS)
+        }
+        if (previous?.blockhash != received.blockhash) feeQuotes.clear()
+        latest = received
+
+        return Result.Success(received)
+    }
+
+    private fun ageInSlots(blockhash: RecentBlockhash): Long {
+        return (clock() - blockhash.receivedAt) / slotDurationMillis
+    }
+
+    /**
+     * @property receivedAt [clock] time when the blockhash was received, sending can be timed from it
+     */
+    data class RecentBlockhash(
+        val blockhash: String,
+        val slot: Long,
+        val receivedAt: Long,
+    )
+
+    private companion object {
+        const val MAX_AGE_SLOTS = 32
+        const val REFRESH_INTERVAL_SLOTS = 16
+
+        // nominal slot duration and bounds of the estimated one
+        const val DEFAULT_SLOT_DURATION_MILLIS = 400L
+        const val MIN_SLOT_DURATION_MILLIS = 300L
+        const val MAX_SLOT_DURATION_MILLIS = 1_000L
+    }
+}
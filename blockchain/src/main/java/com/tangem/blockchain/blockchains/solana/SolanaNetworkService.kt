@@ -17,6 +17,8 @@ import com.tangem.blockchain.common.di.DepsContainer
 import com.tangem.blockchain.extensions.Result
 import com.tangem.blockchain.extensions.successOr
 import kotlinx.coroutines.*
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
 import org.p2p.solanaj.core.PublicKey
 import org.p2p.solanaj.rpc.RpcException
 import org.p2p.solanaj.rpc.types.RpcResponse
@@ -59,6 +61,24 @@ internal class SolanaNetworkService(
         ),
     )
 
+    private val multipleAccountsResponseAdapter = moshi.adapter<RpcResponse<SolanaMultipleAccountsInfo>>(
+        Types.newParameterizedType(
+            RpcResponse::class.java,
+            *arrayOf(Type::class.java.cast(SolanaMultipleAccountsInfo::class.java) as Type),
+        ),
+    )
+
+    private val transactionRequestsPermits = Semaphore(MAX_PARALLEL_TRANSACTION_REQUESTS)
+    private val transactionInfoCache = object : LinkedHashMap<String, TransactionInfo>(
+        TRANSACTION_INFO_CACHE_SIZE,
+        LOAD_FACTOR,
+        true,
+    ) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, TransactionInfo>?): Boolean {
+            return size > TRANSACTION_INFO_CACHE_SIZE
+        }
+    }
+
     suspend fun getMainAccountInfo(account: PublicKey, cardTokens: Set<Token>?): Result<SolanaMainAccountInfo> =
         withContext(Dispatchers.IO) {
             val accountInfo = getAccountInfo(account).successOr { return@withContext it }
@@ -96,22 +116,21 @@ internal class SolanaNetworkService(
             )
         }
 
-    @Suppress("MagicNumber")
     private suspend fun getTransactionsInProgressInfo(account: PublicKey): Result<List<TransactionInfo>> =
         withContext(Dispatchers.IO) {
             try {
-                val allSignatures = provider.api.getSignaturesForAddress(account.toBase58(), Commitment.CONFIRMED, 20)
+                val allSignatures = provider.api.getSignaturesForAddress(
+                    account.toBase58(),
+                    Commitment.CONFIRMED,
+                    IN_PROGRESS_SIGNATURES_LIMIT,
+                )
                 val confirmedCommitmentSignatures = allSignatures
                     .filter { it.confirmationStatus == Commitment.CONFIRMED.value }
 
-                val txInProgress = confirmedCommitmentSignatures.mapNotNull { addressSignature ->
-                    provider.api.getTransaction(addressSignature.signature, Commitment.CONFIRMED)?.let { transaction ->
-                        TransactionInfo(
-                            addressSignature.signature,
-                            transaction.meta.fee,
-                            transaction.transaction.message.instructions,
-                        )
-                    }
+                val txInProgress = coroutineScope {
+                    confirmedCommitmentSignatures.map { addressSignature ->
+                        async { getTransactionInfo(addressSignature.signature) }
+                    }.awaitAll().filterNotNull()
                 }
                 Result.Success(txInProgress)
             } catch (ex: Exception) {
@@ -119,6 +138,24 @@ internal class SolanaNetworkService(
             }
         }
 
+    /** Returns info of confirmed transaction by [signature], info doesn't change, so it's cached */
+    private suspend fun getTransactionInfo(signature: String): TransactionInfo? {
+        synchronized(transactionInfoCache) { transactionInfoCache[signature] }?.let { return it }
+
+        val transactionInfo = transactionRequestsPermits.withPermit {
+            provider.api.getTransaction(signature, Commitment.CONFIRMED)?.let { transaction ->
+                TransactionInfo(
+                    signature,
+                    transaction.meta.fee,
+                    transaction.transaction.message.instructions,
+                )
+            }
+        } ?: return null
+
+        synchronized(transactionInfoCache) { transactionInfoCache[signature] = transactionInfo }
+        return transactionInfo
+    }
+
     suspend fun getSignatureStatuses(signatures: List<String>): Result<SignatureStatuses> =
         withContext(Dispatchers.IO) {
             try {
@@ -210,14 +247,38 @@ internal class SolanaNetworkService(
         }
     }
 
-    fun getTableLookupInfo(account: PublicKey): Result<NewSolanaAccountInfo.Value?> {
-        return try {
-            val params = mapOf("commitment" to Commitment.FINALIZED)
-            val accountInfo = provider.api.getTableLookupInfo(account, params)
-
-            Result.Success(accountInfo.value)
-        } catch (ex: Exception) {
-            Result.Failure(Solana.Api(ex))
+    /**
+     * Returns infos of [accounts] in the same order requested by batches of [MAX_MULTIPLE_ACCOUNTS],
+     * info of missing account is null
+     */
+    suspend fun getMultipleAccountsInfo(accounts: List<PublicKey>): Result<List<SolanaMultipleAccountsInfo.Value?>> {
+        return withContext(Dispatchers.IO) {
+            try {
+                val infos = accounts.chunked(MAX_MULTIPLE_ACCOUNTS).flatMap { chunk ->
+                    val params = buildList {
+                        add(chunk.map(PublicKey::toBase58))
+                        add(
+                            buildMap {
+                                put("encoding", "base64")
+                                put("commitment", Commitment.FINALIZED.value)
+                            },
+                        )
+                    }
+                    val rawResponse = provider.call("getMultipleAccounts", params)
+                    val response = multipleAccountsResponseAdapter.fromJson(rawResponse)
+                    if (response?.error != null) {
+                        return@withContext Result.Failure(Solana.Api(RpcException(response.error.message)))
+                    }
+                    val values = response?.result?.value
+                    if (values == null || values.size != chunk.size) {
+                        return@withContext Result.Failure(Solana.Api(RpcException("Unexpected accounts count")))
+                    }
+                    values
+                }
+                Result.Success(infos)
+            } catch (ex: Exception) {
+                Result.Failure(Solana.Api(ex))
+            }
         }
     }
 
@@ -378,6 +439,13 @@ internal class SolanaNetworkService(
         // Error message if blockhash not found, no code provided by RpcException
         const val BLOCKHASH_NOT_FOUND_ERROR = "Blockhash not found"
 
+        // maximum accounts count of a single getMultipleAccounts request
+        private const val MAX_MULTIPLE_ACCOUNTS = 100
+        private const val IN_PROGRESS_SIGNATURES_LIMIT = 20
+        private const val MAX_PARALLEL_TRANSACTION_REQUESTS = 5
+        private const val TRANSACTION_INFO_CACHE_SIZE = 100
+        private const val LOAD_FACTOR = 0.75f
+
         private const val SCALED_UI_AMOUNT_CONFIG_EXTENSION = "scaledUiAmountConfig"
         private const val MILLIS_IN_SECOND = 1000
     }
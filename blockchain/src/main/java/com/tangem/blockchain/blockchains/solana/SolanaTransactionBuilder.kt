@@ -32,6 +32,7 @@ internal class SolanaTransactionBuilder(
         destinationAddress: String,
         amount: Amount,
         ownerAccountInfo: Pair<SolanaSplAccountInfo, SolanaTokenProgram.ID>?,
+        recentBlockhash: String,
     ): Result<SolanaTransaction> {
         val amountToSend = amount.value ?: return Result.Failure(BlockchainSdkError.FailedToBuildTx)
 
@@ -39,12 +40,14 @@ internal class SolanaTransactionBuilder(
             is AmountType.Coin -> buildUnsignedCoinTransaction(
                 destinationAddress = destinationAddress,
                 amount = amountToSend,
+                recentBlockhash = recentBlockhash,
             )
             is AmountType.Token -> buildUnsignedTokenTransaction(
                 destinationAddress = destinationAddress,
                 amount = amountToSend,
                 token = amount.type.token,
                 ownerAccountInfo = ownerAccountInfo,
+                recentBlockhash = recentBlockhash,
             )
             else -> Result.Failure(BlockchainSdkError.UnsupportedOperation())
         }
@@ -56,13 +59,11 @@ internal class SolanaTransactionBuilder(
         }
     }
 
-    private suspend fun buildUnsignedCoinTransaction(
+    private fun buildUnsignedCoinTransaction(
         destinationAddress: String,
         amount: BigDecimal,
+        recentBlockhash: String,
     ): Result<SolanaTransaction> {
-        val recentBlockHash = multiNetworkProvider.performRequest {
-            getLatestBlockhashInfo()
-        }.successOr { return Result.Failure(it.error) }.blockhash
         val destinationAccount = PublicKey(destinationAddress)
         val lamports = SolanaValueConverter.toLamports(amount)
 
@@ -76,7 +77,7 @@ internal class SolanaTransactionBuilder(
             ).let(::addInstruction)
 
             SystemProgram.transfer(account, destinationAccount, lamports).let(::addInstruction)
-            setRecentBlockHash(recentBlockHash)
+            setRecentBlockHash(recentBlockhash)
         }
 
         return Result.Success(transaction)
@@ -87,6 +88,7 @@ internal class SolanaTransactionBuilder(
         amount: BigDecimal,
         token: Token,
         ownerAccountInfo: Pair<SolanaSplAccountInfo, SolanaTokenProgram.ID>?,
+        recentBlockhash: String,
     ): Result<SolanaTransaction> {
         val destinationAccount = PublicKey(destinationAddress)
         val mint = PublicKey(token.contractAddress)
@@ -120,10 +122,7 @@ internal class SolanaTransactionBuilder(
                 amount = adjustedAmount,
             ).successOr { return Result.Failure(it.error) }
 
-            val recentBlockHash = multiNetworkProvider.performRequest {
-                getLatestBlockhashInfo()
-            }.successOr { return it }.blockhash
-            setRecentBlockHash(recentBlockHash)
+            setRecentBlockHash(recentBlockhash)
         }
 
         return Result.Success(transaction)
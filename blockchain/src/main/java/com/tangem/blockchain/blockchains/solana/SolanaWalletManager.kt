@@ -58,6 +58,7 @@ class SolanaWalletManager internal constructor(
         MultiNetworkProvider(networkServices, wallet.blockchain)
     private val tokenAccountInfoFinder = SolanaTokenAccountInfoFinder(multiNetworkProvider)
     private val transactionBuilder = SolanaTransactionBuilder(account, multiNetworkProvider)
+    private val blockhashProvider = SolanaBlockhashProvider(multiNetworkProvider)
     private val solanaTransactionSizeReducer = SolanaTransactionSizeReducer(
         walletPubkey = wallet.publicKey,
         rawTransactionParser = SolanaTransactionParser(),
@@ -193,13 +194,16 @@ class SolanaWalletManager internal constructor(
                 val ownerAccountInfo = getOwnerAccountInfo(transactionData.amount)?.successOr {
                     return it
                 }
+                val recentBlockhash = blockhashProvider.getBlockhash().successOr { return it }
                 val transaction = transactionBuilder.buildUnsignedTransaction(
                     destinationAddress = transactionData.destinationAddress,
                     amount = transactionData.amount,
                     ownerAccountInfo = ownerAccountInfo,
+                    recentBlockhash = recentBlockhash.blockhash,
                 ).successOr { return it }
 
-                val startSendingTimestamp = SystemClock.elapsedRealtime()
+                // the send delay is counted from receiving of the blockhash, so an older one is sent sooner
+                val startSendingTimestamp = recentBlockhash.receivedAt
 
                 val signResult = signer.sign(transaction.getSerializedMessage(), wallet.publicKey).successOr {
                     return Result.fromTangemSdkError(it.error)
@@ -435,22 +439,20 @@ class SolanaWalletManager internal constructor(
         destination: String,
         ownerAccountInfo: Pair<SolanaSplAccountInfo, SolanaTokenProgram.ID>?,
     ): Result<BigDecimal> {
+        val recentBlockhash = blockhashProvider.getBlockhash().successOr { return it }
         val transaction = transactionBuilder.buildUnsignedTransaction(
             destinationAddress = destination,
             amount = amount,
             ownerAccountInfo = ownerAccountInfo,
+            recentBlockhash = recentBlockhash.blockhash,
         ).successOr { return it }
-        val result = multiNetworkProvider.performRequest {
-            getFeeForMessage(transaction)
-        }.successOr { return it }
+        val result = blockhashProvider.getFeeForMessage(transaction.getSerializedMessage()).successOr { return it }
 
         return Result.Success(result.value.let(SolanaValueConverter::toSol))
     }
 
     private suspend fun getNetworkFee(transaction: ByteArray): Result<BigDecimal> {
-        val result = multiNetworkProvider.performRequest {
-            getFeeForMessage(transaction)
-        }.successOr { return it }
+        val result = blockhashProvider.getFeeForMessage(transaction).successOr { return it }
 
         return Result.Success(result.value.let(SolanaValueConverter::toSol))
     }
@@ -0,0 +1,69 @@
+package com.tangem.blockchain.blockchains.solana.alt
+
+import com.tangem.blockchain.blockchains.solana.SolanaNetworkService
+import com.tangem.blockchain.blockchains.solana.alt.borsh.BorshDecoder
+import com.tangem.blockchain.common.BlockchainSdkError
+import com.tangem.blockchain.common.logging.Logger
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.successOr
+import com.tangem.blockchain.network.MultiNetworkProvider
+import io.ktor.util.decodeBase64Bytes
+import org.p2p.solanaj.core.PublicKey
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Resolves states of Address Lookup Tables used by transactions.
+ *
+ * Tables are append-only, so a cached state stays valid while it contains all addresses requested by a transaction.
+ * Otherwise the table was extended after caching and it's loaded again. All loaded tables are requested by a single
+ * getMultipleAccounts request, and a loaded state replaces a cached one with the same or earlier last extended slot.
+ */
+internal class AddressLookupTableResolver(
+    private val multiNetworkProvider: MultiNetworkProvider<SolanaNetworkService>,
+) {
+
+    private val cache = ConcurrentHashMap<String, AddressLookupTableState>()
+
+    /** Returns states of [tables] in the same order */
+    suspend fun resolve(tables: List<CompiledAltTable>): Result<List<AddressLookupTableState>> {
+        val keys = tables.map { PublicKey(it.account).toBase58() }
+        val missingKeys = tables.indices
+            .filter { index ->
+                val state = cache[keys[index]]
+                val maxIndex = (tables[index].writableIndexes + tables[index].readonlyIndexes).maxOrNull() ?: -1
+                state == null || maxIndex >= state.addresses.size
+            }
+            .map(keys::get)
+            .distinct()
+
+        Logger.logTransaction("lookup tables: ${tables.size}, loading: ${missingKeys.size}")
+
+        if (missingKeys.isNotEmpty()) {
+            load(missingKeys).successOr { return it }
+        }
+
+        return Result.Success(
+            keys.map { key ->
+                cache[key] ?: return Result.Failure(BlockchainSdkError.CustomError("Lookup table $key is not found"))
+            },
+        )
+    }
+
+    private suspend fun load(keys: List<String>): Result<Unit> {
+        val infos = multiNetworkProvider.performRequest {
+            getMultipleAccountsInfo(keys.map { PublicKey(it) })
+        }.successOr {
+            Logger.logTransaction("fail to get lookup tables info: $it")
+            return it
+        }
+
+        keys.zip(infos).forEach { (key, info) ->
+            val data = info?.data?.firstOrNull() ?: return@forEach
+            val state = AddressLookupTableState.fromReader(BorshDecoder(data.decodeBase64Bytes()))
+            cache.merge(key, state) { cached, loaded ->
+                if (loaded.lastExtendedSlot >= cached.lastExtendedSlot) loaded else cached
+            }
+        }
+        return Result.Success(Unit)
+    }
+}
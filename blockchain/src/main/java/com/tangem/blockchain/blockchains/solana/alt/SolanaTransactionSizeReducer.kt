@@ -4,8 +4,6 @@ import android.os.SystemClock
 import com.ditchoom.buffer.PlatformBuffer
 import com.ditchoom.buffer.allocate
 import com.tangem.blockchain.blockchains.solana.SolanaNetworkService
-import com.tangem.blockchain.blockchains.solana.alt.borsh.BorshDecoder
-import com.tangem.blockchain.blockchains.solana.solanaj.model.NewSolanaAccountInfo
 import com.tangem.blockchain.blockchains.solana.solanaj.model.SolanaBlockhashInfo
 import com.tangem.blockchain.common.BlockchainSdkError
 import com.tangem.blockchain.common.TransactionSigner
@@ -38,6 +36,7 @@ internal class SolanaTransactionSizeReducer(
     private val walletPubkey: Wallet.PublicKey,
     private val rawTransactionParser: SolanaTransactionParser,
     private val multiNetworkProvider: MultiNetworkProvider<SolanaNetworkService>,
+    private val lookupTableResolver: AddressLookupTableResolver = AddressLookupTableResolver(multiNetworkProvider),
 ) {
 
     @Suppress("LongMethod")
@@ -49,20 +48,9 @@ internal class SolanaTransactionSizeReducer(
         val parsed = rawTransactionParser.parse(rawTransaction)
 
         val existLookupTables = if (parsed.compiledAltTable != null && parsed.compiledAltTable.isNotEmpty()) {
-            val tableInfos = mutableListOf<NewSolanaAccountInfo.Value>()
-            parsed.compiledAltTable.forEach { compiledAltTable ->
-                val info = multiNetworkProvider.performRequest {
-                    getTableLookupInfo(org.p2p.solanaj.core.PublicKey(compiledAltTable.account))
-                }.successOr {
-                    Logger.logTransaction("fail to get lookup table info: $it")
-                    null
-                }
-                info?.let { tableInfos.add(info) }
-            }
-
-            tableInfos.map {
-                val binaryTable = it.data[0].decodeBase64Bytes()
-                AddressLookupTableState.fromReader(BorshDecoder(binaryTable))
+            lookupTableResolver.resolve(parsed.compiledAltTable).successOr {
+                Logger.logTransaction("fail to resolve lookup tables: $it")
+                return it
             }
         } else {
             Logger.logTransaction("compiledAltTable is null")
@@ -0,0 +1,25 @@
+package com.tangem.blockchain.blockchains.solana.solanaj.model;
+
+import com.squareup.moshi.Json;
+
+import org.p2p.solanaj.rpc.types.RpcResultObject;
+
+import java.util.List;
+
+/**
+ * Response model for getMultipleAccounts with base64 encoding.
+ * Values are in the order of requested accounts, value of missing account is null.
+ */
+public class SolanaMultipleAccountsInfo extends RpcResultObject {
+
+    @Json(name = "value")
+    public List<Value> value;
+
+    public static class Value {
+        @Json(name = "data")
+        public List<String> data;
+
+        @Json(name = "owner")
+        public String owner;
+    }
+}
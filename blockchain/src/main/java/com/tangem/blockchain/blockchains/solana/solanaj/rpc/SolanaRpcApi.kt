@@ -110,28 +110,6 @@ internal class SolanaRpcApi(rpcClient: RpcClient, val skipPreflight: Boolean = f
         return client.call("getAccountInfo", params, NewSolanaAccountInfo::class.java)
     }
 
-    fun getTableLookupInfo(account: PublicKey, additionalParams: Map<String, Any>): NewSolanaAccountInfo {
-        val params = buildList {
-            add(account.toString())
-
-            val parameterMap = buildMap {
-                this["encoding"] = MapUtils.getOrDefault(additionalParams, "encoding", "base64")
-                if (additionalParams.containsKey("commitment")) {
-                    val commitment = additionalParams["commitment"] as Commitment
-                    this["commitment"] = commitment.value
-                }
-
-                if (additionalParams.containsKey("dataSlice")) {
-                    this["dataSlice"] = additionalParams["dataSlice"]
-                }
-            }
-
-            add(parameterMap)
-        }
-
-        return client.call("getAccountInfo", params, NewSolanaAccountInfo::class.java)
-    }
-
     /**
      * Same as [RpcApi.getTokenAccountsByOwner] but returns improved response [NewSolanaTokenAccountInfo]
      * */
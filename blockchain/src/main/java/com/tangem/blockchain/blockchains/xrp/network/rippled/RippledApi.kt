@@ -1,5 +1,7 @@
 package com.tangem.blockchain.blockchains.xrp.network.rippled
 
+import com.squareup.moshi.Json
+import com.squareup.moshi.JsonClass
 import retrofit2.http.Body
 import retrofit2.http.POST
 
@@ -28,9 +30,10 @@ enum class RippledMethod(val value: String) {
     SUBMIT("submit"),
 }
 
+@JsonClass(generateAdapter = true)
 data class RippledBody(
-    val method: String,
-    val params: List<Map<String, Any>> = listOf(),
+    @Json(name = "method") val method: String,
+    @Json(name = "params") val params: List<Map<String, Any>> = listOf(),
 )
 
 val serverStateBody = RippledBody(RippledMethod.SERVER_STATE.value)
@@ -13,4 +13,8 @@ class BlockchainFeatureToggles(
     val isSolanaScaledUiAmountEnabled: Boolean = false,
     val isHederaErc20Enabled: Boolean = false,
     val isStateOverrideGasEstimateEnabled: Boolean = false,
+    val isProviderScoringEnabled: Boolean = false,
+    val isHedgedRequestsEnabled: Boolean = false,
+    val isDataStorageWriteBackEnabled: Boolean = false,
+    val isDataStorageBinaryFormatEnabled: Boolean = false,
 )
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.tangem.blockchain.common
+
+import java.util.IdentityHashMap
+import java.util.Locale
+
+/**
+ * Insertion-ordered list of recent transactions with a case-insensitive index by transaction hash.
+ *
+ * When the list grows over [maxSize], the oldest confirmed transactions are evicted. Unconfirmed transactions are
+ * never evicted, so the list may stay over [maxSize] while they are pending.
+ * Transactions are indexed by identity under the hash they had when added. [TransactionData.hash] is mutable, so
+ * [onHashChanged] must be called after the hash of a transaction in the list is changed.
+ *
+ * @property maxSize size after which confirmed transactions are evicted
+ */
+internal class RecentTransactions(
+    private val maxSize: Int = MAX_SIZE,
+) : AbstractMutableList<TransactionData.Uncompiled>() {
+
+    private val items = ArrayList<TransactionData.Uncompiled>()
+    private val hashIndex = HashMap<String?, MutableList<TransactionData.Uncompiled>>()
+
+    // keys transactions are indexed under, by identity, so they are found even after their hash was changed
+    private val indexKeys = IdentityHashMap<TransactionData.Uncompiled, String?>()
+    private val evictionBatchSize = maxOf(1, maxSize / EVICTION_BATCH_DIVIDER)
+
+    // eviction is checked in batches, so adding to a list full of unconfirmed transactions does not scan it every time
+    private var evictionThreshold = maxSize
+
+    override val size: Int
+        get() = items.size
+
+    override fun get(index: Int): TransactionData.Uncompiled = items[index]
+
+    override fun add(index: Int, element: TransactionData.Uncompiled) {
+        items.add(index, element)
+        addToIndex(element)
+        modCount++
+        if (items.size > evictionThreshold) evictConfirmed()
+    }
+
+    override fun removeAt(index: Int): TransactionData.Uncompiled {
+        val element = items.removeAt(index)
+        removeFromIndex(element)
+        modCount++
+        evictionThreshold = maxOf(maxSize, minOf(evictionThreshold, items.size + evictionBatchSize))
+        return element
+    }
+
+    override fun set(index: Int, element: TransactionData.Uncompiled): TransactionData.Uncompiled {
+        val previous = items.set(index, element)
+        removeFromIndex(previous)
+        addToIndex(element)
+        return previous
+    }
+
+    override fun clear() {
+        items.clear()
+        hashIndex.clear()
+        indexKeys.clear()
+        modCount++
+        evictionThreshold = maxSize
+    }
+
+    /** Returns transactions with [hash] ignoring case, in order they were added */
+    fun findByHash(hash: String?): List<TransactionData.Uncompiled> {
+        return hashIndex[hash.toKey()].orEmpty()
+    }
+
+    /** Moves [element] in the index to its current hash, does nothing if it's not in the list */
+    fun onHashChanged(element: TransactionData.Uncompiled) {
+        if (!indexKeys.containsKey(element)) return
+        val oldKey = indexKeys[element]
+        val newKey = element.hash.toKey()
+        if (oldKey == newKey) return
+
+        val transactions = hashIndex[oldKey] ?: return
+        val moved = transactions.filter { it === element }
+        transactions.removeAll { it === element }
+        if (transactions.isEmpty()) hashIndex.remove(oldKey)
+        hashIndex.getOrPut(newKey) { ArrayList(1) }.addAll(moved)
+        indexKeys[element] = newKey
+    }
+
+    private fun addToIndex(element: TransactionData.Uncompiled) {
+        val key = if (indexKeys.containsKey(element)) indexKeys[element] else element.hash.toKey()
+        hashIndex.getOrPut(key) { ArrayList(1) }.add(element)
+        indexKeys[element] = key
+    }
+
+    private fun removeFromIndex(element: TransactionData.Uncompiled) {
+        val key = indexKeys[element]
+        val transactions = hashIndex[key] ?: return
+        val position = transactions.indexOfFirst { it === element }
+        if (position != -1) transactions.removeAt(position)
+        if (transactions.none { it === element }) indexKeys.remove(element)
+        if (transactions.isEmpty()) hashIndex.remove(key)
+    }
+
+    private fun evictConfirmed() {
+        var toEvict = items.size - (maxSize - evictionBatchSize)
+        val retained = items.filter { transaction ->
+            val evict = toEvict > 0 && transaction.status == TransactionStatus.Confirmed
+            if (evict) toEvict--
+            !evict
+        }
+
+        if (retained.size != items.size) {
+            items.clear()
+            items.addAll(retained)
+            hashIndex.clear()
+            indexKeys.clear()
+            items.forEach(::addToIndex)
+            modCount++
+        }
+        evictionThreshold = maxOf(maxSize, items.size + evictionBatchSize)
+    }
+
+    private fun String?.toKey(): String? = this?.lowercase(Locale.US)
+
+    private companion object {
+        const val MAX_SIZE = 1000
+        const val EVICTION_BATCH_DIVIDER = 4
+    }
+}
@@ -25,8 +25,11 @@ class Wallet(
     var ens: String? = null
         private set
 
-    // we put only unconfirmed transactions here, but never delete them, change status to confirmed instead
-    val recentTransactions: MutableList<TransactionData.Uncompiled> = mutableListOf()
+    // we put only unconfirmed transactions here and change status to confirmed instead of deleting them,
+    // old confirmed transactions are evicted when there are too many of them
+    private val recentTransactionsIndex = RecentTransactions()
+    val recentTransactions: MutableList<TransactionData.Uncompiled>
+        get() = recentTransactionsIndex
     val amounts: MutableMap<AmountType, Amount> = mutableMapOf()
     val address: String
         get() = addresses.find { it.type == AddressType.Default }?.value
@@ -134,8 +137,9 @@ class Wallet(
     fun addOutgoingTransaction(transactionData: TransactionData, txHash: String, hashToLowercase: Boolean = true) {
         transactionData.hash = if (hashToLowercase) txHash.lowercase(Locale.US) else txHash
         if (transactionData is TransactionData.Uncompiled) {
+            recentTransactionsIndex.onHashChanged(transactionData)
             transactionData.date = Calendar.getInstance()
-            if (recentTransactions.any { it.hash == transactionData.hash }) return
+            if (findRecentTransactions(transactionData.hash).isNotEmpty()) return
 
             recentTransactions.add(transactionData)
         } else {
@@ -143,6 +147,11 @@ class Wallet(
         }
     }
 
+    /** Returns recent transactions with [hash] ignoring case */
+    internal fun findRecentTransactions(hash: String?): List<TransactionData.Uncompiled> {
+        return recentTransactionsIndex.findByHash(hash)
+    }
+
     fun fundsAvailable(amountType: AmountType): BigDecimal {
         return amounts[amountType]?.value ?: BigDecimal.ZERO
     }
@@ -64,7 +64,8 @@ abstract class WalletManager(
     private val updateDebounced = DebouncedInvoke()
 
     /**
-     * Update wallet state. [forceUpdate] to skip debounce
+     * Update wallet state. [forceUpdate] to skip debounce.
+     * Concurrent calls share a single [updateInternal] invocation and its result.
      */
     suspend fun update(forceUpdate: Boolean = false) {
         updateDebounced.invokeOnExpire(forceUpdate) {
@@ -85,16 +86,12 @@ abstract class WalletManager(
     protected open fun updateRecentTransactionsBasic(transactions: List<BasicTransactionData>) {
         val (confirmedTransactions, unconfirmedTransactions) = transactions.partition { it.isConfirmed }
 
-        wallet.recentTransactions.forEach { recent ->
-            val confirmedTx = confirmedTransactions.find { confirmed -> confirmed.hash.equals(recent.hash, true) }
-            if (confirmedTx != null) {
-                recent.status = TransactionStatus.Confirmed
-            }
+        confirmedTransactions.forEach { confirmed ->
+            wallet.findRecentTransactions(confirmed.hash).forEach { it.status = TransactionStatus.Confirmed }
         }
 
         unconfirmedTransactions.forEach { unconfirmed ->
-            val recentTx = wallet.recentTransactions.find { recent -> recent.hash.equals(unconfirmed.hash, true) }
-            if (recentTx == null) {
+            if (wallet.findRecentTransactions(unconfirmed.hash).isEmpty()) {
                 wallet.recentTransactions.add(unconfirmed.toTransactionData())
             }
         }
@@ -104,15 +101,11 @@ abstract class WalletManager(
         val (confirmedTransactions, unconfirmedTransactions) =
             transactions.partition { it.status == TransactionStatus.Confirmed }
 
-        wallet.recentTransactions.forEach { recent ->
-            val confirmedTx = confirmedTransactions.find { confirmed -> confirmed.hash.equals(recent.hash, true) }
-            if (confirmedTx != null) {
-                recent.status = TransactionStatus.Confirmed
-            }
+        confirmedTransactions.forEach { confirmed ->
+            wallet.findRecentTransactions(confirmed.hash).forEach { it.status = TransactionStatus.Confirmed }
         }
         unconfirmedTransactions.forEach { unconfirmed ->
-            val recentTx = wallet.recentTransactions.find { recent -> recent.hash.equals(unconfirmed.hash, true) }
-            if (recentTx == null) {
+            if (wallet.findRecentTransactions(unconfirmed.hash).isEmpty()) {
                 wallet.recentTransactions.add(unconfirmed)
             }
         }
@@ -7,6 +7,7 @@ import com.tangem.blockchain.common.assembly.impl.*
 import com.tangem.blockchain.common.datastorage.BlockchainDataStorage
 import com.tangem.blockchain.common.datastorage.BlockchainSavedData
 import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
+import com.tangem.blockchain.common.datastorage.implementations.SavedDataCodec
 import com.tangem.blockchain.common.di.DepsContainer
 import com.tangem.blockchain.common.logging.BlockchainSDKLogger
 import com.tangem.blockchain.common.logging.Logger
@@ -25,7 +26,17 @@ class WalletManagerFactory(
     loggers: List<BlockchainSDKLogger> = emptyList(),
 ) {
 
-    private val dataStorage by lazy { AdvancedDataStorage(blockchainDataStorage) }
+    private val dataStorage by lazy {
+        AdvancedDataStorage.shared(
+            blockchainDataStorage = blockchainDataStorage,
+            format = if (featureToggles.isDataStorageBinaryFormatEnabled) {
+                SavedDataCodec.Format.BINARY
+            } else {
+                SavedDataCodec.Format.JSON
+            },
+            isWriteBackEnabled = featureToggles.isDataStorageWriteBackEnabled,
+        )
+    }
 
     init {
         DepsContainer.onInit(config, featureToggles)
@@ -91,6 +102,14 @@ class WalletManagerFactory(
         )
     }
 
+    /**
+     * Writes data kept in memory by wallet managers to [BlockchainDataStorage].
+     * Should be called when the app goes to background, as the data storage writes changes with a delay.
+     */
+    suspend fun flushDataStorage() {
+        dataStorage.flush()
+    }
+
     private fun createWalletManager(
         blockchain: Blockchain,
         publicKey: Wallet.PublicKey,
@@ -168,7 +187,7 @@ class WalletManagerFactory(
     private fun getAssembly(blockchain: Blockchain): WalletManagerAssembly<WalletManager> {
         return when (blockchain) {
             // region BTC-like blockchains
-            Blockchain.Bitcoin, Blockchain.BitcoinTestnet -> BitcoinWalletManagerAssembly
+            Blockchain.Bitcoin, Blockchain.BitcoinTestnet -> BitcoinWalletManagerAssembly(dataStorage)
             Blockchain.Dash -> DashWalletManagerAssembly
             Blockchain.Dogecoin -> DogecoinWalletManagerAssembly
             Blockchain.Litecoin -> LitecoinWalletManagerAssembly
@@ -176,7 +195,7 @@ class WalletManagerFactory(
             Blockchain.Ravencoin, Blockchain.RavencoinTestnet -> RavencoinWalletManagerAssembly
             Blockchain.Ducatus -> DucatusWalletManagerAssembly
             Blockchain.Clore -> CloreWalletManagerAssembly
-            Blockchain.Pepecoin, Blockchain.PepecoinTestnet -> PepecoinWalletManagerAssembly
+            Blockchain.Pepecoin, Blockchain.PepecoinTestnet -> PepecoinWalletManagerAssembly(dataStorage)
             // endregion
 
             // region ETH-like blockchains
@@ -275,7 +294,7 @@ class WalletManagerFactory(
             Blockchain.Hedera, Blockchain.HederaTestnet -> HederaWalletManagerAssembly(dataStorage, accountCreator)
             Blockchain.Nexa, Blockchain.NexaTestnet -> NexaWalletManagerAssembly
             Blockchain.Radiant -> RadiantWalletManagerAssembly
-            Blockchain.Fact0rn -> Fact0rnWalletManagerAssembly
+            Blockchain.Fact0rn -> Fact0rnWalletManagerAssembly(dataStorage)
             Blockchain.Koinos, Blockchain.KoinosTestnet -> KoinosWalletManagerAssembly
             Blockchain.Filecoin -> FilecoinWalletManagerAssembly
             Blockchain.Sei, Blockchain.SeiTestnet -> SeiWalletManagerAssembly
@@ -3,13 +3,17 @@ package com.tangem.blockchain.common.assembly.impl
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinFeesCalculator
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinProvidersBuilder
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinTransactionBuilder
+import com.tangem.blockchain.blockchains.bitcoin.BitcoinUtxoCache
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinWalletManager
 import com.tangem.blockchain.blockchains.bitcoin.network.BitcoinNetworkService
 import com.tangem.blockchain.common.assembly.WalletManagerAssembly
 import com.tangem.blockchain.common.assembly.WalletManagerAssemblyInput
+import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
 import com.tangem.blockchain.transactionhistory.TransactionHistoryProviderFactory
 
-internal object BitcoinWalletManagerAssembly : WalletManagerAssembly<BitcoinWalletManager>() {
+internal class BitcoinWalletManagerAssembly(
+    private val dataStorage: AdvancedDataStorage,
+) : WalletManagerAssembly<BitcoinWalletManager>() {
 
     override fun make(input: WalletManagerAssemblyInput): BitcoinWalletManager {
         with(input.wallet) {
@@ -27,6 +31,7 @@ internal object BitcoinWalletManagerAssembly : WalletManagerAssembly<BitcoinWall
                 ),
                 transactionHistoryProvider = TransactionHistoryProviderFactory.makeProvider(blockchain, input.config),
                 feesCalculator = BitcoinFeesCalculator(blockchain),
+                utxoCache = BitcoinUtxoCache(blockchain = blockchain, dataStorage = dataStorage),
             )
         }
     }
@@ -2,14 +2,18 @@ package com.tangem.blockchain.common.assembly.impl
 
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinFeesCalculator
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinTransactionBuilder
+import com.tangem.blockchain.blockchains.bitcoin.BitcoinUtxoCache
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinWalletManager
 import com.tangem.blockchain.blockchains.factorn.Fact0rnProvidersBuilder
 import com.tangem.blockchain.blockchains.factorn.network.Fact0rnNetworkService
 import com.tangem.blockchain.common.assembly.WalletManagerAssembly
 import com.tangem.blockchain.common.assembly.WalletManagerAssemblyInput
+import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
 import com.tangem.blockchain.transactionhistory.TransactionHistoryProviderFactory
 
-internal object Fact0rnWalletManagerAssembly : WalletManagerAssembly<BitcoinWalletManager>() {
+internal class Fact0rnWalletManagerAssembly(
+    private val dataStorage: AdvancedDataStorage,
+) : WalletManagerAssembly<BitcoinWalletManager>() {
 
     override fun make(input: WalletManagerAssemblyInput): BitcoinWalletManager {
         return with(input.wallet) {
@@ -26,6 +30,7 @@ internal object Fact0rnWalletManagerAssembly : WalletManagerAssembly<BitcoinWall
                 ),
                 transactionHistoryProvider = TransactionHistoryProviderFactory.makeProvider(blockchain, input.config),
                 feesCalculator = BitcoinFeesCalculator(blockchain),
+                utxoCache = BitcoinUtxoCache(blockchain = blockchain, dataStorage = dataStorage),
             )
         }
     }
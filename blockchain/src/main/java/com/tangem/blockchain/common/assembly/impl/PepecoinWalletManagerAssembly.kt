@@ -1,16 +1,20 @@
 package com.tangem.blockchain.common.assembly.impl
 
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinTransactionBuilder
+import com.tangem.blockchain.blockchains.bitcoin.BitcoinUtxoCache
 import com.tangem.blockchain.blockchains.bitcoin.BitcoinWalletManager
 import com.tangem.blockchain.blockchains.pepecoin.PepecoinFeeCalculator
 import com.tangem.blockchain.blockchains.pepecoin.PepecoinProvidersBuilder
 import com.tangem.blockchain.blockchains.pepecoin.network.PepecoinNetworkService
 import com.tangem.blockchain.common.assembly.WalletManagerAssembly
 import com.tangem.blockchain.common.assembly.WalletManagerAssemblyInput
+import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
 import com.tangem.blockchain.transactionhistory.TransactionHistoryProviderFactory
 import com.tangem.common.extensions.toCompressedPublicKey
 
-internal object PepecoinWalletManagerAssembly : WalletManagerAssembly<BitcoinWalletManager>() {
+internal class PepecoinWalletManagerAssembly(
+    private val dataStorage: AdvancedDataStorage,
+) : WalletManagerAssembly<BitcoinWalletManager>() {
 
     override fun make(input: WalletManagerAssemblyInput): BitcoinWalletManager {
         return with(input.wallet) {
@@ -27,6 +31,7 @@ internal object PepecoinWalletManagerAssembly : WalletManagerAssembly<BitcoinWal
                 ),
                 transactionHistoryProvider = TransactionHistoryProviderFactory.makeProvider(blockchain, input.config),
                 feesCalculator = PepecoinFeeCalculator(blockchain),
+                utxoCache = BitcoinUtxoCache(blockchain = blockchain, dataStorage = dataStorage),
             )
         }
     }
@@ -47,6 +47,33 @@ internal sealed interface BlockchainSavedData {
         @Json(name = "index") val index: Int,
     ) : BlockchainSavedData
 
+    /**
+     * UTXO set of a single address of Bitcoin-family blockchain
+     *
+     * @property status         status of the address history the set was loaded at, it's a watermark of the set.
+     * See [com.tangem.blockchain.blockchains.bitcoin.network.BitcoinNetworkProvider.getAddressStatus]
+     * @property balance        confirmed balance of the address
+     * @property unspentOutputs unspent outputs of the address
+     */
+    @JsonClass(generateAdapter = true)
+    data class BitcoinUtxoSet(
+        @Json(name = "status") val status: String,
+        @Json(name = "balance") val balance: BigDecimal,
+        @Json(name = "unspentOutputs") val unspentOutputs: List<UnspentOutput>,
+    ) : BlockchainSavedData {
+
+        @JsonClass(generateAdapter = true)
+        data class UnspentOutput(
+            @Json(name = "amount") val amount: BigDecimal,
+            @Json(name = "outputIndex") val outputIndex: Long,
+            @Json(name = "transactionHash") val transactionHash: String,
+            @Json(name = "outputScript") val outputScript: String,
+            @Json(name = "address") val address: String? = null,
+            @Json(name = "derivationPath") val derivationPath: String? = null,
+            @Json(name = "publicKey") val publicKey: String? = null,
+        )
+    }
+
     @JsonClass(generateAdapter = true)
     data class PendingTransactions(
         @Json(name = "transactions") val transactions: List<PendingTransaction> = emptyList(),
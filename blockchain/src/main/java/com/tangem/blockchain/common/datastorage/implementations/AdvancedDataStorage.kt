@@ -1,30 +1,62 @@
 package com.tangem.blockchain.common.datastorage.implementations
 
 import android.util.Log
+import com.squareup.moshi.JsonAdapter
 import com.tangem.blockchain.common.Wallet
 import com.tangem.blockchain.common.datastorage.BlockchainDataStorage
 import com.tangem.blockchain.common.datastorage.BlockchainSavedData
 import com.tangem.blockchain.network.moshi
 import com.tangem.common.extensions.toCompressedPublicKey
 import com.tangem.common.extensions.toHexString
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineExceptionHandler
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import java.util.WeakHashMap
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Advanced data storage that simplify [blockchainDataStorage] operations by using [moshi] under the hood
  *
+ * If [writeBackScope] is set, values are kept in memory: reads of known keys don't touch [blockchainDataStorage] and
+ * writes are flushed to it in [writeBackScope] after [FLUSH_DELAY_MILLIS], so subsequent writes of the same key are
+ * coalesced into a single one. Values that failed to be written stay dirty and are written by the next flush. At most
+ * [maxCacheSize] least recently used values are kept in memory, values not written yet are never evicted.
+ * Only one instance with write-back must be used for [blockchainDataStorage], see [shared].
+ *
  * @property blockchainDataStorage data storage
+ * @property format                format of stored values, values of other formats are read and rewritten on read
+ * @property writeBackScope        scope of flushes, null disables in-memory cache
+ * @property maxCacheSize          max number of values kept in memory
  *
 [REDACTED_AUTHOR]
  */
 internal class AdvancedDataStorage(
     private val blockchainDataStorage: BlockchainDataStorage,
+    private val format: SavedDataCodec.Format = SavedDataCodec.Format.JSON,
+    private val writeBackScope: CoroutineScope? = null,
+    private val maxCacheSize: Int = MAX_CACHE_SIZE,
 ) {
 
+    private val adapters = ConcurrentHashMap<Class<*>, JsonAdapter<*>>()
+
+    private val mutex = Mutex()
+    private val flushMutex = Mutex()
+    private val cache = LinkedHashMap<String, CachedValue>(INITIAL_CACHE_CAPACITY, LOAD_FACTOR, true)
+    private val dirtyKeys = LinkedHashSet<String>()
+    private var flushJob: Job? = null
+
     /** Get data [T] by [publicKey] */
     suspend inline fun <reified T : BlockchainSavedData> getOrNull(publicKey: Wallet.PublicKey): T? {
-        val uniqueKey = T::class.java.createKey(publicKey)
-        val value = blockchainDataStorage.getOrNull(key = uniqueKey) ?: return null
-
-        return fromJsonSafely(key = uniqueKey, value = value)
+        return getOrNull(key = createKey(T::class.java, publicKey), type = T::class.java)
     }
 
     /**
@@ -32,44 +64,205 @@ internal class AdvancedDataStorage(
      * IMPORTANT! It's not recommended to use this method. Be careful with key, it MUST be unique.
      */
     suspend inline fun <reified T : BlockchainSavedData> getOrNull(key: String): T? {
-        val value = blockchainDataStorage.getOrNull(key) ?: return null
-
-        return fromJsonSafely(key = key, value = value)
+        return getOrNull(key = key, type = T::class.java)
     }
 
     /** Store [value] by [publicKey] */
     suspend inline fun <reified T : BlockchainSavedData> store(publicKey: Wallet.PublicKey, value: T) {
-        val adapter = moshi.adapter(T::class.java)
-        blockchainDataStorage.store(key = T::class.java.createKey(publicKey), value = adapter.toJson(value))
+        store(key = createKey(T::class.java, publicKey), value = value, type = T::class.java)
     }
 
     /** Store [value] by [key] */
     suspend inline fun <reified T : BlockchainSavedData> store(key: String, value: T) {
-        val adapter = moshi.adapter(T::class.java)
-        blockchainDataStorage.store(key = key, value = adapter.toJson(value))
+        store(key = key, value = value, type = T::class.java)
     }
 
     /** Remove [value] from storage by [key] */
-    suspend inline fun remove(key: String) {
-        blockchainDataStorage.remove(key = key)
+    suspend fun remove(key: String) {
+        if (writeBackScope == null) {
+            blockchainDataStorage.remove(key = key)
+        } else {
+            putToCache(key = key, value = CachedValue(value = null, type = null))
+        }
+    }
+
+    /** Get data of [type] by [key] */
+    suspend fun <T : BlockchainSavedData> getOrNull(key: String, type: Class<T>): T? {
+        if (writeBackScope != null) {
+            mutex.withLock { cache[key] }?.let { return it.valueOf(type) }
+        }
+
+        val encoded = blockchainDataStorage.getOrNull(key = key)
+        val value = encoded?.let { fromStorageValueSafely(key = key, value = it, type = type) }
+
+        // migrate value stored in other format
+        if (encoded != null && value != null && !SavedDataCodec.isEncodedIn(encoded, format)) {
+            store(key = key, value = value, type = type)
+        } else if (writeBackScope != null) {
+            // keep a value stored while reading
+            mutex.withLock {
+                cache.getOrPut(key) { CachedValue(value = value, type = type) }.also { trimCache() }
+            }.let { return it.valueOf(type) }
+        }
+
+        return value
+    }
+
+    /** Store [value] of [type] by [key] */
+    suspend fun <T : BlockchainSavedData> store(key: String, value: T, type: Class<T>) {
+        if (writeBackScope == null) {
+            blockchainDataStorage.store(key = key, value = SavedDataCodec.encode(value, adapterOf(type), format))
+        } else {
+            putToCache(key = key, value = CachedValue(value = value, type = type))
+        }
+    }
+
+    /**
+     * Writes all cached changes to [blockchainDataStorage].
+     * If a write fails, the changes not written are kept to be written by the next flush and the exception is thrown.
+     */
+    suspend fun flush() {
+        flushMutex.withLock {
+            while (true) {
+                val changes = mutex.withLock {
+                    dirtyKeys.map { it to cache.getValue(it) }.also { dirtyKeys.clear() }
+                }
+                if (changes.isEmpty()) return
+
+                var writtenCount = 0
+                try {
+                    changes.forEach { (key, cached) ->
+                        write(key, cached)
+                        writtenCount++
+                    }
+                } catch (e: Throwable) {
+                    withContext(NonCancellable) { markDirty(changes.drop(writtenCount)) }
+                    throw e
+                }
+            }
+        }
     }
 
     /**
      * Create a unique key by [publicKey] for [BlockchainSavedData].
      * Example, Hedera-7BD63F5DE1BF539525C33367592949AE9B99D518BF78F26F3904BCD30CFCF018
      */
-    private inline fun <reified T : BlockchainSavedData> Class<T>.createKey(publicKey: Wallet.PublicKey): String {
-        return "$simpleName-${publicKey.blockchainKey.toCompressedPublicKey().toHexString()}"
+    @PublishedApi
+    internal fun createKey(type: Class<out BlockchainSavedData>, publicKey: Wallet.PublicKey): String {
+        return "${type.simpleName}-${publicKey.blockchainKey.toCompressedPublicKey().toHexString()}"
     }
 
-    private inline fun <reified T : BlockchainSavedData> fromJsonSafely(key: String, value: String): T? {
-        return runCatching { moshi.adapter(T::class.java).fromJson(value) }
+    private suspend fun putToCache(key: String, value: CachedValue) {
+        val scope = requireNotNull(writeBackScope)
+        mutex.withLock {
+            cache[key] = value
+            dirtyKeys += key
+            trimCache()
+
+            if (flushJob == null) {
+                flushJob = scope.launch {
+                    delay(FLUSH_DELAY_MILLIS)
+                    mutex.withLock { flushJob = null }
+                    try {
+                        flush()
+                    } catch (e: CancellationException) {
+                        throw e
+                    } catch (@Suppress("TooGenericExceptionCaught") e: Exception) {
+                        Log.e(TAG, "Failed to flush data storage", e)
+                    }
+                }
+            }
+        }
+    }
+
+    private suspend fun markDirty(changes: List<Pair<String, CachedValue>>) {
+        mutex.withLock {
+            changes.forEach { (key, cached) ->
+                // a newer value of the key is dirty already, evicted value is put back until it's written
+                if (key !in dirtyKeys) {
+                    cache[key] = cached
+                    dirtyKeys += key
+                }
+            }
+        }
+    }
+
+    /** Evicts least recently used values over [maxCacheSize] that are already written to storage */
+    private fun trimCache() {
+        if (cache.size <= maxCacheSize) return
+
+        val iterator = cache.keys.iterator()
+        while (cache.size > maxCacheSize && iterator.hasNext()) {
+            if (iterator.next() !in dirtyKeys) iterator.remove()
+        }
+    }
+
+    private suspend fun write(key: String, cached: CachedValue) {
+        val type = cached.type
+        if (cached.value == null || type == null) {
+            blockchainDataStorage.remove(key = key)
+        } else {
+            @Suppress("UNCHECKED_CAST")
+            val adapter = adapterOf(type) as JsonAdapter<Any>
+            blockchainDataStorage.store(key = key, value = SavedDataCodec.encode(cached.value, adapter, format))
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun <T> adapterOf(type: Class<T>): JsonAdapter<T> {
+        return adapters.getOrPut(type) { moshi.adapter(type) } as JsonAdapter<T>
+    }
+
+    private fun <T : BlockchainSavedData> fromStorageValueSafely(key: String, value: String, type: Class<T>): T? {
+        return runCatching { SavedDataCodec.decode(value, adapterOf(type)) }
             .fold(
                 onSuccess = { it },
                 onFailure = {
-                    Log.e("BlockchainDataStorage", "Failed to parse data by key: $key")
+                    Log.e(TAG, "Failed to parse data by key: $key")
                     null
                 },
             )
     }
-}
\ No newline at end of file
+
+    /** Cached [value] of [type], null value means that there is no value in storage */
+    private class CachedValue(val value: Any?, val type: Class<*>?) {
+
+        fun <T> valueOf(type: Class<T>): T? = value?.takeIf(type::isInstance)?.let(type::cast)
+    }
+
+    companion object {
+        private const val TAG = "BlockchainDataStorage"
+        private const val FLUSH_DELAY_MILLIS = 200L
+        private const val MAX_CACHE_SIZE = 512
+        private const val INITIAL_CACHE_CAPACITY = 16
+        private const val LOAD_FACTOR = 0.75f
+
+        private val sharedStorages = WeakHashMap<BlockchainDataStorage, AdvancedDataStorage>()
+
+        /**
+         * Returns the instance shared by all callers with the same [blockchainDataStorage], so there is only one
+         * write-back cache per storage. The instance is created with [format] and [isWriteBackEnabled] of the first
+         * call.
+         */
+        fun shared(
+            blockchainDataStorage: BlockchainDataStorage,
+            format: SavedDataCodec.Format,
+            isWriteBackEnabled: Boolean,
+        ): AdvancedDataStorage = synchronized(sharedStorages) {
+            sharedStorages.getOrPut(blockchainDataStorage) {
+                AdvancedDataStorage(
+                    blockchainDataStorage = blockchainDataStorage,
+                    format = format,
+                    writeBackScope = if (isWriteBackEnabled) createWriteBackScope() else null,
+                )
+            }
+        }
+
+        private fun createWriteBackScope(): CoroutineScope {
+            val exceptionHandler = CoroutineExceptionHandler { _, throwable ->
+                Log.e(TAG, "Failed to flush data storage", throwable)
+            }
+            return CoroutineScope(Dispatchers.IO + SupervisorJob() + exceptionHandler)
+        }
+    }
+}
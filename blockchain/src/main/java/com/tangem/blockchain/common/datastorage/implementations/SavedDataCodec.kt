@@ -0,0 +1,202 @@
+package com.tangem.blockchain.common.datastorage.implementations
+
+import com.squareup.moshi.JsonAdapter
+import okio.Buffer
+import okio.ByteString.Companion.decodeBase64
+import java.io.EOFException
+
+/**
+ * Codec of saved data values.
+ *
+ * Values are stored either as JSON or in the binary format. The binary format is a compact encoding of the JSON tree
+ * produced by the moshi adapter, so it follows the same schema evolution rules (added fields with defaults, removed
+ * fields are skipped). Repeated strings, e.g. field names of list items, are written once and then referenced.
+ *
+ * Binary value is a Base64 string of:
+ *  - [MAGIC] byte
+ *  - format version byte, values of unknown versions are ignored
+ *  - encoded JSON tree
+ *
+ * Decoding detects the format, so values stored as JSON before are read in any [Format].
+ */
+internal object SavedDataCodec {
+
+    private const val MAGIC: Int = 0xB5
+    private const val VERSION: Int = 1
+    private const val HEADER_SIZE = 2
+
+    private const val TAG_NULL = 0
+    private const val TAG_FALSE = 1
+    private const val TAG_TRUE = 2
+    private const val TAG_LONG = 3
+    private const val TAG_DOUBLE = 4
+    private const val TAG_STRING = 5
+    private const val TAG_STRING_REFERENCE = 6
+    private const val TAG_LIST = 7
+    private const val TAG_MAP = 8
+
+    private const val VARINT_PAYLOAD_BITS = 7
+    private const val VARINT_PAYLOAD_MASK = 0x7F
+    private const val VARINT_CONTINUATION = 0x80
+    private const val LONG_BITS = 63
+    private const val BYTE_MASK = 0xFF
+
+    fun <T> encode(value: T, adapter: JsonAdapter<T>, format: Format): String {
+        return when (format) {
+            Format.JSON -> adapter.toJson(value)
+            Format.BINARY -> {
+                val buffer = Buffer()
+                    .writeByte(MAGIC)
+                    .writeByte(VERSION)
+                BinaryWriter(buffer).write(adapter.toJsonValue(value))
+                buffer.readByteString().base64()
+            }
+        }
+    }
+
+    /**
+     * Decodes [value] of any format
+     *
+     * @throws IllegalArgumentException if [value] is malformed or has unknown version
+     */
+    fun <T> decode(value: String, adapter: JsonAdapter<T>): T? {
+        if (isJson(value)) return adapter.fromJson(value)
+
+        val buffer = Buffer().write(requireNotNull(value.decodeBase64()) { "Value is neither JSON nor Base64" })
+        require(buffer.size >= HEADER_SIZE) { "Value is too short" }
+        require(buffer.readByte().toInt() and BYTE_MASK == MAGIC) { "Unknown value format" }
+
+        val version = buffer.readByte().toInt()
+        require(version == VERSION) { "Unknown binary format version: $version" }
+
+        return try {
+            adapter.fromJsonValue(BinaryReader(buffer).read())
+        } catch (e: EOFException) {
+            throw IllegalArgumentException("Binary value is truncated", e)
+        }
+    }
+
+    /** Returns true if [value] is stored in [format] */
+    fun isEncodedIn(value: String, format: Format): Boolean {
+        return isJson(value) == (format == Format.JSON)
+    }
+
+    private fun isJson(value: String): Boolean = value.startsWith('{') || value.startsWith('[')
+
+    enum class Format {
+        JSON, BINARY
+    }
+
+    private class BinaryWriter(private val buffer: Buffer) {
+
+        private val stringIndices = HashMap<String, Int>()
+
+        fun write(value: Any?) {
+            when (value) {
+                null -> buffer.writeByte(TAG_NULL)
+                is Boolean -> buffer.writeByte(if (value) TAG_TRUE else TAG_FALSE)
+                is Long, is Int, is Short, is Byte -> {
+                    buffer.writeByte(TAG_LONG)
+                    writeVarLong((value as Number).toLong().let { (it shl 1) xor (it shr LONG_BITS) })
+                }
+                is Double, is Float -> {
+                    buffer.writeByte(TAG_DOUBLE)
+                    buffer.writeLong((value as Number).toDouble().toRawBits())
+                }
+                is Number -> writeString(value.toString())
+                is String -> writeString(value)
+                is List<*> -> {
+                    buffer.writeByte(TAG_LIST)
+                    writeVarLong(value.size.toLong())
+                    value.forEach(::write)
+                }
+                is Map<*, *> -> {
+                    buffer.writeByte(TAG_MAP)
+                    writeVarLong(value.size.toLong())
+                    value.forEach { (key, item) ->
+                        writeString(key as String)
+                        write(item)
+                    }
+                }
+                else -> error("Unsupported JSON value: ${value::class.java.simpleName}")
+            }
+        }
+
+        private fun writeString(value: String) {
+            val index = stringIndices[value]
+            if (index != null) {
+                buffer.writeByte(TAG_STRING_REFERENCE)
+                writeVarLong(index.toLong())
+            } else {
+                stringIndices[value] = stringIndices.size
+                val bytes = value.encodeToByteArray()
+                buffer.writeByte(TAG_STRING)
+                writeVarLong(bytes.size.toLong())
+                buffer.write(bytes)
+            }
+        }
+
+        private fun writeVarLong(value: Long) {
+            var remaining = value
+            while (remaining and VARINT_PAYLOAD_MASK.toLong().inv() != 0L) {
+                buffer.writeByte((remaining and VARINT_PAYLOAD_MASK.toLong()).toInt() or VARINT_CONTINUATION)
+                remaining = remaining ushr VARINT_PAYLOAD_BITS
+            }
+            buffer.writeByte(remaining.toInt())
+        }
+    }
+
+    private class BinaryReader(private val buffer: Buffer) {
+
+        private val strings = ArrayList<String>()
+
+        fun read(): Any? {
+            return when (val tag = buffer.readByte().toInt()) {
+                TAG_NULL -> null
+                TAG_FALSE -> false
+                TAG_TRUE -> true
+                TAG_LONG -> readVarLong().let { (it ushr 1) xor -(it and 1) }
+                TAG_DOUBLE -> Double.fromBits(buffer.readLong())
+                TAG_STRING, TAG_STRING_REFERENCE -> readString(tag)
+                TAG_LIST -> List(readSize()) { read() }
+                TAG_MAP -> {
+                    val size = readSize()
+                    LinkedHashMap<String, Any?>(size).apply {
+                        repeat(size) { put(readString(buffer.readByte().toInt()), read()) }
+                    }
+                }
+                else -> throw IllegalArgumentException("Unknown tag: $tag")
+            }
+        }
+
+        private fun readString(tag: Int): String {
+            return when (tag) {
+                TAG_STRING -> buffer.readUtf8(readVarLong()).also { strings += it }
+                TAG_STRING_REFERENCE -> {
+                    val index = readVarLong()
+                    require(index < strings.size) { "Unknown string reference: $index" }
+                    strings[index.toInt()]
+                }
+                else -> throw IllegalArgumentException("String is expected, but tag is $tag")
+            }
+        }
+
+        private fun readSize(): Int {
+            val size = readVarLong()
+            require(size <= buffer.size) { "Collection size exceeds value size: $size" }
+            return size.toInt()
+        }
+
+        private fun readVarLong(): Long {
+            var result = 0L
+            var shift = 0
+            while (true) {
+                val byte = buffer.readByte().toInt() and BYTE_MASK
+                result = result or ((byte and VARINT_PAYLOAD_MASK).toLong() shl shift)
+                if (byte and VARINT_CONTINUATION == 0) return result
+                shift += VARINT_PAYLOAD_BITS
+                require(shift <= LONG_BITS) { "Varint is too long" }
+            }
+        }
+    }
+}
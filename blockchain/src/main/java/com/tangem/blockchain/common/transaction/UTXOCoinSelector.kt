@@ -0,0 +1,286 @@
+package com.tangem.blockchain.common.transaction
+
+import kotlin.random.Random
+
+/**
+ * UTXO coin selection over values in the smallest units (e.g. satoshi).
+ *
+ * Selection is done by two algorithms, the one with the lowest waste wins, fewer inputs on equal waste:
+ *  1. Branch and Bound: depth-first search for a changeless selection, i.e. with total equal to the target,
+ *     having the fewest inputs
+ *  2. Knapsack: stochastic approximation of the smallest selection covering the target, leaving either no change
+ *     or change not less than `minChange`, compared by waste with the smallest single sufficient UTXO
+ *
+ * Every selection leaves change of exactly 0 or at least `minChange`, because transaction builders send all the
+ * change back. UTXOs not worth more than [costPerInput] are skipped. Waste of a selection is
+ * `inputs count * costPerInput` plus [costOfChange] if it needs a change output.
+ *
+ * Knapsack randomness is seeded, so the same UTXO set always gives the same selection. Fee estimation and transaction
+ * building select UTXOs separately and must get the same inputs.
+ *
+ * @property costPerInput fee of spending one input
+ * @property costOfChange fee of creating and later spending a change output
+ */
+internal class UTXOCoinSelector(
+    private val costPerInput: Long = 0,
+    private val costOfChange: Long = 0,
+    private val maxBranchAndBoundTries: Int = MAX_BRANCH_AND_BOUND_TRIES,
+) {
+
+    init {
+        require(costPerInput >= 0) { "Cost per input must not be negative" }
+        require(costOfChange >= 0) { "Cost of change must not be negative" }
+    }
+
+    /**
+     * Selects UTXOs to cover [target]
+     *
+     * @param values    UTXO values, sum must fit into [Long]
+     * @param target    amount to cover including fee
+     * @param minChange minimal allowed change, e.g. dust threshold
+     * @return selection or null if UTXOs are insufficient or any selection leaves change less than [minChange]
+     */
+    fun select(values: LongArray, target: Long, minChange: Long = 0): Selection? {
+        require(target >= 0) { "Target must not be negative" }
+        require(minChange >= 0) { "Min change must not be negative" }
+
+        val order = sortByValueDescending(values)
+        val sortedValues = LongArray(order.size) { values[order[it]] }
+
+        val positions = lowestWaste(
+            values = sortedValues,
+            target = target,
+            candidates = listOfNotNull(
+                branchAndBound(sortedValues, target),
+                knapsack(sortedValues, target, minChange),
+            ),
+        ) ?: return null
+
+        val indices = IntArray(positions.size) { order[positions[it]] }
+        val total = positions.sumOf { sortedValues[it] }
+
+        return Selection(
+            indices = indices,
+            total = total,
+            waste = waste(sortedValues, positions, target),
+            isChangeless = total == target,
+        )
+    }
+
+    /** Waste of a selection of [positions] in [values], see [UTXOCoinSelector] */
+    private fun waste(values: LongArray, positions: IntArray, target: Long): Long {
+        val isChangeless = positions.sumOf { values[it] } == target
+        return positions.size * costPerInput + if (isChangeless) 0 else costOfChange
+    }
+
+    private fun lowestWaste(values: LongArray, target: Long, candidates: List<IntArray>): IntArray? {
+        return candidates.minWithOrNull(compareBy({ waste(values, it, target) }, { it.size }))
+    }
+
+    private fun sortByValueDescending(values: LongArray): IntArray {
+        return values.indices
+            .filter { values[it] > costPerInput }
+            .sortedByDescending { values[it] }
+            .toIntArray()
+    }
+
+    /** Returns positions of the changeless selection with the fewest inputs in [values] sorted descending */
+    @Suppress("CyclomaticComplexMethod", "LoopWithTooManyJumpStatements")
+    private fun branchAndBound(values: LongArray, target: Long): IntArray? {
+        var available = values.sum()
+        if (available < target) return null
+
+        val selection = IntArray(values.size)
+        var selectionSize = 0
+        var selectedValue = 0L
+        var best: IntArray? = null
+        var index = 0
+
+        repeat(maxBranchAndBoundTries) {
+            val isBacktrack = when {
+                selectedValue + available < target -> true
+                selectedValue > target -> true
+                selectedValue == target -> {
+                    // branches with as many inputs as the best selection are pruned below, so this one has fewer
+                    best = selection.copyOf(selectionSize)
+                    true
+                }
+                best != null && selectionSize + 1 >= requireNotNull(best).size -> true
+                else -> false
+            }
+
+            if (isBacktrack) {
+                if (selectionSize == 0) return best
+
+                // return UTXOs after the last selected one and exclude it
+                index--
+                val last = selection[selectionSize - 1]
+                while (index > last) {
+                    available += values[index]
+                    index--
+                }
+                selectionSize--
+                selectedValue -= values[last]
+            } else {
+                val value = values[index]
+                available -= value
+
+                // a branch with an equal value UTXO instead of the omitted previous one was already explored
+                val isEquivalentToOmitted = selectionSize > 0 && selection[selectionSize - 1] != index - 1 &&
+                    value == values[index - 1]
+                if (!isEquivalentToOmitted) {
+                    selection[selectionSize++] = index
+                    selectedValue += value
+                }
+            }
+            index++
+        }
+
+        return best
+    }
+
+    /** Returns positions of a selection in [values] sorted descending, see Bitcoin Core KnapsackSolver */
+    private fun knapsack(values: LongArray, target: Long, minChange: Long): IntArray? {
+        val exactIndex = values.indexOfFirst { it == target }
+        if (exactIndex >= 0) return intArrayOf(exactIndex)
+
+        val targetWithChange = target + minChange
+        val firstSmaller = values.indexOfFirst { it < targetWithChange }.let { if (it < 0) values.size else it }
+        val lowestLarger = firstSmaller - 1
+        var smallerTotal = 0L
+        for (i in firstSmaller until values.size) smallerTotal += values[i]
+
+        val single = if (lowestLarger >= 0) intArrayOf(lowestLarger) else null
+        if (smallerTotal < target) return single
+        if (smallerTotal == target) {
+            val smaller = IntArray(values.size - firstSmaller) { firstSmaller + it }
+            return lowestWaste(values, target, listOfNotNull(single, smaller))
+        }
+
+        // the closest subset is topped up with the smallest UTXOs if it leaves dust change, and compared with
+        // the closest subset leaving change not less than the minimum
+        val closest = approximateBestSubset(values, firstSmaller, target)
+        val toppedUp = addChangeAboveMinimum(values, closest.mask, closest.total, target, minChange)
+        val withChange = if (closest.total != target && smallerTotal >= targetWithChange) {
+            approximateBestSubset(values, firstSmaller, targetWithChange).positions()
+        } else {
+            null
+        }
+
+        // many small UTXOs cost more to spend than a single larger one, so they are compared by waste
+        return lowestWaste(values, target, listOfNotNull(single, toppedUp, withChange))
+    }
+
+    /** Adds the smallest unselected UTXOs until change isn't less than [minChange] */
+    private fun addChangeAboveMinimum(
+        values: LongArray,
+        mask: BooleanArray,
+        total: Long,
+        target: Long,
+        minChange: Long,
+    ): IntArray? {
+        var selectedTotal = total
+        var index = values.size - 1
+        while (selectedTotal - target in 1 until minChange) {
+            while (index >= 0 && mask[index]) index--
+            if (index < 0) return null
+
+            mask[index] = true
+            selectedTotal += values[index]
+        }
+
+        return mask.indices.filter { mask[it] }.toIntArray()
+    }
+
+    /**
+     * Stochastic approximation of the smallest subset of [values] from [from] with total not less than [target].
+     * On equal totals fewer inputs are preferred, then larger ones.
+     */
+    @Suppress("NestedBlockDepth")
+    private fun approximateBestSubset(values: LongArray, from: Int, target: Long): Subset {
+        val random = Random(KNAPSACK_RANDOM_SEED)
+        val count = values.size - from
+        val iterations = (KNAPSACK_OPERATIONS_LIMIT / count.coerceAtLeast(1)).coerceIn(1, KNAPSACK_ITERATIONS)
+
+        val bestMask = BooleanArray(values.size) { it >= from }
+        var bestTotal = (from until values.size).sumOf { values[it] }
+        var bestCount = count
+        val included = BooleanArray(values.size)
+
+        repeat(iterations) {
+            if (bestTotal == target) return Subset(mask = bestMask, total = bestTotal)
+
+            included.fill(false)
+            var total = 0L
+            var includedCount = 0
+            var isTargetReached = false
+            for (pass in 0 until 2) {
+                if (isTargetReached) break
+
+                for (i in from until values.size) {
+                    val isIncluded = if (pass == 0) random.nextBoolean() else !included[i]
+                    if (!isIncluded) continue
+
+                    total += values[i]
+                    includedCount++
+                    included[i] = true
+                    if (total >= target) {
+                        isTargetReached = true
+                        if (isBetter(total, includedCount, included, bestTotal, bestCount, bestMask)) {
+                            bestTotal = total
+                            bestCount = includedCount
+                            included.copyInto(bestMask)
+                        }
+                        total -= values[i]
+                        includedCount--
+                        included[i] = false
+                    }
+                }
+            }
+        }
+
+        return Subset(mask = bestMask, total = bestTotal)
+    }
+
+    @Suppress("LongParameterList")
+    private fun isBetter(
+        total: Long,
+        count: Int,
+        mask: BooleanArray,
+        bestTotal: Long,
+        bestCount: Int,
+        bestMask: BooleanArray,
+    ): Boolean {
+        if (total != bestTotal) return total < bestTotal
+        if (count != bestCount) return count < bestCount
+
+        val firstDifference = mask.indices.firstOrNull { mask[it] != bestMask[it] } ?: return false
+        return mask[firstDifference]
+    }
+
+    private class Subset(val mask: BooleanArray, val total: Long) {
+        fun positions(): IntArray = mask.indices.filter { mask[it] }.toIntArray()
+    }
+
+    /**
+     * Selected UTXOs
+     *
+     * @property indices      indices of selected values sorted by value descending
+     * @property total        sum of selected values
+     * @property waste        waste score, lower is better
+     * @property isChangeless whether the selection needs no change output
+     */
+    class Selection(
+        val indices: IntArray,
+        val total: Long,
+        val waste: Long,
+        val isChangeless: Boolean,
+    )
+
+    private companion object {
+        const val MAX_BRANCH_AND_BOUND_TRIES = 100_000
+        const val KNAPSACK_ITERATIONS = 1_000
+        const val KNAPSACK_OPERATIONS_LIMIT = 10_000_000
+        const val KNAPSACK_RANDOM_SEED = 0x5EED
+    }
+}
@@ -4,23 +4,29 @@ import com.tangem.blockchain.common.BlockchainSdkError
 import com.tangem.common.extensions.isZero
 import java.math.BigDecimal
 import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.map
 
 /**
- * Method for collecting minimum required UTXOs for transaction (based on binary search)
+ * Method for collecting minimum required UTXOs for transaction, see [UTXOCoinSelector]
  * The collection is processed as follows:
- *  1. Sorts the list of all available UTXOs that can be used in a transaction
- *  2. By iterating through this list, the algorithm selects the closest UTXO to the required transaction amount
- *     (amount + commission)
- *  3. After the previous iteration, the total required amount will be reduced by the previously selected UTXO
- *     and it ready to search for the next UTXO closest to this amount
- *  4. When all the UTXOs necessary to complete the requested transaction amount have been collected,
- *     the function returns a list of UTXOs sorted in descending order of the amount
- *  5. If necessary UTXOs result in change with output UTXO less than dust add smallest UTXO
+ *  1. Amounts are converted to integer values in the smallest units of the maximal scale among them
+ *  2. Branch and Bound searches for UTXOs exactly covering the required transaction amount (amount + commission),
+ *     so the transaction needs no change output
+ *  3. Knapsack approximation selects UTXOs with the smallest total covering the required amount with change
+ *     not less than dust
+ *  4. The selection with the lowest waste is chosen, which counts [costPerInput] for every input, so a single
+ *     sufficient UTXO is preferred to many small ones
+ *  5. The function returns a list of selected UTXOs sorted in descending order of the amount
+ *
+ *  Amounts not fitting into [Long] in the smallest units (e.g. Alephium attoALPH) are collected by the closest
+ *  amount search instead.
  *
  *  @throws IllegalArgumentException if transactionAmount < 0 or transactionFeeAmount < 0
  *  @param unspentOutputs the list of UTXOs that will be used for selection
  *  @param transactionAmount requested transaction amount for UTXO selection
  *  @param transactionFeeAmount requested transaction fee amount for UTXO selection
+ *  @param costPerInput fee of spending one input at the transaction fee rate, zero if the fee rate is unknown
+ *  @param costOfChange fee of creating a change output and spending it later at the transaction fee rate
  *  @param unspentToAmount UTXO object to it's amount mapping
  *
  *  @return a list of selected UTXOs sorted by descending amount.
@@ -32,33 +38,88 @@ internal inline fun <T> getMinimumRequiredUTXOsToSend(
     transactionAmount: BigDecimal,
     transactionFeeAmount: BigDecimal,
     dustValue: BigDecimal?,
+    costPerInput: BigDecimal = BigDecimal.ZERO,
+    costOfChange: BigDecimal = BigDecimal.ZERO,
     crossinline unspentToAmount: (T) -> BigDecimal,
 ): Result<List<T>> {
     require(transactionAmount >= BigDecimal.ZERO)
     require(transactionFeeAmount >= BigDecimal.ZERO)
 
-    val amount = transactionAmount + transactionFeeAmount
+    val amounts = unspentOutputs.map { unspentToAmount(it) }
+    return selectUTXOIndices(amounts, transactionAmount + transactionFeeAmount, dustValue, costPerInput, costOfChange)
+        .map { indices -> indices.map(unspentOutputs::get) }
+}
 
+internal fun selectUTXOIndices(
+    amounts: List<BigDecimal>,
+    amount: BigDecimal,
+    dustValue: BigDecimal?,
+    costPerInput: BigDecimal = BigDecimal.ZERO,
+    costOfChange: BigDecimal = BigDecimal.ZERO,
+): Result<List<Int>> {
     // insufficient balance
-    if (unspentOutputs.sumOf { unspentToAmount(it) } < amount) {
-        return Result.Success(unspentOutputs.sortedByDescending { unspentToAmount(it) })
+    if (amounts.sumOf { it } < amount) {
+        return Result.Success(amounts.indices.sortedByDescending { amounts[it] })
+    }
+
+    val scale = (amounts + amount + (dustValue ?: BigDecimal.ZERO) + costPerInput + costOfChange)
+        .maxOf { it.stripTrailingZeros().scale() }
+        .coerceAtLeast(0)
+    val values = amounts.toUnitsOrNull(scale)
+    val target = amount.toUnitOrNull(scale)
+    val minChange = (dustValue ?: BigDecimal.ZERO).toUnitOrNull(scale)
+    val inputCost = costPerInput.toUnitOrNull(scale)
+    val changeCost = costOfChange.toUnitOrNull(scale)
+    if (values == null || target == null || minChange == null || inputCost == null || changeCost == null) {
+        return selectClosestUTXOIndices(amounts, amount, dustValue)
     }
 
-    val sortedUnspent = unspentOutputs.sortedBy { unspentToAmount(it) }
-    val unusedSortedUnspent = sortedUnspent.toMutableList()
+    // the fee is already included into the amount, so input costs only rank selections. If UTXOs worth more than
+    // their input cost can't cover the amount (e.g. sending the whole balance), all UTXOs are selected from
+    val selection = UTXOCoinSelector(costPerInput = inputCost, costOfChange = changeCost)
+        .select(values, target, minChange)
+        ?: UTXOCoinSelector().select(values, target, minChange)
+        ?: return Result.Failure(BlockchainSdkError.TransactionDustChangeError)
+
+    return Result.Success(selection.indices.toList())
+}
+
+/** Converts amounts to values in the smallest units of [scale] if their sum and values fit into [Long] */
+private fun List<BigDecimal>.toUnitsOrNull(scale: Int): LongArray? {
+    if (sumOf { it.abs() }.toUnitOrNull(scale) == null) return null
+
+    val values = LongArray(size)
+    forEachIndexed { index, amount -> values[index] = amount.toUnitOrNull(scale)?.takeIf { it >= 0 } ?: return null }
+    return values
+}
+
+private fun BigDecimal.toUnitOrNull(scale: Int): Long? {
+    val units = movePointRight(scale).toBigInteger()
+    return if (units.bitLength() < Long.SIZE_BITS) units.toLong() else null
+}
+
+/**
+ * Collects UTXOs based on binary search: sorts UTXOs and repeatedly selects the closest one to the remaining amount.
+ * If the resulting change is less than dust the smallest unused UTXO is added.
+ */
+private fun selectClosestUTXOIndices(
+    amounts: List<BigDecimal>,
+    amount: BigDecimal,
+    dustValue: BigDecimal?,
+): Result<List<Int>> {
+    val unusedSortedUnspent = amounts.indices.sortedBy { amounts[it] }.toMutableList()
 
-    val outputsRes = mutableListOf<T>()
+    val outputsRes = mutableListOf<Int>()
     var currentTotal = BigDecimal.ZERO
 
     // Searching biggest utxo to full spending amount (transaction amount + fee)
     while (currentTotal < amount && unusedSortedUnspent.size > 0) {
-        val binRes = unusedSortedUnspent.binarySearchBy(amount - currentTotal) { unspentToAmount(it) }
+        val binRes = unusedSortedUnspent.binarySearchBy(amount - currentTotal) { amounts[it] }
         val utxoIndex = getUtxoIndex(binRes, unusedSortedUnspent.size)
 
-        val utxo = unusedSortedUnspent[utxoIndex]
-        currentTotal += unspentToAmount(utxo)
+        val utxo = unusedSortedUnspent.removeAt(utxoIndex)
+        currentTotal += amounts[utxo]
         outputsRes.add(utxo)
-        unusedSortedUnspent.remove(utxo)
     }
 
     // Check if resulting spending UTXOs leads to output UTXO having amount less than dust.
@@ -68,9 +129,7 @@ internal inline fun <T> getMinimumRequiredUTXOsToSend(
         val utxo = unusedSortedUnspent.firstOrNull()
             ?: return Result.Failure(BlockchainSdkError.TransactionDustChangeError)
 
-        currentTotal += unspentToAmount(utxo)
         outputsRes.add(utxo)
-        unusedSortedUnspent.remove(utxo)
     }
 
     return Result.Success(outputsRes)
@@ -2,7 +2,7 @@ package com.tangem.blockchain.extensions
 
 import android.util.Base64
 import com.google.common.primitives.Ints
-import com.tangem.blockchain.blockchains.cardano.crypto.Blake2b
+import com.tangem.blockchain.blockchains.cardano.crypto.Blake2bEngine
 import com.tangem.blockchain.blockchains.tron.libs.Base58Check
 import com.tangem.common.extensions.hexToBytes
 import org.bitcoinj.core.Base58
@@ -36,8 +36,7 @@ fun ByteArray.calculateSha3v256(): ByteArray {
 }
 
 fun ByteArray.calculateBlake2b(digestByteSize: Int): ByteArray {
-    val digest = Blake2b.Digest.newInstance(digestByteSize)
-    return digest.digest(this)
+    return Blake2bEngine.hash(input = this, digestLength = digestByteSize)
 }
 
 @Suppress("MagicNumber")
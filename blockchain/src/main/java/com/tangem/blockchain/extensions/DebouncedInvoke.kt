@@ -1,41 +1,118 @@
 package com.tangem.blockchain.extensions
 
 import android.os.SystemClock
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
 
 /**
  * Class wrapping method invocation to be debounced within specified interval [invokeIntervalMillis].
  *
+ * Invocations are single-flight: concurrent callers join the running invocation and share its result or exception.
+ * Forced calls made while an invocation is running queue at most one follow-up invocation, because the running one
+ * may have read the state before the forced call was made.
+ *
  * @param invokeIntervalMillis interval [invokeIntervalMillis]
+ * @param clock                monotonic time in milliseconds
  */
 internal class DebouncedInvoke(
     private val invokeIntervalMillis: Long = 10000L,
+    private val clock: () -> Long = SystemClock::elapsedRealtime,
 ) {
-    private var lastInvokeTime = 0L
+    private val mutex = Mutex()
+
+    // all fields are guarded by mutex
+    private var inFlight: CompletableDeferred<Unit>? = null
+    private var followUp: CompletableDeferred<Unit>? = null
+    private var lastInvokeTime: Long? = null
     private var maybeException: Throwable? = null
 
     /** Call executable [block] with specified interval or force execution with [forceUpdate] */
     suspend fun invokeOnExpire(forceUpdate: Boolean = false, block: suspend () -> Unit) {
-        if (forceUpdate) {
-            callWithException(block)
-        } else if (isExpired()) {
-            maybeException = null
-            lastInvokeTime = SystemClock.elapsedRealtime()
-            callWithException(block)
-        } else if (maybeException != null) {
-            throw maybeException as Throwable
+        while (true) {
+            when (val action = mutex.withLock { nextAction(forceUpdate) }) {
+                Action.Skip -> return
+                is Action.Rethrow -> throw action.exception
+                is Action.Invoke -> return invoke(action.flight, action.previous, block)
+                is Action.Join -> {
+                    try {
+                        return action.flight.await()
+                    } catch (e: CancellationException) {
+                        // the invoking caller was cancelled, try again unless this caller is cancelled too
+                        currentCoroutineContext().ensureActive()
+                    }
+                }
+            }
+        }
+    }
+
+    private fun nextAction(forceUpdate: Boolean): Action {
+        val running = inFlight
+        val queued = followUp
+        return when {
+            forceUpdate && queued != null -> Action.Join(queued)
+            forceUpdate && running != null -> {
+                val flight = CompletableDeferred<Unit>()
+                followUp = flight
+                Action.Invoke(flight, previous = running)
+            }
+            running != null -> Action.Join(running)
+            queued != null -> Action.Join(queued)
+            forceUpdate || isExpired() -> {
+                val flight = CompletableDeferred<Unit>()
+                inFlight = flight
+                Action.Invoke(flight, previous = null)
+            }
+            else -> maybeException?.let(Action::Rethrow) ?: Action.Skip
         }
     }
 
-    private suspend fun callWithException(block: suspend () -> Unit) {
+    private suspend fun invoke(flight: CompletableDeferred<Unit>, previous: Job?, block: suspend () -> Unit) {
         try {
+            if (previous != null) {
+                previous.join()
+                mutex.withLock {
+                    inFlight = flight
+                    followUp = null
+                }
+            }
             block()
         } catch (e: Throwable) {
-            maybeException = e
+            complete(flight, e)
             throw e
         }
+        complete(flight, exception = null)
+    }
+
+    private suspend fun complete(flight: CompletableDeferred<Unit>, exception: Throwable?) {
+        withContext(NonCancellable) {
+            mutex.withLock {
+                if (inFlight === flight) inFlight = null
+                if (followUp === flight) followUp = null
+                if (exception !is CancellationException) {
+                    lastInvokeTime = clock()
+                    maybeException = exception
+                }
+            }
+        }
+        if (exception == null) flight.complete(Unit) else flight.completeExceptionally(exception)
     }
 
     private fun isExpired(): Boolean {
-        return SystemClock.elapsedRealtime() - lastInvokeTime >= invokeIntervalMillis
+        val lastInvokeTime = lastInvokeTime ?: return true
+        return clock() - lastInvokeTime >= invokeIntervalMillis
+    }
+
+    private sealed interface Action {
+        data object Skip : Action
+        data class Rethrow(val exception: Throwable) : Action
+        data class Join(val flight: CompletableDeferred<Unit>) : Action
+        data class Invoke(val flight: CompletableDeferred<Unit>, val previous: Job?) : Action
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,37 @@
 package com.tangem.blockchain.network
 
 import com.tangem.blockchain.common.*
+import com.tangem.blockchain.common.logging.Logger
 import com.tangem.blockchain.common.logging.SensitiveKeys
 import com.tangem.blockchain.extensions.Result
 import com.tangem.blockchain.extensions.SimpleResult
 import java.io.IOException
 
-class MultiNetworkProvider<P : NetworkProvider>(
+/**
+ * Performs requests with failover between [providers].
+ *
+ * By default providers are used in order and the next one is taken only after a network error. If
+ * [healthTracker] is set, every request goes to the best scoring healthy provider instead, see [ProviderHealthTracker].
+ * If [requestHedger] is set, requests performed with [performHedgedRequest] are hedged, see [RequestHedger].
+ */
+class MultiNetworkProvider<P : NetworkProvider> internal constructor(
     val providers: List<P>,
     val blockchain: Blockchain,
+    private val healthTracker: ProviderHealthTracker?,
+    private val requestHedger: RequestHedger? = null,
 ) {
+
+    constructor(providers: List<P>, blockchain: Blockchain) : this(
+        providers = providers,
+        blockchain = blockchain,
+        healthTracker = ProviderHealthTracker.sharedIfEnabled(),
+        requestHedger = RequestHedger.createIfEnabled(),
+    )
+
+    /** Hedging metrics or null if hedging is disabled */
+    internal val hedgingStats: RequestHedger.HedgingStats?
+        get() = requestHedger?.stats
+
     init {
         if (providers.isEmpty()) error("Empty providers list")
     }
@@ -34,7 +56,103 @@ class MultiNetworkProvider<P : NetworkProvider>(
     suspend fun <R> performRequest(request: suspend P.() -> R): Result<R> =
         NoDataRequestWithIOException(request).perform()
 
+    /**
+     * Same as [performRequest], but the request may be duplicated to the next provider if the current one is slow.
+     * Use only for idempotent read requests, never for broadcasting.
+     */
+    suspend fun <D, R> performHedgedRequest(request: suspend P.(D) -> Result<R>, data: D): Result<R> =
+        DefaultRequest(request, data).performHedged()
+
+    /** @see performHedgedRequest */
+    suspend fun <R> performHedgedRequest(request: suspend P.() -> Result<R>): Result<R> =
+        NoDataRequest(request).performHedged()
+
+    private suspend fun <T : Any> Request<P, T>.performHedged(): T {
+        val hedger = requestHedger
+        if (hedger == null || providers.size < 2) return perform()
+
+        val primary = healthTracker?.peekBest(providers) ?: currentProvider
+        val backupCandidates = providers.filter { it != primary }
+        val backup = healthTracker?.peekBest(backupCandidates)
+            ?: backupCandidates[providers.indexOf(primary) % backupCandidates.size]
+        var isBackupSent = false
+
+        val result = hedger.hedge(
+            primary = { this.performTracked(primary) },
+            backup = {
+                isBackupSent = true
+                this.performTracked(backup)
+            },
+            isSuccess = { !isResultNetworkError(it) },
+        )
+
+        if (!isResultNetworkError(result.value)) {
+            if (result.isBackup) {
+                currentProvider = backup
+                Logger.logNetwork("Hedged request to ${backup.baseUrl.getUrlWithoutSensitiveInfo()} won. $hedgingStats")
+            }
+            return result.value
+        }
+
+        // all tried providers failed, continue with regular failover over the rest of them
+        val remaining = providers.filter { it != primary && (!isBackupSent || it != backup) }
+        if (remaining.isEmpty()) return result.value
+
+        ExceptionHandler.handleApiSwitch(
+            currentHost = primary.baseUrl.getUrlWithoutSensitiveInfo(),
+            nextHost = remaining.first().baseUrl.getUrlWithoutSensitiveInfo(),
+            message = "Switchable publisher caught error: ${getErrorMessage(result.value)}.",
+            blockchain = blockchain,
+        )
+        return if (healthTracker != null) performScored(healthTracker, remaining) else performInOrder(remaining)
+    }
+
+    /** Performs the request with [provider] and reports its outcome to [healthTracker] */
+    private suspend fun <T : Any> Request<P, T>.performTracked(provider: P): T {
+        val tracker = healthTracker ?: return this.performWith(provider)
+
+        val startTime = tracker.now()
+        val result = try {
+            this.performWith(provider)
+        } catch (@Suppress("TooGenericExceptionCaught") e: Throwable) {
+            tracker.onAborted(provider.baseUrl)
+            throw e
+        }
+        val latency = tracker.now() - startTime
+
+        if (isResultNetworkError(result)) {
+            tracker.onFailure(provider.baseUrl, latency)
+        } else {
+            tracker.onSuccess(provider.baseUrl, latency)
+        }
+        return result
+    }
+
+    private suspend fun <T : Any> Request<P, T>.performInOrder(candidates: List<P>): T {
+        lateinit var finalResult: T
+
+        candidates.forEachIndexed { index, provider ->
+            currentProvider = provider
+            val result = this.performWith(provider)
+            if (!isResultNetworkError(result)) return result
+
+            val next = candidates.getOrNull(index + 1)
+            if (next != null) {
+                ExceptionHandler.handleApiSwitch(
+                    currentHost = provider.baseUrl.getUrlWithoutSensitiveInfo(),
+                    nextHost = next.baseUrl.getUrlWithoutSensitiveInfo(),
+                    message = "Switchable publisher caught error: ${getErrorMessage(result)}.",
+                    blockchain = blockchain,
+                )
+            }
+            finalResult = result
+        }
+        return finalResult
+    }
+
     private suspend fun <T : Any> Request<P, T>.perform(): T {
+        if (healthTracker != null) return performScored(healthTracker, providers)
+
         lateinit var finalResult: T
 
         repeat(providers.size) {
@@ -56,6 +174,34 @@ class MultiNetworkProvider<P : NetworkProvider>(
         return finalResult
     }
 
+    private suspend fun <T : Any> Request<P, T>.performScored(
+        tracker: ProviderHealthTracker,
+        providersToTry: List<P>,
+    ): T {
+        lateinit var finalResult: T
+        val candidates = providersToTry.toMutableList()
+
+        repeat(providersToTry.size) {
+            val provider = tracker.selectBest(candidates)
+            candidates.remove(provider)
+            currentProvider = provider
+
+            val result = this.performTracked(provider)
+            if (!isResultNetworkError(result)) return result
+
+            if (candidates.isNotEmpty()) {
+                ExceptionHandler.handleApiSwitch(
+                    currentHost = provider.baseUrl.getUrlWithoutSensitiveInfo(),
+                    nextHost = tracker.peekBest(candidates).baseUrl.getUrlWithoutSensitiveInfo(),
+                    message = "Switchable publisher caught error: ${getErrorMessage(result)}.",
+                    blockchain = blockchain,
+                )
+            }
+            finalResult = result
+        }
+        return finalResult
+    }
+
     private abstract class Request<P, T> {
         var lastProvider: P? = null
 
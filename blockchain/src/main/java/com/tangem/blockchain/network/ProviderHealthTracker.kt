@@ -0,0 +1,156 @@
+package com.tangem.blockchain.network
+
+import com.tangem.blockchain.common.NetworkProvider
+import com.tangem.blockchain.common.di.DepsContainer
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.math.pow
+
+/**
+ * Tracks health of hosts by [NetworkProvider.baseUrl] and picks the best scoring one for [MultiNetworkProvider].
+ *
+ * For every host it keeps EWMA of latency and error rate and the last failure time. Score is the latency penalized by
+ * the error rate, the error rate fades out after the last failure. After [FAILURES_TO_OPEN_CIRCUIT] consecutive
+ * failures the host is put into a cooldown (circuit is open) growing exponentially on repeated failures. When the
+ * cooldown is over the host is probed by a single request (circuit is half-open) and is back in rotation on success.
+ *
+ * Statistics are shared by all [MultiNetworkProvider]s using the same tracker, see [shared].
+ */
+internal class ProviderHealthTracker(
+    private val clock: () -> Long = System::currentTimeMillis,
+) {
+
+    private val hosts = ConcurrentHashMap<String, HostHealth>()
+
+    /**
+     * Returns the best provider among [candidates]. Hosts in cooldown are skipped unless all candidates are in
+     * cooldown, then the one with the earliest cooldown end is returned.
+     */
+    fun <P : NetworkProvider> selectBest(candidates: List<P>): P {
+        val now = clock()
+        val best = peekBest(candidates, now)
+        health(best.baseUrl).onSelected(now)
+        return best
+    }
+
+    /** Same as [selectBest] but doesn't reserve a probe request of a half-open host */
+    fun <P : NetworkProvider> peekBest(candidates: List<P>, now: Long = clock()): P {
+        require(candidates.isNotEmpty()) { "Empty candidates list" }
+
+        val available = candidates.filter { health(it.baseUrl).isAvailable(now) }
+        if (available.isEmpty()) {
+            return candidates.minBy { health(it.baseUrl).openUntil }
+        }
+
+        // minBy keeps the first one of equal scores, so the configured order is preferred for fresh hosts
+        return available.minBy { health(it.baseUrl).score(now) }
+    }
+
+    fun onSuccess(baseUrl: String, latencyMillis: Long) {
+        health(baseUrl).onSuccess(latencyMillis)
+    }
+
+    fun onFailure(baseUrl: String, latencyMillis: Long) {
+        health(baseUrl).onFailure(latencyMillis, clock())
+    }
+
+    /** Releases a probe reservation of the host if the request ended without result, e.g. was cancelled */
+    fun onAborted(baseUrl: String) {
+        health(baseUrl).onAborted()
+    }
+
+    fun score(baseUrl: String): Double = health(baseUrl).score(clock())
+
+    fun isAvailable(baseUrl: String): Boolean = health(baseUrl).isAvailable(clock())
+
+    fun now(): Long = clock()
+
+    private fun health(baseUrl: String): HostHealth = hosts.getOrPut(baseUrl) { HostHealth() }
+
+    private class HostHealth {
+        private var latency = DEFAULT_LATENCY_MILLIS
+        private var errorRate = 0.0
+        private var lastFailureTime = 0L
+        private var consecutiveFailures = 0
+        private var cooldownMillis = BASE_COOLDOWN_MILLIS
+        private var isProbeInFlight = false
+
+        @get:Synchronized
+        var openUntil = 0L
+            private set
+
+        @Synchronized
+        fun isAvailable(now: Long): Boolean = when {
+            consecutiveFailures < FAILURES_TO_OPEN_CIRCUIT -> true
+            now < openUntil -> false
+            else -> !isProbeInFlight
+        }
+
+        @Synchronized
+        fun score(now: Long): Double {
+            val sinceFailure = (now - lastFailureTime).coerceAtLeast(0L).toDouble()
+            val fadedErrorRate = errorRate * 0.5.pow(sinceFailure / ERROR_RATE_HALF_LIFE_MILLIS)
+            return latency * (1 + ERROR_RATE_PENALTY * fadedErrorRate)
+        }
+
+        @Synchronized
+        fun onSelected(now: Long) {
+            if (consecutiveFailures >= FAILURES_TO_OPEN_CIRCUIT && now >= openUntil) {
+                isProbeInFlight = true
+            }
+        }
+
+        @Synchronized
+        fun onSuccess(latencyMillis: Long) {
+            latency = ewma(latency, latencyMillis.toDouble())
+            errorRate = ewma(errorRate, 0.0)
+            consecutiveFailures = 0
+            cooldownMillis = BASE_COOLDOWN_MILLIS
+            isProbeInFlight = false
+            openUntil = 0L
+        }
+
+        @Synchronized
+        fun onFailure(latencyMillis: Long, now: Long) {
+            latency = ewma(latency, latencyMillis.toDouble())
+            errorRate = ewma(errorRate, 1.0)
+            lastFailureTime = now
+            consecutiveFailures++
+
+            if (consecutiveFailures >= FAILURES_TO_OPEN_CIRCUIT) {
+                if (isProbeInFlight) {
+                    cooldownMillis = (cooldownMillis * 2).coerceAtMost(MAX_COOLDOWN_MILLIS)
+                }
+                openUntil = now + cooldownMillis
+                isProbeInFlight = false
+            }
+        }
+
+        @Synchronized
+        fun onAborted() {
+            isProbeInFlight = false
+        }
+
+        private fun ewma(current: Double, sample: Double) = current + EWMA_ALPHA * (sample - current)
+    }
+
+    companion object {
+        private const val EWMA_ALPHA = 0.3
+        private const val DEFAULT_LATENCY_MILLIS = 300.0
+        private const val ERROR_RATE_PENALTY = 4.0
+        private const val ERROR_RATE_HALF_LIFE_MILLIS = 60_000.0
+        private const val FAILURES_TO_OPEN_CIRCUIT = 2
+        private const val BASE_COOLDOWN_MILLIS = 15_000L
+        private const val MAX_COOLDOWN_MILLIS = 5 * 60_000L
+
+        /** Tracker shared by all providers of the process */
+        val shared: ProviderHealthTracker by lazy { ProviderHealthTracker() }
+
+        /** Returns [shared] tracker if provider scoring is enabled by feature toggle */
+        fun sharedIfEnabled(): ProviderHealthTracker? {
+            val isEnabled = runCatching { DepsContainer.blockchainFeatureToggles.isProviderScoringEnabled }
+                .getOrDefault(false)
+
+            return if (isEnabled) shared else null
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.tangem.blockchain.network
+
+import com.tangem.blockchain.common.di.DepsContainer
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.selects.select
+import kotlinx.coroutines.withTimeoutOrNull
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Hedges idempotent read requests: if the primary request has not completed within an adaptive delay, the same
+ * request is sent as a backup and the first successful result wins, the other request is cancelled.
+ *
+ * The delay is the [percentile] of recent primary latencies clamped to [[minDelayMillis], [maxDelayMillis]], so
+ * only the slowest tail of requests is hedged.
+ *
+ * Must never be used for non-idempotent requests like transaction broadcasting.
+ */
+internal class RequestHedger(
+    private val minDelayMillis: Long = MIN_DELAY_MILLIS,
+    private val maxDelayMillis: Long = MAX_DELAY_MILLIS,
+    private val percentile: Double = DEFAULT_PERCENTILE,
+    private val clock: () -> Long = System::currentTimeMillis,
+) {
+
+    private val latencies = LongArray(LATENCY_WINDOW_SIZE)
+    private var latenciesCount = 0
+
+    val stats = HedgingStats()
+
+    @Synchronized
+    fun hedgeDelayMillis(): Long {
+        if (latenciesCount < MIN_SAMPLES) return maxDelayMillis
+
+        val sorted = latencies.copyOf(latenciesCount.coerceAtMost(LATENCY_WINDOW_SIZE)).sorted()
+        val index = ((sorted.size - 1) * percentile).toInt()
+        return sorted[index].coerceIn(minDelayMillis, maxDelayMillis)
+    }
+
+    @Synchronized
+    private fun recordLatency(latencyMillis: Long) {
+        latencies[latenciesCount % LATENCY_WINDOW_SIZE] = latencyMillis
+        latenciesCount++
+    }
+
+    /**
+     * Runs [primary] and, if it's slower than [hedgeDelayMillis], [backup] as well.
+     *
+     * @return the first result satisfying [isSuccess] with a flag whether it came from [backup]. If both fail,
+     * result of [primary] is returned.
+     */
+    suspend fun <T : Any> hedge(
+        primary: suspend () -> T,
+        backup: suspend () -> T,
+        isSuccess: (T) -> Boolean,
+    ): HedgedResult<T> = coroutineScope {
+        stats.requests.incrementAndGet()
+        val startTime = clock()
+        val primaryDeferred = async { primary() }
+
+        val primaryResult = withTimeoutOrNull(hedgeDelayMillis()) { primaryDeferred.await() }
+        if (primaryResult != null) {
+            if (isSuccess(primaryResult)) recordLatency(clock() - startTime)
+            return@coroutineScope HedgedResult(primaryResult, isBackup = false)
+        }
+
+        stats.hedged.incrementAndGet()
+        val backupDeferred = async { backup() }
+
+        val first = select {
+            primaryDeferred.onAwait { HedgedResult(it, isBackup = false) }
+            backupDeferred.onAwait { HedgedResult(it, isBackup = true) }
+        }
+        val second = if (isSuccess(first.value)) {
+            null
+        } else if (first.isBackup) {
+            HedgedResult(primaryDeferred.await(), isBackup = false)
+        } else {
+            HedgedResult(backupDeferred.await(), isBackup = true)
+        }
+
+        val winner = when {
+            second == null -> first
+            isSuccess(second.value) -> second
+            first.isBackup -> second
+            else -> first
+        }
+        primaryDeferred.cancel()
+        backupDeferred.cancel()
+
+        if (!winner.isBackup && isSuccess(winner.value)) recordLatency(clock() - startTime)
+        if (winner.isBackup && isSuccess(winner.value)) stats.backupWins.incrementAndGet()
+
+        winner
+    }
+
+    class HedgedResult<T>(val value: T, val isBackup: Boolean)
+
+    /**
+     * Hedging metrics
+     *
+     * @property requests   number of hedgeable requests
+     * @property hedged     number of requests a backup was sent for
+     * @property backupWins number of requests answered by a backup
+     */
+    class HedgingStats {
+        val requests = AtomicLong()
+        val hedged = AtomicLong()
+        val backupWins = AtomicLong()
+
+        override fun toString(): String = "requests: $requests, hedged: $hedged, backup wins: $backupWins"
+    }
+
+    companion object {
+        private const val MIN_DELAY_MILLIS = 250L
+        private const val MAX_DELAY_MILLIS = 3_000L
+        private const val DEFAULT_PERCENTILE = 0.95
+        private const val LATENCY_WINDOW_SIZE = 64
+        private const val MIN_SAMPLES = 8
+
+        /** Returns a new hedger if hedged requests are enabled by feature toggle */
+        fun createIfEnabled(): RequestHedger? {
+            val isEnabled = runCatching { DepsContainer.blockchainFeatureToggles.isHedgedRequestsEnabled }
+                .getOrDefault(false)
+
+            return if (isEnabled) RequestHedger() else null
+        }
+    }
+}
@@ -13,8 +13,11 @@ import com.tangem.blockchain.blockchains.filecoin.network.response.FilecoinRpcRe
 import com.tangem.blockchain.common.EnumeratedEnum
 import com.tangem.blockchain.network.blockbook.network.responses.GetAddressResponse
 import com.tangem.blockchain.transactionhistory.blockchains.polygon.network.PolygonScanResultAdapter
+import okhttp3.ConnectionPool
+import okhttp3.Dispatcher
 import okhttp3.Interceptor
 import okhttp3.OkHttpClient
+import okhttp3.Protocol
 import retrofit2.Retrofit
 import retrofit2.converter.moshi.MoshiConverterFactory
 import java.math.BigDecimal
@@ -33,8 +36,32 @@ object BlockchainSdkRetrofitBuilder {
     var interceptors: List<Interceptor> = emptyList()
     var timeoutConfig: TimeoutConfig? = null
 
+    /**
+     * Configuration of the process-wide [OkHttpClient] shared by all providers.
+     * Must be set before the first provider is created, later changes are ignored.
+     */
+    var httpClientConfig: HttpClientConfig = HttpClientConfig.default()
+
+    /**
+     * Single client that owns connection pool, dispatcher and TLS session cache.
+     * Clients of providers are derived from it with [OkHttpClient.newBuilder], so they share these resources.
+     */
+    internal val sharedClient: OkHttpClient by lazy {
+        val config = httpClientConfig
+        val dispatcher = Dispatcher().apply {
+            maxRequests = config.maxRequests
+            maxRequestsPerHost = config.maxRequestsPerHost
+        }
+
+        OkHttpClient.Builder()
+            .connectionPool(ConnectionPool(config.maxIdleConnections, config.keepAlive.time, config.keepAlive.unit))
+            .dispatcher(dispatcher)
+            .protocols(config.protocols)
+            .build()
+    }
+
     internal fun build(internalInterceptors: List<Interceptor> = emptyList()): OkHttpClient {
-        val builder = OkHttpClient.Builder()
+        val builder = sharedClient.newBuilder()
 
         (interceptors + internalInterceptors).forEach(builder::addInterceptor)
         timeoutConfig?.let {
@@ -72,6 +99,34 @@ data class Timeout(
     val unit: TimeUnit = TimeUnit.SECONDS,
 )
 
+/**
+ * Configuration of the shared [OkHttpClient]
+ *
+ * @property maxIdleConnections max number of idle connections kept in the pool across all hosts
+ * @property keepAlive          time an idle connection is kept in the pool
+ * @property maxRequests        max number of concurrently executing requests
+ * @property maxRequestsPerHost max number of concurrently executing requests to a single host
+ * @property protocols          protocols to negotiate, HTTP/2 multiplexes requests to a host over one connection
+ */
+data class HttpClientConfig(
+    val maxIdleConnections: Int,
+    val keepAlive: Timeout,
+    val maxRequests: Int,
+    val maxRequestsPerHost: Int,
+    val protocols: List<Protocol>,
+) {
+    companion object {
+
+        fun default(): HttpClientConfig = HttpClientConfig(
+            maxIdleConnections = 32,
+            keepAlive = Timeout(time = 5, unit = TimeUnit.MINUTES),
+            maxRequests = 128,
+            maxRequestsPerHost = 16,
+            protocols = listOf(Protocol.HTTP_2, Protocol.HTTP_1_1),
+        )
+    }
+}
+
 internal val moshi: Moshi by lazy {
     Moshi.Builder()
         .add(BigDecimal::class.java, BigDecimalAdapter)
@@ -65,7 +65,7 @@ class BlockBookNetworkProvider(
 
     override suspend fun getInfo(address: String): Result<BitcoinAddressInfo> {
         return try {
-            val getAddressResponse = withContext(Dispatchers.IO) { api.getAddress(address) }
+            val getAddressResponse = withContext(Dispatchers.IO) { api.getAddressBasic(address) }
             val getUtxoResponseItems = withContext(Dispatchers.IO) { api.getUtxo(address) }
             val balance = getAddressResponse.balance.toBigDecimalOrNull() ?: BigDecimal.ZERO
 
@@ -118,13 +118,24 @@ class BlockBookNetworkProvider(
 
     override suspend fun getSignatureCount(address: String): Result<Int> {
         return try {
-            val response = withContext(Dispatchers.IO) { api.getAddress(address) }
+            val response = withContext(Dispatchers.IO) { api.getAddressBasic(address) }
             Result.Success(response.txs.plus(response.unconfirmedTxs ?: 0))
         } catch (e: Exception) {
             Result.Failure(e.toBlockchainSdkError())
         }
     }
 
+    override suspend fun getAddressStatus(address: String): Result<String> {
+        return try {
+            val response = withContext(Dispatchers.IO) { api.getAddressBasic(address) }
+            Result.Success("${response.txs}:${response.unconfirmedTxs ?: 0}:${response.balance}")
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            Result.Failure(e.toBlockchainSdkError())
+        }
+    }
+
     override suspend fun getInfoByXpub(xpub: String): Result<XpubInfoResponse> {
         return try {
             val (xpubResponse, xpubUtxoItems) = coroutineScope {
@@ -1,5 +1,6 @@
 package com.tangem.blockchain.network.blockbook.network
 
+import com.squareup.moshi.JsonAdapter
 import com.squareup.moshi.adapter
 import com.tangem.blockchain.common.Blockchain
 import com.tangem.blockchain.common.JsonRPCRequest
@@ -40,6 +41,20 @@ internal class BlockBookApi(private val config: BlockBookConfig, private val blo
             .unpack()
     }
 
+    /** Address balance and transactions count without the list of transaction ids */
+    suspend fun getAddressBasic(address: String): GetAddressResponse {
+        val requestBaseUrl = config.getRequestBaseUrl(BlockBookRequest.GetAddress(), blockchain)
+        return client
+            .newCall(
+                request = Request.Builder()
+                    .get()
+                    .url("$requestBaseUrl/address/$address?details=basic")
+                    .build(),
+            )
+            .await()
+            .unpack()
+    }
+
     suspend fun getTransactions(
         address: String,
         page: String?,
@@ -144,7 +159,7 @@ internal class BlockBookApi(private val config: BlockBookConfig, private val blo
                     .build(),
             )
             .await()
-            .unpack<List<GetUtxoResponseItem>>()
+            .unpack(allUtxoAdapter)
     }
 
     suspend fun getUtxo(address: String): List<GetUtxoResponseItem> {
@@ -157,28 +172,33 @@ internal class BlockBookApi(private val config: BlockBookConfig, private val blo
                     .build(),
             )
             .await()
-            .unpack<List<GetUtxoResponseItem>>()
-            .filter {
-                // filter unconfirmed UTXOs, to not block sending tx
-                it.confirmations > 0
-            }
+            // unconfirmed UTXOs are filtered while reading, to not block sending tx
+            .unpack(confirmedUtxoAdapter)
     }
 
     private fun getFeeRequest(params: List<Int>): JsonRPCRequest {
         return JsonRPCRequest(method = "estimatesmartfee", params = params, id = "id")
     }
 
-    private inline fun <reified T> Response.unpack(): T {
-        val responseBody = body?.string()
-        return if (isSuccessful && responseBody != null) {
-            moshi.adapter<T>().fromJson(responseBody) ?: throw IOException("Response is null")
-        } else {
-            throw IOException("Response is null")
+    private inline fun <reified T> Response.unpack(): T = unpack(moshi.adapter<T>())
+
+    /** Decodes the body while it's being received, without buffering it as a string */
+    private fun <T> Response.unpack(adapter: JsonAdapter<T>): T {
+        return use {
+            val responseBody = body
+            if (isSuccessful && responseBody != null) {
+                adapter.fromJson(responseBody.source()) ?: throw IOException("Response is null")
+            } else {
+                throw IOException("Response is null")
+            }
         }
     }
 
     private companion object {
         const val APPLICATION_JSON_MEDIA_TYPE = "application/json"
         const val TEXT_PLAIN_MEDIA_TYPE = "text/plain"
+
+        val allUtxoAdapter = UtxoListAdapter(minConfirmations = 0)
+        val confirmedUtxoAdapter = UtxoListAdapter(minConfirmations = 1)
     }
 }
\ No newline at end of file
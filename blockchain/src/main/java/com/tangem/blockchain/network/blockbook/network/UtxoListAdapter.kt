@@ -0,0 +1,81 @@
+package com.tangem.blockchain.network.blockbook.network
+
+import com.squareup.moshi.JsonAdapter
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.JsonReader
+import com.squareup.moshi.JsonWriter
+import com.tangem.blockchain.network.blockbook.network.responses.GetUtxoResponseItem
+
+/**
+ * Streaming adapter of Blockbook `utxo` responses.
+ *
+ * Outputs are read one by one, unknown fields are skipped without decoding and outputs with less than
+ * [minConfirmations] confirmations are dropped while reading, so large UTXO sets aren't kept as a whole.
+ */
+internal class UtxoListAdapter(private val minConfirmations: Int) : JsonAdapter<List<GetUtxoResponseItem>>() {
+
+    private val options = JsonReader.Options.of("confirmations", "height", "txid", "value", "vout", "address", "path")
+
+    override fun fromJson(reader: JsonReader): List<GetUtxoResponseItem> {
+        val items = mutableListOf<GetUtxoResponseItem>()
+
+        reader.beginArray()
+        while (reader.hasNext()) {
+            val item = readItem(reader)
+            if (item.confirmations >= minConfirmations) items.add(item)
+        }
+        reader.endArray()
+
+        return items
+    }
+
+    override fun toJson(writer: JsonWriter, value: List<GetUtxoResponseItem>?) {
+        error("Not used")
+    }
+
+    private fun readItem(reader: JsonReader): GetUtxoResponseItem {
+        var confirmations: Int? = null
+        var height: Int? = null
+        var txid: String? = null
+        var value: String? = null
+        var vout: Int? = null
+        var address: String? = null
+        var path: String? = null
+
+        reader.beginObject()
+        while (reader.hasNext()) {
+            when (reader.selectName(options)) {
+                0 -> confirmations = reader.nextInt()
+                1 -> height = reader.nextIntOrNull()
+                2 -> txid = reader.nextString()
+                3 -> value = reader.nextString()
+                4 -> vout = reader.nextInt()
+                5 -> address = reader.nextStringOrNull()
+                6 -> path = reader.nextStringOrNull()
+                -1 -> {
+                    reader.skipName()
+                    reader.skipValue()
+                }
+            }
+        }
+        reader.endObject()
+
+        return GetUtxoResponseItem(
+            confirmations = confirmations ?: throw JsonDataException("Required confirmations at ${reader.path}"),
+            height = height,
+            txid = txid ?: throw JsonDataException("Required txid at ${reader.path}"),
+            value = value ?: throw JsonDataException("Required value at ${reader.path}"),
+            vout = vout ?: throw JsonDataException("Required vout at ${reader.path}"),
+            address = address,
+            path = path,
+        )
+    }
+
+    private fun JsonReader.nextIntOrNull(): Int? {
+        return if (peek() == JsonReader.Token.NULL) nextNull() else nextInt()
+    }
+
+    private fun JsonReader.nextStringOrNull(): String? {
+        return if (peek() == JsonReader.Token.NULL) nextNull() else nextString()
+    }
+}
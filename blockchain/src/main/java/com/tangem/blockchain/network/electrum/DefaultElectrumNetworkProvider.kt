@@ -54,6 +54,14 @@ internal class DefaultElectrumNetworkProvider(
         }
     }
 
+    override suspend fun getScriptHashStatus(addressScriptHash: String): Result<String?> {
+        firstCheckServer()?.apply { return Result.Failure(this) }
+
+        return retryCall {
+            service.getScriptHashStatus(addressScriptHash)
+        }
+    }
+
     // TODO
     // override suspend fun getTransaction(txHash: String): Result<ElectrumTransaction> {
     //     firstCheckServer()?.apply { return Result.Failure(this) }
@@ -10,6 +10,9 @@ internal interface ElectrumNetworkProvider : NetworkProvider {
 
     suspend fun getUnspentUTXOs(addressScriptHash: String): Result<List<ElectrumUnspentUTXORecord>>
 
+    /** Returns status of the script hash history, null if the history is empty */
+    suspend fun getScriptHashStatus(addressScriptHash: String): Result<String?>
+
     suspend fun getEstimateFee(numberConfirmationBlocks: Int): Result<ElectrumEstimateFee>
 
     suspend fun getTransactionInfo(txHash: String): Result<ElectrumResponse.Transaction>
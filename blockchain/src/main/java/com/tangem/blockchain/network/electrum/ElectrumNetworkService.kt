@@ -17,6 +17,9 @@ internal class ElectrumNetworkService(
     override suspend fun getAccountBalance(addressScriptHash: String): Result<ElectrumAccount> =
         multiProvider.performRequest(ElectrumNetworkProvider::getAccountBalance, addressScriptHash)
 
+    override suspend fun getScriptHashStatus(addressScriptHash: String): Result<String?> =
+        multiProvider.performRequest(ElectrumNetworkProvider::getScriptHashStatus, addressScriptHash)
+
     override suspend fun getEstimateFee(numberConfirmationBlocks: Int): Result<ElectrumEstimateFee> =
         multiProvider.performRequest(ElectrumNetworkProvider::getEstimateFee, numberConfirmationBlocks)
 
@@ -85,6 +85,13 @@ internal class DefaultElectrumApiService(
         )
     }
 
+    override suspend fun getScriptHashStatus(addressScriptHash: String): Result<String?> {
+        return request(
+            method = "blockchain.scripthash.subscribe",
+            params = listOf(addressScriptHash),
+        ).map { it as? String }
+    }
+
     override suspend fun getTransaction(txHash: String): Result<ElectrumResponse.Transaction> {
         return requestNotNull(
             method = "blockchain.transaction.get",
@@ -129,6 +136,23 @@ internal class DefaultElectrumApiService(
         params: List<Any> = emptyList(),
         adapter: JsonAdapter<T> = moshi.adapter<T>(),
     ): Result<T> {
+        return request(method = method, params = params).fold(
+            success = { result ->
+                runCatching {
+                    adapter.fromJsonValue(result)
+                }.getOrNull()?.let { Result.Success(it) } ?: Result.Failure(
+                    BlockchainSdkError.UnsupportedOperation(
+                        "Unknown Electrum JSON-RPC response result",
+                    ),
+                )
+            },
+            failure = {
+                Result.Failure(it)
+            },
+        )
+    }
+
+    private suspend fun request(method: String, params: List<Any>): Result<Any?> {
         return rpcService.call(
             JsonRPCRequest(
                 method = method,
@@ -143,15 +167,7 @@ internal class DefaultElectrumApiService(
                             message = response.error.message,
                         ),
                     )
-                    else -> {
-                        runCatching {
-                            adapter.fromJsonValue(response.result)
-                        }.getOrNull()?.let { Result.Success(it) } ?: Result.Failure(
-                            BlockchainSdkError.UnsupportedOperation(
-                                "Unknown Electrum JSON-RPC response result",
-                            ),
-                        )
-                    }
+                    else -> Result.Success(response.result)
                 }
             },
             onFailure = {
@@ -159,4 +175,4 @@ internal class DefaultElectrumApiService(
             },
         )
     }
-}
\ No newline at end of file
+}
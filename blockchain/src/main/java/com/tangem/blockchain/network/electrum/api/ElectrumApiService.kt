@@ -25,6 +25,12 @@ internal interface ElectrumApiService {
 
     suspend fun getTransactionHistory(addressScriptHash: String): Result<List<ElectrumResponse.TxHistoryEntry>>
 
+    /**
+     * Returns status of the script hash history, null if the history is empty.
+     * Status changes with every new transaction or confirmation of the script hash.
+     */
+    suspend fun getScriptHashStatus(addressScriptHash: String): Result<String?>
+
     suspend fun getTransaction(txHash: String): Result<ElectrumResponse.Transaction>
 
     suspend fun sendTransaction(rawTransactionHex: String): Result<ElectrumResponse.TxHex>
@@ -4,24 +4,39 @@ import com.tangem.blockchain.common.JsonRPCRequest
 import com.tangem.blockchain.common.JsonRPCRequestJsonAdapter
 import com.tangem.blockchain.common.JsonRPCResponse
 import com.tangem.blockchain.common.JsonRPCResponseJsonAdapter
+import com.tangem.blockchain.network.BlockchainSdkRetrofitBuilder
 import com.tangem.blockchain.network.moshi
 import kotlinx.coroutines.*
 import kotlinx.coroutines.channels.BufferOverflow
 import kotlinx.coroutines.flow.*
 import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.sync.withPermit
 import okhttp3.*
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
 
 private const val PING_INTERVAL_MILLIS = 10000L
 private const val REQUEST_TIMEOUT_MILLIS = 30000L
 private const val DISCONNECT_TIMER_MILLIS = 60000L
 private const val WEBSOCKET_CONNECTION_CLOSE_NORMAL_STATUS = 1000
-
+private const val MAX_IN_FLIGHT_REQUESTS = 256
+private const val NOTIFICATIONS_BUFFER_CAPACITY = 64
+
+/**
+ * Multiplexes JsonRPC calls over a single websocket connection.
+ *
+ * Every call is sent with a unique id generated by the service and waits for its response in [pendingRequests], so
+ * responses are matched in O(1) regardless of their order and the number of requests in flight. The caller's id is
+ * restored in the returned response. At most [MAX_IN_FLIGHT_REQUESTS] requests are sent without response, further
+ * calls suspend until a slot is free. Messages without id are emitted to [notifications].
+ */
 @OptIn(ExperimentalCoroutinesApi::class)
 internal class DefaultJsonRPCWebsocketService(
     private val wssUrl: String,
     private val pingPongRequestFactory: () -> JsonRPCRequest,
-    private val okHttpClient: OkHttpClient = OkHttpClient(),
+    private val okHttpClient: OkHttpClient = BlockchainSdkRetrofitBuilder.sharedClient,
 ) : JsonRPCWebsocketService {
 
     private val jsonRequestAdapter = JsonRPCRequestJsonAdapter(moshi)
@@ -29,14 +44,17 @@ internal class DefaultJsonRPCWebsocketService(
 
     override val state = MutableStateFlow(WebSocketConnectionStatus.DISCONNECTED)
 
-    private val responseMessages = MutableSharedFlow<JsonRPCResponse>(
-        replay = 100,
+    override val notifications = MutableSharedFlow<JsonRPCRequest>(
+        extraBufferCapacity = NOTIFICATIONS_BUFFER_CAPACITY,
         onBufferOverflow = BufferOverflow.DROP_OLDEST,
     )
 
+    private val pendingRequests = ConcurrentHashMap<String, CompletableDeferred<JsonRPCResponse>>()
+    private val idCounter = AtomicLong()
+    private val inFlightPermits = Semaphore(MAX_IN_FLIGHT_REQUESTS)
+
     private val coroutineScope = CoroutineScope(Dispatchers.IO + SupervisorJob())
     private var disconnectTimerJob: Job? = null
-    private val requests = MutableStateFlow<List<Deferred<JsonRPCResponse>>>(emptyList())
     private var socket: WebSocket? = null
     private val keepAlive = MutableStateFlow(false)
     private val mutex = Mutex()
@@ -137,10 +155,6 @@ internal class DefaultJsonRPCWebsocketService(
         socket?.cancel()
 
         state.value = WebSocketConnectionStatus.DISCONNECTED
-
-        // clear all the responses
-        // we don't need them anymore
-        responseMessages.resetReplayCache()
     }
 
     override suspend fun call(jsonRPCRequest: JsonRPCRequest): Result<JsonRPCResponse> {
@@ -158,39 +172,35 @@ internal class DefaultJsonRPCWebsocketService(
         // refresh timer on every call after which the websocket connection will be closed
         refreshDisconnectTimer()
 
-        // send request async
-        val json = jsonRequestAdapter.toJson(jsonRPCRequest)
-        socket?.send(json) ?: return Result.failure(
-            RuntimeException("No connection or message buffer overflows (16 MiB)"),
-        )
-
-        return coroutineScope {
-            val response = async {
-                withTimeout(REQUEST_TIMEOUT_MILLIS) {
-                    responseMessages.first { it.id == jsonRPCRequest.id }
+        return inFlightPermits.withPermit {
+            val id = idCounter.incrementAndGet().toString()
+            val response = CompletableDeferred<JsonRPCResponse>()
+            pendingRequests[id] = response
+
+            try {
+                // send request async
+                val json = jsonRequestAdapter.toJson(jsonRPCRequest.copy(id = id))
+                if (socket?.send(json) != true) {
+                    return@withPermit Result.failure(
+                        RuntimeException("No connection or message buffer overflows (16 MiB)"),
+                    )
                 }
-            }
-
-            requests.update { it + response }
 
-            // wait for response
-            val result = runCatching {
-                response.await()
+                // wait for response
+                runCatching {
+                    withTimeout(REQUEST_TIMEOUT_MILLIS) { response.await() }.copy(id = jsonRPCRequest.id)
+                }
+            } finally {
+                pendingRequests.remove(id)
             }
-
-            requests.update { it - response }
-
-            result
         }
     }
 
     private fun close(ex: Throwable) {
         // terminate all waiting requests
-        requests.update { reqs ->
-            reqs.forEach {
-                it.cancel(CancellationException(message = ex.message, cause = ex))
-            }
-            emptyList()
+        val ids = pendingRequests.keys.toList()
+        ids.forEach { id ->
+            pendingRequests.remove(id)?.completeExceptionally(ex)
         }
         state.value = WebSocketConnectionStatus.DISCONNECTED
     }
@@ -205,9 +215,19 @@ internal class DefaultJsonRPCWebsocketService(
         override fun onMessage(webSocket: WebSocket, text: String) {
             val response = runCatching {
                 jsonResponseAdapter.fromJson(text)
+            }.getOrNull()
+
+            if (response != null) {
+                pendingRequests[response.id]?.complete(response)
+                return
+            }
+
+            // messages without id are server notifications, e.g. Electrum subscriptions
+            val notification = runCatching {
+                jsonRequestAdapter.fromJson(text)
             }.getOrNull() ?: return
 
-            responseMessages.tryEmit(response)
+            notifications.tryEmit(notification)
         }
 
         override fun onClosing(webSocket: WebSocket, code: Int, reason: String) {
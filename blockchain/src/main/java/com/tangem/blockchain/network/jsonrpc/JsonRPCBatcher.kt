@@ -0,0 +1,218 @@
+package com.tangem.blockchain.network.jsonrpc
+
+import com.squareup.moshi.JsonDataException
+import com.tangem.blockchain.common.JsonRPCRequest
+import com.tangem.blockchain.common.JsonRPCResponse
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.currentCoroutineContext
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.job
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.withContext
+import retrofit2.HttpException
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Coalesces JsonRPC requests issued concurrently into JSON-RPC 2.0 batch arrays.
+ *
+ * Requests that arrive within [windowMillis] after the first pending one are sent as a single batch (at most
+ * [maxBatchSize] entries) and responses are demultiplexed by request id, so every caller gets its own response
+ * including its own `error` object. A lone request is posted as is.
+ *
+ * If the whole batch fails, every caller gets this exception, so retries and
+ * [com.tangem.blockchain.network.MultiNetworkProvider] failover keep working for each request. Batching is switched
+ * off for this instance only when the node clearly doesn't support batches: it answers with HTTP 400 or 413, with a
+ * body that is not an array (e.g. a single error object) or with an `Invalid Request` error instead of the responses.
+ * Then the batch is resent request by request.
+ *
+ * A caller cancelled while waiting is removed from the batch, and the batch request is cancelled once none of its
+ * callers is waiting anymore.
+ *
+ * @property postSingle posts a single request
+ * @property postBatch  posts a batch array of requests
+ */
+internal class JsonRPCBatcher(
+    private val postSingle: suspend (JsonRPCRequest) -> JsonRPCResponse,
+    private val postBatch: suspend (List<JsonRPCRequest>) -> List<JsonRPCResponse>,
+    private val windowMillis: Long = DEFAULT_WINDOW_MILLIS,
+    private val maxBatchSize: Int = DEFAULT_MAX_BATCH_SIZE,
+    private val coroutineScope: CoroutineScope = CoroutineScope(Dispatchers.IO + SupervisorJob()),
+) {
+
+    private val idCounter = AtomicLong()
+
+    // guards pendingCalls and PendingCall.batch
+    private val mutex = Mutex()
+    private var pendingCalls = mutableListOf<PendingCall>()
+
+    @Volatile
+    private var isBatchSupported = true
+
+    /** Returns unique request id for requests sent through this batcher */
+    fun nextId(): String = idCounter.incrementAndGet().toString()
+
+    suspend fun call(request: JsonRPCRequest): JsonRPCResponse {
+        if (!isBatchSupported) return postSingle(request)
+
+        val call = PendingCall(request)
+        mutex.withLock {
+            pendingCalls.add(call)
+            when {
+                pendingCalls.size >= maxBatchSize -> {
+                    val calls = takePendingCalls()
+                    val job = coroutineScope.launch(start = CoroutineStart.LAZY) { flush(calls) }
+                    assignBatch(calls, job)
+                    job.start()
+                }
+                pendingCalls.size == 1 -> coroutineScope.launch {
+                    delay(windowMillis)
+                    val job = currentCoroutineContext().job
+                    flush(mutex.withLock { takePendingCalls().also { assignBatch(it, job) } })
+                }
+                else -> Unit
+            }
+        }
+
+        return try {
+            call.response.await()
+        } catch (e: CancellationException) {
+            withContext(NonCancellable) { mutex.withLock { abandon(call) } }
+            throw e
+        }
+    }
+
+    private fun takePendingCalls(): List<PendingCall> {
+        val calls = pendingCalls
+        pendingCalls = mutableListOf()
+        return calls
+    }
+
+    private fun assignBatch(calls: List<PendingCall>, job: Job) {
+        val batch = Batch(calls, job)
+        calls.forEach { it.batch = batch }
+    }
+
+    private fun abandon(call: PendingCall) {
+        call.response.cancel()
+        if (pendingCalls.remove(call)) return
+
+        val batch = call.batch ?: return
+        if (batch.calls.all { it.response.isCompleted }) batch.job.cancel()
+    }
+
+    private suspend fun flush(calls: List<PendingCall>) {
+        val waitingCalls = calls.filterNot { it.response.isCompleted }
+        try {
+            when (waitingCalls.size) {
+                0 -> Unit
+                1 -> postSeparately(waitingCalls)
+                else -> postAsBatch(waitingCalls)
+            }
+        } finally {
+            // complete callers left without response if the batcher scope itself was cancelled
+            waitingCalls.forEach { it.response.completeExceptionally(IOException("JsonRPC batch was cancelled")) }
+        }
+    }
+
+    private suspend fun postAsBatch(calls: List<PendingCall>) {
+        val responses = try {
+            postBatch(calls.map(PendingCall::request))
+        } catch (e: CancellationException) {
+            throw e
+        } catch (@Suppress("TooGenericExceptionCaught") e: Exception) {
+            if (isBatchUnsupported(e) || isBatchRejected(e)) {
+                isBatchSupported = false
+                postSeparately(calls)
+            } else {
+                calls.forEach { it.response.completeExceptionally(e) }
+            }
+            return
+        }
+
+        val responsesById = responses.associateBy(JsonRPCResponse::id)
+        if (isBatchRejected(calls, responses, responsesById)) {
+            isBatchSupported = false
+            postSeparately(calls)
+            return
+        }
+
+        calls.forEach { call ->
+            val response = responsesById[call.request.id]
+            if (response != null) {
+                call.response.complete(response)
+            } else {
+                call.response.completeExceptionally(
+                    IOException("Batch response doesn't contain JsonRPC request with id ${call.request.id}"),
+                )
+            }
+        }
+    }
+
+    private suspend fun postSeparately(calls: List<PendingCall>) = coroutineScope {
+        calls.forEach { call ->
+            launch {
+                try {
+                    call.response.complete(postSingle(call.request))
+                } catch (e: CancellationException) {
+                    throw e
+                } catch (@Suppress("TooGenericExceptionCaught") e: Exception) {
+                    call.response.completeExceptionally(e)
+                }
+            }
+        }
+    }
+
+    private fun isBatchUnsupported(exception: Exception): Boolean {
+        return when (exception) {
+            is HttpException -> exception.code() in UNSUPPORTED_BATCH_HTTP_CODES
+            // Moshi fails this way when the body is an object instead of an array
+            is JsonDataException -> exception.message?.contains(EXPECTED_ARRAY_MESSAGE) == true
+            else -> false
+        }
+    }
+
+    /**
+     * Node that doesn't support batches may answer with an `Invalid Request` error with `"id": null` instead of the
+     * responses. Moshi fails on such an entry because [JsonRPCResponse.id] is not nullable.
+     */
+    private fun isBatchRejected(exception: Exception): Boolean {
+        return exception is JsonDataException && exception.message?.let(NULL_ID_MESSAGE::containsMatchIn) == true
+    }
+
+    /** Node that doesn't support batches may answer with an `Invalid Request` error instead of the responses */
+    private fun isBatchRejected(
+        calls: List<PendingCall>,
+        responses: List<JsonRPCResponse>,
+        responsesById: Map<String, JsonRPCResponse>,
+    ): Boolean {
+        return calls.none { it.request.id in responsesById } &&
+            responses.any { it.error?.code == INVALID_REQUEST_ERROR_CODE }
+    }
+
+    private class PendingCall(val request: JsonRPCRequest) {
+        val response = CompletableDeferred<JsonRPCResponse>()
+        var batch: Batch? = null
+    }
+
+    private class Batch(val calls: List<PendingCall>, val job: Job)
+
+    private companion object {
+        const val DEFAULT_WINDOW_MILLIS = 5L
+        const val DEFAULT_MAX_BATCH_SIZE = 10
+        const val INVALID_REQUEST_ERROR_CODE = -32600
+        const val EXPECTED_ARRAY_MESSAGE = "Expected BEGIN_ARRAY"
+        val NULL_ID_MESSAGE = Regex("""'id'.* (was null|missing) at \$\[\d+]""")
+        val UNSUPPORTED_BATCH_HTTP_CODES = setOf(400, 413)
+    }
+}
@@ -2,6 +2,7 @@ package com.tangem.blockchain.network.jsonrpc
 
 import com.tangem.blockchain.common.JsonRPCRequest
 import com.tangem.blockchain.common.JsonRPCResponse
+import kotlinx.coroutines.flow.SharedFlow
 import kotlinx.coroutines.flow.StateFlow
 
 /**
@@ -18,6 +19,12 @@ internal interface JsonRPCWebsocketService : JsonRPCService {
      */
     val state: StateFlow<WebSocketConnectionStatus>
 
+    /**
+     * Server notifications, i.e. messages without id like Electrum subscription updates
+     * Not replayed, only notifications received while collecting are emitted
+     */
+    val notifications: SharedFlow<JsonRPCRequest>
+
     /**
      * Establish websocket connection
      * Synchronized method - returns after full connection
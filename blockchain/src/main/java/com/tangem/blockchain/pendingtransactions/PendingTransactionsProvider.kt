@@ -3,6 +3,8 @@ package com.tangem.blockchain.pendingtransactions
 import com.tangem.blockchain.common.NetworkProvider
 import com.tangem.blockchain.common.TransactionData
 import com.tangem.blockchain.common.datastorage.PendingTransaction
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.emptyFlow
 
 /**
  * Interface defining a provider for pending transactions management.
@@ -47,10 +49,28 @@ interface PendingTransactionsProvider {
     suspend fun getPendingTransactions(contractAddress: String? = null): List<PendingTransaction>
 
     /**
-     * Checks all pending transactions for the wallet and updates their status.
+     * Checks pending transactions of the wallet that are due for a recheck and updates their status.
      * Removes executed or dropped transactions from storage.
      *
      * @return Map of transaction IDs to their current status
      */
     suspend fun checkPendingTransactions(): Map<String, PendingTransactionStatus>
+
+    /**
+     * Same as [checkPendingTransactions], transactions with nonces lower than [accountNonce] are checked without
+     * waiting for their recheck interval. Providers not using nonces ignore it.
+     *
+     * @param accountNonce Count of account transactions in the latest block, null if unknown
+     * @return Map of transaction IDs to their current status
+     */
+    suspend fun checkPendingTransactions(accountNonce: Long?): Map<String, PendingTransactionStatus> =
+        checkPendingTransactions()
+
+    /**
+     * Checks pending transactions while collected, so callers don't need to poll [checkPendingTransactions].
+     * Completes when there are no pending transactions left, providers not tracking transactions complete at once.
+     *
+     * @return Flow of maps of transaction IDs to their new status, only executed or dropped transactions are emitted
+     */
+    fun observeStatusChanges(): Flow<Map<String, PendingTransactionStatus>> = emptyFlow()
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.tangem.blockchain.common.datastorage.PendingTransaction
 import com.tangem.blockchain.common.logging.Logger
 import com.tangem.blockchain.common.network.providers.ProviderType
 import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.hexToBigInteger
 import com.tangem.blockchain.extensions.map
 import com.tangem.blockchain.network.MultiNetworkProvider
 import com.tangem.blockchain.network.moshi
@@ -16,27 +17,47 @@ import com.tangem.blockchain.pendingtransactions.PendingTransactionsProvider
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import java.util.concurrent.ConcurrentHashMap
 
 /**
  * Ethereum implementation of [PendingTransactionsProvider].
  * Manages pending transactions storage and checking for EVM-compatible blockchains.
  *
+ * A transaction is rechecked after an interval growing with its age (a quarter of the age within
+ * [MIN_RECHECK_INTERVAL_MS]..[MAX_RECHECK_INTERVAL_MS]), so fresh transactions are polled often and stuck ones rarely.
+ * Once the account nonce passes the nonce of a transaction, it's mined or replaced and is checked at once.
+ * Transactions of the same provider are requested concurrently, so its JSON-RPC batcher sends them as one batch.
+ *
  * @property wallet Wallet instance
  * @property multiJsonRpcProvider Multi-provider for JSON-RPC calls
  * @property storage Storage for pending transactions
  * @property networkProviderMap Map of provider types to network providers
+ * @property clock current time in milliseconds, the same as used for [PendingTransaction.sentAt]
+ *
+ * @see com.tangem.blockchain.network.jsonrpc.JsonRPCBatcher
  */
 internal class EthereumPendingTransactionsProvider(
     private val wallet: Wallet,
     private val multiJsonRpcProvider: MultiNetworkProvider<EthereumJsonRpcProvider>,
     private val storage: PendingTransactionStorage,
     private val networkProviderMap: Map<ProviderType, NetworkProvider>,
+    private val clock: () -> Long = System::currentTimeMillis,
 ) : PendingTransactionsProvider {
 
     private val transactionResponseAdapter by lazy {
         moshi.adapter(EthereumTransactionResponse::class.java)
     }
     private val networkProviderMapper = NetworkProviderMapper()
+    private val checkPermits = Semaphore(MAX_PARALLEL_CHECKS)
+
+    private val specificProviders = ConcurrentHashMap<ProviderType, MultiNetworkProvider<EthereumJsonRpcProvider>>()
+    private val lastCheckTimes = ConcurrentHashMap<String, Long>()
+    private val nonces = ConcurrentHashMap<String, Long>()
 
     override suspend fun addPendingTransaction(
         transactionId: String,
@@ -79,27 +100,44 @@ internal class EthereumPendingTransactionsProvider(
         return transactions
     }
 
-    override suspend fun checkPendingTransactions(): Map<String, PendingTransactionStatus> {
+    override suspend fun checkPendingTransactions(): Map<String, PendingTransactionStatus> =
+        checkPendingTransactions(accountNonce = null)
+
+    override suspend fun checkPendingTransactions(accountNonce: Long?): Map<String, PendingTransactionStatus> {
         val pendingTransactions = storage.getTransactions()
         Logger.logTransaction(
             "$LOG_TAG checkPendingTransactions: found ${pendingTransactions.size} pending transactions",
         )
 
         if (pendingTransactions.isEmpty()) {
+            lastCheckTimes.clear()
+            nonces.clear()
             return emptyMap()
         }
 
-        val statusMap = coroutineScope {
-            pendingTransactions.map { pendingTx ->
-                async {
-                    val status = checkTransactionStatus(pendingTx)
-                    Logger.logTransaction(
-                        "$LOG_TAG checkPendingTransactions: tx ${pendingTx.transactionId} status = $status",
-                    )
-                    pendingTx.transactionId to status
+        val now = clock()
+        val dueTransactions = pendingTransactions.filter { isCheckDue(it, accountNonce, now) }
+        Logger.logTransaction(
+            "$LOG_TAG checkPendingTransactions: ${dueTransactions.size} transactions are due for a check, " +
+                "accountNonce=$accountNonce",
+        )
+
+        val checkedStatuses = coroutineScope {
+            dueTransactions.groupBy(::getProviderForTransaction).flatMap { (provider, transactions) ->
+                transactions.map { pendingTx ->
+                    async {
+                        val status = checkPermits.withPermit { checkTransactionStatus(pendingTx, provider) }
+                        Logger.logTransaction(
+                            "$LOG_TAG checkPendingTransactions: tx ${pendingTx.transactionId} status = $status",
+                        )
+                        pendingTx.transactionId to status
+                    }
                 }
             }.awaitAll().toMap()
         }
+        val statusMap = pendingTransactions.associate { pendingTx ->
+            pendingTx.transactionId to (checkedStatuses[pendingTx.transactionId] ?: PendingTransactionStatus.Pending)
+        }
 
         val transactionsToRemove = statusMap.filterValues { status ->
             status is PendingTransactionStatus.Dropped || status is PendingTransactionStatus.Executed
@@ -108,15 +146,48 @@ internal class EthereumPendingTransactionsProvider(
         if (transactionsToRemove.isNotEmpty()) {
             storage.removeTransactions(transactionsToRemove)
         }
+        val trackedIds = statusMap.keys - transactionsToRemove.toSet()
+        lastCheckTimes.keys.retainAll(trackedIds)
+        nonces.keys.retainAll(trackedIds)
 
         return statusMap
     }
 
-    private suspend fun checkTransactionStatus(pendingTransaction: PendingTransaction): PendingTransactionStatus {
+    override fun observeStatusChanges(): Flow<Map<String, PendingTransactionStatus>> = flow {
+        while (true) {
+            val resolvedStatuses = checkPendingTransactions(accountNonce = getAccountNonce())
+                .filterValues { it !is PendingTransactionStatus.Pending }
+            if (resolvedStatuses.isNotEmpty()) emit(resolvedStatuses)
+
+            if (storage.getTransactions().isEmpty()) break
+            delay(MIN_RECHECK_INTERVAL_MS)
+        }
+    }
+
+    private fun isCheckDue(pendingTransaction: PendingTransaction, accountNonce: Long?, now: Long): Boolean {
+        val nonce = nonces[pendingTransaction.transactionId]
+        if (nonce != null && accountNonce != null && nonce < accountNonce) return true
+
+        val lastCheckTime = lastCheckTimes[pendingTransaction.transactionId] ?: return true
+        val recheckInterval = ((now - pendingTransaction.sentAt) / RECHECK_INTERVAL_AGE_DIVIDER)
+            .coerceIn(MIN_RECHECK_INTERVAL_MS, MAX_RECHECK_INTERVAL_MS)
+        return now - lastCheckTime >= recheckInterval
+    }
+
+    private suspend fun getAccountNonce(): Long? {
+        return multiJsonRpcProvider.performRequest(EthereumJsonRpcProvider::getTxCount, wallet.address)
+            .map { response -> (response.result as? String)?.hexToBigInteger()?.toLong() }
+            .let { (it as? Result.Success)?.data }
+    }
+
+    private suspend fun checkTransactionStatus(
+        pendingTransaction: PendingTransaction,
+        provider: MultiNetworkProvider<EthereumJsonRpcProvider>,
+    ): PendingTransactionStatus {
         Logger.logTransaction("$LOG_TAG checkTransactionStatus: txId=${pendingTransaction.transactionId}")
-        val specificProvider = getProviderForTransaction(pendingTransaction)
+        lastCheckTimes[pendingTransaction.transactionId] = clock()
 
-        return checkTransactionStatusWithProvider(pendingTransaction, specificProvider)
+        return checkTransactionStatusWithProvider(pendingTransaction, provider)
     }
 
     private suspend fun checkTransactionStatusWithProvider(
@@ -157,7 +228,7 @@ internal class EthereumPendingTransactionsProvider(
         }
 
         if (isPrivateProvider) {
-            val timeSinceSent = System.currentTimeMillis() - pendingTransaction.sentAt
+            val timeSinceSent = clock() - pendingTransaction.sentAt
             return if (timeSinceSent > PRIVATE_MEMPOOL_TIMEOUT_MS) {
                 Logger.logTransaction(
                     "$LOG_TAG handleFailureResult: timeout exceeded for tx=${pendingTransaction.transactionId}",
@@ -214,7 +285,7 @@ internal class EthereumPendingTransactionsProvider(
     }
 
     private fun getStatusByTimer(pendingTransaction: PendingTransaction): PendingTransactionStatus {
-        val timeSinceSent = System.currentTimeMillis() - pendingTransaction.sentAt
+        val timeSinceSent = clock() - pendingTransaction.sentAt
         return if (timeSinceSent > PRIVATE_MEMPOOL_TIMEOUT_MS) {
             Logger.logTransaction(
                 "$LOG_TAG getStatusByTimer: timeout exceeded for tx=${pendingTransaction.transactionId}",
@@ -246,6 +317,8 @@ internal class EthereumPendingTransactionsProvider(
                     else -> runCatching {
                         transactionResponseAdapter.fromJsonValue(result)
                     }.getOrNull()
+                }?.also { transaction ->
+                    nonces[transactionHash] = transaction.nonce.hexToBigInteger().toLong()
                 }
             }
         } catch (e: Exception) {
@@ -267,10 +340,12 @@ internal class EthereumPendingTransactionsProvider(
         return if (providerType != null && networkProviderMap[providerType] != null) {
             val provider = networkProviderMap[providerType] as EthereumJsonRpcProvider
             Logger.logTransaction("$LOG_TAG getProviderForTransaction: using specific provider for type=$providerType")
-            MultiNetworkProvider(
-                providers = listOf(provider),
-                blockchain = wallet.blockchain,
-            )
+            specificProviders.getOrPut(providerType) {
+                MultiNetworkProvider(
+                    providers = listOf(provider),
+                    blockchain = wallet.blockchain,
+                )
+            }
         } else {
             Logger.logTransaction("$LOG_TAG getProviderForTransaction: using multiJsonRpcProvider (fallback)")
             multiJsonRpcProvider
@@ -279,6 +354,10 @@ internal class EthereumPendingTransactionsProvider(
 
     companion object {
         private const val PRIVATE_MEMPOOL_TIMEOUT_MS = 5 * 60 * 1000L // 5 minutes
+        private const val MIN_RECHECK_INTERVAL_MS = 5 * 1000L // 5 seconds
+        private const val MAX_RECHECK_INTERVAL_MS = 2 * 60 * 1000L // 2 minutes
+        private const val RECHECK_INTERVAL_AGE_DIVIDER = 4
+        private const val MAX_PARALLEL_CHECKS = 10
         internal const val LOG_TAG = "PendingTransactionsProvider"
     }
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.tangem.blockchain.transactionhistory
+
+import com.tangem.blockchain.common.Amount
+import com.tangem.blockchain.common.pagination.Page
+import com.tangem.blockchain.common.pagination.PaginationWrapper
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.successOr
+import com.tangem.blockchain.transactionhistory.models.TransactionHistoryItem
+import com.tangem.blockchain.transactionhistory.models.TransactionHistoryRequest
+import java.util.Collections
+
+/**
+ * Keeps already loaded history of [origin] per address, filter and page size and loads only its changes.
+ *
+ * The watermark of a history is the hash of its newest transaction with a final status that has no unconfirmed
+ * transactions below. On a refresh ([Page.Initial]) pages of [origin] are loaded from the newest one until the
+ * watermark is found, at most [MAX_DELTA_PAGES] pages. Loaded transactions replace cached ones above the watermark, so
+ * unconfirmed transactions get their new status. If the watermark isn't found, the cache is started over from the
+ * loaded pages.
+ *
+ * Pages are served from the cache by own cursors, [origin] is requested only for pages after the cached ones.
+ * Histories are kept in memory for at most [MAX_HISTORIES] least recently used addresses, filters and page sizes.
+ * History state is always requested from [origin], as only it knows the total count of transactions.
+ *
+ * @property origin provider loading history pages, newest transactions first
+ */
+internal class IncrementalTransactionHistoryProvider(
+    val origin: TransactionHistoryProvider,
+) : TransactionHistoryProvider {
+
+    private val histories: MutableMap<HistoryKey, SyncedHistory> = Collections.synchronizedMap(
+        object : LinkedHashMap<HistoryKey, SyncedHistory>(MAX_HISTORIES, LOAD_FACTOR, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<HistoryKey, SyncedHistory>?): Boolean {
+                return size > MAX_HISTORIES
+            }
+        },
+    )
+
+    override suspend fun getTransactionHistoryState(
+        address: String,
+        filterType: TransactionHistoryRequest.FilterType,
+    ): TransactionHistoryState = origin.getTransactionHistoryState(address, filterType)
+
+    override suspend fun getTransactionsHistory(
+        request: TransactionHistoryRequest,
+    ): Result<PaginationWrapper<TransactionHistoryItem>> {
+        val page = request.page
+        val cachedOffset = (page as? Page.Next)?.value
+            ?.takeIf { it.startsWith(CURSOR_PREFIX) }
+            ?.removePrefix(CURSOR_PREFIX)
+            ?.toIntOrNull()
+
+        return when {
+            page is Page.Initial -> {
+                syncNewest(request).successOr { return it }
+                loadPage(request, offset = 0)
+            }
+            cachedOffset != null -> {
+                if (!histories.containsKey(HistoryKey(request))) syncNewest(request).successOr { return it }
+                loadPage(request, cachedOffset)
+            }
+            else -> origin.getTransactionsHistory(request)
+        }
+    }
+
+    override fun shouldExcludeFromHistory(
+        filterType: TransactionHistoryRequest.FilterType,
+        amount: Amount,
+    ): Boolean = origin.shouldExcludeFromHistory(filterType, amount)
+
+    private suspend fun syncNewest(request: TransactionHistoryRequest): Result<Unit> {
+        val key = HistoryKey(request)
+        val cached = histories[key]
+        val watermark = cached?.watermark
+        val delta = mutableListOf<TransactionHistoryItem>()
+        var page: Page = Page.Initial
+        var pagesCount = 0
+
+        while (true) {
+            val loaded = origin.getTransactionsHistory(request.copy(page = page)).successOr { return it }
+            pagesCount++
+
+            val watermarkIndex = loaded.items.indexOfFirst { it.txHash == watermark }
+            if (cached != null && watermarkIndex >= 0) {
+                delta += loaded.items.subList(0, watermarkIndex)
+                val kept = cached.items.dropWhile { it.txHash != watermark }
+                store(key, items = delta + kept, tailPage = cached.tailPage)
+                return Result.Success(Unit)
+            }
+
+            delta += loaded.items
+            if (watermark == null || loaded.nextPage !is Page.Next || pagesCount >= MAX_DELTA_PAGES) {
+                store(key, items = delta.distinct(), tailPage = loaded.nextPage)
+                return Result.Success(Unit)
+            }
+            page = loaded.nextPage
+        }
+    }
+
+    private suspend fun loadPage(
+        request: TransactionHistoryRequest,
+        offset: Int,
+    ): Result<PaginationWrapper<TransactionHistoryItem>> {
+        val key = HistoryKey(request)
+        // history may be evicted by a concurrent request of other address
+        var history = histories[key] ?: run {
+            syncNewest(request).successOr { return it }
+            histories.getValue(key)
+        }
+
+        // pages of origin may shift with new transactions, so overlapping items are skipped
+        while (history.items.size < offset + request.pageSize && history.tailPage is Page.Next) {
+            val loaded = origin.getTransactionsHistory(request.copy(page = history.tailPage))
+                .successOr { return it }
+            val knownItems = history.items.toHashSet()
+            history = store(
+                key = key,
+                items = history.items + loaded.items.filterNot(knownItems::contains),
+                tailPage = loaded.nextPage,
+            )
+        }
+
+        val items = history.items.drop(offset).take(request.pageSize)
+        val nextOffset = offset + items.size
+        val nextPage = if (nextOffset < history.items.size || history.tailPage is Page.Next) {
+            Page.Next("$CURSOR_PREFIX$nextOffset")
+        } else {
+            Page.LastPage
+        }
+
+        return Result.Success(PaginationWrapper(nextPage = nextPage, items = items))
+    }
+
+    private fun store(key: HistoryKey, items: List<TransactionHistoryItem>, tailPage: Page): SyncedHistory {
+        // unconfirmed transactions must stay above the watermark to be reloaded by the next refresh
+        val lastUnconfirmedIndex = items.indexOfLast {
+            it.status == TransactionHistoryItem.TransactionStatus.Unconfirmed
+        }
+        val history = SyncedHistory(
+            items = items,
+            watermark = items.getOrNull(lastUnconfirmedIndex + 1)?.txHash,
+            tailPage = tailPage,
+        )
+        histories[key] = history
+        return history
+    }
+
+    private data class HistoryKey(
+        val address: String,
+        val filterType: TransactionHistoryRequest.FilterType,
+        val pageSize: Int,
+    ) {
+        constructor(request: TransactionHistoryRequest) : this(request.address, request.filterType, request.pageSize)
+    }
+
+    /**
+     * @property items     loaded transactions, newest first
+     * @property watermark hash of the newest transaction having only transactions with a final status below
+     * @property tailPage  page of origin following [items]
+     */
+    private class SyncedHistory(
+        val items: List<TransactionHistoryItem>,
+        val watermark: String?,
+        val tailPage: Page,
+    )
+
+    private companion object {
+        const val CURSOR_PREFIX = "cached:"
+        const val MAX_DELTA_PAGES = 3
+        const val MAX_HISTORIES = 32
+        const val LOAD_FACTOR = 0.75f
+    }
+}
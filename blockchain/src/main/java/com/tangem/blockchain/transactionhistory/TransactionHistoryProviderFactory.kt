@@ -23,6 +23,18 @@ import com.tangem.blockchain.transactionhistory.blockchains.tron.TronTransaction
 internal object TransactionHistoryProviderFactory {
 
     fun makeProvider(blockchain: Blockchain, config: BlockchainSdkConfig): TransactionHistoryProvider {
+        val provider = makeBlockchainProvider(blockchain, config)
+        return if (provider == DefaultTransactionHistoryProvider) {
+            provider
+        } else {
+            IncrementalTransactionHistoryProvider(origin = provider)
+        }
+    }
+
+    private fun makeBlockchainProvider(
+        blockchain: Blockchain,
+        config: BlockchainSdkConfig,
+    ): TransactionHistoryProvider {
         if (blockchain.isEtherscanCompatible()) {
             return createEtherscanProvider(blockchain, config)
         }
@@ -0,0 +1,119 @@
+package com.tangem.blockchain.blockchains.alephium
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.alephium.source.*
+import com.tangem.blockchain.blockchains.alephium.source.serde.SerdeError
+import com.tangem.blockchain.blockchains.alephium.source.serde.intSerde
+import com.tangem.blockchain.blockchains.alephium.source.serde.u256Serde
+import com.tangem.blockchain.blockchains.alephium.source.serde.u32Serde
+import com.tangem.common.extensions.hexToBytes
+import com.tangem.common.extensions.toHexString
+import junit.framework.TestCase.assertEquals
+import kotlinx.io.bytestring.ByteString
+import org.junit.Test
+import java.math.BigInteger
+
+class AlephiumSerdeTest {
+
+    @Test
+    fun compactIntegersMatchReferenceEncoding() {
+        mapOf(0 to "00", 31 to "1F", 32 to "4020", -1 to "3F", -32 to "20", -33 to "7FDF")
+            .plus(Int.MAX_VALUE to "C07FFFFFFF")
+            .forEach { (value, hex) ->
+                assertEquals(hex, intSerde.serialize(value).toByteArray().toHexString())
+                assertEquals(value, intSerde.deserialize(ByteString(hex.hexToBytes())).getOrThrow())
+            }
+
+        mapOf(0 to "00", 63 to "3F", 64 to "4040", 0x4000 to "80004000")
+            .forEach { (value, hex) ->
+                assertEquals(hex, u32Serde.serialize(U32.unsafe(value)).toByteArray().toHexString())
+                assertEquals(U32.unsafe(value), u32Serde.deserialize(ByteString(hex.hexToBytes())).getOrThrow())
+            }
+
+        mapOf(BigInteger("100000000000") to "C1174876E800", BigInteger.ONE.shiftLeft(32) to "C10100000000")
+            .forEach { (value, hex) ->
+                assertEquals(hex, u256Serde.serialize(U256(value)).toByteArray().toHexString())
+                assertEquals(U256(value), u256Serde.deserialize(ByteString(hex.hexToBytes())).getOrThrow())
+            }
+    }
+
+    @Test
+    fun unsignedTransactionRoundTrip() {
+        val bytes = ByteString(UNSIGNED_TRANSACTION.hexToBytes())
+
+        val transaction = UnsignedTransaction.serde.deserialize(bytes).getOrThrow()
+
+        Truth.assertThat(transaction.inputs).hasSize(3)
+        Truth.assertThat(transaction.inputs[0].unlockScript).isInstanceOf(UnlockScript.P2PKH::class.java)
+        Truth.assertThat(transaction.inputs[1].unlockScript).isEqualTo(UnlockScript.SameAsPrevious)
+        Truth.assertThat(transaction.fixedOutputs).hasSize(1)
+        assertEquals(
+            UNSIGNED_TRANSACTION,
+            UnsignedTransaction.serde.serialize(transaction).toByteArray().toHexString(),
+        )
+    }
+
+    @Test
+    fun transactionWithManyInputsAndTokensRoundTrip() {
+        val publicKey = ByteString(ByteArray(UnlockScript.P2PKH.length) { it.toByte() })
+        val lockupScript = LockupScript.p2pkh(publicKey)
+        val transaction = UnsignedTransaction(
+            version = 0,
+            networkId = NetworkId.mainNet,
+            gasAmount = GasBox(100_000),
+            gasPrice = GasPrice(U256(BigInteger("100000000000"))),
+            inputs = List(size = 200) { index ->
+                TxInput(
+                    outputRef = AssetOutputRef(
+                        hint = Hint(index),
+                        key = TxOutputRef.Key(Blake2b256(ByteString(ByteArray(size = 32) { index.toByte() }))),
+                    ),
+                    unlockScript = if (index == 0) UnlockScript.P2PKH(publicKey) else UnlockScript.SameAsPrevious,
+                )
+            },
+            fixedOutputs = List(size = 50) { index ->
+                AssetOutput(
+                    amount = U256(BigInteger.TEN.pow(15).add(BigInteger.valueOf(index.toLong()))),
+                    lockupScript = lockupScript,
+                    lockTime = TimeStamp(1739177141765L + index),
+                    tokens = List(size = 5) { token ->
+                        TokenId(Blake2b256(ByteString(ByteArray(size = 32) { token.toByte() }))) to
+                            U256(BigInteger.valueOf(token.toLong() + 1))
+                    },
+                    additionalData = ByteString(ByteArray(index) { it.toByte() }),
+                )
+            },
+        )
+
+        val bytes = UnsignedTransaction.serde.serialize(transaction)
+
+        assertEquals(transaction, UnsignedTransaction.serde.deserialize(bytes).getOrThrow())
+    }
+
+    @Test
+    fun redundantBytesAreRejected() {
+        val bytes = ByteString((UNSIGNED_TRANSACTION + "00").hexToBytes())
+
+        val result = UnsignedTransaction.serde.deserialize(bytes)
+
+        Truth.assertThat(result.exceptionOrNull()).isInstanceOf(SerdeError::class.java)
+    }
+
+    @Test
+    fun truncatedBytesAreRejected() {
+        val bytes = ByteString(UNSIGNED_TRANSACTION.dropLast(2).hexToBytes())
+
+        val result = UnsignedTransaction.serde.deserialize(bytes)
+
+        Truth.assertThat(result.exceptionOrNull()).isInstanceOf(SerdeError::class.java)
+    }
+
+    private companion object {
+        const val UNSIGNED_TRANSACTION =
+            "00000080004E20C1174876E800035A66314FAB326ADC899B3B9B47CA506E86E400DD0BF35969" +
+                "1B69201AE5A95F8DC3E525AF0003EB30400CE9D1DEED12B84D4161A1FA922EF4185A155EF3EC208078B3807B126F5A" +
+                "66314FAB326ADC899B3B9B47CA506E86E400DD0BF359691B69201AE5A95F8DC3E525AF035A66314FAB326ADC899B3B" +
+                "9B47CA506E86E400DD0BF359691B69201AE5A95F8DC3E525AF0301C444EAC6B062970000002AE8B19D653F7F6DA115" +
+                "C571FDDB25F19885379D6A770B2D2A01D7C00C33F00500000000000000000000"
+    }
+}
@@ -0,0 +1,213 @@
+package com.tangem.blockchain.blockchains.bitcoin
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.bitcoincash.BitcoinCashAddressService
+import com.tangem.blockchain.blockchains.bitcoincash.BitcoinCashTransactionBuilder
+import com.tangem.blockchain.common.Amount
+import com.tangem.blockchain.common.AmountType
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.TransactionData
+import com.tangem.blockchain.common.address.Address as WalletAddress
+import com.tangem.blockchain.common.address.AddressType
+import com.tangem.blockchain.common.transaction.Fee
+import com.tangem.blockchain.extensions.Result
+import com.tangem.common.extensions.hexToBytes
+import com.tangem.common.extensions.toHexString
+import org.bitcoinj.core.Address
+import org.bitcoinj.core.LegacyAddress
+import org.bitcoinj.core.NetworkParameters
+import org.bitcoinj.core.Transaction
+import org.bitcoinj.core.TransactionInput
+import org.bitcoinj.core.TransactionOutput
+import org.bitcoinj.params.MainNetParams
+import org.bitcoinj.script.ScriptBuilder
+import org.junit.Test
+import java.math.BigDecimal
+import java.math.RoundingMode
+import kotlin.random.Random
+
+/**
+ * Checks that [BitcoinTransactionBuilder.getEstimateSize] matches the virtual size of the serialized transaction
+ * built with the longest signatures on random transactions.
+ */
+class BitcoinTransactionSizeCalculatorTest {
+
+    private val networkParameters = MainNetParams()
+    private val random = Random(seed = 42)
+
+    @Test
+    fun estimateMatchesSerializedSingleSigTransaction() {
+        listOf(COMPRESSED_PUBLIC_KEY, UNCOMPRESSED_PUBLIC_KEY).forEach { publicKey ->
+            val addresses = BitcoinAddressService(Blockchain.Bitcoin).makeAddresses(publicKey.hexToBytes())
+
+            checkRandomTransactions(
+                builder = BitcoinTransactionBuilder(publicKey.hexToBytes(), Blockchain.Bitcoin, addresses),
+                blockchain = Blockchain.Bitcoin,
+                ownAddresses = addresses,
+            )
+        }
+    }
+
+    @Test
+    fun estimateMatchesSerializedMultisigTransaction() {
+        val addresses = BitcoinAddressService(Blockchain.Bitcoin)
+            .makeMultisigAddresses(COMPRESSED_PUBLIC_KEY.hexToBytes(), PAIR_PUBLIC_KEY.hexToBytes())
+
+        checkRandomTransactions(
+            builder = BitcoinTransactionBuilder(COMPRESSED_PUBLIC_KEY.hexToBytes(), Blockchain.Bitcoin, addresses),
+            blockchain = Blockchain.Bitcoin,
+            ownAddresses = addresses,
+        )
+    }
+
+    @Test
+    fun estimateMatchesSerializedBitcoinCashTransaction() {
+        val addressService = BitcoinCashAddressService(Blockchain.BitcoinCash)
+        val address = addressService.makeAddress(UNCOMPRESSED_PUBLIC_KEY.hexToBytes())
+        val legacyAddress = LegacyAddress
+            .fromPubKeyHash(networkParameters, addressService.getPublicKeyHash(address))
+            .toBase58()
+
+        repeat(ITERATIONS) {
+            val builder = BitcoinCashTransactionBuilder(UNCOMPRESSED_PUBLIC_KEY.hexToBytes(), Blockchain.BitcoinCash)
+            checkTransaction(
+                builder = builder,
+                unspentOutputs = randomUnspentOutputs(listOf(legacyAddress)),
+                blockchain = Blockchain.BitcoinCash,
+                sourceAddress = address,
+                destinationAddress = listOf(address, BITCOIN_CASH_P2SH_ADDRESS, legacyAddress).random(random),
+                memo = null,
+            )
+        }
+    }
+
+    @Test
+    fun estimateAddsMemoOutput() {
+        val addresses = BitcoinAddressService(Blockchain.Bitcoin).makeAddresses(COMPRESSED_PUBLIC_KEY.hexToBytes())
+        val builder = BitcoinTransactionBuilder(COMPRESSED_PUBLIC_KEY.hexToBytes(), Blockchain.Bitcoin, addresses)
+        builder.unspentOutputs = randomUnspentOutputs(addresses.map(WalletAddress::value))
+
+        val withoutMemo = builder.getEstimateSize(transactionData(memo = null, addresses), null) as Result.Success
+        val withMemo = builder.getEstimateSize(transactionData(memo = "aa".repeat(10), addresses), null)
+            as Result.Success
+
+        // value, script length and OP_RETURN with 10 bytes push
+        Truth.assertThat(withMemo.data - withoutMemo.data).isEqualTo(8 + 1 + 1 + 1 + 10)
+    }
+
+    @Test
+    fun estimateFailsOnTooLongMemo() {
+        val addresses = BitcoinAddressService(Blockchain.Bitcoin).makeAddresses(COMPRESSED_PUBLIC_KEY.hexToBytes())
+        val builder = BitcoinTransactionBuilder(COMPRESSED_PUBLIC_KEY.hexToBytes(), Blockchain.Bitcoin, addresses)
+        builder.unspentOutputs = randomUnspentOutputs(addresses.map(WalletAddress::value))
+
+        val result = builder.getEstimateSize(transactionData(memo = "aa".repeat(81), addresses), null)
+
+        Truth.assertThat(result).isInstanceOf(Result.Failure::class.java)
+    }
+
+    private fun transactionData(memo: String?, addresses: Set<WalletAddress>): TransactionData.Uncompiled {
+        val amount = Amount(BigDecimal("0.0001"), Blockchain.Bitcoin, AmountType.Coin)
+        return TransactionData.Uncompiled(
+            amount = amount,
+            fee = Fee.Common(Amount(amount, BigDecimal("0.00001"))),
+            sourceAddress = addresses.first { it.type == AddressType.Default }.value,
+            destinationAddress = P2PKH_ADDRESS,
+            extras = memo?.let { BitcoinTransactionExtras(memo = it) },
+        )
+    }
+
+    private fun checkRandomTransactions(
+        builder: BitcoinTransactionBuilder,
+        blockchain: Blockchain,
+        ownAddresses: Set<WalletAddress>,
+    ) {
+        val destinations = listOf(P2PKH_ADDRESS, P2SH_ADDRESS, P2TR_ADDRESS) + ownAddresses.map(WalletAddress::value)
+
+        repeat(ITERATIONS) {
+            // memo of a single byte in 1..16 is pushed as OP_N and isn't supported by bitcoinj script serialization
+            val memo = random.nextBytes(random.nextInt(from = 2, until = 81)).toHexString()
+            checkTransaction(
+                builder = builder,
+                unspentOutputs = randomUnspentOutputs(ownAddresses.map(WalletAddress::value)),
+                blockchain = blockchain,
+                sourceAddress = ownAddresses.random(random).value,
+                destinationAddress = destinations.random(random),
+                memo = memo.takeIf { random.nextBoolean() },
+            )
+        }
+    }
+
+    private fun checkTransaction(
+        builder: BitcoinTransactionBuilder,
+        unspentOutputs: List<BitcoinUnspentOutput>,
+        blockchain: Blockchain,
+        sourceAddress: String,
+        destinationAddress: String,
+        memo: String?,
+    ) {
+        builder.unspentOutputs = unspentOutputs
+
+        val total = unspentOutputs.sumOf { it.amount }
+        val fee = BigDecimal("0.00001")
+        // spend everything without change output in some cases
+        val value = if (random.nextInt(4) == 0) total - fee else total.multiply(random.nextDouble().toBigDecimal())
+        val amount = Amount(value.setScale(blockchain.decimals(), RoundingMode.DOWN), blockchain, AmountType.Coin)
+        val transactionData = TransactionData.Uncompiled(
+            amount = amount,
+            fee = Fee.Common(Amount(amount, fee)),
+            sourceAddress = sourceAddress,
+            destinationAddress = destinationAddress,
+            extras = memo?.let { BitcoinTransactionExtras(memo = it) },
+        )
+        val dustValue = BigDecimal("0.00001").takeIf { random.nextBoolean() }
+
+        val estimate = builder.getEstimateSize(transactionData, dustValue)
+        val hashes = builder.buildToSign(transactionData, dustValue)
+        if (hashes is Result.Failure) {
+            Truth.assertThat(estimate).isInstanceOf(Result.Failure::class.java)
+            return
+        }
+
+        hashes as Result.Success
+        val serialized = builder.buildToSend(ByteArray(SIGNATURE_SIZE * hashes.data.size) { -128 })
+        val strippedSize = builder.getTransaction().stripWitnesses(networkParameters).bitcoinSerialize().size
+        val virtualSize = (strippedSize * 3 + serialized.size + 3) / 4
+
+        Truth.assertThat((estimate as Result.Success).data).isEqualTo(virtualSize)
+    }
+
+    private fun randomUnspentOutputs(addresses: List<String>): List<BitcoinUnspentOutput> {
+        return List(random.nextInt(from = 1, until = 40)) {
+            val address = Address.fromString(networkParameters, addresses.random(random))
+            BitcoinUnspentOutput(
+                amount = BigDecimal.valueOf(random.nextLong(from = 1_000, until = 100_000_000), 8),
+                outputIndex = random.nextLong(until = 10),
+                transactionHash = random.nextBytes(32),
+                outputScript = ScriptBuilder.createOutputScript(address).program,
+            )
+        }
+    }
+
+    private fun Transaction.stripWitnesses(networkParameters: NetworkParameters): Transaction {
+        val stripped = Transaction(networkParameters)
+        inputs.forEach { stripped.addInput(TransactionInput(networkParameters, stripped, it.scriptBytes, it.outpoint)) }
+        outputs.forEach { stripped.addOutput(TransactionOutput(networkParameters, stripped, it.value, it.scriptBytes)) }
+        return stripped
+    }
+
+    private companion object {
+        const val ITERATIONS = 200
+        const val SIGNATURE_SIZE = 64
+
+        const val COMPRESSED_PUBLIC_KEY = "03D2B9FB288540D54E5B32ECAF0381CD571F97F6F1ECD036B66BB11AA52FFE9981"
+        const val UNCOMPRESSED_PUBLIC_KEY = "04E3F3BE3CE3D8284DB3BA073AD0291040093D83C11A277B905D5555C9EC41073E" +
+            "103F4D9D299EDEA8285C51C3356A8681A545618C174251B984DF841F49D2376F"
+        const val PAIR_PUBLIC_KEY = "0285D520C8B907F0BC5E03FCBBAC212CCD270764BBFF4990A28653A2FB0D656C34"
+
+        const val P2PKH_ADDRESS = "1CM45rkJXtV9r8aUXeJnVKUh174EcKBQAJ"
+        const val P2SH_ADDRESS = "34gJYef7yHBmRhnmKzrXKJddWMzCuFkbBY"
+        const val P2TR_ADDRESS = "bc1p5d7rjq7g6rdk2yhzks9smlaqtedr4dekq08ge8ztwac72sfr9rusxg3297"
+        const val BITCOIN_CASH_P2SH_ADDRESS = "bitcoincash:ppm2qsznhks23z7629mms6s4cwef74vcwvn0h829pq"
+    }
+}
@@ -11,10 +11,12 @@ import com.tangem.blockchain.common.transaction.Fee
 import com.tangem.blockchain.extensions.Result
 import com.tangem.common.extensions.hexToBytes
 import org.bitcoinj.core.Address
+import org.bitcoinj.core.Coin
 import org.bitcoinj.core.NetworkParameters
 import org.bitcoinj.params.MainNetParams
 import org.bitcoinj.script.ScriptBuilder
 import org.junit.Test
+import java.math.BigDecimal
 
 class BitcoinTransactionTest {
 
@@ -144,6 +146,49 @@ class BitcoinTransactionTest {
         Truth.assertThat(signedTransaction).isEqualTo(expectedSignedTransaction)
     }
 
+    @Test
+    fun buildTransactionWithoutDustChange() {
+        // arrange
+        val walletPublicKey = "03D2B9FB288540D54E5B32ECAF0381CD571F97F6F1ECD036B66BB11AA52FFE9981".hexToBytes()
+        val dustValue = "0.00000546".toBigDecimal()
+        val addresses = BitcoinAddressService(blockchain).makeAddresses(walletPublicKey)
+        val segwitAddress = addresses.find { it.type == AddressType.Default }!!.value
+        val outputScript = ScriptBuilder.createOutputScript(Address.fromString(networkParameters, segwitAddress))
+        val transactionBuilder = BitcoinTransactionBuilder(walletPublicKey, blockchain, addresses)
+        // at 1 sat/vB spending 0.001001 BTC costs 68 sat and leaves 100 sat of change, which is below dust
+        transactionBuilder.unspentOutputs = listOf("0.001001", "0.002").mapIndexed { index, amount ->
+            BitcoinUnspentOutput(
+                amount = amount.toBigDecimal(),
+                outputIndex = index.toLong(),
+                transactionHash = "6d9c1d5275317d1ea1f2683546414e971f3cac6ce4f460557bd504dd3b67a2b6".hexToBytes(),
+                outputScript = outputScript.program,
+            )
+        }
+
+        val amountToSend = Amount("0.00099859".toBigDecimal(), blockchain, AmountType.Coin)
+        val fee = Fee.Bitcoin(
+            amount = Amount(amountToSend, "0.00000141".toBigDecimal()),
+            satoshiPerByte = BigDecimal.ONE,
+            txSize = 141.toBigDecimal(),
+        )
+        val transactionData = TransactionData.Uncompiled(
+            sourceAddress = segwitAddress,
+            destinationAddress = "1CM45rkJXtV9r8aUXeJnVKUh174EcKBQAJ",
+            amount = amountToSend,
+            fee = fee,
+        )
+
+        // act
+        val buildToSignResult = transactionBuilder.buildToSign(transactionData, dustValue)
+
+        // assert
+        Truth.assertThat(buildToSignResult).isInstanceOf(Result.Success::class.java)
+        val dust = Coin.parseCoin(dustValue.toPlainString())
+        transactionBuilder.getTransaction().outputs.forEach { output ->
+            Truth.assertThat(output.value.isLessThan(dust)).isFalse()
+        }
+    }
+
     companion object {
         fun prepareTwoUnspentOutputs(
             addresses: List<String>,
@@ -0,0 +1,238 @@
+package com.tangem.blockchain.blockchains.bitcoin
+
+import com.google.common.truth.Truth
+import com.squareup.moshi.adapter
+import com.tangem.blockchain.blockchains.bitcoin.network.BitcoinAddressInfo
+import com.tangem.blockchain.blockchains.bitcoin.network.BitcoinFee
+import com.tangem.blockchain.blockchains.bitcoin.network.BitcoinNetworkProvider
+import com.tangem.blockchain.common.BasicTransactionData
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.BlockchainSdkError
+import com.tangem.blockchain.common.datastorage.BlockchainDataStorage
+import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.SimpleResult
+import com.tangem.blockchain.network.blockbook.network.responses.GetAddressResponse
+import com.tangem.blockchain.network.blockbook.network.responses.GetUtxoResponseItem
+import com.tangem.blockchain.network.moshi
+import com.tangem.common.extensions.hexToBytes
+import com.tangem.common.extensions.toHexString
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+import java.util.Calendar
+import kotlin.random.Random
+
+/**
+ * Checks [BitcoinUtxoCache] against [FixtureProvider] serving Blockbook responses of a merchant wallet and counting
+ * bytes of response bodies
+ */
+@OptIn(ExperimentalStdlibApi::class)
+class BitcoinUtxoCacheTest {
+
+    private val addresses = List(ADDRESSES_COUNT) { "bc1qmerchant$it" }
+
+    @Test
+    fun unchangedAddressesAreNotReloaded() = runTest {
+        val withoutCache = FixtureProvider()
+        val withCache = FixtureProvider()
+        val cache = BitcoinUtxoCache(Blockchain.Bitcoin, AdvancedDataStorage(InMemoryBlockchainDataStorage()))
+
+        repeat(UPDATES_COUNT) { update ->
+            // a single address receives a transaction in the middle of updates
+            if (update == UPDATES_COUNT / 2) {
+                withoutCache.receive(addresses.first())
+                withCache.receive(addresses.first())
+            }
+
+            addresses.forEach { address ->
+                val expected = withoutCache.getInfo(address) as Result.Success
+                val actual = cache.getInfo(address, withCache) as Result.Success
+
+                Truth.assertThat(actual.data.balance).isEqualTo(expected.data.balance)
+                Truth.assertThat(actual.data.unspentOutputs.map { it.toKey() })
+                    .containsExactlyElementsIn(expected.data.unspentOutputs.map { it.toKey() })
+            }
+        }
+
+        println("Bytes on wire: ${withoutCache.bytesOnWire} without cache, ${withCache.bytesOnWire} with cache")
+        Truth.assertThat(withCache.fullReloadsCount).isEqualTo(ADDRESSES_COUNT + 1)
+        Truth.assertThat(withCache.bytesOnWire).isLessThan(withoutCache.bytesOnWire / 10)
+    }
+
+    @Test
+    fun addressWithUnconfirmedTransactionIsNotCached() = runTest {
+        val provider = FixtureProvider()
+        val cache = BitcoinUtxoCache(Blockchain.Bitcoin, AdvancedDataStorage(InMemoryBlockchainDataStorage()))
+        val address = addresses.first()
+        provider.receive(address, isConfirmed = false)
+
+        repeat(3) {
+            val info = cache.getInfo(address, provider) as Result.Success
+            Truth.assertThat(info.data.recentTransactions).hasSize(1)
+        }
+
+        Truth.assertThat(provider.fullReloadsCount).isEqualTo(3)
+    }
+
+    @Test
+    fun addressIsLoadedIfStatusIsNotSupported() = runTest {
+        val provider = FixtureProvider(isStatusSupported = false)
+        val cache = BitcoinUtxoCache(Blockchain.Bitcoin, AdvancedDataStorage(InMemoryBlockchainDataStorage()))
+
+        repeat(3) { cache.getInfo(addresses.first(), provider) }
+
+        Truth.assertThat(provider.fullReloadsCount).isEqualTo(3)
+    }
+
+    private fun BitcoinUnspentOutput.toKey(): String {
+        return "${transactionHash.toHexString()}:$outputIndex:$amount:${outputScript.toHexString()}"
+    }
+
+    /**
+     * Provider serving Blockbook `address/{address}` (with txids, basic) and `utxo/{address}` responses of addresses
+     * with [UTXOS_COUNT] UTXOs and [TRANSACTIONS_COUNT] transactions
+     */
+    private class FixtureProvider(private val isStatusSupported: Boolean = true) : BitcoinNetworkProvider {
+
+        override val baseUrl: String = "https://btc.fixture"
+
+        var bytesOnWire = 0L
+        var fullReloadsCount = 0
+
+        private val random = Random(seed = 7)
+        private val utxos = mutableMapOf<String, MutableList<GetUtxoResponseItem>>()
+        private val transactions = mutableMapOf<String, MutableList<String>>()
+
+        private val addressAdapter = moshi.adapter<GetAddressResponse>()
+        private val utxoAdapter = moshi.adapter<List<GetUtxoResponseItem>>()
+
+        fun receive(address: String, isConfirmed: Boolean = true) {
+            val txid = randomTxid()
+            utxosOf(address) += GetUtxoResponseItem(
+                confirmations = if (isConfirmed) 1 else 0,
+                height = if (isConfirmed) TIP_HEIGHT + 1 else null,
+                txid = txid,
+                value = random.nextLong(from = 1_000, until = 10_000_000).toString(),
+                vout = 0,
+            )
+            transactionsOf(address) += txid
+        }
+
+        override suspend fun getInfo(address: String): Result<BitcoinAddressInfo> {
+            fullReloadsCount++
+            val addressResponse = addressAdapter.fromJson(serve(addressJson(address, isBasic = false)))!!
+            val utxoResponse = utxoAdapter.fromJson(serve(utxoJson(address)))!!
+
+            return Result.Success(
+                BitcoinAddressInfo(
+                    balance = addressResponse.balance.toBigDecimal().movePointLeft(Blockchain.Bitcoin.decimals()),
+                    unspentOutputs = utxoResponse.map { utxo ->
+                        BitcoinUnspentOutput(
+                            amount = utxo.value.toBigDecimal().movePointLeft(Blockchain.Bitcoin.decimals()),
+                            outputIndex = utxo.vout.toLong(),
+                            transactionHash = utxo.txid.hexToBytes(),
+                            outputScript = OUTPUT_SCRIPT.hexToBytes(),
+                        )
+                    },
+                    recentTransactions = utxoResponse.filter { it.confirmations == 0 }.map { utxo ->
+                        BasicTransactionData(
+                            balanceDif = utxo.value.toBigDecimal().movePointLeft(Blockchain.Bitcoin.decimals()),
+                            hash = utxo.txid,
+                            date = Calendar.getInstance(),
+                            isConfirmed = false,
+                        )
+                    },
+                    hasUnconfirmed = addressResponse.unconfirmedTxs != 0,
+                ),
+            )
+        }
+
+        override suspend fun getAddressStatus(address: String): Result<String> {
+            if (!isStatusSupported) return Result.Failure(BlockchainSdkError.CustomError("Not implemented yet"))
+
+            val response = addressAdapter.fromJson(serve(addressJson(address, isBasic = true)))!!
+            return Result.Success("${response.txs}:${response.unconfirmedTxs ?: 0}:${response.balance}")
+        }
+
+        override suspend fun getFee(): Result<BitcoinFee> = error("Not used")
+
+        override suspend fun sendTransaction(transaction: String): SimpleResult = error("Not used")
+
+        override suspend fun getSignatureCount(address: String): Result<Int> = error("Not used")
+
+        private fun serve(body: String): String {
+            bytesOnWire += body.toByteArray().size
+            return body
+        }
+
+        private fun addressJson(address: String, isBasic: Boolean): String {
+            val unconfirmed = utxosOf(address).count { it.confirmations == 0 }
+            val txids = transactionsOf(address)
+            val paging = if (isBasic) "" else """"page":1,"totalPages":1,"itemsOnPage":1000,"""
+            val txidsJson = if (isBasic) {
+                ""
+            } else {
+                txids.joinToString(prefix = ""","txids":[""", postfix = "]") { "\"$it\"" }
+            }
+            return """{$paging"address":"$address","balance":"${balanceOf(address)}","unconfirmedBalance":"0",""" +
+                """"unconfirmedTxs":$unconfirmed,"txs":${txids.size - unconfirmed}$txidsJson}"""
+        }
+
+        private fun utxoJson(address: String): String {
+            return utxosOf(address).joinToString(prefix = "[", postfix = "]") { utxo ->
+                """{"txid":"${utxo.txid}","vout":${utxo.vout},"value":"${utxo.value}",""" +
+                    """"height":${utxo.height},"confirmations":${utxo.confirmations}}"""
+            }
+        }
+
+        private fun balanceOf(address: String): Long {
+            return utxosOf(address).filter { it.confirmations > 0 }.sumOf { it.value.toLong() }
+        }
+
+        private fun utxosOf(address: String): MutableList<GetUtxoResponseItem> {
+            return utxos.getOrPut(address) {
+                MutableList(UTXOS_COUNT) { index ->
+                    GetUtxoResponseItem(
+                        confirmations = index + 1,
+                        height = TIP_HEIGHT - index,
+                        txid = randomTxid(),
+                        value = random.nextLong(from = 1_000, until = 10_000_000).toString(),
+                        vout = random.nextInt(until = 4),
+                    )
+                }
+            }
+        }
+
+        private fun transactionsOf(address: String): MutableList<String> {
+            return transactions.getOrPut(address) {
+                (utxosOf(address).map { it.txid } + List(TRANSACTIONS_COUNT - UTXOS_COUNT) { randomTxid() })
+                    .toMutableList()
+            }
+        }
+
+        private fun randomTxid(): String = random.nextBytes(size = 32).toHexString().lowercase()
+    }
+
+    private class InMemoryBlockchainDataStorage : BlockchainDataStorage {
+        private val data = linkedMapOf<String, String>()
+
+        override suspend fun getOrNull(key: String): String? = data[key]
+
+        override suspend fun store(key: String, value: String) {
+            data[key] = value
+        }
+
+        override suspend fun remove(key: String) {
+            data.remove(key)
+        }
+    }
+
+    private companion object {
+        const val ADDRESSES_COUNT = 4
+        const val UPDATES_COUNT = 20
+        const val UTXOS_COUNT = 300
+        const val TRANSACTIONS_COUNT = 1_000
+        const val TIP_HEIGHT = 850_000
+        const val OUTPUT_SCRIPT = "0014751e76e8199196d454941c45d1b3a323f1433bd6"
+    }
+}
@@ -0,0 +1,117 @@
+package com.tangem.blockchain.blockchains.cardano.crypto
+
+import com.google.common.truth.Truth
+import com.tangem.common.extensions.toHexString
+import org.junit.Test
+import java.lang.management.ManagementFactory
+import java.nio.ByteBuffer
+import kotlin.random.Random
+
+class Blake2bEngineTest {
+
+    private val random = Random(seed = 3)
+
+    @Test
+    fun hashMatchesRfcVector() {
+        val digest = Blake2bEngine(digestLength = 64).digest("abc".toByteArray())
+
+        Truth.assertThat(digest.toHexString().lowercase()).isEqualTo(
+            "ba80a53f981c4d0d6a2797b69f12f6e94c212f14685ac4b74b12bb6fdbffa2d1" +
+                "7d87c5392aab792dc252d5de4533cc9518d38aa8dbf1925ab92386edd4009923",
+        )
+    }
+
+    @Test
+    fun hashMatchesBlake2b() {
+        DIGEST_LENGTHS.forEach { digestLength ->
+            val engine = Blake2bEngine(digestLength)
+            MESSAGE_LENGTHS.forEach { length ->
+                val input = random.nextBytes(length)
+
+                val expected = Blake2b.Digest.newInstance(digestLength).digest(input)
+
+                Truth.assertThat(engine.digest(input)).isEqualTo(expected)
+                Truth.assertThat(Blake2bEngine.hash(input, digestLength)).isEqualTo(expected)
+            }
+        }
+    }
+
+    @Test
+    fun macMatchesBlake2b() {
+        listOf(1, 13, Blake2bEngine.MAX_KEY_BYTES).forEach { keyLength ->
+            val key = random.nextBytes(keyLength)
+            val engine = Blake2bEngine(digestLength = 32, key = key)
+            MESSAGE_LENGTHS.forEach { length ->
+                val input = random.nextBytes(length)
+
+                Truth.assertThat(engine.digest(input)).isEqualTo(Blake2b.Mac.newInstance(key, 32).digest(input))
+            }
+        }
+    }
+
+    @Test
+    fun splitUpdatesMatchSingleUpdate() {
+        val engine = Blake2bEngine(digestLength = 32, key = "TransactionSigningHash".toByteArray())
+        MESSAGE_LENGTHS.forEach { length ->
+            val input = random.nextBytes(length)
+            val expected = engine.digest(input)
+            val split = random.nextInt(length + 1)
+
+            engine.update(input, 0, split)
+            engine.update(input, split, length - split)
+            Truth.assertThat(ByteArray(32).also { engine.doFinal(it) }).isEqualTo(expected)
+
+            input.forEach(engine::update)
+            Truth.assertThat(ByteArray(32).also { engine.doFinal(it) }).isEqualTo(expected)
+
+            val direct = ByteBuffer.allocateDirect(length).put(input).also { it.flip() }
+            engine.update(direct)
+            Truth.assertThat(direct.hasRemaining()).isFalse()
+            Truth.assertThat(ByteArray(32).also { engine.doFinal(it) }).isEqualTo(expected)
+        }
+    }
+
+    // replaces a benchmark, prints throughput and allocated bytes per hash of both implementations
+    @Test
+    fun hashingDoesNotAllocate() {
+        val key = "TransactionSigningHash".toByteArray()
+        val input = random.nextBytes(BENCHMARK_MESSAGE_LENGTH)
+        val engine = Blake2bEngine(digestLength = 32, key = key)
+        val output = ByteArray(32)
+
+        val engineResult = measure {
+            engine.update(input, 0, input.size)
+            engine.doFinal(output)
+        }
+        val blake2bResult = measure { Blake2b.Mac.newInstance(key, 32).digest(input) }
+
+        println("Blake2bEngine: ${engineResult.megabytesPerSecond} MB/s, ${engineResult.bytesPerOperation} B/op")
+        println("Blake2b: ${blake2bResult.megabytesPerSecond} MB/s, ${blake2bResult.bytesPerOperation} B/op")
+        Truth.assertThat(engineResult.bytesPerOperation).isLessThan(blake2bResult.bytesPerOperation)
+    }
+
+    private fun measure(operation: () -> Unit): Measurement {
+        repeat(BENCHMARK_OPERATIONS) { operation() }
+
+        val threadBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+        val allocatedBefore = threadBean.getThreadAllocatedBytes(Thread.currentThread().id)
+        val start = System.nanoTime()
+        repeat(BENCHMARK_OPERATIONS) { operation() }
+        val nanos = System.nanoTime() - start
+        val allocated = threadBean.getThreadAllocatedBytes(Thread.currentThread().id) - allocatedBefore
+
+        return Measurement(
+            megabytesPerSecond = BENCHMARK_MESSAGE_LENGTH.toLong() * BENCHMARK_OPERATIONS * 1_000 / nanos,
+            bytesPerOperation = allocated / BENCHMARK_OPERATIONS,
+        )
+    }
+
+    private data class Measurement(val megabytesPerSecond: Long, val bytesPerOperation: Long)
+
+    private companion object {
+        val DIGEST_LENGTHS = listOf(1, 20, 28, 32, 64)
+        val MESSAGE_LENGTHS = (0..260).toList() + listOf(383, 384, 385, 1_000, 4_096)
+        const val BENCHMARK_MESSAGE_LENGTH = 256
+        const val BENCHMARK_OPERATIONS = 20_000
+    }
+}
@@ -0,0 +1,231 @@
+package com.tangem.blockchain.blockchains.ethereum.multicall
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.ethereum.network.ContractCallData
+import com.tangem.blockchain.blockchains.ethereum.network.EthereumJsonRpcProvider
+import com.tangem.blockchain.blockchains.ethereum.tokenmethods.TokenBalanceERC20TokenCallData
+import com.tangem.blockchain.common.Amount
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.JsonRPCResponse
+import com.tangem.blockchain.common.Token
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.extensions.toFixedSizeBytes
+import com.tangem.blockchain.network.MultiNetworkProvider
+import com.tangem.common.extensions.hexToBytes
+import com.tangem.common.extensions.toByteArray
+import io.mockk.coEvery
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+import org.komputing.khex.extensions.toHexString
+import java.math.BigDecimal
+import java.math.BigInteger
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.system.measureTimeMillis
+
+internal class Multicall3Test {
+
+    private val owner = "0x1234567890123456789012345678901234567890"
+
+    @Test
+    fun encodeAggregate3() {
+        val tokenAddress = "0xdAC17F958D2ee523a2206206994597C13D831ec7"
+        val balanceOf = TokenBalanceERC20TokenCallData(address = owner).data
+
+        val expected = "0x82ad56cb" +
+            "0000000000000000000000000000000000000000000000000000000000000020" +
+            "0000000000000000000000000000000000000000000000000000000000000001" +
+            "0000000000000000000000000000000000000000000000000000000000000020" +
+            "000000000000000000000000dac17f958d2ee523a2206206994597c13d831ec7" +
+            "0000000000000000000000000000000000000000000000000000000000000001" +
+            "0000000000000000000000000000000000000000000000000000000000000060" +
+            "0000000000000000000000000000000000000000000000000000000000000024" +
+            "70a082310000000000000000000000001234567890123456789012345678901234567890" +
+            "00000000000000000000000000000000000000000000000000000000"
+
+        val actual = Multicall3Aggregate3CallData(
+            calls = listOf(Multicall3Call(target = tokenAddress, allowFailure = true, callData = balanceOf)),
+        )
+
+        Truth.assertThat(actual.dataHex).isEqualTo(expected)
+        Truth.assertThat(actual.data.size - Multicall3Aggregate3CallData.HEAD_SIZE)
+            .isEqualTo(Multicall3Aggregate3CallData.encodedSizeOf(call(tokenAddress)))
+    }
+
+    @Test
+    fun decodeAggregate3Response() {
+        val response = "0x" +
+            "0000000000000000000000000000000000000000000000000000000000000020" +
+            "0000000000000000000000000000000000000000000000000000000000000002" +
+            "0000000000000000000000000000000000000000000000000000000000000040" +
+            "00000000000000000000000000000000000000000000000000000000000000c0" +
+            "0000000000000000000000000000000000000000000000000000000000000001" +
+            "0000000000000000000000000000000000000000000000000000000000000040" +
+            "0000000000000000000000000000000000000000000000000000000000000020" +
+            "00000000000000000000000000000000000000000000000000000000000f4240" +
+            "0000000000000000000000000000000000000000000000000000000000000000" +
+            "0000000000000000000000000000000000000000000000000000000000000040" +
+            "0000000000000000000000000000000000000000000000000000000000000000"
+
+        val results = Multicall3ResponseConverter.convert(response)
+
+        Truth.assertThat(results).hasSize(2)
+        Truth.assertThat(results[0].success).isTrue()
+        Truth.assertThat(BigInteger(1, results[0].returnData)).isEqualTo(BigInteger.valueOf(1_000_000))
+        Truth.assertThat(results[1].success).isFalse()
+        Truth.assertThat(results[1].returnData).isEmpty()
+    }
+
+    @Test
+    fun decodeRoundTrip() {
+        val expected = List(10) { index -> index % 3 != 0 to BigInteger.valueOf(index * 1000L).toFixedSizeBytes() }
+
+        val results = Multicall3ResponseConverter.convert(encodeResponse(expected))
+
+        Truth.assertThat(results.map { it.success }).isEqualTo(expected.map { it.first })
+        Truth.assertThat(results.map { it.returnData.toList() }).isEqualTo(expected.map { it.second.toList() })
+    }
+
+    @Test
+    fun batchesBalancesAndReportsRequestCount() = runTest {
+        listOf(10, 100, 500).forEach { tokensCount ->
+            val rpc = MockRpc()
+            val loader = Multicall3TokenBalanceLoader(rpc.multiNetworkProvider, MULTICALL_ADDRESS)
+            val tokens = tokens(tokensCount)
+
+            lateinit var balances: List<Amount>
+            val batchedTime = measureTimeMillis {
+                balances = loader.getTokensBalance(owner, tokens) { token -> rpc.loadSingle(token) }
+            }
+
+            Truth.assertThat(balances.map { it.currencySymbol }).isEqualTo(tokens.map { it.symbol })
+            Truth.assertThat(balances.map { it.value }).isEqualTo(tokens.map { it.expectedBalance() })
+            Truth.assertThat(rpc.singleRequests.get()).isEqualTo(0)
+            Truth.assertThat(rpc.batchRequests.get()).isLessThan(tokensCount / MAX_TOKENS_PER_REQUEST + 2)
+
+            val perTokenRpc = MockRpc()
+            val perTokenTime = measureTimeMillis {
+                tokens.forEach { token -> perTokenRpc.loadSingle(token) }
+            }
+
+            println(
+                "Multicall3 $tokensCount tokens: ${rpc.batchRequests.get()} requests in $batchedTime ms, " +
+                    "per-token: ${perTokenRpc.singleRequests.get()} requests in $perTokenTime ms",
+            )
+        }
+    }
+
+    @Test
+    fun revertedCallFallsBackToSingleRequest() = runTest {
+        val tokens = tokens(5)
+        val rpc = MockRpc(revertedTargets = setOf(tokens[2].contractAddress))
+        val loader = Multicall3TokenBalanceLoader(rpc.multiNetworkProvider, MULTICALL_ADDRESS)
+
+        val balances = loader.getTokensBalance(owner, tokens) { token -> rpc.loadSingle(token) }
+
+        Truth.assertThat(balances.map { it.value }).isEqualTo(tokens.map { it.expectedBalance() })
+        Truth.assertThat(rpc.batchRequests.get()).isEqualTo(1)
+        Truth.assertThat(rpc.singleRequests.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun missingContractSwitchesToSingleRequests() = runTest {
+        val tokens = tokens(5)
+        val rpc = MockRpc(isContractDeployed = false)
+        val loader = Multicall3TokenBalanceLoader(rpc.multiNetworkProvider, MULTICALL_ADDRESS)
+
+        loader.getTokensBalance(owner, tokens) { token -> rpc.loadSingle(token) }
+        val balances = loader.getTokensBalance(owner, tokens) { token -> rpc.loadSingle(token) }
+
+        Truth.assertThat(balances.map { it.value }).isEqualTo(tokens.map { it.expectedBalance() })
+        Truth.assertThat(rpc.batchRequests.get()).isEqualTo(1)
+        Truth.assertThat(rpc.singleRequests.get()).isEqualTo(tokens.size * 2)
+    }
+
+    private fun call(target: String) = Multicall3Call(
+        target = target,
+        allowFailure = true,
+        callData = TokenBalanceERC20TokenCallData(address = owner).data,
+    )
+
+    private fun tokens(count: Int) = List(count) { index ->
+        Token(
+            symbol = "T$index",
+            contractAddress = "0x" + (index + 1).toString(radix = 16).padStart(length = 40, padChar = '0'),
+            decimals = 6,
+        )
+    }
+
+    private fun Token.expectedBalance(): BigDecimal =
+        BigDecimal(contractAddress.removePrefix("0x").toBigInteger(radix = 16)).movePointLeft(decimals)
+
+    /** Mock RPC node that executes aggregate3 calls against a fake ERC-20 balance table */
+    private class MockRpc(
+        private val revertedTargets: Set<String> = emptySet(),
+        private val isContractDeployed: Boolean = true,
+    ) {
+        val batchRequests = AtomicInteger()
+        val singleRequests = AtomicInteger()
+
+        private val provider = mockk<EthereumJsonRpcProvider> {
+            every { baseUrl } returns "http://localhost/"
+            coEvery { call(any()) } answers {
+                batchRequests.incrementAndGet()
+                val callData = (firstArg<Any>() as ContractCallData).data
+                Result.Success(response(if (isContractDeployed) execute(callData) else "0x"))
+            }
+        }
+
+        val multiNetworkProvider = MultiNetworkProvider(listOf(provider), Blockchain.Ethereum)
+
+        fun loadSingle(token: Token): Amount {
+            singleRequests.incrementAndGet()
+            return Amount(token = token, value = balanceOf(token.contractAddress).toBigDecimal().movePointLeft(6))
+        }
+
+        private fun execute(callDataHex: String): String {
+            val data = callDataHex.removePrefix("0x").hexToBytes()
+            val length = data.word(36).toInt()
+            val offsetsStart = 4 + 64
+            val results = List(length) { index ->
+                val tupleStart = offsetsStart + data.word(offsetsStart + index * 32).toInt()
+                val target = "0x" + data.copyOfRange(tupleStart + 12, tupleStart + 32).toHexString(prefix = "")
+                if (target in revertedTargets) {
+                    false to ByteArray(0)
+                } else {
+                    true to balanceOf(target).toFixedSizeBytes()
+                }
+            }
+            return encodeResponse(results)
+        }
+
+        private fun balanceOf(target: String) = target.removePrefix("0x").toBigInteger(radix = 16)
+
+        private fun ByteArray.word(offset: Int) = BigInteger(1, copyOfRange(offset, offset + 32))
+
+        private fun response(result: String) = JsonRPCResponse(id = "67", jsonRpc = "2.0", result = result, error = null)
+    }
+
+    private companion object {
+        const val MULTICALL_ADDRESS = "0xcA11bde05977b3631167028862bE2a173976CA11"
+        const val MAX_TOKENS_PER_REQUEST = 70
+
+        fun encodeResponse(results: List<Pair<Boolean, ByteArray>>): String {
+            fun Int.word() = toByteArray().toFixedSizeBytes()
+
+            var tupleOffset = results.size * 32
+            val offsets = results.fold(ByteArray(0)) { acc, (_, data) ->
+                val offset = tupleOffset.word()
+                tupleOffset += 3 * 32 + (data.size + 31) / 32 * 32
+                acc + offset
+            }
+            val tuples = results.fold(ByteArray(0)) { acc, (success, data) ->
+                acc + (if (success) 1 else 0).word() + 64.word() + data.size.word() +
+                    data.copyOf((data.size + 31) / 32 * 32)
+            }
+
+            return (32.word() + results.size.word() + offsets + tuples).toHexString()
+        }
+    }
+}
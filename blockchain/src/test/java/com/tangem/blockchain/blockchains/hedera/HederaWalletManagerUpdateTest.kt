@@ -0,0 +1,135 @@
+package com.tangem.blockchain.blockchains.hedera
+
+import com.google.common.truth.Truth.assertThat
+import com.tangem.blockchain.blockchains.hedera.models.HederaAccountBalance
+import com.tangem.blockchain.blockchains.hedera.models.HederaAccountInfo
+import com.tangem.blockchain.blockchains.hedera.models.HederaTokenType
+import com.tangem.blockchain.blockchains.hedera.network.HederaNetworkService
+import com.tangem.blockchain.common.*
+import com.tangem.blockchain.common.address.Address
+import com.tangem.blockchain.common.datastorage.BlockchainDataStorage
+import com.tangem.blockchain.common.datastorage.BlockchainSavedData
+import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
+import com.tangem.blockchain.common.di.DepsContainer
+import com.tangem.blockchain.extensions.Result
+import com.tangem.common.card.EllipticCurve
+import io.mockk.coEvery
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.mockkStatic
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runTest
+import org.junit.Before
+import org.junit.Test
+import java.math.BigDecimal
+import java.math.BigInteger
+
+class HederaWalletManagerUpdateTest {
+
+    private val tokens = List(TOKENS_COUNT) { index ->
+        Token(name = "Token $index", symbol = "TOK$index", contractAddress = "0.0.${2000 + index}", decimals = 2)
+    }
+    private val wallet = Wallet(
+        blockchain = Blockchain.Hedera,
+        addresses = setOf(Address("0.0.1001")),
+        publicKey = Wallet.PublicKey(seedKey = ByteArray(32) { 1 }, derivationType = null),
+        tokens = tokens.toSet(),
+    )
+    private val storage = CountingBlockchainDataStorage()
+    private val dataStorage = AdvancedDataStorage(storage)
+    private val networkService = mockk<HederaNetworkService>()
+
+    @Before
+    fun setup() {
+        mockkStatic(android.util.Log::class)
+        every { android.util.Log.d(any(), any()) } returns 0
+        every { android.util.Log.w(any(), any<String>()) } returns 0
+
+        DepsContainer.onInit(
+            config = BlockchainSdkConfig(),
+            featureToggles = BlockchainFeatureToggles(
+                isYieldSupplyEnabled = false,
+                isHederaErc20Enabled = true,
+            ),
+        )
+
+        coEvery { networkService.getAccountInfo(any(), any()) } returns Result.Success(
+            HederaAccountInfo(
+                balance = HederaAccountBalance(hbarBalance = BigDecimal.TEN, tokenBalances = emptyList()),
+                pendingTxsInfo = emptyList(),
+            ),
+        )
+        coEvery { networkService.detectTokenType(any()) } coAnswers {
+            delay(LATENCY_MS)
+            Result.Success(HederaTokenType.ERC20)
+        }
+        coEvery { networkService.getContractEvmAddress(any()) } coAnswers {
+            delay(LATENCY_MS)
+            Result.Success("0x" + firstArg<String>().substringAfterLast('.').padStart(40, '0'))
+        }
+        coEvery { networkService.getERC20Balance(any(), any()) } coAnswers {
+            delay(LATENCY_MS)
+            Result.Success(BigInteger.valueOf(150))
+        }
+        coEvery { networkService.getUsdExchangeRate() } returns Result.Success(BigDecimal.ONE)
+    }
+
+    @Test
+    fun updateInternal_resolvesTokensConcurrentlyAndStoresOnce() = runTest {
+        val manager = makeManager()
+
+        manager.updateInternal()
+
+        // detect type, resolve EVM address and load balance, one round trip each for all tokens
+        assertThat(currentTime).isEqualTo(LATENCY_MS * 3)
+        assertThat(storage.storeCount).isEqualTo(1)
+        tokens.forEach { token ->
+            assertThat(wallet.getTokenAmount(token)?.value).isEqualTo(BigDecimal("1.50"))
+        }
+        val cached = dataStorage.getOrNull<BlockchainSavedData.Hedera>(wallet.publicKey)
+        assertThat(cached?.tokenTypes?.values?.toSet()).containsExactly(HederaTokenType.ERC20.name)
+        assertThat(cached?.tokenEvmAddresses?.keys).containsExactlyElementsIn(tokens.map { it.contractAddress })
+    }
+
+    @Test
+    fun updateInternal_withResolvedTokens_loadsOnlyBalances() = runTest {
+        makeManager().updateInternal()
+        val manager = makeManager()
+        val timeBefore = currentTime
+
+        manager.updateInternal()
+
+        assertThat(currentTime - timeBefore).isEqualTo(LATENCY_MS)
+        assertThat(storage.storeCount).isEqualTo(2)
+    }
+
+    private fun makeManager() = HederaWalletManager(
+        wallet = wallet,
+        transactionBuilder = HederaTransactionBuilder(curve = EllipticCurve.Ed25519, wallet = wallet),
+        networkService = networkService,
+        dataStorage = dataStorage,
+        accountCreator = mockk(),
+    )
+
+    private class CountingBlockchainDataStorage : BlockchainDataStorage {
+        private val data = linkedMapOf<String, String>()
+        var storeCount = 0
+
+        override suspend fun getOrNull(key: String): String? = data[key]
+
+        override suspend fun store(key: String, value: String) {
+            storeCount++
+            data[key] = value
+        }
+
+        override suspend fun remove(key: String) {
+            data.remove(key)
+        }
+    }
+
+    private companion object {
+        const val TOKENS_COUNT = 8
+        const val LATENCY_MS = 100L
+    }
+}
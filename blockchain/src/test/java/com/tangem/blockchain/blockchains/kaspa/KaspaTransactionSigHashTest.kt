@@ -0,0 +1,115 @@
+package com.tangem.blockchain.blockchains.kaspa
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.kaspa.network.KaspaUnspentOutput
+import com.tangem.common.extensions.hexToBytes
+import org.bitcoinj.core.Coin
+import org.bitcoinj.core.Transaction.SigHash
+import org.bitcoinj.script.Script
+import org.junit.Test
+import java.math.BigDecimal
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import kotlin.random.Random
+
+/**
+ * Checks that hashes for signature computed with shared transaction hashes don't depend on the order of inputs
+ * hashing and follow transaction modifications
+ */
+class KaspaTransactionSigHashTest {
+
+    private val networkParameters = KaspaMainNetParams()
+    private val random = Random(seed = 11)
+    private val script = Script(OUTPUT_SCRIPT.hexToBytes())
+
+    @Test
+    fun hashesDoNotDependOnOrder() {
+        val transaction = createTransaction(inputsCount = 20)
+
+        val hashes = transaction.hashesForSign()
+        val reversedHashes = transaction.inputs.indices.reversed()
+            .associateWith { transaction.hashForSign(it).toList() }
+
+        Truth.assertThat(hashes.toSet()).hasSize(20)
+        hashes.forEachIndexed { index, hash -> Truth.assertThat(reversedHashes[index]).isEqualTo(hash) }
+    }
+
+    @Test
+    fun hashesAreRecalculatedAfterModification() {
+        val unspentOutputs = createUnspentOutputs(count = 5)
+        val transaction = createTransaction(unspentOutputs, outputsCount = 1)
+        val hashesBefore = transaction.hashesForSign()
+
+        transaction.addOutput(Coin.valueOf(OUTPUT_VALUE), script)
+
+        val expected = createTransaction(unspentOutputs, outputsCount = 2).hashesForSign()
+        Truth.assertThat(transaction.hashesForSign()).isEqualTo(expected)
+        Truth.assertThat(expected).isNotEqualTo(hashesBefore)
+    }
+
+    @Test
+    fun concurrentHashesAreEqual() {
+        val unspentOutputs = createUnspentOutputs(count = 50)
+        val transaction = createTransaction(unspentOutputs, outputsCount = 2)
+        val expected = createTransaction(unspentOutputs, outputsCount = 2).hashesForSign()
+        val executor = Executors.newFixedThreadPool(THREADS_COUNT)
+
+        try {
+            val hashes = executor.invokeAll(
+                List(THREADS_COUNT) { Callable { transaction.hashesForSign() } },
+            ).map { it.get() }
+
+            hashes.forEach { Truth.assertThat(it).isEqualTo(expected) }
+        } finally {
+            executor.shutdown()
+        }
+    }
+
+    // replaces a benchmark, prints time of hashing of all inputs
+    @Test
+    fun hashingTimeIsLinear() {
+        listOf(1, 10, 100, 500).forEach { inputsCount ->
+            val transaction = createTransaction(inputsCount = inputsCount)
+            val start = System.nanoTime()
+            transaction.hashesForSign()
+            val millis = (System.nanoTime() - start) / NANOS_IN_MILLI
+            println("Hashes for sign of $inputsCount inputs: $millis ms")
+        }
+    }
+
+    private fun KaspaTransaction.hashesForSign(): List<List<Byte>> = inputs.indices.map { hashForSign(it).toList() }
+
+    private fun KaspaTransaction.hashForSign(index: Int): ByteArray {
+        val input = inputs[index]
+        return hashForSignatureWitness(index, input.scriptBytes, input.value, SigHash.ALL, false)
+    }
+
+    private fun createTransaction(inputsCount: Int): KaspaTransaction {
+        return createTransaction(createUnspentOutputs(inputsCount), outputsCount = 2)
+    }
+
+    private fun createTransaction(unspentOutputs: List<KaspaUnspentOutput>, outputsCount: Int): KaspaTransaction {
+        return createKaspaTransaction(networkParameters, unspentOutputs) { transaction ->
+            repeat(outputsCount) { transaction.addOutput(Coin.valueOf(OUTPUT_VALUE), script) }
+            transaction
+        }
+    }
+
+    private fun createUnspentOutputs(count: Int): List<KaspaUnspentOutput> {
+        return List(count) { index ->
+            KaspaUnspentOutput(
+                amount = BigDecimal.ONE,
+                outputIndex = index.toLong(),
+                transactionHash = random.nextBytes(size = 32),
+                outputScript = OUTPUT_SCRIPT.hexToBytes(),
+            )
+        }
+    }
+
+    private companion object {
+        const val OUTPUT_SCRIPT = "21034c88a1a83469ddf20d0c07e5c4a1e7b83734e721e60d642b94a53222c47c670dab"
+        const val OUTPUT_VALUE = 100_000L
+        const val THREADS_COUNT = 8
+        const val NANOS_IN_MILLI = 1_000_000
+    }
+}
@@ -0,0 +1,106 @@
+package com.tangem.blockchain.blockchains.polkadot.network
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.polkadot.models.PolkadotRuntimeVersion
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.BlockchainSdkError
+import com.tangem.blockchain.extensions.Result
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+
+class PolkadotChainContextCacheTest {
+
+    private var now = 0L
+    private val cache = PolkadotChainContextCache(clock = { now })
+
+    private var genesisRequestsCount = 0
+    private var runtimeRequestsCount = 0
+    private var specVersion = 1_000_000
+
+    @Test
+    fun chainContextIsRequestedOncePerNode() = runTest {
+        List(size = 5) { async { getChainContext(Blockchain.Polkadot, POLKADOT_URL) } }.awaitAll()
+        getChainContext(Blockchain.Polkadot, POLKADOT_URL)
+
+        Truth.assertThat(genesisRequestsCount).isEqualTo(1)
+        Truth.assertThat(runtimeRequestsCount).isEqualTo(1)
+    }
+
+    @Test
+    fun chainContextIsKeptPerBlockchainAndNode() = runTest {
+        getChainContext(Blockchain.Polkadot, POLKADOT_URL)
+        getChainContext(Blockchain.Polkadot, OTHER_POLKADOT_URL)
+        getChainContext(Blockchain.Kusama, POLKADOT_URL)
+
+        Truth.assertThat(genesisRequestsCount).isEqualTo(3)
+        Truth.assertThat(runtimeRequestsCount).isEqualTo(3)
+    }
+
+    @Test
+    fun invalidatedRuntimeVersionIsRequestedAgainWithoutGenesisHash() = runTest {
+        getChainContext(Blockchain.Polkadot, POLKADOT_URL)
+        specVersion++
+
+        cache.invalidateRuntimeVersion(Blockchain.Polkadot, POLKADOT_URL)
+        val context = (getChainContext(Blockchain.Polkadot, POLKADOT_URL) as Result.Success).data
+
+        Truth.assertThat(context.runtimeVersion.specVersion).isEqualTo(specVersion)
+        Truth.assertThat(genesisRequestsCount).isEqualTo(1)
+        Truth.assertThat(runtimeRequestsCount).isEqualTo(2)
+    }
+
+    @Test
+    fun runtimeVersionIsRequestedAgainAfterTtl() = runTest {
+        getChainContext(Blockchain.Polkadot, POLKADOT_URL)
+
+        now += TEN_MINUTES_MILLIS - 1
+        getChainContext(Blockchain.Polkadot, POLKADOT_URL)
+        Truth.assertThat(runtimeRequestsCount).isEqualTo(1)
+
+        now += 1
+        getChainContext(Blockchain.Polkadot, POLKADOT_URL)
+        Truth.assertThat(runtimeRequestsCount).isEqualTo(2)
+        Truth.assertThat(genesisRequestsCount).isEqualTo(1)
+    }
+
+    @Test
+    fun failedRuntimeVersionRequestIsNotCached() = runTest {
+        val failed = cache.getChainContext(
+            blockchain = Blockchain.Polkadot,
+            baseUrl = POLKADOT_URL,
+            loadGenesisHash = { Result.Success(GENESIS_HASH) },
+            loadRuntimeVersion = { Result.Failure(BlockchainSdkError.CustomError("runtime")) },
+        )
+        val context = getChainContext(Blockchain.Polkadot, POLKADOT_URL)
+
+        Truth.assertThat(failed).isInstanceOf(Result.Failure::class.java)
+        Truth.assertThat(context).isInstanceOf(Result.Success::class.java)
+        Truth.assertThat(genesisRequestsCount).isEqualTo(0)
+    }
+
+    private suspend fun getChainContext(blockchain: Blockchain, baseUrl: String) = cache.getChainContext(
+        blockchain = blockchain,
+        baseUrl = baseUrl,
+        loadGenesisHash = {
+            genesisRequestsCount++
+            delay(REQUEST_DELAY_MILLIS)
+            Result.Success(GENESIS_HASH)
+        },
+        loadRuntimeVersion = {
+            runtimeRequestsCount++
+            delay(REQUEST_DELAY_MILLIS)
+            Result.Success(PolkadotRuntimeVersion(specVersion = specVersion, transactionVersion = 26))
+        },
+    )
+
+    private companion object {
+        const val POLKADOT_URL = "https://rpc.polkadot.io/"
+        const val OTHER_POLKADOT_URL = "https://polkadot-rpc.publicnode.com/"
+        const val GENESIS_HASH = "0x91b171bb158e2d3848fa23a9f1c25182fb8e20313b2c1eb49219da7a70ce90c3"
+        const val TEN_MINUTES_MILLIS = 10 * 60 * 1000L
+        const val REQUEST_DELAY_MILLIS = 100L
+    }
+}
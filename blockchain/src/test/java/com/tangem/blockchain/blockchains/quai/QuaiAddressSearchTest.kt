@@ -0,0 +1,71 @@
+package com.tangem.blockchain.blockchains.quai
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.ethereum.EthereumAddressService
+import com.tangem.common.extensions.hexToBytes
+import com.tangem.crypto.hdWallet.DerivationNode
+import com.tangem.crypto.hdWallet.bip32.ExtendedPublicKey
+import org.junit.Test
+import kotlin.random.Random
+
+class QuaiAddressSearchTest {
+
+    private val random = Random(seed = 5)
+    private val addressService = QuaiAddressService()
+
+    @Test
+    fun parallelSearchFindsLowestIndex() {
+        repeat(KEYS_COUNT) {
+            val extendedPublicKey = createExtendedPublicKey()
+            val expected = findIndexSequentially(extendedPublicKey)
+
+            listOf(1, 3, 8).forEach { workersCount ->
+                Truth.assertThat(QuaiAddressSearch(workersCount).findLowestIndex(extendedPublicKey))
+                    .isEqualTo(expected)
+            }
+        }
+    }
+
+    @Test
+    fun addressIsDerivedByFoundIndex() {
+        val extendedPublicKey = createExtendedPublicKey()
+        val expectedIndex = findIndexSequentially(extendedPublicKey)
+
+        val data = addressService.makeAddressFromExtendedPublicKey(
+            extendedPublicKey = extendedPublicKey,
+            curve = null,
+            derivationPath = "m/44'/994'/0'/0",
+            cachedIndex = null,
+        )
+
+        Truth.assertThat(data.index).isEqualTo(expectedIndex)
+        Truth.assertThat(data.path?.rawPath).isEqualTo("m/44'/994'/0'/0/$expectedIndex")
+        Truth.assertThat(addressService.validate(data.address)).isTrue()
+        Truth.assertThat(data.address).isEqualTo(
+            EthereumAddressService().makeAddress(data.publicKey.publicKey, curve = null),
+        )
+    }
+
+    private fun findIndexSequentially(extendedPublicKey: ExtendedPublicKey): Int {
+        val ethereumAddressService = EthereumAddressService()
+        return (0 until Int.MAX_VALUE).first { index ->
+            val derivedKey = extendedPublicKey.derivePublicKey(DerivationNode.NonHardened(index.toLong()))
+            addressService.validate(ethereumAddressService.makeAddress(derivedKey.publicKey, curve = null))
+        }
+    }
+
+    private fun createExtendedPublicKey(): ExtendedPublicKey {
+        return ExtendedPublicKey(
+            publicKey = PUBLIC_KEY.hexToBytes(),
+            chainCode = random.nextBytes(size = 32),
+            depth = 4,
+            parentFingerprint = byteArrayOf(0x00, 0x00, 0x00, 0x00),
+            childNumber = 0L,
+        )
+    }
+
+    private companion object {
+        const val PUBLIC_KEY = "0339a36013301597daef41fbe593a02cc513d0b55527ec2df1050e2e8ff49c85c2"
+        const val KEYS_COUNT = 5
+    }
+}
@@ -0,0 +1,129 @@
+package com.tangem.blockchain.blockchains.solana
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.solana.alt.AddressLookupTableResolver
+import com.tangem.blockchain.blockchains.solana.alt.CompiledAltTable
+import com.tangem.blockchain.blockchains.solana.solanaj.model.SolanaMultipleAccountsInfo
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.network.MultiNetworkProvider
+import io.mockk.coEvery
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+import org.p2p.solanaj.core.PublicKey
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.util.Base64
+import kotlin.random.Random
+
+class AddressLookupTableResolverTest {
+
+    private val random = Random(seed = 17)
+    private val tables = mutableMapOf<String, Table>()
+    private val requestedAccounts = mutableListOf<List<String>>()
+
+    private val networkService = mockk<SolanaNetworkService> {
+        every { baseUrl } returns "https://solana.mock"
+        coEvery { getMultipleAccountsInfo(any()) } answers {
+            val accounts = firstArg<List<PublicKey>>().map { it.toBase58() }
+            requestedAccounts += accounts
+            Result.Success(accounts.map { tables[it]?.toAccountInfo() })
+        }
+    }
+    private val resolver = AddressLookupTableResolver(
+        MultiNetworkProvider(providers = listOf(networkService), blockchain = Blockchain.Solana, healthTracker = null),
+    )
+
+    @Test
+    fun tablesAreRequestedByOneRequest() = runTest {
+        val compiledTables = List(3) { compiledTable(addTable(addressesCount = 4), indexes = listOf(0, 3)) }
+
+        val states = (resolver.resolve(compiledTables) as Result.Success).data
+
+        Truth.assertThat(requestedAccounts).hasSize(1)
+        Truth.assertThat(requestedAccounts.single()).hasSize(3)
+        states.zip(compiledTables).forEach { (state, compiledTable) ->
+            val table = tables.getValue(PublicKey(compiledTable.account).toBase58())
+            Truth.assertThat(state.addresses).containsExactlyElementsIn(table.addresses).inOrder()
+            Truth.assertThat(state.lastExtendedSlot).isEqualTo(table.lastExtendedSlot.toULong())
+        }
+    }
+
+    @Test
+    fun cachedTablesAreNotRequested() = runTest {
+        val compiledTable = compiledTable(addTable(addressesCount = 4), indexes = listOf(1))
+
+        repeat(3) { resolver.resolve(listOf(compiledTable)) as Result.Success }
+
+        Truth.assertThat(requestedAccounts).hasSize(1)
+    }
+
+    @Test
+    fun extendedTableIsRequestedAgain() = runTest {
+        val key = addTable(addressesCount = 2)
+        resolver.resolve(listOf(compiledTable(key, indexes = listOf(1)))) as Result.Success
+        tables[key] = tables.getValue(key).let { table ->
+            table.copy(
+                lastExtendedSlot = table.lastExtendedSlot + 1,
+                addresses = table.addresses + List(2) { random.nextBytes(size = 32) },
+            )
+        }
+
+        val state = (resolver.resolve(listOf(compiledTable(key, indexes = listOf(3)))) as Result.Success).data.single()
+
+        Truth.assertThat(requestedAccounts).hasSize(2)
+        Truth.assertThat(state.addresses).hasSize(4)
+    }
+
+    @Test
+    fun missingTableIsFailure() = runTest {
+        val missingKey = PublicKey(random.nextBytes(size = 32)).toBase58()
+
+        val result = resolver.resolve(listOf(compiledTable(missingKey, indexes = listOf(0))))
+
+        Truth.assertThat(result).isInstanceOf(Result.Failure::class.java)
+    }
+
+    private fun addTable(addressesCount: Int): String {
+        val key = PublicKey(random.nextBytes(size = 32)).toBase58()
+        tables[key] = Table(
+            lastExtendedSlot = random.nextLong(from = 1, until = 1_000_000),
+            addresses = List(addressesCount) { random.nextBytes(size = 32) },
+        )
+        return key
+    }
+
+    private fun compiledTable(key: String, indexes: List<Int>): CompiledAltTable {
+        return CompiledAltTable(
+            account = PublicKey(key).toByteArray(),
+            writableIndexes = indexes,
+            readonlyIndexes = emptyList(),
+        )
+    }
+
+    private data class Table(val lastExtendedSlot: Long, val addresses: List<ByteArray>) {
+
+        fun toAccountInfo(): SolanaMultipleAccountsInfo.Value {
+            val buffer = ByteBuffer.allocate(HEADER_SIZE + addresses.size * 32).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(1) // type index
+                .putLong(-1) // deactivation slot
+                .putLong(lastExtendedSlot)
+                .put(0) // last extended slot start index
+                .put(1) // authority option
+                .put(ByteArray(32)) // authority
+                .putShort(0) // padding
+            addresses.forEach { buffer.put(it) }
+
+            return SolanaMultipleAccountsInfo.Value().apply {
+                data = listOf(Base64.getEncoder().encodeToString(buffer.array()), "base64")
+                owner = "AddressLookupTab1e1111111111111111111111111"
+            }
+        }
+    }
+
+    private companion object {
+        const val HEADER_SIZE = 56
+    }
+}
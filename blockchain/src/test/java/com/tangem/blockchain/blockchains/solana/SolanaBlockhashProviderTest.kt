@@ -0,0 +1,121 @@
+package com.tangem.blockchain.blockchains.solana
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.solana.solanaj.model.FeeInfo
+import com.tangem.blockchain.blockchains.solana.solanaj.model.SolanaBlockhashInfo
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.network.MultiNetworkProvider
+import io.mockk.coEvery
+import io.mockk.coVerify
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+
+class SolanaBlockhashProviderTest {
+
+    private var time = 0L
+    private var blockhashRequestsCount = 0
+
+    private val networkService = mockk<SolanaNetworkService> {
+        every { baseUrl } returns "https://solana.mock"
+        coEvery { getLatestBlockhashInfo(any()) } coAnswers {
+            delay(LATENCY_MILLIS)
+            blockhashRequestsCount++
+            val blockhashInfo = SolanaBlockhashInfo(
+                blockhash = "blockhash$blockhashRequestsCount",
+                slot = time / SLOT_MILLIS,
+            )
+            Result.Success(blockhashInfo)
+        }
+        coEvery { getFeeForMessage(any<ByteArray>()) } returns Result.Success(FeeInfo())
+    }
+    private val multiNetworkProvider = MultiNetworkProvider(
+        providers = listOf(networkService),
+        blockchain = Blockchain.Solana,
+        healthTracker = null,
+    )
+
+    @Test
+    fun freshBlockhashIsServedFromMemory() = runTest {
+        val provider = createProvider()
+
+        val first = provider.getBlockhash() as Result.Success
+        time += 5 * SLOT_MILLIS
+        val second = provider.getBlockhash() as Result.Success
+
+        Truth.assertThat(second.data).isEqualTo(first.data)
+        Truth.assertThat(blockhashRequestsCount).isEqualTo(1)
+    }
+
+    @Test
+    fun concurrentRequestsShareOneRequest() = runTest {
+        val provider = createProvider()
+
+        val blockhashes = List(10) { async { (provider.getBlockhash() as Result.Success).data } }.awaitAll()
+
+        Truth.assertThat(blockhashes.distinct()).hasSize(1)
+        Truth.assertThat(blockhashRequestsCount).isEqualTo(1)
+    }
+
+    @Test
+    fun agingBlockhashIsRefreshedOnRequest() = runTest {
+        val provider = createProvider()
+        val first = (provider.getBlockhash() as Result.Success).data
+
+        time += 20 * SLOT_MILLIS
+        val refreshed = (provider.getBlockhash() as Result.Success).data
+
+        Truth.assertThat(refreshed.blockhash).isNotEqualTo(first.blockhash)
+        Truth.assertThat(blockhashRequestsCount).isEqualTo(2)
+    }
+
+    @Test
+    fun agingBlockhashIsServedWhileRefreshing() = runTest {
+        val provider = createProvider()
+        val first = (provider.getBlockhash() as Result.Success).data
+
+        time += 20 * SLOT_MILLIS
+        val blockhashes = List(2) { async { (provider.getBlockhash() as Result.Success).data } }.awaitAll()
+
+        Truth.assertThat(blockhashes[0].blockhash).isNotEqualTo(first.blockhash)
+        Truth.assertThat(blockhashes[1]).isEqualTo(first)
+        Truth.assertThat(blockhashRequestsCount).isEqualTo(2)
+    }
+
+    @Test
+    fun expiredBlockhashIsRequestedAgain() = runTest {
+        val provider = createProvider()
+        val first = (provider.getBlockhash() as Result.Success).data
+
+        time += 40 * SLOT_MILLIS
+        val second = (provider.getBlockhash() as Result.Success).data
+
+        Truth.assertThat(second.blockhash).isNotEqualTo(first.blockhash)
+        Truth.assertThat(second.receivedAt).isEqualTo(time)
+    }
+
+    @Test
+    fun feeQuotesAreCachedByMessage() = runTest {
+        val provider = createProvider()
+        val message = byteArrayOf(1, 2, 3)
+
+        repeat(3) { provider.getFeeForMessage(message) as Result.Success }
+        provider.getFeeForMessage(byteArrayOf(4, 5, 6)) as Result.Success
+
+        coVerify(exactly = 2) { networkService.getFeeForMessage(any<ByteArray>()) }
+    }
+
+    private fun createProvider(): SolanaBlockhashProvider {
+        return SolanaBlockhashProvider(multiNetworkProvider = multiNetworkProvider, clock = { time })
+    }
+
+    private companion object {
+        const val SLOT_MILLIS = 400L
+        const val LATENCY_MILLIS = 100L
+    }
+}
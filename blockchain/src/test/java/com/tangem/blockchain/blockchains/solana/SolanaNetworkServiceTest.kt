@@ -0,0 +1,88 @@
+package com.tangem.blockchain.blockchains.solana
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.solana.solanaj.rpc.SolanaRpcApi
+import com.tangem.blockchain.blockchains.solana.solanaj.rpc.SolanaRpcClient
+import com.tangem.blockchain.common.BlockchainFeatureToggles
+import com.tangem.blockchain.common.BlockchainSdkConfig
+import com.tangem.blockchain.common.di.DepsContainer
+import com.tangem.blockchain.extensions.Result
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import kotlinx.coroutines.runBlocking
+import org.junit.Before
+import org.junit.Test
+import org.p2p.solanaj.core.PublicKey
+import org.p2p.solanaj.rpc.types.SignatureInformation
+import org.p2p.solanaj.rpc.types.TransactionResult
+
+/**
+ * Checks fetching of in-progress transactions against mocked RPC answering every request after [LATENCY_MILLIS]
+ */
+class SolanaNetworkServiceTest {
+
+    private val api = mockk<SolanaRpcApi>()
+    private val provider = mockk<SolanaRpcClient>(relaxed = true) {
+        every { baseUrl } returns "https://solana.mock"
+        every { this@mockk.api } returns this@SolanaNetworkServiceTest.api
+    }
+    private val networkService = SolanaNetworkService(provider)
+
+    private val signatures = List(SIGNATURES_COUNT) { "signature$it" }
+
+    @Before
+    fun setup() {
+        DepsContainer.onInit(
+            config = mockk<BlockchainSdkConfig>(relaxed = true),
+            featureToggles = BlockchainFeatureToggles(isYieldSupplyEnabled = false),
+        )
+        every { api.getAccountInfoNew(any(), any()) } returns mockk(relaxed = true)
+        val signatureInfos = signatures.map { signature ->
+            mockk<SignatureInformation> {
+                every { this@mockk.signature } returns signature
+                every { confirmationStatus } returns "confirmed"
+            }
+        }
+        val transactions = signatures.withIndex().associate { (index, signature) ->
+            signature to mockk<TransactionResult>(relaxed = true) { every { meta.fee } returns index.toLong() }
+        }
+        every { api.getSignaturesForAddress(any(), any(), any()) } answers {
+            Thread.sleep(LATENCY_MILLIS)
+            signatureInfos
+        }
+        every { api.getTransaction(any(), any()) } answers {
+            Thread.sleep(LATENCY_MILLIS)
+            transactions.getValue(firstArg())
+        }
+    }
+
+    @Test
+    fun transactionsAreFetchedConcurrently() = runBlocking {
+        val start = System.currentTimeMillis()
+        val info = networkService.getMainAccountInfo(ACCOUNT, cardTokens = emptySet()) as Result.Success
+        val elapsed = System.currentTimeMillis() - start
+
+        println("Refresh with $SIGNATURES_COUNT transactions in progress: $elapsed ms")
+        Truth.assertThat(info.data.txsInProgress.map { it.signature }).isEqualTo(signatures)
+        Truth.assertThat(info.data.txsInProgress.map { it.fee })
+            .isEqualTo(List(SIGNATURES_COUNT) { it.toLong() })
+        Truth.assertThat(elapsed).isLessThan(SIGNATURES_COUNT * LATENCY_MILLIS / 2)
+    }
+
+    @Test
+    fun resolvedTransactionsAreNotRequestedAgain() = runBlocking {
+        repeat(3) {
+            val info = networkService.getMainAccountInfo(ACCOUNT, cardTokens = emptySet()) as Result.Success
+            Truth.assertThat(info.data.txsInProgress).hasSize(SIGNATURES_COUNT)
+        }
+
+        verify(exactly = SIGNATURES_COUNT) { api.getTransaction(any(), any()) }
+    }
+
+    private companion object {
+        val ACCOUNT = PublicKey("11111111111111111111111111111111")
+        const val SIGNATURES_COUNT = 20
+        const val LATENCY_MILLIS = 50L
+    }
+}
@@ -0,0 +1,132 @@
+package com.tangem.blockchain.common
+
+import com.google.common.truth.Truth
+import org.junit.Test
+
+class RecentTransactionsTest {
+
+    @Test
+    fun transactionsAreFoundByHashIgnoringCase() {
+        val recentTransactions = RecentTransactions()
+        val transaction = createTransaction(hash = "0xabcdef")
+        recentTransactions.add(transaction)
+
+        Truth.assertThat(recentTransactions.findByHash("0xABCDEF")).containsExactly(transaction)
+        Truth.assertThat(recentTransactions.findByHash("0x123456")).isEmpty()
+    }
+
+    @Test
+    fun removedTransactionsAreRemovedFromIndex() {
+        val recentTransactions = RecentTransactions()
+        val first = createTransaction(hash = "first")
+        val second = createTransaction(hash = "second")
+        val third = createTransaction(hash = "third")
+        recentTransactions.addAll(listOf(first, second, third))
+
+        recentTransactions.remove(first)
+        recentTransactions.removeAll { it.hash == "second" }
+        recentTransactions[0] = createTransaction(hash = "fourth")
+
+        Truth.assertThat(recentTransactions.findByHash("first")).isEmpty()
+        Truth.assertThat(recentTransactions.findByHash("second")).isEmpty()
+        Truth.assertThat(recentTransactions.findByHash("third")).isEmpty()
+        Truth.assertThat(recentTransactions.findByHash("fourth")).hasSize(1)
+        Truth.assertThat(recentTransactions.map { it.hash }).containsExactly("fourth")
+    }
+
+    @Test
+    fun transactionIsReindexedAfterHashChange() {
+        val recentTransactions = RecentTransactions()
+        val transaction = createTransaction(hash = "old")
+        recentTransactions.add(transaction)
+
+        transaction.hash = "NEW"
+        recentTransactions.onHashChanged(transaction)
+
+        Truth.assertThat(recentTransactions.findByHash("old")).isEmpty()
+        Truth.assertThat(recentTransactions.findByHash("new")).containsExactly(transaction)
+
+        recentTransactions.remove(transaction)
+
+        Truth.assertThat(recentTransactions.findByHash("new")).isEmpty()
+    }
+
+    @Test
+    fun transactionWithChangedHashIsRemovedFromIndex() {
+        val recentTransactions = RecentTransactions()
+        val transaction = createTransaction(hash = "old")
+        recentTransactions.add(transaction)
+
+        // hash is changed without reindexing, the transaction is still removed by identity
+        transaction.hash = "new"
+        recentTransactions.removeAt(0)
+
+        Truth.assertThat(recentTransactions.findByHash("old")).isEmpty()
+        Truth.assertThat(recentTransactions.findByHash("new")).isEmpty()
+    }
+
+    @Test
+    fun oldestConfirmedTransactionsAreEvicted() {
+        val recentTransactions = RecentTransactions(maxSize = 8)
+        repeat(times = 8) { recentTransactions.add(createTransaction("confirmed-$it", TransactionStatus.Confirmed)) }
+
+        recentTransactions.add(createTransaction(hash = "unconfirmed"))
+
+        Truth.assertThat(recentTransactions.map { it.hash }).containsExactly(
+            "confirmed-3",
+            "confirmed-4",
+            "confirmed-5",
+            "confirmed-6",
+            "confirmed-7",
+            "unconfirmed",
+        ).inOrder()
+        Truth.assertThat(recentTransactions.findByHash("confirmed-0")).isEmpty()
+    }
+
+    @Test
+    fun unconfirmedTransactionsAreNotEvicted() {
+        val recentTransactions = RecentTransactions(maxSize = 4)
+
+        repeat(times = 10) { recentTransactions.add(createTransaction(hash = "unconfirmed-$it")) }
+
+        Truth.assertThat(recentTransactions).hasSize(10)
+        Truth.assertThat(recentTransactions.findByHash("unconfirmed-0")).hasSize(1)
+    }
+
+    @Test
+    fun manyRecentTransactionsAreReconciledByHash() {
+        val recentTransactions = RecentTransactions(maxSize = 10_000)
+        repeat(times = 5_000) { recentTransactions.add(createTransaction(hash = "hash-$it")) }
+        val fetched = List(size = 5_000) {
+            createTransaction(
+                hash = "HASH-${it + 2_500}",
+                status = if (it % 2 == 0) TransactionStatus.Confirmed else TransactionStatus.Unconfirmed,
+            )
+        }
+
+        val (confirmed, unconfirmed) = fetched.partition { it.status == TransactionStatus.Confirmed }
+        confirmed.forEach { transaction ->
+            recentTransactions.findByHash(transaction.hash).forEach { it.status = TransactionStatus.Confirmed }
+        }
+        unconfirmed.forEach { transaction ->
+            if (recentTransactions.findByHash(transaction.hash).isEmpty()) recentTransactions.add(transaction)
+        }
+
+        Truth.assertThat(recentTransactions).hasSize(6_250)
+        Truth.assertThat(recentTransactions.count { it.status == TransactionStatus.Confirmed }).isEqualTo(1_250)
+    }
+
+    private fun createTransaction(
+        hash: String,
+        status: TransactionStatus = TransactionStatus.Unconfirmed,
+    ): TransactionData.Uncompiled {
+        return TransactionData.Uncompiled(
+            amount = Amount(null, Blockchain.Ethereum),
+            fee = null,
+            sourceAddress = "source",
+            destinationAddress = "destination",
+            status = status,
+            hash = hash,
+        )
+    }
+}
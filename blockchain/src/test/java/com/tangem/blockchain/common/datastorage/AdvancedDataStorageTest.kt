@@ -0,0 +1,242 @@
+package com.tangem.blockchain.common.datastorage
+
+import android.util.Log
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.kaspa.krc20.model.Envelope
+import com.tangem.blockchain.common.datastorage.implementations.AdvancedDataStorage
+import com.tangem.blockchain.common.datastorage.implementations.SavedDataCodec
+import com.tangem.blockchain.network.moshi
+import io.mockk.every
+import io.mockk.mockkStatic
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import okio.ByteString.Companion.decodeBase64
+import okio.ByteString.Companion.toByteString
+import org.junit.Before
+import org.junit.Test
+import java.io.IOException
+import java.math.BigDecimal
+
+class AdvancedDataStorageTest {
+
+    private val pendingTransactions = BlockchainSavedData.PendingTransactions(
+        transactions = List(20) { index ->
+            PendingTransaction(
+                transactionId = "0x" + index.toString().padStart(64, '0'),
+                blockchain = "ETH",
+                providerName = null,
+                sentAt = 1_700_000_000_000L + index,
+                contractAddress = "0xdac17f958d2ee523a2206206994597c13d831ec7".takeIf { index % 2 == 0 },
+                amount = "0.0$index",
+            )
+        },
+    )
+
+    private val hedera = BlockchainSavedData.Hedera(
+        accountId = "0.0.12345",
+        associatedTokens = setOf("0.0.1", "0.0.2"),
+        isCacheCleared = true,
+        tokenTypes = mapOf("0.0.1" to "HTS", "0.0.2" to "ERC20"),
+    )
+
+    @Before
+    fun setup() {
+        mockkStatic(Log::class)
+        every { Log.e(any(), any()) } returns 0
+        every { Log.e(any(), any(), any()) } returns 0
+    }
+
+    @Test
+    fun binaryFormatKeepsValues() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        val dataStorage = AdvancedDataStorage(storage, format = SavedDataCodec.Format.BINARY)
+
+        dataStorage.store(KEY, pendingTransactions)
+        dataStorage.store(OTHER_KEY, hedera)
+
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.PendingTransactions>(KEY))
+            .isEqualTo(pendingTransactions)
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(OTHER_KEY)).isEqualTo(hedera)
+    }
+
+    @Test
+    fun binaryFormatKeepsNumbers() {
+        val value = BlockchainSavedData.KaspaKRC20IncompleteTokenTransaction(
+            transactionId = "id",
+            amountValue = BigDecimal("123456789.123456789"),
+            feeAmountValue = BigDecimal("0.00000001"),
+            envelope = Envelope(
+                p = "krc-20",
+                op = "transfer",
+                amt = "1",
+                to = "kaspa:address",
+                tick = "TICK",
+            ),
+        )
+        val adapter = moshi.adapter(BlockchainSavedData.KaspaKRC20IncompleteTokenTransaction::class.java)
+
+        val encoded = SavedDataCodec.encode(value, adapter, SavedDataCodec.Format.BINARY)
+
+        Truth.assertThat(SavedDataCodec.decode(encoded, adapter)).isEqualTo(value)
+    }
+
+    @Test
+    fun binaryFormatIsSmallerThanJson() {
+        val adapter = moshi.adapter(BlockchainSavedData.PendingTransactions::class.java)
+
+        val json = SavedDataCodec.encode(pendingTransactions, adapter, SavedDataCodec.Format.JSON)
+        val binary = SavedDataCodec.encode(pendingTransactions, adapter, SavedDataCodec.Format.BINARY)
+
+        println("Pending transactions: ${json.length} chars in JSON, ${binary.length} chars in binary")
+        Truth.assertThat(binary.length).isLessThan(json.length)
+    }
+
+    @Test
+    fun jsonValueIsMigratedToBinaryOnRead() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        AdvancedDataStorage(storage).store(KEY, hedera)
+        val dataStorage = AdvancedDataStorage(storage, format = SavedDataCodec.Format.BINARY)
+
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(KEY)).isEqualTo(hedera)
+
+        Truth.assertThat(storage.values.getValue(KEY)).doesNotContain("accountId")
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(KEY)).isEqualTo(hedera)
+    }
+
+    @Test
+    fun binaryValueIsReadInJsonFormat() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        AdvancedDataStorage(storage, format = SavedDataCodec.Format.BINARY).store(KEY, hedera)
+        val dataStorage = AdvancedDataStorage(storage)
+
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(KEY)).isEqualTo(hedera)
+        Truth.assertThat(storage.values.getValue(KEY)).startsWith("{")
+    }
+
+    @Test
+    fun valueOfUnknownVersionIsIgnored() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        val dataStorage = AdvancedDataStorage(storage, format = SavedDataCodec.Format.BINARY)
+        dataStorage.store(KEY, hedera)
+        val bytes = requireNotNull(storage.values.getValue(KEY).decodeBase64()).toByteArray()
+        bytes[1] = 2 // version
+        storage.values[KEY] = bytes.toByteString().base64()
+
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(KEY)).isNull()
+    }
+
+    @Test
+    fun writeBackCoalescesWrites() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        val dataStorage = AdvancedDataStorage(storage, writeBackScope = backgroundScope)
+
+        repeat(100) { index ->
+            dataStorage.store(KEY, BlockchainSavedData.QuaiDerivationIndex(index))
+            Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.QuaiDerivationIndex>(KEY)?.index)
+                .isEqualTo(index)
+        }
+        Truth.assertThat(storage.writesCount).isEqualTo(0)
+
+        advanceTimeBy(FLUSH_DELAY_MILLIS + 1)
+        runCurrent()
+
+        Truth.assertThat(storage.writesCount).isEqualTo(1)
+        Truth.assertThat(storage.readsCount).isEqualTo(0)
+        Truth.assertThat(
+            AdvancedDataStorage(storage).getOrNull<BlockchainSavedData.QuaiDerivationIndex>(KEY)?.index,
+        ).isEqualTo(99)
+    }
+
+    @Test
+    fun writeBackReadsStorageOnce() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        AdvancedDataStorage(storage).store(KEY, hedera)
+        val dataStorage = AdvancedDataStorage(storage, writeBackScope = backgroundScope)
+
+        repeat(10) {
+            Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(KEY)).isEqualTo(hedera)
+            Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(OTHER_KEY)).isNull()
+        }
+
+        Truth.assertThat(storage.readsCount).isEqualTo(2)
+    }
+
+    @Test
+    fun flushWritesRemovals() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        AdvancedDataStorage(storage).store(KEY, hedera)
+        val dataStorage = AdvancedDataStorage(storage, writeBackScope = backgroundScope)
+
+        dataStorage.remove(KEY)
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(KEY)).isNull()
+        Truth.assertThat(storage.values).containsKey(KEY)
+
+        dataStorage.flush()
+
+        Truth.assertThat(storage.values).doesNotContainKey(KEY)
+    }
+
+    @Test
+    fun failedFlushKeepsChangesForNextFlush() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        val dataStorage = AdvancedDataStorage(storage, writeBackScope = backgroundScope)
+        dataStorage.store(KEY, hedera)
+
+        storage.isFailing = true
+        advanceTimeBy(FLUSH_DELAY_MILLIS + 1)
+        runCurrent()
+        Truth.assertThat(storage.values).doesNotContainKey(KEY)
+
+        storage.isFailing = false
+        dataStorage.flush()
+
+        Truth.assertThat(AdvancedDataStorage(storage).getOrNull<BlockchainSavedData.Hedera>(KEY)).isEqualTo(hedera)
+    }
+
+    @Test
+    fun cacheEvictsOnlyWrittenValues() = runTest {
+        val storage = CountingBlockchainDataStorage()
+        val dataStorage = AdvancedDataStorage(storage, writeBackScope = backgroundScope, maxCacheSize = 2)
+
+        repeat(3) { index -> dataStorage.store("$KEY$index", BlockchainSavedData.QuaiDerivationIndex(index)) }
+        dataStorage.flush()
+        repeat(3) { index -> dataStorage.getOrNull<BlockchainSavedData.QuaiDerivationIndex>("$KEY$index") }
+        Truth.assertThat(storage.readsCount).isEqualTo(0)
+
+        dataStorage.store(OTHER_KEY, hedera)
+        repeat(3) { index -> dataStorage.getOrNull<BlockchainSavedData.QuaiDerivationIndex>("$KEY$index") }
+
+        Truth.assertThat(storage.readsCount).isEqualTo(3)
+        Truth.assertThat(dataStorage.getOrNull<BlockchainSavedData.Hedera>(OTHER_KEY)).isEqualTo(hedera)
+    }
+
+    private class CountingBlockchainDataStorage : BlockchainDataStorage {
+        val values = linkedMapOf<String, String>()
+        var readsCount = 0
+        var writesCount = 0
+        var isFailing = false
+
+        override suspend fun getOrNull(key: String): String? {
+            readsCount++
+            return values[key]
+        }
+
+        override suspend fun store(key: String, value: String) {
+            if (isFailing) throw IOException("Storage is not available")
+            writesCount++
+            values[key] = value
+        }
+
+        override suspend fun remove(key: String) {
+            writesCount++
+            values.remove(key)
+        }
+    }
+
+    private companion object {
+        const val KEY = "key"
+        const val OTHER_KEY = "other_key"
+        const val FLUSH_DELAY_MILLIS = 200L
+    }
+}
@@ -0,0 +1,150 @@
+package com.tangem.blockchain.common.transaction
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.extensions.Result
+import org.junit.Test
+import java.math.BigDecimal
+import kotlin.random.Random
+
+class UTXOCoinSelectorTest {
+
+    private val selector = UTXOCoinSelector()
+
+    @Test
+    fun branchAndBoundFindsChangelessSelection() {
+        val values = longArrayOf(500, 300, 200, 1_000, 700)
+
+        val selection = selector.select(values, target = 1_200, minChange = 50)!!
+
+        Truth.assertThat(selection.total).isEqualTo(1_200L)
+        Truth.assertThat(selection.isChangeless).isTrue()
+        Truth.assertThat(selection.waste).isEqualTo(0L)
+        // 1000 + 200 is preferred to 700 + 500 and 700 + 300 + 200 because of fewer inputs and larger UTXO
+        Truth.assertThat(selection.indices.toList()).containsExactly(3, 2).inOrder()
+    }
+
+    @Test
+    fun changeIsNeverLessThanMinimum() {
+        val values = longArrayOf(100_100, 200_000)
+
+        val selection = UTXOCoinSelector(costPerInput = 68, costOfChange = 99)
+            .select(values, target = 100_000, minChange = 546)!!
+
+        // 100100 leaves 100 of change, which is below the minimum and would be sent back as a dust output
+        Truth.assertThat(selection.indices.toList()).containsExactly(1)
+        Truth.assertThat(selection.isChangeless).isFalse()
+        Truth.assertThat(selection.waste).isEqualTo(68L + 99L)
+    }
+
+    @Test
+    fun changelessSelectionIsPreferredIfCheaperThanChange() {
+        val values = longArrayOf(2_000, 300, 300, 300, 100)
+
+        val withCheapChange = UTXOCoinSelector(costPerInput = 50, costOfChange = 100).select(values, target = 1_000)!!
+        val withCostlyChange = UTXOCoinSelector(costPerInput = 50, costOfChange = 500).select(values, target = 1_000)!!
+
+        // a single input with change wastes 150 or 550, four inputs covering the target exactly waste 200
+        Truth.assertThat(withCheapChange.indices.toList()).containsExactly(0)
+        Truth.assertThat(withCheapChange.isChangeless).isFalse()
+        Truth.assertThat(withCostlyChange.indices.toList()).containsExactly(1, 2, 3, 4).inOrder()
+        Truth.assertThat(withCostlyChange.isChangeless).isTrue()
+        Truth.assertThat(withCostlyChange.waste).isEqualTo(200L)
+    }
+
+    @Test
+    fun knapsackKeepsChangeAboveMinimum() {
+        val values = longArrayOf(110, 410, 210, 1_210, 1_010, 310)
+
+        val selection = selector.select(values, target = 1_209, minChange = 5)!!
+
+        Truth.assertThat(selection.isChangeless).isFalse()
+        Truth.assertThat(selection.total - 1_209).isAtLeast(5L)
+        // 1210 leaves change less than 5, so it is topped up with the smallest UTXO
+        Truth.assertThat(selection.indices.toList()).containsExactly(3, 0).inOrder()
+    }
+
+    @Test
+    fun knapsackPrefersSmallestSufficientUtxo() {
+        val values = longArrayOf(5_000, 40, 30, 20)
+
+        val selection = selector.select(values, target = 100, minChange = 10)!!
+
+        Truth.assertThat(selection.indices.toList()).containsExactly(0)
+    }
+
+    @Test
+    fun singleLargeUtxoIsPreferredToManyDustUtxosWithProductionDefaults() {
+        // 300 dust UTXOs cover the target exactly, the large one leaves change
+        val amounts = List(size = 500) { BigDecimal("0.00001") } + BigDecimal("0.01")
+
+        val indices = selectUTXOIndices(amounts, amount = BigDecimal("0.003"), dustValue = BigDecimal("0.00000546"))
+
+        Truth.assertThat((indices as Result.Success).data).containsExactly(500)
+    }
+
+    @Test
+    fun singleLargeUtxoIsPreferredToManyDustUtxosAtFeeRate() {
+        val feeRate = 10L
+        val values = LongArray(size = 501) { if (it == 0) 1_000_000 else 2_000 }
+
+        val selection = UTXOCoinSelector(costPerInput = 68 * feeRate, costOfChange = (31 + 68) * feeRate)
+            .select(values, target = 300_000, minChange = 546)!!
+
+        Truth.assertThat(selection.indices.toList()).containsExactly(0)
+        Truth.assertThat(selection.isChangeless).isFalse()
+    }
+
+    @Test
+    fun returnsNullIfOnlyDustChangeIsPossible() {
+        val values = longArrayOf(600, 500)
+
+        Truth.assertThat(selector.select(values, target = 1_095, minChange = 10)).isNull()
+    }
+
+    @Test
+    fun returnsNullIfInsufficient() {
+        Truth.assertThat(selector.select(longArrayOf(1, 2, 3), target = 7)).isNull()
+    }
+
+    @Test
+    fun selectionIsDeterministic() {
+        val values = randomValues(count = 1_000, random = Random(1))
+
+        val first = selector.select(values, target = values.sum() / 3, minChange = 546)!!
+        val second = UTXOCoinSelector().select(values.copyOf(), target = values.sum() / 3, minChange = 546)!!
+
+        Truth.assertThat(first.indices.toList()).isEqualTo(second.indices.toList())
+    }
+
+    @Test(timeout = 10_000)
+    fun selectsFromTenThousandUtxos() {
+        checkLargeSet(count = 10_000)
+    }
+
+    @Test(timeout = 20_000)
+    fun selectsFromHundredThousandUtxos() {
+        checkLargeSet(count = 100_000)
+    }
+
+    private fun checkLargeSet(count: Int) {
+        val random = Random(count)
+        val values = randomValues(count, random)
+        val minChange = 546L
+
+        repeat(10) {
+            val target = random.nextLong(from = 10_000, until = values.sum() / 2)
+            val selection = UTXOCoinSelector(costPerInput = 68 * 10, costOfChange = 31 * 10)
+                .select(values, target, minChange)!!
+
+            val change = selection.total - target
+            Truth.assertThat(change).isAtLeast(0L)
+            if (change != 0L) Truth.assertThat(change).isAtLeast(minChange)
+            Truth.assertThat(selection.isChangeless).isEqualTo(change == 0L)
+            Truth.assertThat(selection.indices.distinct()).hasSize(selection.indices.size)
+        }
+    }
+
+    private fun randomValues(count: Int, random: Random): LongArray {
+        return LongArray(count) { random.nextLong(from = 1_000, until = 10_000_000) }
+    }
+}
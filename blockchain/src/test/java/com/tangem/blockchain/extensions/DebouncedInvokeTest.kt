@@ -0,0 +1,103 @@
+package com.tangem.blockchain.extensions
+
+import com.google.common.truth.Truth
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+
+class DebouncedInvokeTest {
+
+    private var invocationsCount = 0
+
+    @Test
+    fun concurrentCallsShareSingleInvocation() = runTest {
+        val debouncedInvoke = DebouncedInvoke(clock = { testScheduler.currentTime })
+
+        List(size = 5) { async { debouncedInvoke.invokeOnExpire(block = ::update) } }.awaitAll()
+
+        Truth.assertThat(invocationsCount).isEqualTo(1)
+        Truth.assertThat(currentTime).isEqualTo(UPDATE_DELAY_MILLIS)
+    }
+
+    @Test
+    fun exceptionIsSharedWithConcurrentCalls() = runTest {
+        val debouncedInvoke = DebouncedInvoke(clock = { testScheduler.currentTime })
+
+        val results = List(size = 3) {
+            async {
+                runCatching {
+                    debouncedInvoke.invokeOnExpire {
+                        update()
+                        error("update failed")
+                    }
+                }
+            }
+        }.awaitAll()
+
+        Truth.assertThat(invocationsCount).isEqualTo(1)
+        results.forEach { result ->
+            Truth.assertThat(result.exceptionOrNull()).isInstanceOf(IllegalStateException::class.java)
+            Truth.assertThat(result.exceptionOrNull()).hasMessageThat().isEqualTo("update failed")
+        }
+    }
+
+    @Test
+    fun forcedCallsDuringInvocationQueueSingleFollowUp() = runTest {
+        val debouncedInvoke = DebouncedInvoke(clock = { testScheduler.currentTime })
+
+        val first = async { debouncedInvoke.invokeOnExpire(block = ::update) }
+        delay(timeMillis = 10)
+        val forced = List(size = 3) { async { debouncedInvoke.invokeOnExpire(forceUpdate = true, block = ::update) } }
+        (forced + first).awaitAll()
+
+        Truth.assertThat(invocationsCount).isEqualTo(2)
+        Truth.assertThat(currentTime).isEqualTo(2 * UPDATE_DELAY_MILLIS)
+    }
+
+    @Test
+    fun callsWithinIntervalAreDebounced() = runTest {
+        val debouncedInvoke = DebouncedInvoke(
+            invokeIntervalMillis = INTERVAL_MILLIS,
+            clock = { testScheduler.currentTime },
+        )
+        val exception = IllegalStateException("update failed")
+
+        val first = runCatching { debouncedInvoke.invokeOnExpire { throw exception } }
+        val second = runCatching { debouncedInvoke.invokeOnExpire(block = ::update) }
+        Truth.assertThat(first.exceptionOrNull()).isSameInstanceAs(exception)
+        Truth.assertThat(second.exceptionOrNull()).isSameInstanceAs(exception)
+        Truth.assertThat(invocationsCount).isEqualTo(0)
+
+        delay(INTERVAL_MILLIS)
+        debouncedInvoke.invokeOnExpire(block = ::update)
+        debouncedInvoke.invokeOnExpire(block = ::update)
+        Truth.assertThat(invocationsCount).isEqualTo(1)
+    }
+
+    @Test
+    fun callsJoiningCancelledInvocationInvokeAgain() = runTest {
+        val debouncedInvoke = DebouncedInvoke(clock = { testScheduler.currentTime })
+
+        val cancelled = launch { debouncedInvoke.invokeOnExpire(block = ::update) }
+        delay(timeMillis = 10)
+        val joined = async { debouncedInvoke.invokeOnExpire(block = ::update) }
+        delay(timeMillis = 10)
+        cancelled.cancel()
+        joined.await()
+
+        Truth.assertThat(invocationsCount).isEqualTo(2)
+    }
+
+    private suspend fun update() {
+        invocationsCount++
+        delay(UPDATE_DELAY_MILLIS)
+    }
+
+    private companion object {
+        const val UPDATE_DELAY_MILLIS = 100L
+        const val INTERVAL_MILLIS = 10_000L
+    }
+}
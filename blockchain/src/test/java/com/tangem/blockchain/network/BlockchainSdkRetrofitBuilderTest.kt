@@ -0,0 +1,133 @@
+package com.tangem.blockchain.network
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.common.Blockchain
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.ResponseBody
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.junit.After
+import org.junit.Test
+import retrofit2.Call
+import retrofit2.http.GET
+
+internal class BlockchainSdkRetrofitBuilderTest {
+
+    private val headerInterceptor = Interceptor { chain -> chain.proceed(chain.request()) }
+
+    @Test
+    fun providersShareConnectionPoolAndDispatcher() {
+        val threadsBefore = Thread.activeCount()
+
+        val clients = Blockchain.entries.flatMap { blockchain ->
+            List(PROVIDERS_PER_BLOCKCHAIN) { index ->
+                createRetrofitInstance(
+                    baseUrl = "https://provider-${blockchain.ordinal}-$index.example.com/",
+                    headerInterceptors = listOf(headerInterceptor),
+                ).callFactory() as OkHttpClient
+            }
+        }
+
+        val sharedClient = BlockchainSdkRetrofitBuilder.sharedClient
+        Truth.assertThat(clients.map { it.connectionPool }.distinct()).containsExactly(sharedClient.connectionPool)
+        Truth.assertThat(clients.map { it.dispatcher }.distinct()).containsExactly(sharedClient.dispatcher)
+        Truth.assertThat(sharedClient.connectionPool.connectionCount()).isEqualTo(0)
+        Truth.assertThat(Thread.activeCount() - threadsBefore).isAtMost(MAX_NEW_THREADS)
+        println("Created ${clients.size} clients, live threads: $threadsBefore -> ${Thread.activeCount()}")
+    }
+
+    @Test
+    fun interceptorsAreLayeredPerProvider() {
+        val withInterceptor = BlockchainSdkRetrofitBuilder.build(listOf(headerInterceptor))
+        val withoutInterceptor = BlockchainSdkRetrofitBuilder.build()
+
+        Truth.assertThat(withInterceptor.interceptors).contains(headerInterceptor)
+        Truth.assertThat(withoutInterceptor.interceptors).doesNotContain(headerInterceptor)
+        Truth.assertThat(BlockchainSdkRetrofitBuilder.sharedClient.interceptors).isEmpty()
+    }
+
+    @Test
+    fun dispatcherUsesConfiguredLimits() {
+        val config = HttpClientConfig.default()
+        val dispatcher = BlockchainSdkRetrofitBuilder.sharedClient.dispatcher
+
+        Truth.assertThat(dispatcher.maxRequests).isEqualTo(config.maxRequests)
+        Truth.assertThat(dispatcher.maxRequestsPerHost).isEqualTo(config.maxRequestsPerHost)
+        Truth.assertThat(BlockchainSdkRetrofitBuilder.sharedClient.protocols).isEqualTo(config.protocols)
+    }
+
+    @Test
+    fun requestGoesThroughProviderInterceptorsWithConfiguredTimeouts() {
+        BlockchainSdkRetrofitBuilder.timeoutConfig = TimeoutConfig.default()
+        val recorder = RecordingInterceptor()
+        val api = createRetrofitInstance(
+            baseUrl = "https://provider.example.com/",
+            headerInterceptors = listOf(
+                Interceptor { chain ->
+                    chain.proceed(chain.request().newBuilder().header(HEADER_NAME, HEADER_VALUE).build())
+                },
+                recorder,
+            ),
+        ).create(TestApi::class.java)
+
+        val response = api.get().execute()
+
+        val timeouts = TimeoutConfig.default()
+        Truth.assertThat(response.isSuccessful).isTrue()
+        Truth.assertThat(recorder.request?.url.toString()).isEqualTo("https://provider.example.com/status")
+        Truth.assertThat(recorder.request?.header(HEADER_NAME)).isEqualTo(HEADER_VALUE)
+        Truth.assertThat(recorder.callTimeoutNanos).isEqualTo(timeouts.call.unit.toNanos(timeouts.call.time))
+        Truth.assertThat(recorder.connectTimeoutMillis).isEqualTo(timeouts.connect.unit.toMillis(timeouts.connect.time))
+        Truth.assertThat(recorder.readTimeoutMillis).isEqualTo(timeouts.read.unit.toMillis(timeouts.read.time))
+        Truth.assertThat(recorder.writeTimeoutMillis).isEqualTo(timeouts.write.unit.toMillis(timeouts.write.time))
+        Truth.assertThat(recorder.runningCallsOfSharedDispatcher).isEqualTo(1)
+        Truth.assertThat(BlockchainSdkRetrofitBuilder.sharedClient.dispatcher.runningCallsCount()).isEqualTo(0)
+    }
+
+    @After
+    fun tearDown() {
+        BlockchainSdkRetrofitBuilder.timeoutConfig = null
+    }
+
+    private interface TestApi {
+        @GET("status")
+        fun get(): Call<ResponseBody>
+    }
+
+    /** Records the request and the settings of its call and answers it without network */
+    private class RecordingInterceptor : Interceptor {
+        var request: Request? = null
+        var callTimeoutNanos = 0L
+        var connectTimeoutMillis = 0L
+        var readTimeoutMillis = 0L
+        var writeTimeoutMillis = 0L
+        var runningCallsOfSharedDispatcher = 0
+
+        override fun intercept(chain: Interceptor.Chain): Response {
+            request = chain.request()
+            callTimeoutNanos = chain.call().timeout().timeoutNanos()
+            connectTimeoutMillis = chain.connectTimeoutMillis().toLong()
+            readTimeoutMillis = chain.readTimeoutMillis().toLong()
+            writeTimeoutMillis = chain.writeTimeoutMillis().toLong()
+            runningCallsOfSharedDispatcher = BlockchainSdkRetrofitBuilder.sharedClient.dispatcher.runningCallsCount()
+
+            return Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body("{}".toResponseBody())
+                .build()
+        }
+    }
+
+    private companion object {
+        const val HEADER_NAME = "X-Test-Header"
+        const val HEADER_VALUE = "value"
+        const val PROVIDERS_PER_BLOCKCHAIN = 3
+        const val MAX_NEW_THREADS = 2
+    }
+}
@@ -0,0 +1,207 @@
+package com.tangem.blockchain.network
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.blockchains.ethereum.models.EthereumFeeHistoryResponse
+import com.tangem.blockchain.blockchains.ethereum.network.EthCallObject
+import com.tangem.blockchain.blockchains.ethereum.network.EthereumTransactionResponse
+import com.tangem.blockchain.blockchains.near.network.api.AccessKeyResult
+import com.tangem.blockchain.blockchains.near.network.api.GasPriceResult
+import com.tangem.blockchain.blockchains.near.network.api.NetworkStatusResult
+import com.tangem.blockchain.blockchains.near.network.api.ProtocolConfigResult
+import com.tangem.blockchain.blockchains.near.network.api.TransactionStatusResult
+import com.tangem.blockchain.blockchains.near.network.api.ViewAccountResult
+import com.tangem.blockchain.blockchains.ton.network.TonGetFeeResponse
+import com.tangem.blockchain.blockchains.ton.network.TonGetWalletInfoResponse
+import com.tangem.blockchain.blockchains.ton.network.TonRunGetMethodResponse
+import com.tangem.blockchain.blockchains.ton.network.TonSendBocResponse
+import com.tangem.blockchain.common.JsonRPCRequest
+import com.tangem.blockchain.network.blockbook.network.responses.GetAddressResponse
+import com.tangem.blockchain.network.blockbook.network.responses.GetFeeResponse
+import com.tangem.blockchain.network.blockbook.network.responses.GetFeesResponse
+import com.tangem.blockchain.network.blockbook.network.responses.GetXpubResponse
+import com.tangem.blockchain.network.blockbook.network.responses.SendTransactionResponse
+import com.tangem.blockchain.network.electrum.api.ElectrumResponse
+import org.junit.Test
+import retrofit2.http.Body
+import retrofit2.http.DELETE
+import retrofit2.http.GET
+import retrofit2.http.HEAD
+import retrofit2.http.HTTP
+import retrofit2.http.PATCH
+import retrofit2.http.POST
+import retrofit2.http.PUT
+import java.io.File
+import java.lang.reflect.GenericArrayType
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+import java.lang.reflect.ParameterizedType
+import java.lang.reflect.Type
+import java.lang.reflect.TypeVariable
+import java.lang.reflect.WildcardType
+import java.net.JarURLConnection
+import kotlin.coroutines.Continuation
+
+/**
+ * Guards the shared [moshi] from resolving network models through the reflective `KotlinJsonAdapterFactory`.
+ *
+ * Models are collected from request bodies and responses of all Retrofit APIs of the module, models parsed by
+ * OkHttp-based APIs are listed in [DIRECT_MODELS]. Every Kotlin model reachable from them must have a generated
+ * adapter or a registered one.
+ */
+class GeneratedJsonAdaptersTest {
+
+    @Test
+    fun networkModelsDontUseReflectiveAdapters() {
+        val apis = mainClasses().filter { it.isInterface && it.declaredMethods.any(::isHttpMethod) }
+        val roots = apis.flatMap { api -> api.declaredMethods.filter(::isHttpMethod).flatMap(::modelTypes) }
+
+        val reflectiveModels = collectModels(roots + DIRECT_MODELS)
+            .filter { type -> moshi.adapter<Any>(type).toString().contains(REFLECTIVE_ADAPTER_NAME) }
+            .map(Type::getTypeName)
+
+        Truth.assertThat(apis).isNotEmpty()
+        Truth.assertWithMessage("Models without @JsonClass(generateAdapter = true)")
+            .that(reflectiveModels)
+            .isEmpty()
+    }
+
+    private fun mainClasses(): List<Class<*>> {
+        val markerPath = JsonRPCRequest::class.java.name.replace('.', '/') + ".class"
+        val markerUrl = requireNotNull(javaClass.classLoader?.getResource(markerPath))
+
+        val classNames = when (markerUrl.protocol) {
+            "jar" -> (markerUrl.openConnection() as JarURLConnection).jarFile.entries().asSequence()
+                .map { it.name }
+                .toList()
+            else -> {
+                val root = File(File(markerUrl.toURI()).path.removeSuffix(markerPath.replace('/', File.separatorChar)))
+                root.walk()
+                    .filter(File::isFile)
+                    .map { it.relativeTo(root).invariantSeparatorsPath }
+                    .toList()
+            }
+        }
+
+        return classNames
+            .filter { it.startsWith(PACKAGE_PATH) && it.endsWith(".class") }
+            .mapNotNull { path ->
+                val name = path.removeSuffix(".class").replace('/', '.')
+                runCatching { Class.forName(name, false, javaClass.classLoader) }.getOrNull()
+            }
+    }
+
+    private fun isHttpMethod(method: Method): Boolean {
+        return method.annotations.any { it.annotationClass.java in HTTP_ANNOTATIONS }
+    }
+
+    /** Response type, unwrapped from the continuation of suspend functions, and request body types */
+    private fun modelTypes(method: Method): List<Type> {
+        val parameterTypes = method.genericParameterTypes
+        val continuation = parameterTypes.lastOrNull() as? ParameterizedType
+        val responseType = if (continuation?.rawType == Continuation::class.java) {
+            continuation.actualTypeArguments.single()
+        } else {
+            method.genericReturnType
+        }
+
+        val bodyTypes = parameterTypes.filterIndexed { index, _ ->
+            method.parameterAnnotations[index].any { it is Body }
+        }
+
+        return bodyTypes + responseType
+    }
+
+    private fun collectModels(roots: List<Type>): Set<Type> {
+        val models = linkedSetOf<Type>()
+        val visited = hashSetOf<Type>()
+        val queue = ArrayDeque(roots)
+
+        while (queue.isNotEmpty()) {
+            val type = queue.removeFirst()
+            if (!visited.add(type)) continue
+
+            when (type) {
+                is ParameterizedType -> {
+                    val rawType = type.rawType as Class<*>
+                    if (isModel(rawType) && type.actualTypeArguments.none(::hasTypeVariable)) models += type
+                    queue += type.actualTypeArguments
+                    queue += rawType
+                }
+                is WildcardType -> queue += type.upperBounds + type.lowerBounds
+                is GenericArrayType -> queue += type.genericComponentType
+                is Class<*> -> when {
+                    type.isArray -> queue += type.componentType
+                    isModel(type) -> {
+                        if (type.typeParameters.isEmpty()) models += type
+                        queue += type.declaredFields
+                            .filterNot { Modifier.isStatic(it.modifiers) || Modifier.isTransient(it.modifiers) }
+                            .map { it.genericType }
+                    }
+                }
+            }
+        }
+
+        return models
+    }
+
+    private fun isModel(type: Class<*>): Boolean {
+        return type.name.startsWith(PACKAGE_NAME) &&
+            type.isAnnotationPresent(Metadata::class.java) &&
+            !type.isEnum &&
+            !type.isInterface &&
+            !Modifier.isAbstract(type.modifiers)
+    }
+
+    private fun hasTypeVariable(type: Type): Boolean {
+        return when (type) {
+            is TypeVariable<*> -> true
+            is ParameterizedType -> type.actualTypeArguments.any(::hasTypeVariable)
+            is WildcardType -> (type.upperBounds + type.lowerBounds).any(::hasTypeVariable)
+            is GenericArrayType -> hasTypeVariable(type.genericComponentType)
+            else -> false
+        }
+    }
+
+    private companion object {
+        const val PACKAGE_NAME = "com.tangem.blockchain"
+        const val PACKAGE_PATH = "com/tangem/blockchain/"
+        const val REFLECTIVE_ADAPTER_NAME = "KotlinJsonAdapter"
+
+        val HTTP_ANNOTATIONS = setOf(
+            GET::class.java,
+            POST::class.java,
+            PUT::class.java,
+            PATCH::class.java,
+            DELETE::class.java,
+            HEAD::class.java,
+            HTTP::class.java,
+        )
+
+        /** Models serialized by the shared [moshi] outside of Retrofit */
+        val DIRECT_MODELS: List<Type> = listOf(
+            EthCallObject::class.java,
+            EthereumFeeHistoryResponse::class.java,
+            EthereumTransactionResponse::class.java,
+            GetAddressResponse::class.java,
+            GetXpubResponse::class.java,
+            GetFeeResponse::class.java,
+            GetFeesResponse::class.java,
+            SendTransactionResponse::class.java,
+            ElectrumResponse.BlockTip::class.java,
+            ElectrumResponse.Balance::class.java,
+            ElectrumResponse.TxHistoryEntry::class.java,
+            ElectrumResponse.UnspentUTXORecord::class.java,
+            ElectrumResponse.Transaction::class.java,
+            AccessKeyResult::class.java,
+            GasPriceResult::class.java,
+            NetworkStatusResult::class.java,
+            ProtocolConfigResult::class.java,
+            TransactionStatusResult::class.java,
+            ViewAccountResult::class.java,
+            TonGetFeeResponse::class.java,
+            TonGetWalletInfoResponse::class.java,
+            TonRunGetMethodResponse::class.java,
+            TonSendBocResponse::class.java,
+        )
+    }
+}
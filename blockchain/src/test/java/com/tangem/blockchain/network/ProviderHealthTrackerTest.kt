@@ -0,0 +1,119 @@
+package com.tangem.blockchain.network
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.BlockchainSdkError
+import com.tangem.blockchain.common.NetworkProvider
+import com.tangem.blockchain.extensions.Result
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+import java.io.IOException
+
+internal class ProviderHealthTrackerTest {
+
+    private var now = 1_000_000L
+    private val tracker = ProviderHealthTracker(clock = { now })
+
+    @Test
+    fun freshHostsKeepConfiguredOrder() {
+        val providers = listOf(FakeProvider("a"), FakeProvider("b"))
+
+        Truth.assertThat(tracker.selectBest(providers).baseUrl).isEqualTo("a")
+    }
+
+    @Test
+    fun slowHostLosesToFastHost() {
+        repeat(5) { tracker.onSuccess("slow", latencyMillis = 3_000) }
+        repeat(5) { tracker.onSuccess("fast", latencyMillis = 100) }
+
+        val best = tracker.selectBest(listOf(FakeProvider("slow"), FakeProvider("fast")))
+
+        Truth.assertThat(best.baseUrl).isEqualTo("fast")
+    }
+
+    @Test
+    fun failingHostGoesToCooldownAndIsProbedAfterIt() {
+        val providers = listOf(FakeProvider("a"), FakeProvider("b"))
+        repeat(2) { tracker.onFailure("a", latencyMillis = 100) }
+
+        Truth.assertThat(tracker.isAvailable("a")).isFalse()
+        Truth.assertThat(tracker.selectBest(providers).baseUrl).isEqualTo("b")
+
+        now += 60_000
+        Truth.assertThat(tracker.isAvailable("a")).isTrue()
+        Truth.assertThat(tracker.selectBest(listOf(FakeProvider("a"))).baseUrl).isEqualTo("a")
+        // only one probe request is let through a half-open host
+        Truth.assertThat(tracker.isAvailable("a")).isFalse()
+
+        tracker.onSuccess("a", latencyMillis = 100)
+        Truth.assertThat(tracker.isAvailable("a")).isTrue()
+    }
+
+    @Test
+    fun failedProbeDoublesCooldown() {
+        repeat(2) { tracker.onFailure("a", latencyMillis = 100) }
+        now += 15_000
+        tracker.selectBest(listOf(FakeProvider("a")))
+        tracker.onFailure("a", latencyMillis = 100)
+
+        now += 15_000
+        Truth.assertThat(tracker.isAvailable("a")).isFalse()
+        now += 15_000
+        Truth.assertThat(tracker.isAvailable("a")).isTrue()
+    }
+
+    @Test
+    fun errorPenaltyFadesOut() {
+        tracker.onFailure("a", latencyMillis = 100)
+        val penalized = tracker.score("a")
+
+        now += 10 * 60_000
+        Truth.assertThat(tracker.score("a")).isLessThan(penalized)
+    }
+
+    @Test
+    fun multiNetworkProviderRoutesToBestHost() = runTest {
+        val slow = FakeProvider("slow", latencyMillis = 2_000)
+        val fast = FakeProvider("fast", latencyMillis = 50)
+        val multiProvider = MultiNetworkProvider(listOf(slow, fast), Blockchain.Ethereum, tracker)
+
+        repeat(10) { multiProvider.performRequest(FakeProvider::load) }
+
+        Truth.assertThat(slow.requests).isEqualTo(1)
+        Truth.assertThat(fast.requests).isEqualTo(9)
+        Truth.assertThat(multiProvider.currentProvider).isEqualTo(fast)
+    }
+
+    @Test
+    fun multiNetworkProviderSkipsHostInCooldown() = runTest {
+        val broken = FakeProvider("broken", isFailing = true)
+        val healthy = FakeProvider("healthy")
+        val multiProvider = MultiNetworkProvider(listOf(broken, healthy), Blockchain.Ethereum, tracker)
+
+        repeat(10) {
+            val result = multiProvider.performRequest(FakeProvider::load)
+            Truth.assertThat(result).isInstanceOf(Result.Success::class.java)
+        }
+
+        Truth.assertThat(broken.requests).isEqualTo(1)
+        Truth.assertThat(healthy.requests).isEqualTo(10)
+    }
+
+    private inner class FakeProvider(
+        override val baseUrl: String,
+        private val latencyMillis: Long = 100,
+        private val isFailing: Boolean = false,
+    ) : NetworkProvider {
+        var requests = 0
+
+        suspend fun load(): Result<String> {
+            requests++
+            now += latencyMillis
+            return if (isFailing) {
+                Result.Failure(BlockchainSdkError.WrappedThrowable(IOException("timeout")))
+            } else {
+                Result.Success(baseUrl)
+            }
+        }
+    }
+}
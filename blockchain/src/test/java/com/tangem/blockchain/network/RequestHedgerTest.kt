@@ -0,0 +1,175 @@
+package com.tangem.blockchain.network
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.BlockchainSdkError
+import com.tangem.blockchain.common.NetworkProvider
+import com.tangem.blockchain.extensions.Result
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+import java.io.IOException
+
+internal class RequestHedgerTest {
+
+    @Test
+    fun fastPrimaryIsNotHedged() = runTest {
+        val hedger = createHedger()
+        var backupCalls = 0
+
+        val result = hedger.hedge(
+            primary = { delay(100); "primary" },
+            backup = { backupCalls++; "backup" },
+            isSuccess = { true },
+        )
+
+        Truth.assertThat(result.value).isEqualTo("primary")
+        Truth.assertThat(backupCalls).isEqualTo(0)
+        Truth.assertThat(hedger.stats.hedged.get()).isEqualTo(0)
+    }
+
+    @Test
+    fun hungPrimaryLosesToBackup() = runTest {
+        val hedger = createHedger()
+        var isPrimaryCompleted = false
+
+        val result = hedger.hedge(
+            primary = {
+                delay(10_000)
+                isPrimaryCompleted = true
+                "primary"
+            },
+            backup = { delay(100); "backup" },
+            isSuccess = { true },
+        )
+
+        Truth.assertThat(result.value).isEqualTo("backup")
+        Truth.assertThat(result.isBackup).isTrue()
+        Truth.assertThat(currentTime).isEqualTo(3_100)
+        Truth.assertThat(isPrimaryCompleted).isFalse()
+        Truth.assertThat(hedger.stats.backupWins.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun hedgeDelayAdaptsToObservedLatency() = runTest {
+        val hedger = createHedger()
+        repeat(20) { index ->
+            hedger.hedge(primary = { delay(400L + index); "primary" }, backup = { "backup" }, isSuccess = { true })
+        }
+
+        Truth.assertThat(hedger.hedgeDelayMillis()).isIn(400L..419L)
+    }
+
+    @Test
+    fun failedBackupKeepsWaitingForPrimary() = runTest {
+        val hedger = createHedger()
+
+        val result = hedger.hedge(
+            primary = { delay(5_000); "primary" },
+            backup = { "failure" },
+            isSuccess = { it != "failure" },
+        )
+
+        Truth.assertThat(result.value).isEqualTo("primary")
+        Truth.assertThat(hedger.stats.backupWins.get()).isEqualTo(0)
+    }
+
+    @Test
+    fun multiNetworkProviderHedgesToNextProvider() = runTest {
+        val hung = FakeProvider("hung", latencyMillis = 10_000)
+        val healthy = FakeProvider("healthy", latencyMillis = 100)
+        val hedger = createHedger()
+        val multiProvider = MultiNetworkProvider(
+            providers = listOf(hung, healthy),
+            blockchain = Blockchain.Ethereum,
+            healthTracker = null,
+            requestHedger = hedger,
+        )
+
+        val result = multiProvider.performHedgedRequest(FakeProvider::load)
+
+        Truth.assertThat((result as Result.Success).data).isEqualTo("healthy")
+        Truth.assertThat(multiProvider.currentProvider).isEqualTo(healthy)
+        Truth.assertThat(multiProvider.hedgingStats?.backupWins?.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun bothFailedFallsBackToRegularFailover() = runTest {
+        val first = FakeProvider("first", latencyMillis = 5_000, isFailing = true)
+        val second = FakeProvider("second", latencyMillis = 5_000, isFailing = true)
+        val multiProvider = MultiNetworkProvider(
+            providers = listOf(first, second),
+            blockchain = Blockchain.Ethereum,
+            healthTracker = null,
+            requestHedger = createHedger(),
+        )
+
+        val result = multiProvider.performHedgedRequest(FakeProvider::load)
+
+        Truth.assertThat(result).isInstanceOf(Result.Failure::class.java)
+    }
+
+    @Test
+    fun bothFailedFallsBackToProvidersNotTriedYet() = runTest {
+        val first = FakeProvider("first", latencyMillis = 5_000, isFailing = true)
+        val second = FakeProvider("second", latencyMillis = 5_000, isFailing = true)
+        val third = FakeProvider("third", latencyMillis = 100)
+        val multiProvider = MultiNetworkProvider(
+            providers = listOf(first, second, third),
+            blockchain = Blockchain.Ethereum,
+            healthTracker = null,
+            requestHedger = createHedger(),
+        )
+
+        val result = multiProvider.performHedgedRequest(FakeProvider::load)
+
+        Truth.assertThat((result as Result.Success).data).isEqualTo("third")
+        Truth.assertThat(first.calls).isEqualTo(1)
+        Truth.assertThat(second.calls).isEqualTo(1)
+        Truth.assertThat(multiProvider.currentProvider).isEqualTo(third)
+    }
+
+    @Test
+    fun hedgedOutcomesAreReportedToHealthTracker() = runTest {
+        val first = FakeProvider("first", latencyMillis = 100, isFailing = true)
+        val second = FakeProvider("second", latencyMillis = 100)
+        val third = FakeProvider("third", latencyMillis = 100)
+        val tracker = ProviderHealthTracker(clock = { currentTime })
+        val multiProvider = MultiNetworkProvider(
+            providers = listOf(first, second, third),
+            blockchain = Blockchain.Ethereum,
+            healthTracker = tracker,
+            requestHedger = createHedger(),
+        )
+
+        val result = multiProvider.performHedgedRequest(FakeProvider::load)
+
+        Truth.assertThat((result as Result.Success).data).isEqualTo("second")
+        Truth.assertThat(first.calls).isEqualTo(1)
+        Truth.assertThat(tracker.score("first")).isGreaterThan(tracker.score("second"))
+        Truth.assertThat(tracker.score("second")).isLessThan(tracker.score("third"))
+    }
+
+    private fun TestScope.createHedger() = RequestHedger(clock = { currentTime })
+
+    private class FakeProvider(
+        override val baseUrl: String,
+        private val latencyMillis: Long,
+        private val isFailing: Boolean = false,
+    ) : NetworkProvider {
+
+        var calls = 0
+
+        suspend fun load(): Result<String> {
+            calls++
+            delay(latencyMillis)
+            return if (isFailing) {
+                Result.Failure(BlockchainSdkError.WrappedThrowable(IOException("timeout")))
+            } else {
+                Result.Success(baseUrl)
+            }
+        }
+    }
+}
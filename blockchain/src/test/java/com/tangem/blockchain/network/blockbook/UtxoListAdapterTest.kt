@@ -0,0 +1,57 @@
+package com.tangem.blockchain.network.blockbook
+
+import com.google.common.truth.Truth
+import com.squareup.moshi.adapter
+import com.tangem.blockchain.network.blockbook.network.UtxoListAdapter
+import com.tangem.blockchain.network.blockbook.network.responses.GetUtxoResponseItem
+import com.tangem.blockchain.network.moshi
+import okio.Buffer
+import org.junit.Test
+
+@OptIn(ExperimentalStdlibApi::class)
+class UtxoListAdapterTest {
+
+    private val json = buildString {
+        append('[')
+        repeat(ITEMS_COUNT) { index ->
+            if (index > 0) append(',')
+            append("""{"txid":"${index.toString(16).padStart(64, '0')}","vout":${index % 4},""")
+            append(""""value":"${index * 1000L}","height":${if (index % 3 == 0) null else 800_000 + index},""")
+            append(""""confirmations":${index % 3},"lockTime":$index,"coinbase":false,""")
+            append(""""address":"bc1qaddress$index","path":"m/84'/0'/0'/0/$index"}""")
+        }
+        append(']')
+    }
+
+    @Test
+    fun readsTheSameItemsAsGeneratedAdapter() {
+        val expected = moshi.adapter<List<GetUtxoResponseItem>>().fromJson(json)
+
+        val actual = UtxoListAdapter(minConfirmations = 0).fromJson(Buffer().writeUtf8(json))
+
+        Truth.assertThat(actual).containsExactlyElementsIn(expected).inOrder()
+    }
+
+    @Test
+    fun dropsUnconfirmedItemsWhileReading() {
+        val actual = requireNotNull(UtxoListAdapter(minConfirmations = 1).fromJson(Buffer().writeUtf8(json)))
+
+        Truth.assertThat(actual).hasSize(ITEMS_COUNT - ITEMS_COUNT / 3)
+        Truth.assertThat(actual.all { it.confirmations > 0 }).isTrue()
+    }
+
+    @Test
+    fun readsItemsWithoutOptionalFields() {
+        val actual = UtxoListAdapter(minConfirmations = 0)
+            .fromJson("""[{"txid":"ab","vout":1,"value":"5","height":null,"confirmations":2}]""")
+
+        Truth.assertThat(actual).containsExactly(
+            GetUtxoResponseItem(confirmations = 2, height = null, txid = "ab", value = "5", vout = 1),
+        )
+    }
+
+    private companion object {
+        // about 3 MB of JSON
+        const val ITEMS_COUNT = 15_000
+    }
+}
@@ -0,0 +1,178 @@
+package com.tangem.blockchain.network.jsonrpc
+
+import com.google.common.truth.Truth
+import com.tangem.blockchain.common.JsonRPCRequest
+import com.tangem.blockchain.common.JsonRPCRequestJsonAdapter
+import com.tangem.blockchain.network.moshi
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import kotlinx.coroutines.yield
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.WebSocket
+import okhttp3.WebSocketListener
+import okio.ByteString
+import org.junit.After
+import org.junit.Test
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.random.Random
+
+/**
+ * Load tests of [DefaultJsonRPCWebsocketService] against [FakeServerSocket] answering requests out of order from
+ * a thread pool, like a real server does.
+ */
+internal class DefaultJsonRPCWebsocketServiceTest {
+
+    private val serverExecutor = Executors.newScheduledThreadPool(4)
+    private val requestAdapter = JsonRPCRequestJsonAdapter(moshi)
+
+    @After
+    fun tearDown() {
+        serverExecutor.shutdownNow()
+    }
+
+    @Test
+    fun hundredsOfConcurrentCallsShareOneSocket() = runBlocking {
+        val server = FakeServerSocket()
+        val service = createService(server)
+
+        val responses = List(CALLS_COUNT) { index -> JsonRPCRequest(method = "method$index", params = null) }
+            .map { request -> async { request to service.call(request).getOrThrow() } }
+            .awaitAll()
+
+        responses.forEach { (request, response) ->
+            Truth.assertThat(response.id).isEqualTo(request.id)
+            Truth.assertThat(response.result).isEqualTo(request.method)
+        }
+        Truth.assertThat(server.connections.get()).isEqualTo(1)
+        Truth.assertThat(server.maxInFlight.get()).isAtMost(MAX_IN_FLIGHT_REQUESTS)
+    }
+
+    @Test
+    fun callsWithSameIdGetTheirOwnResponses() = runBlocking {
+        val service = createService(FakeServerSocket())
+
+        val responses = List(10) { index -> JsonRPCRequest(method = "method$index", params = null, id = "same") }
+            .map { request -> async { service.call(request).getOrThrow() } }
+            .awaitAll()
+
+        Truth.assertThat(responses.map { it.result }).isEqualTo(List(10) { index -> "method$index" })
+        Truth.assertThat(responses.map { it.id }.distinct()).containsExactly("same")
+    }
+
+    @Test
+    fun notificationsAreEmittedSeparately() = runBlocking {
+        val server = FakeServerSocket()
+        val service = createService(server)
+        service.connect(keepAlive = true)
+
+        val notification = async { service.notifications.first() }
+        yield()
+        server.notify("""{"jsonrpc":"2.0","method":"blockchain.scripthash.subscribe","params":["hash","status"]}""")
+
+        val received = withTimeout(TIMEOUT_MILLIS) { notification.await() }
+        Truth.assertThat(received.method).isEqualTo("blockchain.scripthash.subscribe")
+        Truth.assertThat(received.params).isEqualTo(listOf("hash", "status"))
+    }
+
+    @Test
+    fun pendingCallsFailWhenConnectionIsLost() = runBlocking {
+        val server = FakeServerSocket(isAnswering = false)
+        val service = createService(server)
+
+        val results = List(3) { index -> JsonRPCRequest(method = "method$index", params = null) }
+            .map { request -> async { service.call(request) } }
+        while (server.received.get() < 3) yield()
+        server.fail(RuntimeException("Connection reset"))
+
+        results.awaitAll().forEach { result ->
+            Truth.assertThat(result.exceptionOrNull()).hasMessageThat().isEqualTo("Connection reset")
+        }
+    }
+
+    private fun createService(server: FakeServerSocket): DefaultJsonRPCWebsocketService {
+        val okHttpClient = mockk<OkHttpClient> {
+            every { newWebSocket(any(), any()) } answers {
+                server.open(secondArg())
+                server
+            }
+        }
+
+        return DefaultJsonRPCWebsocketService(
+            wssUrl = "wss://localhost",
+            pingPongRequestFactory = { JsonRPCRequest(method = "server.ping", params = null, id = "keepAlive") },
+            okHttpClient = okHttpClient,
+        )
+    }
+
+    private inner class FakeServerSocket(private val isAnswering: Boolean = true) : WebSocket {
+
+        val connections = AtomicInteger()
+        val received = AtomicInteger()
+        val maxInFlight = AtomicInteger()
+        private val inFlight = AtomicInteger()
+        private lateinit var listener: WebSocketListener
+
+        fun open(listener: WebSocketListener) {
+            this.listener = listener
+            connections.incrementAndGet()
+            serverExecutor.execute { listener.onOpen(this, mockk<Response>()) }
+        }
+
+        fun notify(text: String) {
+            listener.onMessage(this, text)
+        }
+
+        fun fail(t: Throwable) {
+            listener.onFailure(this, t, null)
+        }
+
+        override fun send(text: String): Boolean {
+            val request = requireNotNull(requestAdapter.fromJson(text))
+            received.incrementAndGet()
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), ::maxOf)
+            if (!isAnswering) return true
+
+            serverExecutor.schedule(
+                {
+                    inFlight.decrementAndGet()
+                    listener.onMessage(
+                        this,
+                        """{"jsonrpc":"2.0","id":"${request.id}","result":"${request.method}"}""",
+                    )
+                },
+                Random.nextLong(MAX_RESPONSE_DELAY_MILLIS),
+                TimeUnit.MILLISECONDS,
+            )
+            return true
+        }
+
+        override fun send(bytes: ByteString): Boolean = false
+
+        override fun close(code: Int, reason: String?): Boolean {
+            serverExecutor.execute { listener.onClosed(this, code, reason.orEmpty()) }
+            return true
+        }
+
+        override fun cancel() = Unit
+
+        override fun queueSize(): Long = 0
+
+        override fun request(): Request = Request.Builder().url("wss://localhost").build()
+    }
+
+    private companion object {
+        const val CALLS_COUNT = 500
+        const val MAX_IN_FLIGHT_REQUESTS = 256
+        const val MAX_RESPONSE_DELAY_MILLIS = 20L
+        const val TIMEOUT_MILLIS = 5_000L
+    }
+}
@@ -0,0 +1,243 @@
+package com.tangem.blockchain.network.jsonrpc
+
+import com.google.common.truth.Truth
+import com.squareup.moshi.JsonDataException
+import com.squareup.moshi.Types
+import com.tangem.blockchain.common.JsonRPCRequest
+import com.tangem.blockchain.common.JsonRPCResponse
+import com.tangem.blockchain.network.moshi
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.awaitCancellation
+import kotlinx.coroutines.cancelAndJoin
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.withTimeout
+import kotlinx.coroutines.yield
+import okhttp3.ResponseBody.Companion.toResponseBody
+import org.junit.Test
+import retrofit2.HttpException
+import retrofit2.Response
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicInteger
+
+internal class JsonRPCBatcherTest {
+
+    private val singleRequests = AtomicInteger()
+    private val batchRequests = AtomicInteger()
+
+    @Test
+    fun concurrentRequestsAreSentAsOneBatch() = runBlocking {
+        val batcher = createBatcher(postBatch = { requests -> requests.reversed().map(::response) })
+
+        val responses = List(3) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+
+        Truth.assertThat(responses.map { it.result }).isEqualTo(listOf("method0", "method1", "method2"))
+        Truth.assertThat(batchRequests.get()).isEqualTo(1)
+        Truth.assertThat(singleRequests.get()).isEqualTo(0)
+    }
+
+    @Test
+    fun singleRequestIsNotBatched() = runBlocking {
+        val batcher = createBatcher(postBatch = { requests -> requests.map(::response) })
+
+        val response = batcher.call(request(batcher, "method"))
+
+        Truth.assertThat(response.result).isEqualTo("method")
+        Truth.assertThat(batchRequests.get()).isEqualTo(0)
+        Truth.assertThat(singleRequests.get()).isEqualTo(1)
+    }
+
+    @Test
+    fun batchIsLimitedByMaxSize() = runBlocking {
+        val batcher = createBatcher(postBatch = { requests -> requests.map(::response) }, maxBatchSize = 2)
+
+        List(4) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+
+        Truth.assertThat(batchRequests.get()).isEqualTo(2)
+    }
+
+    @Test
+    fun missingEntryFailsOnlyItsRequest() = runBlocking {
+        val batcher = createBatcher(postBatch = { requests -> requests.drop(1).map(::response) })
+
+        val results = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { runCatching { batcher.call(request) } } }
+            .awaitAll()
+
+        Truth.assertThat(results[0].exceptionOrNull()).isInstanceOf(IOException::class.java)
+        Truth.assertThat(results[1].getOrNull()?.result).isEqualTo("method1")
+    }
+
+    @Test
+    fun networkErrorFailsWholeBatch() = runBlocking {
+        val batcher = createBatcher(postBatch = { throw IOException("timeout") })
+
+        val results = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { runCatching { batcher.call(request) } } }
+            .awaitAll()
+
+        Truth.assertThat(results.map { it.exceptionOrNull() is IOException }).containsExactly(true, true)
+        Truth.assertThat(singleRequests.get()).isEqualTo(0)
+    }
+
+    @Test
+    fun unsupportedBatchFallsBackToSingleRequests() = runBlocking {
+        val batcher = createBatcher(postBatch = { throw JsonDataException("Expected BEGIN_ARRAY") })
+
+        val firstResponses = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+        val secondResponses = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+
+        Truth.assertThat((firstResponses + secondResponses).map { it.result })
+            .isEqualTo(listOf("method0", "method1", "method0", "method1"))
+        Truth.assertThat(batchRequests.get()).isEqualTo(1)
+        Truth.assertThat(singleRequests.get()).isEqualTo(4)
+    }
+
+    @Test
+    fun transientHttpErrorFailsBatchAndKeepsBatching() = runBlocking {
+        val batcher = createBatcher(
+            postBatch = { requests ->
+                if (batchRequests.get() == 1) throw httpException(code = 503) else requests.map(::response)
+            },
+        )
+
+        val failed = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { runCatching { batcher.call(request) } } }
+            .awaitAll()
+        val succeeded = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+
+        Truth.assertThat(failed.map { it.exceptionOrNull() is HttpException }).containsExactly(true, true)
+        Truth.assertThat(succeeded.map { it.result }).isEqualTo(listOf("method0", "method1"))
+        Truth.assertThat(batchRequests.get()).isEqualTo(2)
+        Truth.assertThat(singleRequests.get()).isEqualTo(0)
+    }
+
+    @Test
+    fun payloadTooLargeFallsBackToSingleRequests() = runBlocking {
+        val batcher = createBatcher(postBatch = { throw httpException(code = 413) })
+
+        val responses = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+
+        Truth.assertThat(responses.map { it.result }).isEqualTo(listOf("method0", "method1"))
+        Truth.assertThat(singleRequests.get()).isEqualTo(2)
+    }
+
+    @Test
+    fun invalidRequestErrorFallsBackToSingleRequests() = runBlocking {
+        val batcher = createBatcher(
+            postBatch = {
+                listOf(JsonRPCResponse("", "2.0", null, JsonRPCResponse.Error(-32600, "Invalid Request")))
+            },
+        )
+
+        val responses = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+
+        Truth.assertThat(responses.map { it.result }).isEqualTo(listOf("method0", "method1"))
+        Truth.assertThat(singleRequests.get()).isEqualTo(2)
+    }
+
+    @Test
+    fun invalidRequestErrorWithNullIdFallsBackToSingleRequests() = runBlocking {
+        val adapter = moshi.adapter<List<JsonRPCResponse>>(
+            Types.newParameterizedType(List::class.java, JsonRPCResponse::class.java),
+        )
+        val body = """[{"jsonrpc":"2.0","id":null,"error":{"code":-32600,"message":"Invalid Request"}}]"""
+        val batcher = createBatcher(postBatch = { adapter.fromJson(body)!! })
+
+        val responses = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+            .awaitAll()
+
+        Truth.assertThat(responses.map { it.result }).isEqualTo(listOf("method0", "method1"))
+        Truth.assertThat(singleRequests.get()).isEqualTo(2)
+    }
+
+    @Test
+    fun cancelledPendingCallIsRemovedFromBatch() = runBlocking {
+        val batchSizes = mutableListOf<Int>()
+        val batcher = createBatcher(
+            postBatch = { requests ->
+                batchSizes.add(requests.size)
+                requests.map(::response)
+            },
+        )
+
+        val calls = List(3) { index -> request(batcher, "method$index") }
+            .map { request -> async { batcher.call(request) } }
+        yield()
+        calls[0].cancelAndJoin()
+        calls.drop(1).awaitAll()
+
+        Truth.assertThat(batchSizes).containsExactly(2)
+    }
+
+    @Test
+    fun batchIsCancelledWhenAllCallersAreCancelled() = runBlocking {
+        val batchStarted = CompletableDeferred<Unit>()
+        val batchCancelled = CompletableDeferred<Unit>()
+        val batcher = createBatcher(
+            postBatch = {
+                batchStarted.complete(Unit)
+                try {
+                    awaitCancellation()
+                } finally {
+                    batchCancelled.complete(Unit)
+                }
+            },
+        )
+
+        val calls = List(2) { index -> request(batcher, "method$index") }
+            .map { request -> launch { batcher.call(request) } }
+        batchStarted.await()
+        calls.forEach { it.cancelAndJoin() }
+
+        withTimeout(timeMillis = 1_000) { batchCancelled.await() }
+    }
+
+    private fun httpException(code: Int) = HttpException(Response.error<Any>(code, "".toResponseBody()))
+
+    private fun createBatcher(
+        postBatch: suspend (List<JsonRPCRequest>) -> List<JsonRPCResponse>,
+        maxBatchSize: Int = 10,
+    ) = JsonRPCBatcher(
+        postSingle = { request ->
+            singleRequests.incrementAndGet()
+            response(request)
+        },
+        postBatch = { requests ->
+            batchRequests.incrementAndGet()
+            postBatch(requests)
+        },
+        windowMillis = 50,
+        maxBatchSize = maxBatchSize,
+    )
+
+    private fun request(batcher: JsonRPCBatcher, method: String) = JsonRPCRequest(
+        method = method,
+        params = emptyList<Any>(),
+        id = batcher.nextId(),
+    )
+
+    private fun response(request: JsonRPCRequest) = JsonRPCResponse(
+        id = request.id,
+        jsonRpc = "2.0",
+        result = request.method,
+        error = null,
+    )
+}
@@ -0,0 +1,170 @@
+package com.tangem.blockchain.pendingtransactions
+
+import com.google.common.truth.Truth.assertThat
+import com.tangem.blockchain.blockchains.ethereum.network.EthereumJsonRpcProvider
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.JsonRPCResponse
+import com.tangem.blockchain.common.Wallet
+import com.tangem.blockchain.common.datastorage.PendingTransaction
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.network.MultiNetworkProvider
+import com.tangem.blockchain.pendingtransactions.providers.EthereumPendingTransactionsProvider
+import io.mockk.coEvery
+import io.mockk.every
+import io.mockk.mockk
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.currentTime
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+
+internal class EthereumPendingTransactionsProviderTest {
+
+    private val pendingTransactions = mutableListOf<PendingTransaction>()
+    private val executedTransactions = mutableSetOf<String>()
+    private val requestedTransactions = mutableListOf<String>()
+    private var accountNonce = 0L
+
+    private val wallet = mockk<Wallet> {
+        every { blockchain } returns Blockchain.Ethereum
+        every { address } returns ADDRESS
+    }
+    private val storage = mockk<PendingTransactionStorage> {
+        coEvery { getTransactions() } answers { pendingTransactions.toList() }
+        coEvery { removeTransactions(any()) } answers {
+            val ids = firstArg<List<String>>().toSet()
+            pendingTransactions.removeAll { it.transactionId in ids }
+        }
+    }
+    private val jsonRpcProvider = mockk<EthereumJsonRpcProvider> {
+        every { baseUrl } returns "https://ethereum.mock"
+        coEvery { getTransactionByHash(any()) } coAnswers {
+            delay(LATENCY_MILLIS)
+            val hash = firstArg<String>()
+            requestedTransactions += hash
+            Result.Success(response(result = transactionJson(hash, isExecuted = hash in executedTransactions)))
+        }
+        coEvery { getTxCount(any()) } coAnswers { Result.Success(response(result = "0x${accountNonce.toString(16)}")) }
+    }
+
+    @Test
+    fun `GIVEN checked pending transaction WHEN check again THEN it is requested after its recheck interval`() =
+        runTest {
+            var time = MINUTE_MILLIS
+            val provider = createProvider { time }
+            addPendingTransaction(id = "0x01", sentAt = 0L)
+
+            provider.checkPendingTransactions()
+            time += SECOND_MILLIS
+            provider.checkPendingTransactions()
+            val requestsCountBeforeInterval = requestedTransactions.size
+            time += MINUTE_MILLIS / 2
+            provider.checkPendingTransactions()
+
+            assertThat(requestsCountBeforeInterval).isEqualTo(1)
+            assertThat(requestedTransactions).hasSize(2)
+        }
+
+    @Test
+    fun `GIVEN account nonce passed transaction nonce WHEN check THEN transaction is checked at once`() = runTest {
+        var time = MINUTE_MILLIS
+        val provider = createProvider { time }
+        addPendingTransaction(id = "0x05", sentAt = 0L)
+
+        val pendingStatuses = provider.checkPendingTransactions(accountNonce = 5L)
+        time += SECOND_MILLIS
+        executedTransactions += "0x05"
+        val notDueStatuses = provider.checkPendingTransactions(accountNonce = 5L)
+        val executedStatuses = provider.checkPendingTransactions(accountNonce = 6L)
+
+        assertThat(pendingStatuses).containsExactly("0x05", PendingTransactionStatus.Pending)
+        assertThat(notDueStatuses).containsExactly("0x05", PendingTransactionStatus.Pending)
+        assertThat(executedStatuses).containsExactly("0x05", PendingTransactionStatus.Executed)
+        assertThat(requestedTransactions).hasSize(2)
+        assertThat(pendingTransactions).isEmpty()
+    }
+
+    @Test
+    fun `GIVEN several pending transactions WHEN check THEN they are requested concurrently`() = runTest {
+        val provider = createProvider { MINUTE_MILLIS }
+        repeat(TRANSACTIONS_COUNT) { addPendingTransaction(id = "0x0$it", sentAt = 0L) }
+
+        val statuses = provider.checkPendingTransactions()
+
+        assertThat(statuses).hasSize(TRANSACTIONS_COUNT)
+        assertThat(requestedTransactions).hasSize(TRANSACTIONS_COUNT)
+        assertThat(currentTime).isLessThan(TRANSACTIONS_COUNT * LATENCY_MILLIS)
+    }
+
+    @Test
+    fun `GIVEN pending transaction WHEN observe status changes THEN emits its execution and completes`() = runTest {
+        val provider = createProvider { currentTime }
+        addPendingTransaction(id = "0x07", sentAt = 0L)
+        accountNonce = 7L
+        backgroundScope.launchExecution(id = "0x07", afterMillis = 20 * SECOND_MILLIS)
+
+        val changes = provider.observeStatusChanges().toList()
+
+        assertThat(changes).containsExactly(mapOf("0x07" to PendingTransactionStatus.Executed))
+        assertThat(pendingTransactions).isEmpty()
+    }
+
+    private fun CoroutineScope.launchExecution(id: String, afterMillis: Long) {
+        launch {
+            delay(afterMillis)
+            executedTransactions += id
+            accountNonce++
+        }
+    }
+
+    private fun createProvider(clock: () -> Long): EthereumPendingTransactionsProvider {
+        return EthereumPendingTransactionsProvider(
+            wallet = wallet,
+            multiJsonRpcProvider = MultiNetworkProvider(
+                providers = listOf(jsonRpcProvider),
+                blockchain = Blockchain.Ethereum,
+                healthTracker = null,
+            ),
+            storage = storage,
+            networkProviderMap = emptyMap(),
+            clock = clock,
+        )
+    }
+
+    private fun addPendingTransaction(id: String, sentAt: Long) {
+        pendingTransactions += PendingTransaction(
+            transactionId = id,
+            blockchain = Blockchain.Ethereum.id,
+            sentAt = sentAt,
+        )
+    }
+
+    private fun response(result: Any?) = JsonRPCResponse(id = "1", jsonRpc = "2.0", result = result, error = null)
+
+    private fun transactionJson(hash: String, isExecuted: Boolean): Map<String, Any?> = mapOf(
+        "blockHash" to if (isExecuted) "0xb1" else null,
+        "blockNumber" to if (isExecuted) "0x10" else null,
+        "from" to ADDRESS,
+        "gas" to "0x5208",
+        "gasPrice" to "0x1",
+        "hash" to hash,
+        "input" to "0x",
+        "nonce" to hash,
+        "to" to ADDRESS,
+        "transactionIndex" to null,
+        "value" to "0x0",
+        "v" to null,
+        "r" to null,
+        "s" to null,
+    )
+
+    private companion object {
+        const val ADDRESS = "0x52908400098527886E0F7030069857D2E4169EE7"
+        const val TRANSACTIONS_COUNT = 5
+        const val LATENCY_MILLIS = 100L
+        const val SECOND_MILLIS = 1_000L
+        const val MINUTE_MILLIS = 60 * SECOND_MILLIS
+    }
+}
@@ -0,0 +1,151 @@
+package com.tangem.blockchain.transactionhistory
+
+import com.google.common.truth.Truth.assertThat
+import com.tangem.blockchain.common.Amount
+import com.tangem.blockchain.common.Blockchain
+import com.tangem.blockchain.common.pagination.Page
+import com.tangem.blockchain.common.pagination.PaginationWrapper
+import com.tangem.blockchain.extensions.Result
+import com.tangem.blockchain.transactionhistory.models.TransactionHistoryItem
+import com.tangem.blockchain.transactionhistory.models.TransactionHistoryRequest
+import kotlinx.coroutines.test.runTest
+import org.junit.Test
+
+internal class IncrementalTransactionHistoryProviderTest {
+
+    private val origin = FakeTransactionHistoryProvider()
+    private val provider = IncrementalTransactionHistoryProvider(origin)
+
+    @Test
+    fun `GIVEN loaded history WHEN refresh with one new transaction THEN only the newest page is requested`() =
+        runTest {
+            origin.transactions += List(TRANSACTIONS_COUNT) { transaction(hash = "0x$it") }
+            provider.getTransactionsHistory(request(Page.Initial)) as Result.Success
+            origin.transactions.add(0, transaction(hash = "0xnew"))
+
+            val refreshed = (provider.getTransactionsHistory(request(Page.Initial)) as Result.Success).data
+
+            assertThat(origin.historyRequestsCount).isEqualTo(2)
+            assertThat(refreshed.items.map { it.txHash }).containsExactly("0xnew", "0x0", "0x1", "0x2", "0x3").inOrder()
+        }
+
+    @Test
+    fun `GIVEN loaded pages WHEN refresh and load next page THEN next page is served from cache`() = runTest {
+        origin.transactions += List(TRANSACTIONS_COUNT) { transaction(hash = "0x$it") }
+        val first = (provider.getTransactionsHistory(request(Page.Initial)) as Result.Success).data
+        provider.getTransactionsHistory(request(first.nextPage)) as Result.Success
+        val requestsCountBeforeRefresh = origin.historyRequestsCount
+
+        val refreshed = (provider.getTransactionsHistory(request(Page.Initial)) as Result.Success).data
+        val next = (provider.getTransactionsHistory(request(refreshed.nextPage)) as Result.Success).data
+
+        assertThat(origin.historyRequestsCount - requestsCountBeforeRefresh).isEqualTo(1)
+        assertThat(next.items.map { it.txHash }).containsExactly("0x5", "0x6", "0x7", "0x8", "0x9").inOrder()
+        assertThat(next.nextPage).isEqualTo(Page.LastPage)
+    }
+
+    @Test
+    fun `GIVEN loaded history WHEN new transaction appears THEN state has count of origin`() = runTest {
+        origin.transactions += List(TRANSACTIONS_COUNT) { transaction(hash = "0x$it") }
+        provider.getTransactionHistoryState(ADDRESS, TransactionHistoryRequest.FilterType.Coin)
+        provider.getTransactionsHistory(request(Page.Initial)) as Result.Success
+        origin.transactions.add(0, transaction(hash = "0xnew"))
+
+        val state = provider.getTransactionHistoryState(ADDRESS, TransactionHistoryRequest.FilterType.Coin)
+
+        assertThat(state).isEqualTo(TransactionHistoryState.Success.HasTransactions(TRANSACTIONS_COUNT + 1))
+        assertThat(origin.stateRequestsCount).isEqualTo(2)
+    }
+
+    @Test
+    fun `GIVEN unconfirmed transaction below confirmed WHEN it is confirmed THEN refresh returns new status`() =
+        runTest {
+            val unconfirmed = TransactionHistoryItem.TransactionStatus.Unconfirmed
+            origin.transactions += transaction(hash = "0xnew")
+            origin.transactions += transaction(hash = "0xa", status = unconfirmed)
+            origin.transactions += List(TRANSACTIONS_COUNT) { transaction(hash = "0x$it") }
+            provider.getTransactionsHistory(request(Page.Initial)) as Result.Success
+            origin.transactions[1] = transaction(hash = "0xa")
+
+            val refreshed = (provider.getTransactionsHistory(request(Page.Initial)) as Result.Success).data
+
+            assertThat(refreshed.items[1]).isEqualTo(transaction(hash = "0xa"))
+            assertThat(refreshed.items.map { it.txHash }).containsExactly("0xnew", "0xa", "0x0", "0x1", "0x2").inOrder()
+        }
+
+    @Test
+    fun `GIVEN unconfirmed transaction WHEN it is confirmed THEN refresh returns its new status`() = runTest {
+        origin.transactions += transaction(hash = "0xa", status = TransactionHistoryItem.TransactionStatus.Unconfirmed)
+        origin.transactions += List(TRANSACTIONS_COUNT) { transaction(hash = "0x$it") }
+        provider.getTransactionsHistory(request(Page.Initial)) as Result.Success
+        origin.transactions[0] = transaction(hash = "0xa")
+
+        val refreshed = (provider.getTransactionsHistory(request(Page.Initial)) as Result.Success).data
+
+        assertThat(refreshed.items.first()).isEqualTo(transaction(hash = "0xa"))
+        assertThat(refreshed.items.map { it.txHash }.distinct()).hasSize(PAGE_SIZE)
+    }
+
+    private fun request(page: Page) = TransactionHistoryRequest(
+        address = ADDRESS,
+        decimals = Blockchain.Ethereum.decimals(),
+        page = page,
+        pageSize = PAGE_SIZE,
+        filterType = TransactionHistoryRequest.FilterType.Coin,
+    )
+
+    private fun transaction(
+        hash: String,
+        status: TransactionHistoryItem.TransactionStatus = TransactionHistoryItem.TransactionStatus.Confirmed,
+    ) = TransactionHistoryItem(
+        txHash = hash,
+        timestamp = 0L,
+        isOutgoing = false,
+        destinationType = TransactionHistoryItem.DestinationType.Single(
+            addressType = TransactionHistoryItem.AddressType.User(ADDRESS),
+        ),
+        sourceType = TransactionHistoryItem.SourceType.Single(address = SENDER),
+        status = status,
+        type = TransactionHistoryItem.TransactionType.Transfer,
+        amount = Amount(Blockchain.Ethereum),
+        fee = Amount(Blockchain.Ethereum),
+    )
+
+    /** Serves [transactions] by pages with page numbers as cursors, newest first */
+    private class FakeTransactionHistoryProvider : TransactionHistoryProvider {
+
+        val transactions = mutableListOf<TransactionHistoryItem>()
+        var historyRequestsCount = 0
+        var stateRequestsCount = 0
+
+        override suspend fun getTransactionHistoryState(
+            address: String,
+            filterType: TransactionHistoryRequest.FilterType,
+        ): TransactionHistoryState {
+            stateRequestsCount++
+            return if (transactions.isEmpty()) {
+                TransactionHistoryState.Success.Empty
+            } else {
+                TransactionHistoryState.Success.HasTransactions(transactions.size)
+            }
+        }
+
+        override suspend fun getTransactionsHistory(
+            request: TransactionHistoryRequest,
+        ): Result<PaginationWrapper<TransactionHistoryItem>> {
+            historyRequestsCount++
+            val pageNumber = request.pageToLoad?.toInt() ?: 0
+            val items = transactions.drop(pageNumber * request.pageSize).take(request.pageSize)
+            val hasNext = (pageNumber + 1) * request.pageSize < transactions.size
+            val nextPage = if (hasNext) Page.Next((pageNumber + 1).toString()) else Page.LastPage
+            return Result.Success(PaginationWrapper(nextPage = nextPage, items = items))
+        }
+    }
+
+    private companion object {
+        const val ADDRESS = "0x52908400098527886E0F7030069857D2E4169EE7"
+        const val SENDER = "0x8617E340B3D01FA5F11F306F4090FD50E238070D"
+        const val PAGE_SIZE = 5
+        const val TRANSACTIONS_COUNT = 10
+    }
+}